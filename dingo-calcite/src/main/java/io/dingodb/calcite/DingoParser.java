@@ -59,16 +59,26 @@ import org.apache.calcite.config.Lex;
 import org.apache.calcite.plan.ConventionTraitDef;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptUtil;
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.plan.ViewExpanders;
+import org.apache.calcite.plan.hep.HepMatchOrder;
+import org.apache.calcite.plan.hep.HepPlanner;
+import org.apache.calcite.plan.hep.HepProgram;
+import org.apache.calcite.plan.hep.HepProgramBuilder;
 import org.apache.calcite.plan.volcano.AbstractConverter;
 import org.apache.calcite.plan.volcano.VolcanoPlanner;
 import org.apache.calcite.rel.RelCollationTraitDef;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelRoot;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.TableFunctionScan;
 import org.apache.calcite.rel.hint.HintPredicate;
 import org.apache.calcite.rel.hint.HintStrategyTable;
 import org.apache.calcite.rel.metadata.ChainedRelMetadataProvider;
+import org.apache.calcite.rel.rules.CoreRules;
+import org.apache.calcite.rel.rules.MultiJoin;
 import org.apache.calcite.rex.RexBuilder;
 import org.apache.calcite.runtime.Hook;
 import org.apache.calcite.sql.SqlKind;
@@ -85,6 +95,7 @@ import org.apache.calcite.util.Holder;
 import org.apache.calcite.util.Pair;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.File;
 import java.sql.Connection;
@@ -92,6 +103,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static io.dingodb.calcite.rule.DingoRules.DINGO_AGGREGATE_REDUCE_RULE;
@@ -302,10 +314,61 @@ public class DingoParser {
         final Program program = Programs.ofRules(builder.build());
         // Seems the only way to prevent rex simplifying in optimization.
         try (Hook.Closeable ignored = Hook.REL_BUILDER_SIMPLIFY.addThread((Holder<Boolean> h) -> h.set(false))) {
-            return program.run(planner, relNode, traitSet, ImmutableList.of(), ImmutableList.of());
+            return program.run(planner, reorderJoins(relNode), traitSet, ImmutableList.of(), ImmutableList.of());
         }
     }
 
+    /**
+     * Reorder the joins of three or more inputs by {@link org.apache.calcite.rel.rules.LoptOptimizeJoinRule}, which
+     * estimates the size of each join by the row count and distinct count from the stats. The volcano planner does
+     * not explore join orders, so the order written in the sql would be kept otherwise.
+     *
+     * @param relNode the input {@link RelNode}
+     * @return the {@link RelNode} with joins reordered, or the input if the joins cannot be reordered
+     */
+    static RelNode reorderJoins(RelNode relNode) {
+        if (!canReorderJoins(relNode)) {
+            return relNode;
+        }
+        HepProgram program = new HepProgramBuilder()
+            .addMatchOrder(HepMatchOrder.BOTTOM_UP)
+            .addRuleInstance(CoreRules.JOIN_TO_MULTI_JOIN)
+            .addRuleInstance(CoreRules.MULTI_JOIN_OPTIMIZE)
+            .build();
+        HepPlanner hepPlanner = new HepPlanner(program);
+        hepPlanner.setRoot(relNode);
+        RelNode result = hepPlanner.findBestExp();
+        // A multi-join left in the tree cannot be implemented.
+        return contains(result, MultiJoin.class) ? relNode : result;
+    }
+
+    private static boolean canReorderJoins(RelNode relNode) {
+        // Vector searches are joined by the rules in the written order, and semi/anti joins are not supported.
+        if (RelOptUtil.countJoins(relNode) < 2 || contains(relNode, TableFunctionScan.class)) {
+            return false;
+        }
+        return !contains(relNode, Join.class, join -> !join.getJoinType().projectsRight());
+    }
+
+    private static boolean contains(RelNode relNode, Class<? extends RelNode> clazz) {
+        return contains(relNode, clazz, rel -> true);
+    }
+
+    private static <T extends RelNode> boolean contains(RelNode relNode, Class<T> clazz, Predicate<T> predicate) {
+        boolean[] found = {false};
+        new RelVisitor() {
+            @Override
+            public void visit(RelNode node, int ordinal, @Nullable RelNode parent) {
+                if (clazz.isInstance(node) && predicate.test(clazz.cast(node))) {
+                    found[0] = true;
+                    return;
+                }
+                super.visit(node, ordinal, parent);
+            }
+        }.go(relNode);
+        return found[0];
+    }
+
     protected static boolean compatibleMysql(SqlNode sqlNode, PlanProfile planProfile) {
         if (sqlNode instanceof SqlShow || sqlNode instanceof SqlNextAutoIncrement) {
             planProfile.setStmtType("show");
@@ -16,7 +16,7 @@
 
 package io.dingodb.calcite.meta;
 
-import io.dingodb.calcite.rel.DingoTableScan;
+import io.dingodb.calcite.rel.LogicalDingoTableScan;
 import org.apache.calcite.rel.core.TableScan;
 import org.apache.calcite.rel.metadata.BuiltInMetadata;
 import org.apache.calcite.rel.metadata.MetadataDef;
@@ -26,6 +26,7 @@ import org.apache.calcite.rel.metadata.RelMetadataProvider;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.calcite.util.ImmutableBitSet;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class DingoRelMdColumnUniqueness implements MetadataHandler<BuiltInMetadata.ColumnUniqueness> {
     public static final RelMetadataProvider SOURCE = ReflectiveRelMetadataProvider.reflectiveSource(
@@ -42,20 +43,25 @@ public class DingoRelMdColumnUniqueness implements MetadataHandler<BuiltInMetada
     }
 
     /**
-     * This method is overridden to call {@link DingoTableScan#isKey(ImmutableBitSet)}. The default implementation
-     * {@link org.apache.calcite.rel.metadata.RelMdColumnUniqueness#areColumnsUnique(TableScan, RelMetadataQuery,
-     * ImmutableBitSet, boolean)} calls {@link org.apache.calcite.plan.RelOptTable#isKey(ImmutableBitSet)} directly,
+     * This method is overridden to call {@link LogicalDingoTableScan#isKey(ImmutableBitSet)}. The default
+     * implementation {@link org.apache.calcite.rel.metadata.RelMdColumnUniqueness#areColumnsUnique(TableScan,
+     * RelMetadataQuery, ImmutableBitSet, boolean)} calls {@link org.apache.calcite.plan.RelOptTable#isKey(ImmutableBitSet)} directly,
      * which is not right if the table scan can do projection.
      * <p>
-     * The column uniqueness is vital for calculating cost of `RelNodes` like `Aggregate`.
+     * The column uniqueness is vital for calculating cost of `RelNodes` like `Aggregate`. It is never derived from
+     * the stats, which are estimations and may be stale, for rules may drop an aggregate on unique columns.
      */
     @SuppressWarnings({"unused", "MethodMayBeStatic"})
-    public Boolean areColumnsUnique(
-        @NonNull DingoTableScan rel,
+    public @Nullable Boolean areColumnsUnique(
+        @NonNull LogicalDingoTableScan rel,
         RelMetadataQuery mq,
         ImmutableBitSet columns,
         boolean ignoreNulls
     ) {
+        if (rel.getAggCalls() != null) {
+            // The output columns are the groups and the aggregations, not the columns of the table.
+            return null;
+        }
         return rel.isKey(columns);
     }
 }
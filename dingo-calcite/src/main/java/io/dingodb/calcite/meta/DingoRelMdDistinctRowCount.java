@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.meta;
+
+import io.dingodb.calcite.rel.LogicalDingoTableScan;
+import io.dingodb.calcite.stats.StatsCache;
+import org.apache.calcite.plan.hep.HepRelVertex;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.metadata.ReflectiveRelMetadataProvider;
+import org.apache.calcite.rel.metadata.RelMdDistinctRowCount;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rel.metadata.RelMetadataProvider;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataTypeField;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.util.BuiltInMethod;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+
+public class DingoRelMdDistinctRowCount extends RelMdDistinctRowCount {
+    public static final RelMetadataProvider SOURCE =
+        ReflectiveRelMetadataProvider.reflectiveSource(
+            BuiltInMethod.DISTINCT_ROW_COUNT.method, new DingoRelMdDistinctRowCount());
+
+    /**
+     * Distinct values of the scanned columns by the ndv collected by analyzing the table, assuming the columns are
+     * independent. The ndv is of all the rows of the table, so it is reduced to the expected distinct values only if
+     * some rows are filtered out by the filter or the predicate.
+     */
+    public @Nullable Double getDistinctRowCount(
+        LogicalDingoTableScan rel,
+        RelMetadataQuery mq,
+        ImmutableBitSet groupKey,
+        @Nullable RexNode predicate
+    ) {
+        if (rel.getAggCalls() == null && !groupKey.isEmpty()) {
+            Double ndv = getColumnsNdv(rel, groupKey);
+            if (ndv != null) {
+                double rowCount = mq.getRowCount(rel);
+                if (predicate != null && !predicate.isAlwaysTrue()) {
+                    Double selectivity = mq.getSelectivity(rel, predicate);
+                    rowCount *= selectivity == null ? RelMdUtil.guessSelectivity(predicate) : selectivity;
+                }
+                if (rowCount >= StatsCache.getTableRowCount(rel)) {
+                    return Math.min(ndv, rowCount);
+                }
+                return RelMdUtil.numDistinctVals(ndv, rowCount);
+            }
+        }
+        return super.getDistinctRowCount((RelNode) rel, mq, groupKey, predicate);
+    }
+
+    /**
+     * Look through the vertices of {@link org.apache.calcite.plan.hep.HepPlanner}, so that the stats are available
+     * when reordering joins.
+     */
+    public @Nullable Double getDistinctRowCount(
+        HepRelVertex rel,
+        RelMetadataQuery mq,
+        ImmutableBitSet groupKey,
+        @Nullable RexNode predicate
+    ) {
+        return mq.getDistinctRowCount(rel.getCurrentRel(), groupKey, predicate);
+    }
+
+    private static @Nullable Double getColumnsNdv(LogicalDingoTableScan rel, ImmutableBitSet groupKey) {
+        List<RelDataTypeField> fields = rel.getTableType().getFieldList();
+        double ndv = 1;
+        for (int i : groupKey) {
+            int column = rel.getRealSelection() == null ? i : rel.getRealSelection().get(i);
+            if (column >= fields.size()) {
+                return null;
+            }
+            Double columnNdv = StatsCache.getColumnNdv(rel.getTable(), fields.get(column).getName());
+            if (columnNdv == null) {
+                return null;
+            }
+            ndv *= columnNdv;
+        }
+        return ndv;
+    }
+}
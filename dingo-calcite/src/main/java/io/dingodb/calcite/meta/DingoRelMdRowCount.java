@@ -19,12 +19,16 @@ package io.dingodb.calcite.meta;
 import io.dingodb.calcite.rel.LogicalDingoTableScan;
 import io.dingodb.calcite.stats.StatsCache;
 import org.apache.calcite.rel.SingleRel;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinInfo;
 import org.apache.calcite.rel.metadata.BuiltInMetadata;
 import org.apache.calcite.rel.metadata.MetadataDef;
 import org.apache.calcite.rel.metadata.MetadataHandler;
+import org.apache.calcite.rel.metadata.RelMdUtil;
 import org.apache.calcite.rel.metadata.ReflectiveRelMetadataProvider;
 import org.apache.calcite.rel.metadata.RelMetadataProvider;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.util.ImmutableBitSet;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 public class DingoRelMdRowCount implements MetadataHandler<BuiltInMetadata.RowCount> {
@@ -55,4 +59,50 @@ public class DingoRelMdRowCount implements MetadataHandler<BuiltInMetadata.RowCo
         double rowCount = rel.estimateRowCount(mq);
         return rowCount;
     }
+
+    /**
+     * Each equal condition of the keys {@code l = r} keeps {@code 1 / max(ndv(l), ndv(r))} of the cross product,
+     * using the distinct counts from the stats. The default estimation of
+     * {@link RelMdUtil#getJoinRowCount(RelMetadataQuery, Join, org.apache.calcite.rex.RexNode)} is used if the
+     * distinct counts are unknown.
+     */
+    @SuppressWarnings({"unused", "MethodMayBeStatic"})
+    public Double getRowCount(@NonNull Join rel, @NonNull RelMetadataQuery mq) {
+        JoinInfo joinInfo = rel.analyzeCondition();
+        if (!rel.getJoinType().projectsRight() || joinInfo.leftKeys.isEmpty()) {
+            return RelMdUtil.getJoinRowCount(mq, rel, rel.getCondition());
+        }
+        Double leftRowCount = mq.getRowCount(rel.getLeft());
+        Double rightRowCount = mq.getRowCount(rel.getRight());
+        if (leftRowCount == null || rightRowCount == null) {
+            return RelMdUtil.getJoinRowCount(mq, rel, rel.getCondition());
+        }
+        double selectivity = 1.0;
+        for (int i = 0; i < joinInfo.leftKeys.size(); i++) {
+            Double leftNdv = mq.getDistinctRowCount(
+                rel.getLeft(), ImmutableBitSet.of(joinInfo.leftKeys.get(i)), null
+            );
+            Double rightNdv = mq.getDistinctRowCount(
+                rel.getRight(), ImmutableBitSet.of(joinInfo.rightKeys.get(i)), null
+            );
+            if (leftNdv == null || rightNdv == null) {
+                return RelMdUtil.getJoinRowCount(mq, rel, rel.getCondition());
+            }
+            selectivity /= Math.max(1.0, Math.max(leftNdv, rightNdv));
+        }
+        if (!joinInfo.isEqui()) {
+            selectivity *= RelMdUtil.guessSelectivity(joinInfo.getRemaining(rel.getCluster().getRexBuilder()));
+        }
+        double rowCount = leftRowCount * rightRowCount * selectivity;
+        switch (rel.getJoinType()) {
+            case LEFT:
+                return Math.max(rowCount, leftRowCount);
+            case RIGHT:
+                return Math.max(rowCount, rightRowCount);
+            case FULL:
+                return Math.max(rowCount, Math.max(leftRowCount, rightRowCount));
+            default:
+                return Math.max(rowCount, 1.0);
+        }
+    }
 }
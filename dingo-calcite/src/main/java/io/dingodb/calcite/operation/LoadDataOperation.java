@@ -258,6 +258,7 @@ public class LoadDataOperation implements DmlOperation {
         }
         List<Object[]> objects = new ArrayList<>();
         objects.add(new Object[] {insertCount});
+        StmtSummaryMap.addModifyRows(schemaName, table.name, insertCount);
         StmtSummaryMap.addAnalyzeEvent(schemaName, table.name, insertCount);
         return objects.iterator();
     }
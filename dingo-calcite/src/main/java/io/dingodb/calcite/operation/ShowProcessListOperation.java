@@ -59,7 +59,7 @@ public class ShowProcessListOperation extends QueryOperation {
             processInfo.getClient(),
             processInfo.getDb(),
             processInfo.getCommand(), processInfo.getTime(), processInfo.getState(), processInfo.getInfo(),
-            processInfo.getType(), processInfo.getTxnIdStr()
+            processInfo.getType(), processInfo.getTxnIdStr(), String.valueOf(processInfo.getMemory())
         }).collect(Collectors.toList());
         return tupleList.iterator();
     }
@@ -76,6 +76,7 @@ public class ShowProcessListOperation extends QueryOperation {
         columns.add("Info");
         columns.add("Type");
         columns.add("TXN");
+        columns.add("Memory");
         return columns;
     }
 }
@@ -55,6 +55,8 @@ public final class VariableValidator {
             || name.equalsIgnoreCase("transaction_read_only")
             || name.equalsIgnoreCase("txn_inert_check")
             || name.equalsIgnoreCase("txn_retry")
+            || name.equalsIgnoreCase("txn_one_pc")
+            || name.equalsIgnoreCase("txn_async_commit")
             || name.equalsIgnoreCase("sql_profile_enable")
             || name.equalsIgnoreCase("slow_query_enable")
             || name.equalsIgnoreCase("metric_log_enable")
@@ -82,10 +84,17 @@ public final class VariableValidator {
             || name.equalsIgnoreCase("txn_retry_cnt")
             || name.equalsIgnoreCase("max_execution_time")
             || name.equalsIgnoreCase("rpc_batch_size")
+            || name.equalsIgnoreCase("query_memory_limit")
+            || name.equalsIgnoreCase("executor_memory_limit")
+            || name.equalsIgnoreCase("result_prefetch_bytes")
         ) {
             if (!value.matches("\\d+")) {
                 throw DINGO_RESOURCE.incorrectArgType(name).ex();
             }
+        } else if (name.equalsIgnoreCase("query_priority")) {
+            if (!value.matches("-?\\d+")) {
+                throw DINGO_RESOURCE.incorrectArgType(name).ex();
+            }
         }
 
         if ("SYSTEM".equals(scope)) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.rel;
+
+import io.dingodb.calcite.type.converter.DefinitionMapper;
+import io.dingodb.calcite.utils.CalcValueUtils;
+import io.dingodb.common.type.DingoType;
+import io.dingodb.expr.runtime.ExprConfig;
+import lombok.Getter;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelShuttleImpl;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexDynamicParam;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bind the parameter sets of a batch to the projects over values, so that all the rows of the batch flow through one
+ * job. Check {@link #isBound()} after the shuttle, the plan must not be used if any parameter is read by other
+ * operators, or if some values do not depend on the parameters and would be inserted only once.
+ */
+public class BatchValuesShuttle extends RelShuttleImpl {
+    private final RelDataType parasType;
+    private final List<Object[]> parasList;
+    private final ExprConfig config;
+    // Rows produced by one parameter set.
+    @Getter
+    private int rowCount = 0;
+    private boolean unbound = false;
+
+    public BatchValuesShuttle(RelDataType parasType, List<Object[]> parasList, ExprConfig config) {
+        this.parasType = parasType;
+        this.parasList = parasList;
+        this.config = config;
+    }
+
+    public boolean isBound() {
+        return rowCount > 0 && !unbound;
+    }
+
+    @Override
+    public RelNode visit(RelNode other) {
+        if (other instanceof DingoProject && other.getInput(0) instanceof DingoValues) {
+            return bind((DingoProject) other, (DingoValues) other.getInput(0));
+        }
+        if (other instanceof DingoValues) {
+            // Not depending on the parameters, the rows would not be repeated for each parameter set.
+            unbound = true;
+            return other;
+        }
+        RelNode rel = super.visit(other);
+        rel.accept(new RexShuttle() {
+            @Override
+            public RexNode visitDynamicParam(RexDynamicParam dynamicParam) {
+                unbound = true;
+                return dynamicParam;
+            }
+        });
+        return rel;
+    }
+
+    private DingoValues bind(DingoProject project, DingoValues values) {
+        int width = values.getRowType().getFieldCount();
+        // Parameters are appended to the values tuple and read as input fields.
+        List<RexNode> projects = new RexShuttle() {
+            @Override
+            public RexNode visitDynamicParam(RexDynamicParam dynamicParam) {
+                return new RexInputRef(width + dynamicParam.getIndex(), dynamicParam.getType());
+            }
+        }.apply(project.getProjects());
+        DingoType tupleType = DefinitionMapper.mapToDingoType(
+            project.getCluster().getTypeFactory().createJoinType(values.getRowType(), parasType)
+        );
+        DingoType rowType = DefinitionMapper.mapToDingoType(project.getRowType());
+        List<Object[]> rows = values.getTuples();
+        List<Object[]> tuples = new ArrayList<>(parasList.size() * rows.size());
+        // In the order of the parameter sets, as if executed one by one.
+        for (Object[] paras : parasList) {
+            for (Object[] row : rows) {
+                Object[] tuple = new Object[width + paras.length];
+                System.arraycopy(row, 0, tuple, 0, width);
+                System.arraycopy(paras, 0, tuple, width, paras.length);
+                tuples.add(CalcValueUtils.calcValues(projects, rowType, tuple, tupleType, config));
+            }
+        }
+        rowCount += rows.size();
+        return new DingoValues(values.getCluster(), values.getTraitSet(), project.getRowType(), tuples);
+    }
+}
@@ -16,13 +16,18 @@
 
 package io.dingodb.calcite.rel;
 
+import io.dingodb.calcite.DingoTable;
 import io.dingodb.calcite.visitor.DingoRelVisitor;
+import io.dingodb.common.type.TupleMapping;
+import io.dingodb.meta.entity.Table;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.Aggregate;
 import org.apache.calcite.rel.core.AggregateCall;
 import org.apache.calcite.rel.hint.RelHint;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.type.SqlTypeFamily;
 import org.apache.calcite.util.ImmutableBitSet;
@@ -30,6 +35,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.List;
+import java.util.Objects;
 
 public final class DingoAggregate extends Aggregate implements DingoRel {
     public DingoAggregate(
@@ -67,6 +73,50 @@ public final class DingoAggregate extends Aggregate implements DingoRel {
         return new DingoAggregate(getCluster(), traitSet, getHints(), input, groupSet, groupSets, aggCalls);
     }
 
+    /**
+     * Whether the input is read in the order of the group keys, which are the leading primary columns of the scanned
+     * table, so that the groups can be aggregated one by one. Only a partial aggregation is streamed, for its groups
+     * are merged again by {@link DingoReduce} even if some rows of a group are not adjacent.
+     */
+    public boolean isInputSortedByGroup() {
+        if (getStreaming().isRoot() || groupSet.isEmpty()) {
+            return false;
+        }
+        return isPrimaryPrefix(getInput(), groupSet);
+    }
+
+    private static boolean isPrimaryPrefix(RelNode input, ImmutableBitSet columns) {
+        if (input instanceof DingoProject) {
+            List<RexNode> projects = ((DingoProject) input).getProjects();
+            ImmutableBitSet.Builder builder = ImmutableBitSet.builder();
+            for (int i : columns) {
+                if (!(projects.get(i) instanceof RexInputRef)) {
+                    return false;
+                }
+                builder.set(((RexInputRef) projects.get(i)).getIndex());
+            }
+            return isPrimaryPrefix(((DingoProject) input).getInput(), builder.build());
+        }
+        if (!(input instanceof DingoTableScan) || ((DingoTableScan) input).getAggCalls() != null) {
+            return false;
+        }
+        DingoTableScan scan = (DingoTableScan) input;
+        Table table = Objects.requireNonNull(scan.getTable().unwrap(DingoTable.class)).getTable();
+        TupleMapping selection = scan.getRealSelection();
+        int count = columns.cardinality();
+        for (int i : columns) {
+            int column = selection == null ? i : selection.get(i);
+            if (column >= table.getColumns().size()) {
+                return false;
+            }
+            int primaryKeyIndex = table.getColumns().get(column).primaryKeyIndex;
+            if (primaryKeyIndex < 0 || primaryKeyIndex >= count) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public <T> T accept(@NonNull DingoRelVisitor<T> visitor) {
         return visitor.visit(this);
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.rel;
+
+import io.dingodb.calcite.DingoTable;
+import io.dingodb.calcite.stats.StatsCache;
+import io.dingodb.calcite.stats.StatsNormal;
+import io.dingodb.calcite.stats.TableStats;
+import io.dingodb.calcite.utils.RelDataTypeUtils;
+import io.dingodb.calcite.visitor.DingoRelVisitor;
+import io.dingodb.common.type.TupleMapping;
+import io.dingodb.meta.entity.Table;
+import lombok.Getter;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptCost;
+import org.apache.calcite.plan.RelOptPlanner;
+import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.hint.RelHint;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataType;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+
+import static io.dingodb.calcite.meta.DingoCostModelV1.getAvgRowSize;
+import static io.dingodb.calcite.meta.DingoCostModelV1.getNetCost;
+import static io.dingodb.calcite.meta.DingoCostModelV1.scanConcurrency;
+import static io.dingodb.calcite.meta.DingoCostModelV1.scanFactor;
+
+/**
+ * Scan the first row of every distinct prefix of {@code prefixCount} primary key columns by seeking, for the
+ * distinct values of the prefix and the minimum of the next key column.
+ */
+public class DingoLooseScan extends TableScan implements DingoRel {
+    @Getter
+    private final TupleMapping selection;
+    @Getter
+    private final int prefixCount;
+
+    public DingoLooseScan(
+        RelOptCluster cluster,
+        RelTraitSet traitSet,
+        List<RelHint> hints,
+        RelOptTable table,
+        @NonNull TupleMapping selection,
+        int prefixCount
+    ) {
+        super(cluster, traitSet, hints, table);
+        this.selection = selection;
+        this.prefixCount = prefixCount;
+    }
+
+    @Override
+    public RelDataType deriveRowType() {
+        return RelDataTypeUtils.mapType(getCluster().getTypeFactory(), table.getRowType(), selection);
+    }
+
+    // Every region is seeked, so a prefix spanning regions is read once by each of them.
+    private int regionCount() {
+        DingoTable dingoTable = Objects.requireNonNull(table.unwrap(DingoTable.class));
+        List<?> partitions = dingoTable.getTable().getPartitions();
+        return partitions == null ? 1 : Math.max(1, partitions.size());
+    }
+
+    /**
+     * Number of the rows read, one for every distinct prefix in every region, by the ndv of the prefix columns if the
+     * table is analyzed.
+     */
+    @Override
+    public double estimateRowCount(RelMetadataQuery mq) {
+        double rowCount = StatsCache.getTableRowCount(table);
+        int regionCount = regionCount();
+        if (prefixCount == 0) {
+            return Math.min(regionCount, rowCount);
+        }
+        DingoTable dingoTable = Objects.requireNonNull(table.unwrap(DingoTable.class));
+        TableStats tableStats = StatsCache.getStatistic(dingoTable.getNames().get(1), dingoTable.getTable().getName());
+        if (tableStats == null) {
+            return rowCount;
+        }
+        Table td = dingoTable.getTable();
+        double count = 1;
+        for (int i = 0; i < prefixCount; i++) {
+            String name = td.getColumns().get(td.keyMapping().get(i)).getName();
+            StatsNormal stats = tableStats.getStatsNormalList().stream()
+                .filter(s -> name.equals(s.getColumnName()))
+                .findFirst()
+                .orElse(null);
+            if (stats == null || stats.getNdv() == null || stats.getNdv() <= 0) {
+                return rowCount;
+            }
+            count *= stats.getNdv();
+        }
+        return Math.max(1, Math.min(count + regionCount - 1, rowCount));
+    }
+
+    /**
+     * Every seek fetches one row, like a point lookup. A region is seeked once more than its rows to find its end.
+     */
+    @Override
+    public @Nullable RelOptCost computeSelfCost(@NonNull RelOptPlanner planner, @NonNull RelMetadataQuery mq) {
+        DingoTable dingoTable = Objects.requireNonNull(table.unwrap(DingoTable.class));
+        double rowSize = getAvgRowSize(
+            dingoTable.getTable().getColumns(), dingoTable.getTable(), dingoTable.getNames().get(1)
+        );
+        double rowCount = estimateRowCount(mq);
+        double seekCount = rowCount + regionCount();
+        double seekCost = seekCount * (Math.log(rowSize) / Math.log(2)) * scanFactor;
+        return DingoCost.FACTORY.makeCost((seekCost + getNetCost(rowCount, rowSize)) / scanConcurrency, 0, 0);
+    }
+
+    @Override
+    public @NonNull RelWriter explainTerms(@NonNull RelWriter pw) {
+        super.explainTerms(pw);
+        pw.item("selection", selection);
+        pw.item("prefixCount", prefixCount);
+        return pw;
+    }
+
+    @Override
+    public <T> T accept(@NonNull DingoRelVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.rule;
+
+import io.dingodb.calcite.DingoTable;
+import io.dingodb.calcite.rel.DingoLooseScan;
+import io.dingodb.calcite.rel.LogicalDingoTableScan;
+import io.dingodb.calcite.traits.DingoConvention;
+import io.dingodb.calcite.traits.DingoRelStreaming;
+import io.dingodb.common.type.TupleMapping;
+import io.dingodb.meta.entity.Table;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelRule;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.plan.volcano.RelSubset;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rel.logical.LogicalAggregate;
+import org.apache.calcite.rel.logical.LogicalProject;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeFamily;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.immutables.value.Value;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read one row for every group if the groups are a prefix of the primary key, and the aggregations are only the
+ * minimum of the next key column. For example, {@code select distinct a from t} and
+ * {@code select a, min(b) from t group by a} on a table of primary key {@code (a, b, c)}.
+ *
+ * <p>The max is not supported, for the store cannot scan backward.
+ */
+@Value.Enclosing
+public class DingoLooseScanRule extends RelRule<DingoLooseScanRule.Config> {
+    public DingoLooseScanRule(Config config) {
+        super(config);
+    }
+
+    public static boolean isCandidate(@NonNull LogicalAggregate aggregate) {
+        if (aggregate.getGroupType() != Aggregate.Group.SIMPLE) {
+            return false;
+        }
+        List<AggregateCall> aggCalls = aggregate.getAggCallList();
+        if (aggregate.getGroupCount() == 0 && aggCalls.isEmpty()) {
+            return false;
+        }
+        return aggCalls.stream().allMatch(agg -> agg.getAggregation().getKind() == SqlKind.MIN
+            && !agg.isDistinct()
+            && agg.filterArg < 0
+            && agg.getArgList().size() == 1
+            && aggregate.getInput().getRowType().getFieldList().get(agg.getArgList().get(0))
+                .getType().getSqlTypeName().getFamily() != SqlTypeFamily.CHARACTER
+        );
+    }
+
+    private static List<RelNode> candidates(RelNode input) {
+        if (input instanceof RelSubset) {
+            return ((RelSubset) input).getRelList();
+        }
+        return Collections.singletonList(input);
+    }
+
+    private static boolean isFullScan(RelNode rel) {
+        if (rel.getClass() != LogicalDingoTableScan.class) {
+            return false;
+        }
+        LogicalDingoTableScan scan = (LogicalDingoTableScan) rel;
+        return scan.getFilter() == null
+            && scan.getAggCalls() == null
+            && scan.getGroupSet() == null
+            && !scan.isForDml()
+            && !DingoTableScanRule.metaSchemaList.contains(scan.getTable().getQualifiedName().get(1));
+    }
+
+    // Table columns of the fields of the scan.
+    private static int[] columns(@NonNull LogicalDingoTableScan scan) {
+        int count = scan.getRowType().getFieldCount();
+        int[] columns = new int[count];
+        for (int i = 0; i < count; i++) {
+            columns[i] = scan.getRealSelection() == null ? i : scan.getRealSelection().get(i);
+        }
+        return columns;
+    }
+
+    private static @Nullable DingoLooseScan create(
+        @NonNull LogicalAggregate aggregate,
+        @NonNull LogicalDingoTableScan scan,
+        int @NonNull [] columns
+    ) {
+        Table td = scan.getTable().unwrap(DingoTable.class).getTable();
+        TupleMapping keyMapping = td.keyMapping();
+        int prefixCount = aggregate.getGroupCount();
+        if (prefixCount >= keyMapping.size()) {
+            return null;
+        }
+        Set<Integer> groupColumns = new HashSet<>();
+        aggregate.getGroupSet().forEach(i -> groupColumns.add(columns[i]));
+        for (int i = 0; i < prefixCount; i++) {
+            if (!groupColumns.contains(keyMapping.get(i))) {
+                return null;
+            }
+        }
+        for (AggregateCall agg : aggregate.getAggCallList()) {
+            if (columns[agg.getArgList().get(0)] != keyMapping.get(prefixCount)) {
+                return null;
+            }
+        }
+        RelTraitSet traits = scan.getTraitSet()
+            .replace(DingoConvention.INSTANCE)
+            .replace(DingoRelStreaming.of(scan.getTable()));
+        return new DingoLooseScan(
+            scan.getCluster(),
+            traits,
+            scan.getHints(),
+            scan.getTable(),
+            TupleMapping.of(columns),
+            prefixCount
+        );
+    }
+
+    /**
+     * The loose scan to read the input of the aggregate, {@code null} if the input is not a full scan of the table, or
+     * the groups and aggregations do not fit the primary key.
+     */
+    public static @Nullable DingoLooseScan looseScanOf(@NonNull LogicalAggregate aggregate) {
+        if (!isCandidate(aggregate)) {
+            return null;
+        }
+        for (RelNode input : candidates(aggregate.getInput())) {
+            DingoLooseScan looseScan = null;
+            if (isFullScan(input)) {
+                LogicalDingoTableScan scan = (LogicalDingoTableScan) input;
+                looseScan = create(aggregate, scan, columns(scan));
+            } else if (input instanceof LogicalProject) {
+                List<RexNode> projects = ((LogicalProject) input).getProjects();
+                if (!projects.stream().allMatch(p -> p instanceof RexInputRef)) {
+                    continue;
+                }
+                for (RelNode rel : candidates(((LogicalProject) input).getInput())) {
+                    if (isFullScan(rel)) {
+                        int[] scanColumns = columns((LogicalDingoTableScan) rel);
+                        int[] columns = projects.stream()
+                            .mapToInt(p -> scanColumns[((RexInputRef) p).getIndex()])
+                            .toArray();
+                        looseScan = create(aggregate, (LogicalDingoTableScan) rel, columns);
+                        break;
+                    }
+                }
+            }
+            if (looseScan != null) {
+                return looseScan;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void onMatch(@NonNull RelOptRuleCall call) {
+        final LogicalAggregate aggregate = call.rel(0);
+        DingoLooseScan looseScan = looseScanOf(aggregate);
+        if (looseScan != null) {
+            call.transformTo(aggregate.copy(aggregate.getTraitSet(), Collections.singletonList(looseScan)));
+        }
+    }
+
+    @Value.Immutable
+    public interface Config extends RelRule.Config {
+        Config DEFAULT = ImmutableDingoLooseScanRule.Config.builder()
+            .operandSupplier(b0 ->
+                b0.operand(LogicalAggregate.class).predicate(DingoLooseScanRule::isCandidate).anyInputs()
+            )
+            .description("DingoLooseScanRule")
+            .build();
+
+        @Override
+        default DingoLooseScanRule toRule() {
+            return new DingoLooseScanRule(this);
+        }
+    }
+}
@@ -37,6 +37,8 @@ public final class DingoRules {
         = DingoGetByIndexRule.DEFAULT.toRule(DingoGetByIndexRule.class);
     public static final DingoLikeRule DINGO_LIKE_RULE
         = DingoLikeRule.Config.DEFAULT.toRule();
+    public static final DingoLooseScanRule DINGO_LOOSE_SCAN_RULE
+        = DingoLooseScanRule.Config.DEFAULT.toRule();
     public static final DingoPartCountRule DINGO_PART_COUNT_RULE
         = DingoPartCountRule.Config.DEFAULT.toRule();
     public static final DingoPartDeleteRule DINGO_PART_DELETE_RULE
@@ -186,6 +188,7 @@ public final class DingoRules {
         DingoPhysicalRules.DINGO_TRANSPOSE_REL_OP_STREAMING_CONVERTER_RULE,
         DINGO_GET_BY_INDEX_RULE,
         DINGO_LIKE_RULE,
+        DINGO_LOOSE_SCAN_RULE,
         DINGO_PART_COUNT_RULE,
         DINGO_PART_DELETE_RULE,
         DINGO_PART_RANGE_DELETE_RULE,
@@ -19,6 +19,7 @@ package io.dingodb.calcite.rule.logical;
 import com.google.common.collect.ImmutableSet;
 import io.dingodb.calcite.rel.logical.LogicalReduceAggregate;
 import io.dingodb.calcite.rel.logical.LogicalRelOp;
+import io.dingodb.calcite.rule.DingoLooseScanRule;
 import io.dingodb.exec.expr.DingoCompileContext;
 import io.dingodb.expr.rel.RelOp;
 import io.dingodb.expr.rel.op.RelOpBuilder;
@@ -145,7 +146,11 @@ public class LogicalSplitAggregateRule extends RelRule<LogicalSplitAggregateRule
                 aggregate.getInput().getRowType()
             )
         );
-        call.getPlanner().prune(aggregate);
+        // The loose scan rule matches the aggregate not split, so it is kept only if the input can be read by a loose
+        // scan, leaving the cost to choose between the two plans. Other aggregates are pruned as before.
+        if (DingoLooseScanRule.looseScanOf(aggregate) == null) {
+            call.getPlanner().prune(aggregate);
+        }
     }
 
     @Value.Immutable
@@ -34,7 +34,9 @@ import java.sql.Timestamp;
 import java.util.Arrays;
 
 @NoArgsConstructor
-@JsonPropertyOrder({"max", "min", "width", "lstWidth", "buckets", "totalCount"})
+@JsonPropertyOrder({
+    "max", "min", "width", "lstWidth", "buckets", "bounds", "counts", "repeats", "topValues", "topCounts", "totalCount"
+})
 public class Histogram implements Cloneable, CalculateStatistic {
 
     @Getter
@@ -98,6 +100,40 @@ public class Histogram implements Cloneable, CalculateStatistic {
     @JsonProperty("nullCount")
     private long nullCount;
 
+    /**
+     * upper bound of each equi-depth bucket, the histogram is equi-width if it is null.
+     */
+    @JsonProperty("bounds")
+    private long[] bounds;
+
+    /**
+     * count of non-null values not greater than the upper bound of each bucket.
+     */
+    @JsonProperty("counts")
+    private long[] counts;
+
+    /**
+     * count of the upper bound value of each bucket.
+     */
+    @JsonProperty("repeats")
+    private long[] repeats;
+
+    /**
+     * the most frequent values and their counts.
+     */
+    @JsonProperty("topValues")
+    private long[] topValues;
+
+    @JsonProperty("topCounts")
+    private long[] topCounts;
+
+    @Setter
+    @JsonIgnore
+    private transient int sampleSize = Reservoir.DEFAULT_SIZE;
+
+    @JsonIgnore
+    private transient Reservoir sample;
+
     public Histogram(String schemaName,
                         String tableName,
                         String columnName,
@@ -156,7 +192,14 @@ public class Histogram implements Cloneable, CalculateStatistic {
             nullCount ++;
             return;
         }
-        Long value = getLongVal(val);
+        long value = getLongVal(val);
+        if (buckets == null) {
+            if (sample == null) {
+                sample = new Reservoir(sampleSize);
+            }
+            sample.add(value);
+            return;
+        }
         addLongValue(value);
     }
 
@@ -185,6 +228,7 @@ public class Histogram implements Cloneable, CalculateStatistic {
     public void merge(Histogram histogram) {
         this.totalCount += histogram.totalCount;
         this.nullCount += histogram.nullCount;
+        this.sample = Reservoir.merge(sample, histogram.sample);
         if (buckets == null) {
             return;
         }
@@ -193,6 +237,80 @@ public class Histogram implements Cloneable, CalculateStatistic {
         }
     }
 
+    /**
+     * Scale the counts of a histogram collected from sampled rows.
+     */
+    public void scale(double factor) {
+        totalCount = Math.round(totalCount * factor);
+        nullCount = Math.round(nullCount * factor);
+    }
+
+    /**
+     * Build the equi-depth buckets and the most frequent values from the sample. A value is never split between
+     * buckets, and the counts are scaled to the non-null values counted.
+     */
+    public void build(int bucketCount, int topN) {
+        if (sample == null || sample.getSize() == 0) {
+            return;
+        }
+        long[] values = sample.sortedValues();
+        sample = null;
+        double scale = (totalCount - nullCount) / (double) values.length;
+        min = values[0];
+        max = values[values.length - 1];
+        int depth = (values.length + bucketCount - 1) / bucketCount;
+        long[] upperBounds = new long[Math.min(bucketCount, values.length)];
+        long[] cumulativeCounts = new long[upperBounds.length];
+        long[] boundCounts = new long[upperBounds.length];
+        // Runs of equal values, for the most frequent values.
+        long[] runValues = new long[values.length];
+        int[] runLengths = new int[values.length];
+        int runs = 0;
+        int bucket = 0;
+        int bucketSize = 0;
+        int i = 0;
+        while (i < values.length) {
+            int j = i + 1;
+            while (j < values.length && values[j] == values[i]) {
+                ++j;
+            }
+            runValues[runs] = values[i];
+            runLengths[runs++] = j - i;
+            bucketSize += j - i;
+            if (bucketSize >= depth || j == values.length) {
+                upperBounds[bucket] = values[i];
+                cumulativeCounts[bucket] = Math.round(j * scale);
+                boundCounts[bucket] = Math.round((j - i) * scale);
+                ++bucket;
+                bucketSize = 0;
+            }
+            i = j;
+        }
+        this.bounds = Arrays.copyOf(upperBounds, bucket);
+        this.counts = Arrays.copyOf(cumulativeCounts, bucket);
+        this.repeats = Arrays.copyOf(boundCounts, bucket);
+        buildTopN(runValues, runLengths, runs, topN, scale);
+    }
+
+    private void buildTopN(long[] runValues, int[] runLengths, int runs, int topN, double scale) {
+        Integer[] order = new Integer[runs];
+        for (int i = 0; i < runs; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(runLengths[b], runLengths[a]));
+        int size = 0;
+        // A value sampled once tells nothing more than the buckets.
+        while (size < Math.min(topN, runs) && runLengths[order[size]] > 1) {
+            ++size;
+        }
+        topValues = new long[size];
+        topCounts = new long[size];
+        for (int i = 0; i < size; ++i) {
+            topValues[i] = runValues[order[i]];
+            topCounts[i] = Math.round(runLengths[order[i]] * scale);
+        }
+    }
+
     private void addLongValue(Long val) {
         if (min == null || max == null) {
             return;
@@ -211,6 +329,9 @@ public class Histogram implements Cloneable, CalculateStatistic {
 
     public double estimateSelectivity(SqlKind op, Object valObj) {
         Long val = getLongVal(valObj);
+        if (bounds != null) {
+            return estimateSelectivityEquiDepth(op, val);
+        }
         switch (op) {
             case EQUALS:
             case LIKE:
@@ -234,8 +355,76 @@ public class Histogram implements Cloneable, CalculateStatistic {
         }
     }
 
+    private double estimateSelectivityEquiDepth(SqlKind op, long val) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double nonNull = (totalCount - nullCount) / (double) totalCount;
+        switch (op) {
+            case EQUALS:
+            case LIKE:
+                return equalsEquiDepth(val);
+            case NOT_EQUALS:
+                return nonNull - equalsEquiDepth(val);
+            case LESS_THAN:
+                return lessThanEquiDepth(val);
+            case LESS_THAN_OR_EQUAL:
+                return lessThanEquiDepth(val) + equalsEquiDepth(val);
+            case GREATER_THAN:
+                return Math.max(0, nonNull - lessThanEquiDepth(val) - equalsEquiDepth(val));
+            case GREATER_THAN_OR_EQUAL:
+                return Math.max(0, nonNull - lessThanEquiDepth(val));
+            case IS_NOT_NULL:
+                return 1 - estimateSelectivityIsNull();
+            case IS_NULL:
+                return estimateSelectivityIsNull();
+            default:
+                return 0.25;
+        }
+    }
+
+    private double equalsEquiDepth(long val) {
+        if (bounds.length == 0 || val < min || val > max) {
+            return 0;
+        }
+        for (int i = 0; i < topValues.length; ++i) {
+            if (topValues[i] == val) {
+                return topCounts[i] / (double) totalCount;
+            }
+        }
+        int pos = Arrays.binarySearch(bounds, val);
+        if (pos >= 0) {
+            return repeats[pos] / (double) totalCount;
+        }
+        int b = -pos - 1;
+        long lower = b > 0 ? bounds[b - 1] : min;
+        long inner = counts[b] - (b > 0 ? counts[b - 1] : 0) - repeats[b];
+        // Values strictly inside a bucket are assumed to be distinct and spread evenly.
+        return inner / (double) Math.max(1, bounds[b] - lower) / totalCount;
+    }
+
+    private double lessThanEquiDepth(long val) {
+        if (bounds.length == 0 || val <= min) {
+            return 0;
+        }
+        if (val > max) {
+            return counts[counts.length - 1] / (double) totalCount;
+        }
+        int pos = Arrays.binarySearch(bounds, val);
+        int b = pos >= 0 ? pos : -pos - 1;
+        long before = b > 0 ? counts[b - 1] : 0;
+        long inner = counts[b] - before - repeats[b];
+        if (pos >= 0) {
+            return (before + inner) / (double) totalCount;
+        }
+        long lower = b > 0 ? bounds[b - 1] : min;
+        double fraction = (val - lower) / (double) Math.max(1, bounds[b] - lower);
+        return (before + inner * fraction) / totalCount;
+    }
+
     public Histogram copy() {
         Histogram histogram = new Histogram(schemaName, tableName, columnName, dingoType, index);
+        histogram.sampleSize = sampleSize;
         if (max == null || min == null || buckets == null) {
             return histogram;
         }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.stats;
+
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Uniform sample of long values by reservoir sampling. Samples of different regions are merged by the counts of
+ * values they have seen, so that the merged sample is still uniform.
+ */
+public class Reservoir {
+    public static final int DEFAULT_SIZE = 100000;
+
+    private final long[] values;
+    @Getter
+    private int size;
+    @Getter
+    private long seen;
+
+    public Reservoir(int capacity) {
+        values = new long[capacity];
+    }
+
+    public void add(long value) {
+        ++seen;
+        if (size < values.length) {
+            values[size++] = value;
+            return;
+        }
+        long pos = ThreadLocalRandom.current().nextLong(seen);
+        if (pos < values.length) {
+            values[(int) pos] = value;
+        }
+    }
+
+    public long[] sortedValues() {
+        long[] result = Arrays.copyOf(values, size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    public static @Nullable Reservoir merge(@Nullable Reservoir reservoir0, @Nullable Reservoir reservoir1) {
+        if (reservoir0 == null || reservoir0.seen == 0) {
+            return reservoir1;
+        }
+        if (reservoir1 == null || reservoir1.seen == 0) {
+            return reservoir0;
+        }
+        Reservoir result = new Reservoir(Math.max(reservoir0.values.length, reservoir1.values.length));
+        long[] values0 = shuffled(reservoir0);
+        long[] values1 = shuffled(reservoir1);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double weight0 = (double) reservoir0.seen / (reservoir0.seen + reservoir1.seen);
+        int i = 0;
+        int j = 0;
+        int size = (int) Math.min(result.values.length, (long) values0.length + values1.length);
+        while (result.size < size) {
+            // Take from each side by the share of values it has seen, the rest from the other when one runs out.
+            if (j == values1.length || (i < values0.length && random.nextDouble() < weight0)) {
+                result.values[result.size++] = values0[i++];
+            } else {
+                result.values[result.size++] = values1[j++];
+            }
+        }
+        result.seen = reservoir0.seen + reservoir1.seen;
+        return result;
+    }
+
+    private static long[] shuffled(Reservoir reservoir) {
+        long[] result = Arrays.copyOf(reservoir.values, reservoir.size);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = result.length - 1; i > 0; --i) {
+            int k = random.nextInt(i + 1);
+            long tmp = result[i];
+            result[i] = result[k];
+            result[k] = tmp;
+        }
+        return result;
+    }
+}
@@ -19,12 +19,16 @@ package io.dingodb.calcite.stats;
 import io.dingodb.calcite.DingoTable;
 import io.dingodb.calcite.rel.LogicalDingoTableScan;
 import io.dingodb.common.mysql.scope.ScopeVariables;
+import io.dingodb.common.profile.StmtSummaryMap;
 import org.apache.calcite.plan.RelOptTable;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public final class StatsCache {
+    private static final double UNIQUE_NDV_RATE = 0.9;
+
     public static volatile Map<String, TableStats> statsMap = new ConcurrentHashMap<>();
 
     private StatsCache() {
@@ -41,7 +45,8 @@ public final class StatsCache {
     public static double getTableRowCount(String key) {
         TableStats tableStats = statsMap.get(key);
         if (tableStats != null) {
-            return tableStats.getRowCount();
+            // Add the rows inserted and deleted since the table was analyzed.
+            return Math.max(0, tableStats.getRowCount() + StmtSummaryMap.getModifyRows(key));
         }
         return ScopeVariables.getStatsDefaultSize();
     }
@@ -56,10 +61,70 @@ public final class StatsCache {
         }
     }
 
+    /**
+     * Get the stats of a column of the table, or {@code null} if the table is not analyzed.
+     */
+    public static @Nullable StatsNormal getColumnStats(RelOptTable relOptTable, String columnName) {
+        DingoTable dingoTable = relOptTable.unwrap(DingoTable.class);
+        if (dingoTable == null || dingoTable.getNames().size() <= 2) {
+            return null;
+        }
+        TableStats tableStats = getStatistic(dingoTable.getNames().get(1), dingoTable.getNames().get(2));
+        if (tableStats == null) {
+            return null;
+        }
+        return tableStats.getStatsNormalList().stream()
+            .filter(s -> columnName.equalsIgnoreCase(s.getColumnName()))
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * Get the ndv of a column, or {@code null} if the table is not analyzed. The ndv of a column nearly unique is
+     * assumed to grow with the rows inserted since the table was analyzed, others are kept.
+     */
+    public static @Nullable Double getColumnNdv(RelOptTable relOptTable, String columnName) {
+        StatsNormal stats = getColumnStats(relOptTable, columnName);
+        if (stats == null || stats.getNdv() == null || stats.getNdv() <= 0) {
+            return null;
+        }
+        double ndv = stats.getNdv();
+        long totalCount = stats.getTotalCount() == null ? 0 : stats.getTotalCount();
+        long analyzed = totalCount - (stats.getNumNull() == null ? 0 : stats.getNumNull());
+        if (analyzed > 0 && ndv >= UNIQUE_NDV_RATE * analyzed) {
+            ndv = Math.max(1, ndv * getTableRowCount(relOptTable) / totalCount);
+        }
+        return ndv;
+    }
+
     public static TableStats getStatistic(String schemaName, String tableName) {
         return statsMap.get(schemaName + "." + tableName);
     }
 
+    /**
+     * Cache the stats of a table just analyzed, the rows modified before are counted in the stats.
+     */
+    public static void put(TableStats tableStats) {
+        String key = tableStats.getIdentifier();
+        statsMap.put(key, tableStats);
+        StmtSummaryMap.resetModifyRows(key);
+    }
+
+    /**
+     * Replace all the stats by those loaded from the store. The rows modified are kept for the tables not analyzed
+     * since the stats were loaded last time, which is told by the row count.
+     */
+    public static void reload(Map<String, TableStats> stats) {
+        Map<String, TableStats> oldStats = statsMap;
+        stats.forEach((key, tableStats) -> {
+            TableStats old = oldStats.get(key);
+            if (old == null || old.getRowCount() != tableStats.getRowCount()) {
+                StmtSummaryMap.resetModifyRows(key);
+            }
+        });
+        statsMap = stats;
+    }
+
     public static void removeCache(String schemaName,String tableName) {
         statsMap.remove(schemaName + "." + tableName);
     }
@@ -113,7 +113,13 @@ public class StatsNormal implements Cloneable {
 
     public StatsNormal merge(StatsNormal statsNormal) {
         this.totalCount += statsNormal.getTotalCount();
-        this.ndv += statsNormal.getNdv();
+        // The same value may be in several regions, so the sketches are united instead of adding the counts.
+        if (hll != null && statsNormal.hll != null) {
+            hll.union(statsNormal.hll);
+            this.ndv = hll.cardinality();
+        } else {
+            this.ndv += statsNormal.getNdv();
+        }
         this.numNull += statsNormal.numNull;
         this.totalColSize += statsNormal.totalColSize;
         return this;
@@ -151,6 +157,22 @@ public class StatsNormal implements Cloneable {
         }
     }
 
+    /**
+     * Scale the counts collected from the rows sampled at the rate. The distinct values of the sample {@code d} of
+     * {@code n} values are extended to {@code d + (N - n) * (d / n)^2}, so a column unique in the sample stays
+     * unique and a column of a few values keeps them.
+     */
+    public void scale(double rate) {
+        long sampled = totalCount - numNull;
+        totalCount = Math.round(totalCount / rate);
+        numNull = Math.round(numNull / rate);
+        totalColSize = Math.round(totalColSize / rate);
+        if (ndv != null && sampled > 0) {
+            double ratio = ndv / (double) sampled;
+            ndv = Math.round(ndv + (totalCount - numNull - sampled) * ratio * ratio);
+        }
+    }
+
     public void clear() {
         if (hashSet != null) {
             hashSet.clear();
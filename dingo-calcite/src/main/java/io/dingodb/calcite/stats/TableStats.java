@@ -119,6 +119,14 @@ public class TableStats {
         tableStatsList.forEach(TableStats::clear);
     }
 
+    /**
+     * Scale the merged stats collected from the rows sampled at the rate.
+     */
+    public void scale(double rate) {
+        statsNormalList.forEach(statsNormal -> statsNormal.scale(rate));
+        histogramList.forEach(histogram -> histogram.scale(1 / rate));
+    }
+
     public String getIdentifier() {
         return schemaName.toUpperCase() + "." + tableName.toUpperCase();
     }
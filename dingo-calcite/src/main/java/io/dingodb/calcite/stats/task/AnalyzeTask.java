@@ -18,25 +18,19 @@ package io.dingodb.calcite.stats.task;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Iterators;
 import io.dingodb.calcite.stats.AnalyzeInfo;
 import io.dingodb.calcite.stats.CountMinSketch;
 import io.dingodb.calcite.stats.Histogram;
+import io.dingodb.calcite.stats.Reservoir;
 import io.dingodb.calcite.stats.StatsCache;
 import io.dingodb.calcite.stats.StatsNormal;
 import io.dingodb.calcite.stats.StatsOperator;
 import io.dingodb.calcite.stats.StatsTaskState;
 import io.dingodb.calcite.stats.TableStats;
-import io.dingodb.codec.CodecService;
 import io.dingodb.common.CommonId;
-import io.dingodb.common.CoprocessorV2;
 import io.dingodb.common.concurrent.Executors;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.partition.RangeDistribution;
-import io.dingodb.common.store.KeyValue;
-import io.dingodb.common.type.DingoType;
-import io.dingodb.common.type.DingoTypeFactory;
-import io.dingodb.common.type.TupleMapping;
 import io.dingodb.common.type.scalar.DateType;
 import io.dingodb.common.type.scalar.DecimalType;
 import io.dingodb.common.type.scalar.DoubleType;
@@ -48,35 +42,19 @@ import io.dingodb.common.type.scalar.TimeType;
 import io.dingodb.common.type.scalar.TimestampType;
 import io.dingodb.common.util.ByteArrayUtils;
 import io.dingodb.common.util.Optional;
-import io.dingodb.exec.Services;
-import io.dingodb.exec.expr.DingoCompileContext;
-import io.dingodb.exec.expr.DingoRelConfig;
-import io.dingodb.exec.utils.SchemaWrapperUtils;
-import io.dingodb.expr.rel.RelOp;
-import io.dingodb.expr.rel.op.RelOpBuilder;
-import io.dingodb.expr.runtime.expr.Expr;
-import io.dingodb.expr.runtime.expr.Exprs;
-import io.dingodb.expr.runtime.type.TupleType;
-import io.dingodb.expr.coding.CodingFlag;
-import io.dingodb.expr.coding.RelOpCoder;
 import io.dingodb.meta.MetaService;
-import io.dingodb.meta.entity.Column;
 import io.dingodb.meta.entity.Table;
 import io.dingodb.partition.DingoPartitionServiceProvider;
 import io.dingodb.partition.PartitionService;
-import io.dingodb.store.api.StoreInstance;
 import io.dingodb.tso.TsoService;
 import lombok.Builder;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.sql.Timestamp;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Set;
@@ -85,9 +63,6 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
-import static io.dingodb.common.util.NoBreakFunctions.wrap;
 
 @Builder
 @Slf4j
@@ -109,6 +84,12 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
     @Builder.Default
     private long timeout = 50000;
 
+    // Max number of regions scanned at the same time.
+    @Builder.Default
+    private int concurrency = 4;
+    @Builder.Default
+    private int topN = 20;
+
 
     @Override
     public void run() {
@@ -148,9 +129,9 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
             // varchar -> count-min-sketch  int,float,double,date,time,timestamp -> histogram
             // ndv, nullCount -> normal
             typeMetricAdaptor(td, histogramList, cmSketchList, statsNormals, cmSketchWidth, cmSketchHeight);
-            // par scan get min, max
-            // histogram equ-width need max, min
-            buildHistogram(histogramList, distributions, tableId, td);
+            // histogram equi-depth is built from a sample of the values, no pass for max, min
+            int sampleSize = samples > 0 ? (int) Math.min(samples, Integer.MAX_VALUE - 8) : Reservoir.DEFAULT_SIZE;
+            histogramList.forEach(histogram -> histogram.setSampleSize(sampleSize));
 
             long end2 = System.currentTimeMillis();
             LogUtils.info(log, "step2 cost:{}", (end2 - end1));
@@ -180,6 +161,10 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
             LogUtils.info(log, "step3 cost:{}", (end3 - end2));
             TableStats.mergeStats(statsList);
             TableStats tableStats = statsList.get(0);
+            if (sampleRate > 0 && sampleRate < 1) {
+                tableStats.scale(sampleRate);
+            }
+            tableStats.getHistogramList().forEach(histogram -> histogram.build(bucketCount, topN));
             long end4 = System.currentTimeMillis();
             LogUtils.info(log, "step4 merge success cost:{}", (end4 - end3));
 
@@ -216,9 +201,19 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
     ) {
         long scanTs = TsoService.getDefault().tso();
 
-        return rangeDistributions.stream().map(_i -> {
+        // Regions are dealt to a bounded number of tasks, each scans its regions one by one.
+        int taskCount = Math.max(1, Math.min(concurrency, rangeDistributions.size()));
+        List<List<RangeDistribution>> regionLists = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            regionLists.add(new ArrayList<>());
+        }
+        int i = 0;
+        for (RangeDistribution region : rangeDistributions) {
+            regionLists.get(i++ % taskCount).add(region);
+        }
+        return regionLists.stream().map(regions -> {
             Callable<TableStats> collectStatsTask = new CollectStatsTask(
-                _i, tableId, td, columnHistograms, cmSketchList, statsNormals, scanTs, timeout
+                regions, tableId, td, columnHistograms, cmSketchList, statsNormals, scanTs, timeout, sampleRate
             );
             return Executors.submit("collect-task", collectStatsTask);
         }).collect(Collectors.toList());
@@ -299,56 +294,7 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
 
     private static void cache(TableStats tableStats) {
         tableStats.initRowCount();
-        StatsCache.statsMap.put(tableStats.getIdentifier(), tableStats);
-    }
-
-    private void buildHistogram(List<Histogram> histogramList,
-                                Set<RangeDistribution> rangeDistributions,
-                                CommonId tableId,
-                                Table td) {
-        if (histogramList.isEmpty()) {
-            return;
-        }
-        List<Iterator<Object[]>> iteratorList = rangeDistributions.stream().map(region -> {
-            DingoType outputSchema = DingoTypeFactory.tuple(
-                histogramList.stream().flatMap(histogram ->
-                    Arrays.stream(new DingoType[]{histogram.getDingoType(),
-                        histogram.getDingoType()})).toArray(DingoType[]::new));
-            TupleMapping outputKeyMapping = TupleMapping.of(
-                IntStream.range(0, 0).boxed().collect(Collectors.toList())
-            );
-            CoprocessorV2 coprocessor = getCoprocessor(td, histogramList, outputSchema);
-            if (coprocessor == null) {
-                return null;
-            }
-            byte[] startKey = region.getStartKey();
-            byte[] endKey = region.getEndKey();
-            CodecService.getDefault().setId(startKey, region.getId().domain);
-            CodecService.getDefault().setId(endKey, region.getId().domain);
-            StoreInstance kvStore = Services.KV_STORE.getInstance(tableId, region.getId());
-
-            Iterator<KeyValue> iterator = kvStore.txnScan(
-                TsoService.getDefault().tso(),
-                new StoreInstance.Range(startKey, endKey,
-                   region.isWithStart(), region.isWithEnd()),
-                30000,
-                coprocessor
-            );
-            return Iterators.transform(iterator, wrap(CodecService.getDefault().createKeyValueCodec(td.version, outputSchema, outputKeyMapping)::decode)::apply);
-        }).collect(Collectors.toList());
-        for (Iterator<Object[]> iterator : iteratorList) {
-            if (iterator == null) {
-                continue;
-            }
-            while (iterator.hasNext()) {
-                Object[] tuples = iterator.next();
-                for (int i = 0; i < histogramList.size(); i ++) {
-                    histogramList.get(i).setRegionMax(tuples[2 * i]);
-                    histogramList.get(i).setRegionMin(tuples[2 * i + 1]);
-                }
-            }
-        }
-        histogramList.forEach(histogram -> histogram.init(bucketCount));
+        StatsCache.put(tableStats);
     }
 
     private void startAnalyzeTask(CommonId tableId) {
@@ -429,50 +375,4 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
             return "";
         }
     }
-
-    public static CoprocessorV2 getCoprocessor(Table table, List<Histogram> histograms, DingoType outputSchema) {
-        CommonId tableId = table.tableId;
-        List<DingoType> dingoTypes = table.getColumns().stream().map(Column::getType).collect(Collectors.toList());
-        DingoType schema = DingoTypeFactory.tuple(dingoTypes.toArray(new DingoType[]{}));
-
-        DingoRelConfig config = new DingoRelConfig();
-        Expr[] exprs = histograms.stream()
-            .flatMap(histogram ->
-                Arrays.stream(new Expr[]{makeMaxAgg(histogram.getIndex()), makeMinAgg(histogram.getIndex())})
-            ).toArray(Expr[]::new);
-        RelOp relOp = RelOpBuilder.builder().agg(exprs).build();
-
-        relOp = relOp.compile(new DingoCompileContext(
-            (TupleType) schema.getType(),
-            (TupleType) DingoTypeFactory.tuple(new DingoType[0]).getType()
-        ), config);
-
-        CoprocessorV2 coprocessor;
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
-        if (RelOpCoder.INSTANCE.visit(relOp, os) == CodingFlag.OK) {
-            List<Integer> selection = IntStream.range(0, schema.fieldCount())
-                .boxed()
-                .collect(Collectors.toList());
-            TupleMapping outputKeyMapping = TupleMapping.of(new int[]{});
-            coprocessor = CoprocessorV2.builder()
-                .originalSchema(SchemaWrapperUtils.buildSchemaWrapper(schema, table.keyMapping(), tableId.seq))
-                .resultSchema(SchemaWrapperUtils.buildSchemaWrapper(outputSchema, outputKeyMapping, tableId.seq))
-                .selection(selection)
-                .relExpr(os.toByteArray())
-                .schemaVersion(table.getVersion())
-                .build();
-            return coprocessor;
-        }
-        return null;
-    }
-
-    private static Expr makeMaxAgg(int index) {
-        Expr var = DingoCompileContext.createTupleVar(index);
-        return Exprs.op(Exprs.MAX_AGG, var);
-    }
-
-    private static Expr makeMinAgg(int index) {
-        Expr var = DingoCompileContext.createTupleVar(index);
-        return Exprs.op(Exprs.MIN_AGG, var);
-    }
 }
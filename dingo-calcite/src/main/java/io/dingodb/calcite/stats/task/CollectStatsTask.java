@@ -39,52 +39,56 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 import static io.dingodb.common.util.NoBreakFunctions.wrap;
 
 /**
- * collect region statistic. If the table has multiple partitions,
- * create multiple concurrent tasks,Then merge region statistics
+ * collect region statistic. The regions of a table are split into a few tasks run concurrently, each task scans
+ * its regions one by one into one set of stats, then the stats of the tasks are merged.
  */
 @Slf4j
 public class CollectStatsTask implements Callable<TableStats> {
     private final String tableName;
-    private final RangeDistribution region;
+    private final CommonId tableId;
+    private final List<RangeDistribution> regions;
     private final boolean isTxn;
     private final long timeout;
-    StoreInstance kvStore;
+    private final float sampleRate;
     KeyValueCodec codec;
     private final long startTs;
-    Iterator<Object[]> tupleIterator;
     List<Histogram> columnHistogramList;
     List<CountMinSketch> minSketchList;
     Map<String, StatsNormal> statsNormalMap;
 
     /**
-     * collect stats task by one region.
+     * collect stats task by regions.
      * statistic type: histogram(only int), countMinSketch, statsNormal
-     * @param region region distribution
+     * @param regions region distributions
      * @param tableId tableId
      * @param td tableDefinition
      * @param columnHistograms columnHistogram :  Unified template (All region histograms must have the same parameters)
      * @param minSketches minSketch : Unified template
      * @param statsNormals statsNormal : distinct val,null count
+     * @param sampleRate rate of rows sampled, all rows are read if it is not in (0, 1)
      */
-    public CollectStatsTask(RangeDistribution region,
+    public CollectStatsTask(List<RangeDistribution> regions,
                             CommonId tableId,
                             Table td,
                             List<Histogram> columnHistograms,
                             List<CountMinSketch> minSketches,
                             List<StatsNormal> statsNormals,
                             long scanTs,
-                            long timeout) {
+                            long timeout,
+                            float sampleRate) {
         this.tableName = td.getName();
-        this.region = region;
+        this.tableId = tableId;
+        this.regions = regions;
         this.isTxn = td.getEngine().contains("TXN");
         this.startTs = scanTs;
         this.timeout = timeout;
-        this.kvStore = Services.KV_STORE.getInstance(tableId, region.id());
+        this.sampleRate = sampleRate;
         this.codec = CodecService.getDefault().createKeyValueCodec(td.getVersion(), td.tupleType(), td.keyMapping());
 
         this.minSketchList = minSketches.stream().map(CountMinSketch::copy)
@@ -97,8 +101,19 @@ public class CollectStatsTask implements Callable<TableStats> {
 
     @Override
     public TableStats call() {
+        for (RangeDistribution region : regions) {
+            collect(region);
+        }
+        return new TableStats(minSketchList, columnHistogramList,
+            new ArrayList<>(statsNormalMap.values()));
+    }
+
+    private void collect(RangeDistribution region) {
         LogUtils.info(log, "collect region stats start, tableName:{}, regionId:{}",
              tableName, region.getId());
+        StoreInstance kvStore = Services.KV_STORE.getInstance(tableId, region.id());
+        boolean sampling = sampleRate > 0 && sampleRate < 1;
+        Iterator<Object[]> tupleIterator;
         if (!isTxn) {
             Part part = new PartInKvStore(
                 kvStore,
@@ -106,12 +121,19 @@ public class CollectStatsTask implements Callable<TableStats> {
             );
             tupleIterator = part.scan(region.getStartKey(), region.getEndKey(),
                 region.isWithStart(), true);
+            if (sampling) {
+                tupleIterator = Iterators.filter(tupleIterator, tuple -> sampled());
+            }
         } else {
             Iterator<KeyValue> iterator = kvStore.txnScan(
                 startTs,
                 new StoreInstance.Range(region.getStartKey(), region.getEndKey(), region.isWithStart(), region.isWithEnd()),
                 timeout
             );
+            if (sampling) {
+                // Skip decoding the rows not sampled.
+                iterator = Iterators.filter(iterator, keyValue -> sampled());
+            }
             tupleIterator = Iterators.transform(iterator,
                 wrap(codec::decode)::apply
             );
@@ -139,8 +161,10 @@ public class CollectStatsTask implements Callable<TableStats> {
         long end = System.currentTimeMillis();
         LogUtils.info(log, "collect region stats end, take time:{}, tableName:{}, regionId:{}, count:{}",
             (end - start), tableName, region.getId(), count);
-        return new TableStats(minSketchList, columnHistogramList,
-            new ArrayList<>(statsNormalMap.values()));
+    }
+
+    private boolean sampled() {
+        return ThreadLocalRandom.current().nextFloat() < sampleRate;
     }
 
 }
@@ -115,7 +115,7 @@ public class RefreshStatsTask extends StatsOperator implements Runnable {
             }
         });
         statsMap.values().forEach(TableStats::initRowCount);
-        StatsCache.statsMap = statsMap;
+        StatsCache.reload(statsMap);
         if (log.isDebugEnabled()) {
             log.debug("load stats" + statsMap);
         }
@@ -69,6 +69,10 @@ public final class CalcValueUtils {
     }
 
     public static @NonNull ExprConfig getConfig(@NonNull RelOptRuleCall call) {
+        return getConfig(call.getPlanner().getContext().unwrap(TimeZone.class));
+    }
+
+    public static @NonNull ExprConfig getConfig(TimeZone timeZone) {
         return new ExprConfig() {
             @Override
             public boolean withRangeCheck() {
@@ -77,7 +81,7 @@ public final class CalcValueUtils {
 
             @Override
             public TimeZone getTimeZone() {
-                return call.getPlanner().getContext().unwrap(TimeZone.class);
+                return timeZone;
             }
         };
     }
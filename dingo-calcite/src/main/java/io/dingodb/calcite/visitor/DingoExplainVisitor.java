@@ -27,6 +27,7 @@ import io.dingodb.calcite.rel.DingoGetByKeys;
 import io.dingodb.calcite.rel.DingoGetVectorByDistance;
 import io.dingodb.calcite.rel.DingoInfoSchemaScan;
 import io.dingodb.calcite.rel.DingoLikeScan;
+import io.dingodb.calcite.rel.DingoLooseScan;
 import io.dingodb.calcite.rel.DingoPartCountDelete;
 import io.dingodb.calcite.rel.DingoPartRangeDelete;
 import io.dingodb.calcite.rel.DingoProject;
@@ -251,6 +252,15 @@ public class DingoExplainVisitor implements DingoRelVisitor<Explain> {
         );
     }
 
+    @Override
+    public Explain visit(@NonNull DingoLooseScan rel) {
+        String table = Objects.requireNonNull(rel.getTable().unwrap(DingoTable.class)).getTable().getName();
+        return new Explain(
+            "tableLooseScan", rel.estimateRowCount(rel.getCluster().getMetadataQuery()), "cop[store]",
+            table, "prefixCount = " + rel.getPrefixCount()
+        );
+    }
+
     @Override
     public Explain visit(@NonNull DingoFunctionScan rel) {
         String filter = "";
@@ -26,6 +26,7 @@ import io.dingodb.calcite.rel.DingoGetByKeys;
 import io.dingodb.calcite.rel.DingoGetVectorByDistance;
 import io.dingodb.calcite.rel.DingoInfoSchemaScan;
 import io.dingodb.calcite.rel.DingoLikeScan;
+import io.dingodb.calcite.rel.DingoLooseScan;
 import io.dingodb.calcite.rel.DingoPartCountDelete;
 import io.dingodb.calcite.rel.DingoPartRangeDelete;
 import io.dingodb.calcite.rel.DingoProject;
@@ -61,6 +62,7 @@ import io.dingodb.calcite.visitor.function.DingoIndexRangeScanVisitFun;
 import io.dingodb.calcite.visitor.function.DingoIndexScanWithRelOpVisitFun;
 import io.dingodb.calcite.visitor.function.DingoInfoSchemaScanVisitFun;
 import io.dingodb.calcite.visitor.function.DingoLikeScanVisitFun;
+import io.dingodb.calcite.visitor.function.DingoLooseScanVisitFun;
 import io.dingodb.calcite.visitor.function.DingoProjectVisitFun;
 import io.dingodb.calcite.visitor.function.DingoRangeDeleteVisitFun;
 import io.dingodb.calcite.visitor.function.DingoReduceAggregateVisitFun;
@@ -228,6 +230,11 @@ public class DingoJobVisitor implements DingoRelVisitor<Collection<Vertex>> {
         return DingoLikeScanVisitFun.visit(job, idGenerator, currentLocation, transaction, this, rel);
     }
 
+    @Override
+    public Collection<Vertex> visit(@NonNull DingoLooseScan rel) {
+        return DingoLooseScanVisitFun.visit(job, idGenerator, currentLocation, transaction, this, rel);
+    }
+
     @Override
     public Collection<Vertex> visit(@NonNull DingoFunctionScan rel) {
         return DingoFunctionScanVisitFun.visit(job, idGenerator, currentLocation, this, rel);
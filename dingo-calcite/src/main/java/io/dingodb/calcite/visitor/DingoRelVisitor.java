@@ -27,6 +27,7 @@ import io.dingodb.calcite.rel.DingoGetVectorByDistance;
 import io.dingodb.calcite.rel.dingo.DingoHashJoin;
 import io.dingodb.calcite.rel.DingoInfoSchemaScan;
 import io.dingodb.calcite.rel.DingoLikeScan;
+import io.dingodb.calcite.rel.DingoLooseScan;
 import io.dingodb.calcite.rel.DingoPartCountDelete;
 import io.dingodb.calcite.rel.DingoPartRangeDelete;
 import io.dingodb.calcite.rel.DingoProject;
@@ -83,6 +84,8 @@ public interface DingoRelVisitor<T> {
 
     T visit(@NonNull DingoLikeScan rel);
 
+    T visit(@NonNull DingoLooseScan rel);
+
     T visit(@NonNull DingoFunctionScan rel);
 
     T visit(@NonNull DingoVector rel);
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.visitor.function;
+
+import io.dingodb.calcite.DingoTable;
+import io.dingodb.calcite.rel.DingoLooseScan;
+import io.dingodb.calcite.utils.MetaServiceUtils;
+import io.dingodb.calcite.utils.TableInfo;
+import io.dingodb.calcite.utils.VisitUtils;
+import io.dingodb.calcite.visitor.DingoJobVisitor;
+import io.dingodb.common.Location;
+import io.dingodb.exec.base.IdGenerator;
+import io.dingodb.exec.base.Job;
+import io.dingodb.exec.base.Task;
+import io.dingodb.exec.dag.Edge;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.operator.params.DistributionSourceParam;
+import io.dingodb.exec.operator.params.LooseScanParam;
+import io.dingodb.exec.operator.params.TxnLooseScanParam;
+import io.dingodb.exec.transaction.base.ITransaction;
+import io.dingodb.meta.entity.Table;
+import io.dingodb.store.api.transaction.data.IsolationLevel;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+
+import static io.dingodb.exec.utils.OperatorCodeUtils.CALC_DISTRIBUTION_1;
+import static io.dingodb.exec.utils.OperatorCodeUtils.LOOSE_SCAN;
+import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_LOOSE_SCAN;
+
+public final class DingoLooseScanVisitFun {
+    private DingoLooseScanVisitFun() {
+    }
+
+    public static @NonNull Collection<Vertex> visit(
+        Job job, IdGenerator idGenerator, Location currentLocation,
+        ITransaction transaction, DingoJobVisitor visitor, @NonNull DingoLooseScan rel
+    ) {
+        final TableInfo tableInfo = MetaServiceUtils.getTableInfo(rel.getTable());
+        final Table td = Objects.requireNonNull(rel.getTable().unwrap(DingoTable.class)).getTable();
+        Task task;
+        Vertex scanVertex;
+        if (transaction != null) {
+            task = job.getOrCreate(
+                currentLocation,
+                idGenerator,
+                transaction.getType(),
+                IsolationLevel.of(transaction.getIsolationLevel())
+            );
+            long scanTs = transaction.getPointStartTs();
+            if (scanTs > 0) {
+                transaction.setPointStartTs(0);
+            } else {
+                scanTs = VisitUtils.getScanTs(transaction, visitor.getKind());
+            }
+            TxnLooseScanParam param = new TxnLooseScanParam(
+                tableInfo.getId(),
+                td.tupleType(),
+                td.keyMapping(),
+                rel.getSelection(),
+                rel.getPrefixCount(),
+                scanTs,
+                transaction.getIsolationLevel(),
+                transaction.getLockTimeOut(),
+                td.version
+            );
+            scanVertex = new Vertex(TXN_LOOSE_SCAN, param);
+        } else {
+            task = job.getOrCreate(currentLocation, idGenerator);
+            LooseScanParam param = new LooseScanParam(
+                tableInfo.getId(),
+                td.tupleType(),
+                td.keyMapping(),
+                rel.getSelection(),
+                rel.getPrefixCount(),
+                td.version
+            );
+            scanVertex = new Vertex(LOOSE_SCAN, param);
+        }
+        DistributionSourceParam distributionParam = new DistributionSourceParam(
+            td,
+            tableInfo.getRangeDistributions(),
+            null,
+            null,
+            true,
+            false,
+            null,
+            false,
+            false,
+            null
+        );
+        Vertex calcVertex = new Vertex(CALC_DISTRIBUTION_1, distributionParam);
+        calcVertex.setId(idGenerator.getOperatorId(task.getId()));
+        task.putVertex(calcVertex);
+        scanVertex.setId(idGenerator.getOperatorId(task.getId()));
+        task.putVertex(scanVertex);
+        Edge edge = new Edge(calcVertex, scanVertex);
+        calcVertex.addEdge(edge);
+        scanVertex.addIn(edge);
+        visitor.setScan(true);
+        return Collections.singletonList(scanVertex);
+    }
+}
@@ -37,16 +37,19 @@ import io.dingodb.common.type.scalar.LongType;
 import io.dingodb.common.type.scalar.StringType;
 import io.dingodb.common.util.ByteArrayUtils.ComparableByteArray;
 import io.dingodb.common.util.Optional;
+import io.dingodb.common.vector.VectorDistances;
 import io.dingodb.exec.base.IdGenerator;
 import io.dingodb.exec.base.Job;
 import io.dingodb.exec.base.OutputHint;
 import io.dingodb.exec.base.Task;
+import io.dingodb.exec.dag.Edge;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.expr.SqlExpr;
 import io.dingodb.exec.fun.vector.VectorImageFun;
 import io.dingodb.exec.fun.vector.VectorTextFun;
 import io.dingodb.exec.operator.params.PartVectorParam;
 import io.dingodb.exec.operator.params.TxnPartVectorParam;
+import io.dingodb.exec.operator.params.VectorTopKParam;
 import io.dingodb.exec.restful.VectorExtract;
 import io.dingodb.exec.transaction.base.ITransaction;
 import io.dingodb.expr.rel.RelOp;
@@ -55,6 +58,7 @@ import io.dingodb.expr.runtime.expr.Expr;
 import io.dingodb.meta.MetaService;
 import io.dingodb.meta.entity.Column;
 import io.dingodb.meta.entity.IndexTable;
+import io.dingodb.meta.entity.IndexType;
 import io.dingodb.meta.entity.Table;
 import io.dingodb.store.api.transaction.data.IsolationLevel;
 import io.dingodb.tso.TsoService;
@@ -78,6 +82,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -90,6 +95,7 @@ import static io.dingodb.calcite.rel.LogicalDingoTableScan.getIndexMetricType;
 import static io.dingodb.common.util.Utils.isNeedLookUp;
 import static io.dingodb.exec.utils.OperatorCodeUtils.PART_VECTOR;
 import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_PART_VECTOR;
+import static io.dingodb.exec.utils.OperatorCodeUtils.VECTOR_TOP_K;
 
 @Slf4j
 public final class DingoVectorVisitFun {
@@ -131,7 +137,7 @@ public final class DingoVectorVisitFun {
         if (vectorColNmIdf != null) {
             vectorColNm = vectorColNmIdf.getSimple();
         }
-        Float[] floatArray = getVectorFloats(operandsList);
+        float[] floatArray = VectorDistances.toArray(getVectorFloats(operandsList));
 
         if (!(operandsList.get(3) instanceof SqlNumericLiteral)) {
             throw new IllegalArgumentException("Top n not number.");
@@ -270,7 +276,54 @@ public final class DingoVectorVisitFun {
             outputs.add(vertex);
         }
         visitor.setScan(true);
-        return outputs;
+        return topK(idGenerator, rel, td, indexTable, vectorColNm, floatArray, topN, outputs);
+    }
+
+    /**
+     * Merge the candidates of all regions into the global top n on the distance column, if it is selected.
+     */
+    private static List<Vertex> topK(
+        IdGenerator idGenerator,
+        DingoVector rel,
+        Table td,
+        IndexTable indexTable,
+        String vectorColNm,
+        float[] floatArray,
+        int topN,
+        List<Vertex> outputs
+    ) {
+        int distanceIndex = rel.getRealSelection().findIdx(td.getColumns().size());
+        if (outputs.size() <= 1 || distanceIndex < 0
+            || distanceIndex != rel.getSelection().findIdx(td.getColumns().size())) {
+            return outputs;
+        }
+        // Distances of quantized indexes are approximate, rerank the candidates on the exact distances.
+        int vectorIndex = -1;
+        if (indexTable.getIndexType() == IndexType.VECTOR_IVF_PQ) {
+            int vectorColIdx = td.getColumns().indexOf(td.getColumn(vectorColNm));
+            vectorIndex = vectorColIdx < 0 ? -1 : rel.getRealSelection().findIdx(vectorColIdx);
+        }
+        Vertex one = outputs.get(0);
+        Task task = one.getTask();
+        VectorTopKParam param = new VectorTopKParam(
+            outputs.size(),
+            topN,
+            distanceIndex,
+            vectorIndex,
+            indexTable.getProperties().getProperty("metricType"),
+            floatArray
+        );
+        Vertex vertex = new Vertex(VECTOR_TOP_K, param);
+        vertex.setId(idGenerator.getOperatorId(task.getId()));
+        task.putVertex(vertex);
+        int pin = 0;
+        for (Vertex output : outputs) {
+            output.addEdge(new Edge(output, vertex));
+            output.setPin(pin++);
+        }
+        vertex.addIn(new Edge(one, vertex));
+        vertex.copyHint(one);
+        return Collections.singletonList(vertex);
     }
 
     public static Float[] getVectorFloats(List<Object> operandsList) {
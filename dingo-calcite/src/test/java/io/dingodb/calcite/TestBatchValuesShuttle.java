@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite;
+
+import io.dingodb.calcite.mock.MockMetaServiceProvider;
+import io.dingodb.calcite.rel.BatchValuesShuttle;
+import io.dingodb.calcite.rel.DingoValues;
+import io.dingodb.calcite.utils.CalcValueUtils;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelRoot;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.parser.SqlParseException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestBatchValuesShuttle {
+    private static DingoParserContext context;
+    private DingoParser parser;
+    // The values tuples of the plan after the shuttle.
+    private final List<Object[]> values = new ArrayList<>();
+
+    @BeforeAll
+    public static void setupAll() {
+        MockMetaServiceProvider.init();
+        Properties properties = new Properties();
+        context = new DingoParserContext(MockMetaServiceProvider.SCHEMA_NAME, properties);
+    }
+
+    @BeforeEach
+    public void setup() {
+        parser = new DingoParser(context);
+        values.clear();
+    }
+
+    private BatchValuesShuttle shuttle(String sql, Object[]... parasList) throws SqlParseException {
+        SqlNode sqlNode = parser.parse(sql);
+        RelRoot relRoot = parser.convert(sqlNode);
+        RelNode relNode = parser.optimize(relRoot.rel);
+        BatchValuesShuttle shuttle = new BatchValuesShuttle(
+            parser.getSqlValidator().getParameterRowType(sqlNode),
+            Arrays.asList(parasList),
+            CalcValueUtils.getConfig(TimeZone.getDefault())
+        );
+        collectValues(relNode.accept(shuttle), values);
+        return shuttle;
+    }
+
+    private static void collectValues(RelNode relNode, List<Object[]> values) {
+        if (relNode instanceof DingoValues) {
+            values.addAll(((DingoValues) relNode).getTuples());
+        }
+        for (RelNode input : relNode.getInputs()) {
+            collectValues(input, values);
+        }
+    }
+
+    @Test
+    public void testSingleRow() throws SqlParseException {
+        BatchValuesShuttle shuttle = shuttle(
+            "insert into test values(?, ?, ?)",
+            new Object[]{1, "Alice", 1.0},
+            new Object[]{2, "Betty", 2.0},
+            new Object[]{3, "Cindy", 3.0}
+        );
+        assertThat(shuttle.isBound()).isTrue();
+        assertThat(shuttle.getRowCount()).isEqualTo(1);
+        assertThat(values).containsExactly(
+            new Object[]{1, "Alice", 1.0},
+            new Object[]{2, "Betty", 2.0},
+            new Object[]{3, "Cindy", 3.0}
+        );
+    }
+
+    @Test
+    public void testExpression() throws SqlParseException {
+        BatchValuesShuttle shuttle = shuttle(
+            "insert into test values(?, 'Alice', ? + 1.0)",
+            new Object[]{1, 1.0},
+            new Object[]{2, 2.0}
+        );
+        assertThat(shuttle.isBound()).isTrue();
+        assertThat(shuttle.getRowCount()).isEqualTo(1);
+        assertThat(values).containsExactly(
+            new Object[]{1, "Alice", 2.0},
+            new Object[]{2, "Alice", 3.0}
+        );
+    }
+
+    @Test
+    public void testMultiRows() throws SqlParseException {
+        BatchValuesShuttle shuttle = shuttle(
+            "insert into test values(?, 'Alice', 1.0), (?, 'Betty', 2.0)",
+            new Object[]{1, 2},
+            new Object[]{3, 4}
+        );
+        assertThat(shuttle.isBound()).isTrue();
+        assertThat(shuttle.getRowCount()).isEqualTo(2);
+        assertThat(values).containsExactlyInAnyOrder(
+            new Object[]{1, "Alice", 1.0},
+            new Object[]{2, "Betty", 2.0},
+            new Object[]{3, "Alice", 1.0},
+            new Object[]{4, "Betty", 2.0}
+        );
+    }
+
+    @Test
+    public void testNoParameters() throws SqlParseException {
+        BatchValuesShuttle shuttle = shuttle(
+            "insert into test values(1, 'Alice', 1.0)",
+            new Object[]{},
+            new Object[]{}
+        );
+        assertThat(shuttle.isBound()).isFalse();
+    }
+
+    @Test
+    public void testParametersInOtherOperators() throws SqlParseException {
+        BatchValuesShuttle shuttle = shuttle(
+            "insert into test select id + 100, name, amount from test where id = ?",
+            new Object[]{1},
+            new Object[]{2}
+        );
+        assertThat(shuttle.isBound()).isFalse();
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite;
+
+import io.dingodb.calcite.mock.MockMetaServiceProvider;
+import io.dingodb.calcite.rel.LogicalDingoTableScan;
+import io.dingodb.calcite.stats.StatsCache;
+import io.dingodb.calcite.stats.StatsNormal;
+import io.dingodb.calcite.stats.TableStats;
+import io.dingodb.common.profile.StmtSummaryMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.logical.LogicalTableFunctionScan;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.parser.SqlParseException;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestJoinReorder {
+    private static final String SCHEMA = MockMetaServiceProvider.SCHEMA_NAME;
+    private static final String TEST = "TEST";
+    private static final String TEST1 = "TEST1";
+    private static final String DATE = "TABLE-WITH-DATE";
+    private static final String ARRAY = "TABLE-WITH-ARRAY";
+    // Joined in the written order, the two large tables are joined first.
+    private static final String SQL_4_WAY = "select * from test t"
+        + " join `table-with-date` d on t.id = d.id"
+        + " join test1 t1 on t.id = t1.id0"
+        + " join `table-with-array` a on t1.id0 = a.id";
+
+    private static DingoParserContext context;
+    private DingoParser parser;
+    private Map<String, TableStats> oldStats;
+
+    @BeforeAll
+    public static void setupAll() {
+        MockMetaServiceProvider.init();
+        Properties properties = new Properties();
+        context = new DingoParserContext(MockMetaServiceProvider.SCHEMA_NAME, properties);
+    }
+
+    @BeforeEach
+    public void setup() {
+        parser = new DingoParser(context);
+        oldStats = StatsCache.statsMap;
+        StatsCache.statsMap = new HashMap<>();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        StatsCache.statsMap = oldStats;
+        for (String table : new String[]{TEST, TEST1, DATE, ARRAY}) {
+            StmtSummaryMap.resetModifyRows(SCHEMA + "." + table);
+        }
+    }
+
+    private static void analyze(String table, long rowCount, String column, long ndv) {
+        TableStats tableStats = new TableStats(SCHEMA, table);
+        tableStats.getStatsNormalList().add(new StatsNormal(column, ndv, 0L, 4, rowCount));
+        tableStats.initRowCount();
+        StatsCache.put(tableStats);
+    }
+
+    private void analyze4Way() {
+        analyze(TEST, 1_000_000, "ID", 1_000_000);
+        analyze(DATE, 1_000_000, "ID", 1_000_000);
+        analyze(TEST1, 100, "ID0", 100);
+        analyze(ARRAY, 10, "ID", 10);
+    }
+
+    private RelNode convert(String sql) throws SqlParseException {
+        return parser.convert(parser.parse(sql)).rel;
+    }
+
+    private static <T extends RelNode> @NonNull List<T> collect(RelNode relNode, Class<T> clazz) {
+        List<T> nodes = new ArrayList<>();
+        new RelVisitor() {
+            @Override
+            public void visit(RelNode node, int ordinal, @Nullable RelNode parent) {
+                if (clazz.isInstance(node)) {
+                    nodes.add(clazz.cast(node));
+                }
+                super.visit(node, ordinal, parent);
+            }
+        }.go(relNode);
+        return nodes;
+    }
+
+    private static @NonNull List<String> tables(RelNode relNode) {
+        return collect(relNode, LogicalDingoTableScan.class).stream()
+            .map(scan -> scan.getTable().getQualifiedName())
+            .map(names -> names.get(names.size() - 1))
+            .collect(Collectors.toList());
+    }
+
+    private static Join topJoin(RelNode relNode) {
+        return collect(relNode, Join.class).get(0);
+    }
+
+    /**
+     * The sum of the estimated rows of all the joins, which are the rows built in hash tables or sent between nodes.
+     */
+    private static double joinRows(@NonNull RelNode relNode) {
+        RelMetadataQuery mq = relNode.getCluster().getMetadataQuery();
+        return collect(relNode, Join.class).stream()
+            .mapToDouble(join -> mq.getRowCount(join))
+            .sum();
+    }
+
+    @Test
+    public void testReorderByStats() throws SqlParseException {
+        analyze4Way();
+        RelNode relNode = convert(SQL_4_WAY);
+        assertThat(tables(relNode)).containsExactly(TEST, DATE, TEST1, ARRAY);
+        RelNode reordered = DingoParser.reorderJoins(relNode);
+        assertThat(reordered).isNotSameAs(relNode);
+        assertThat(collect(reordered, Join.class)).hasSize(3)
+            .allMatch(join -> join.getJoinType() == JoinRelType.INNER);
+        assertThat(tables(reordered)).containsExactlyInAnyOrder(TEST, DATE, TEST1, ARRAY);
+        // The two large tables are not joined before the small ones filter the rows.
+        assertThat(collect(reordered, Join.class))
+            .filteredOn(join -> collect(join, Join.class).size() == 1)
+            .isNotEmpty()
+            .noneMatch(join -> ImmutableSet.copyOf(tables(join)).equals(ImmutableSet.of(TEST, DATE)));
+        assertThat(joinRows(reordered)).isLessThan(joinRows(relNode));
+        assertThat(reordered.getRowType()).isEqualTo(relNode.getRowType());
+        // Planned by the volcano planner.
+        assertThat(parser.optimize(relNode)).isNotNull();
+    }
+
+    @Test
+    public void testTwoInputsNotReordered() throws SqlParseException {
+        analyze4Way();
+        RelNode relNode = convert("select * from test t join `table-with-date` d on t.id = d.id");
+        assertThat(DingoParser.reorderJoins(relNode)).isSameAs(relNode);
+    }
+
+    @Test
+    public void testLeftJoinOrder() throws SqlParseException {
+        analyze4Way();
+        RelNode relNode = convert("select * from test t"
+            + " join `table-with-date` d on t.id = d.id"
+            + " left join test1 t1 on t.id = t1.id0"
+            + " join `table-with-array` a on t.id = a.id");
+        RelNode reordered = DingoParser.reorderJoins(relNode);
+        List<Join> outerJoins = collect(reordered, Join.class).stream()
+            .filter(join -> join.getJoinType() != JoinRelType.INNER)
+            .collect(Collectors.toList());
+        // TEST1 is still the only table the null values are generated for.
+        assertThat(outerJoins).hasSize(1);
+        Join outerJoin = outerJoins.get(0);
+        if (outerJoin.getJoinType() == JoinRelType.LEFT) {
+            assertThat(tables(outerJoin.getRight())).containsExactly(TEST1);
+        } else {
+            assertThat(outerJoin.getJoinType()).isEqualTo(JoinRelType.RIGHT);
+            assertThat(tables(outerJoin.getLeft())).containsExactly(TEST1);
+        }
+        assertThat(tables(reordered)).containsExactlyInAnyOrder(TEST, DATE, TEST1, ARRAY);
+    }
+
+    @Test
+    public void testFullJoinOrder() throws SqlParseException {
+        analyze4Way();
+        RelNode relNode = convert("select * from test t"
+            + " join `table-with-date` d on t.id = d.id"
+            + " full join test1 t1 on t.id = t1.id0"
+            + " join `table-with-array` a on t1.id0 = a.id");
+        RelNode reordered = DingoParser.reorderJoins(relNode);
+        List<Join> fullJoins = collect(reordered, Join.class).stream()
+            .filter(join -> join.getJoinType() == JoinRelType.FULL)
+            .collect(Collectors.toList());
+        // Nothing is moved across the full join.
+        assertThat(fullJoins).hasSize(1);
+        Join fullJoin = fullJoins.get(0);
+        assertThat(ImmutableSet.of(
+            ImmutableSet.copyOf(tables(fullJoin.getLeft())),
+            ImmutableSet.copyOf(tables(fullJoin.getRight()))
+        )).containsExactlyInAnyOrder(ImmutableSet.of(TEST, DATE), ImmutableSet.of(TEST1));
+    }
+
+    @Test
+    public void testSemiJoinNotReordered() throws SqlParseException {
+        analyze4Way();
+        Join join = topJoin(convert(SQL_4_WAY));
+        RelNode semiJoin = join.copy(
+            join.getTraitSet(),
+            join.getCondition(),
+            join.getLeft(),
+            join.getRight(),
+            JoinRelType.SEMI,
+            join.isSemiJoinDone()
+        );
+        assertThat(DingoParser.reorderJoins(semiJoin)).isSameAs(semiJoin);
+        RelNode antiJoin = join.copy(
+            join.getTraitSet(),
+            join.getCondition(),
+            join.getLeft(),
+            join.getRight(),
+            JoinRelType.ANTI,
+            join.isSemiJoinDone()
+        );
+        assertThat(DingoParser.reorderJoins(antiJoin)).isSameAs(antiJoin);
+    }
+
+    @Test
+    public void testTableFunctionNotReordered() throws SqlParseException {
+        analyze4Way();
+        RelNode relNode = convert(SQL_4_WAY);
+        LogicalDingoTableScan scan = collect(relNode, LogicalDingoTableScan.class).get(3);
+        RexBuilder rexBuilder = scan.getCluster().getRexBuilder();
+        // Stands for a vector search, which is joined with the table by the rules.
+        RelNode function = LogicalTableFunctionScan.create(
+            scan.getCluster(),
+            Collections.emptyList(),
+            rexBuilder.makeCall(SqlStdOperatorTable.RAND),
+            null,
+            scan.getRowType(),
+            null
+        );
+        RelNode withFunction = RelOptUtil.replace(relNode, scan, function);
+        assertThat(DingoParser.reorderJoins(withFunction)).isSameAs(withFunction);
+    }
+
+    @Test
+    public void testDistinctRowCount() throws SqlParseException {
+        analyze(TEST, 1000, "ID", 1000);
+        analyze(TEST1, 200, "ID0", 50);
+        RelNode relNode = convert("select * from test t join test1 t1 on t.id = t1.id0");
+        Join join = topJoin(relNode);
+        RelMetadataQuery mq = join.getCluster().getMetadataQuery();
+        RelNode test = join.getLeft();
+        RelNode test1 = join.getRight();
+        assertThat(mq.getRowCount(test)).isEqualTo(1000);
+        assertThat(mq.getDistinctRowCount(test, ImmutableBitSet.of(0), null)).isEqualTo(1000);
+        assertThat(mq.getDistinctRowCount(test1, ImmutableBitSet.of(0), null)).isEqualTo(50);
+        // Only some of the values are left by a predicate.
+        RexBuilder rexBuilder = join.getCluster().getRexBuilder();
+        RexNode predicate = rexBuilder.makeCall(
+            SqlStdOperatorTable.GREATER_THAN,
+            rexBuilder.makeInputRef(test1, 0),
+            rexBuilder.makeExactLiteral(BigDecimal.TEN)
+        );
+        double selectivity = mq.getSelectivity(test1, predicate);
+        assertThat(mq.getDistinctRowCount(test1, ImmutableBitSet.of(0), predicate))
+            .isCloseTo(RelMdUtil.numDistinctVals(50.0, 200 * selectivity), within(1E-6));
+        // Columns not analyzed.
+        assertThat(mq.getDistinctRowCount(test1, ImmutableBitSet.of(3), null)).isNull();
+    }
+
+    @Test
+    public void testDistinctRowCountModified() throws SqlParseException {
+        analyze(TEST, 1000, "ID", 1000);
+        analyze(TEST1, 200, "ID0", 50);
+        StmtSummaryMap.addModifyRows(SCHEMA, TEST, 500);
+        StmtSummaryMap.addModifyRows(SCHEMA, TEST1, 100);
+        Join join = topJoin(convert("select * from test t join test1 t1 on t.id = t1.id0"));
+        RelMetadataQuery mq = join.getCluster().getMetadataQuery();
+        // A unique column grows with the rows inserted, others are kept.
+        assertThat(mq.getDistinctRowCount(join.getLeft(), ImmutableBitSet.of(0), null)).isEqualTo(1500);
+        assertThat(mq.getDistinctRowCount(join.getRight(), ImmutableBitSet.of(0), null)).isEqualTo(50);
+    }
+
+    @Test
+    public void testJoinRowCount() throws SqlParseException {
+        analyze(TEST, 1000, "ID", 1000);
+        analyze(TEST1, 200, "ID0", 50);
+        Join join = topJoin(convert("select * from test t join test1 t1 on t.id = t1.id0"));
+        RelMetadataQuery mq = join.getCluster().getMetadataQuery();
+        // 1000 * 200 / max(1000, 50)
+        assertThat(mq.getRowCount(join)).isCloseTo(200, within(1E-6));
+    }
+
+    @Test
+    public void testLeftJoinRowCount() throws SqlParseException {
+        analyze(TEST, 1000, "ID", 1000);
+        analyze(TEST1, 200, "ID0", 50);
+        Join join = topJoin(convert("select * from test t left join test1 t1 on t.id = t1.id0"));
+        RelMetadataQuery mq = join.getCluster().getMetadataQuery();
+        // All the rows of the left are kept.
+        assertThat(mq.getRowCount(join)).isCloseTo(1000, within(1E-6));
+    }
+
+    @Test
+    public void testJoinRowCountNotAnalyzed() throws SqlParseException {
+        Join join = topJoin(convert("select * from test t join test1 t1 on t.id = t1.id0"));
+        RelMetadataQuery mq = join.getCluster().getMetadataQuery();
+        assertThat(mq.getRowCount(join))
+            .isEqualTo(RelMdUtil.getJoinRowCount(mq, join, join.getCondition()));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite;
+
+import io.dingodb.calcite.mock.MockMetaServiceProvider;
+import io.dingodb.calcite.rel.DingoLooseScan;
+import io.dingodb.calcite.rule.DingoLooseScanRule;
+import io.dingodb.common.type.TupleMapping;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelRoot;
+import org.apache.calcite.rel.logical.LogicalAggregate;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.parser.SqlParseException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestLooseScan {
+    private static DingoParserContext context;
+    private DingoParser parser;
+
+    @BeforeAll
+    public static void setupAll() {
+        MockMetaServiceProvider.init();
+        Properties properties = new Properties();
+        context = new DingoParserContext(MockMetaServiceProvider.SCHEMA_NAME, properties);
+    }
+
+    @BeforeEach
+    public void setup() {
+        parser = new DingoParser(context);
+    }
+
+    private @NonNull LogicalAggregate aggregate(String sql) throws SqlParseException {
+        SqlNode sqlNode = parser.parse(sql);
+        RelRoot relRoot = parser.convert(sqlNode);
+        RelNode rel = relRoot.rel;
+        while (!(rel instanceof LogicalAggregate)) {
+            rel = rel.getInput(0);
+        }
+        return (LogicalAggregate) rel;
+    }
+
+    @Test
+    public void testMin() throws SqlParseException {
+        DingoLooseScan looseScan = DingoLooseScanRule.looseScanOf(aggregate("select min(id) from test"));
+        assertThat(looseScan).isNotNull();
+        assertThat(looseScan.getPrefixCount()).isZero();
+        assertThat(looseScan.getSelection()).isEqualTo(TupleMapping.of(new int[]{0}));
+    }
+
+    @Test
+    public void testDistinctPrefix() throws SqlParseException {
+        DingoLooseScan looseScan = DingoLooseScanRule.looseScanOf(aggregate("select distinct id0 from test1"));
+        assertThat(looseScan).isNotNull();
+        assertThat(looseScan.getPrefixCount()).isEqualTo(1);
+        assertThat(looseScan.getSelection()).isEqualTo(TupleMapping.of(new int[]{0}));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        // Not a key column.
+        "select min(amount) from test",
+        // Not the first key column.
+        "select distinct id1 from test1",
+        // The key column after the group is of character type.
+        "select id0, min(id1) from test1 group by id0",
+        // Not the minimum.
+        "select max(id) from test",
+        "select count(id) from test",
+        // Not a full scan.
+        "select min(id) from test where amount > 1",
+        // All the key columns are grouped.
+        "select distinct id from test",
+    })
+    public void testNotMatched(String sql) throws SqlParseException {
+        assertThat(DingoLooseScanRule.looseScanOf(aggregate(sql))).isNull();
+    }
+}
@@ -79,6 +79,34 @@ public class TestSelectivity {
         assertTrue(() -> Math.abs(eqSelectivity - realEqSelectivity.doubleValue()) < 0.10);
     }
 
+    @Test
+    public void testEquiDepthHistogram() {
+        Histogram histogram = new Histogram("dingo", "demo", "id", null, 0);
+        histogram.setSampleSize(10000);
+        Random random = new Random();
+        int total = 200000;
+        long lessThan = 0;
+        long equals = 0;
+        for (int i = 0; i < total; i++) {
+            // Half of the values are 7, the others are spread over [0, 100000).
+            int val = random.nextBoolean() ? 7 : random.nextInt(100000);
+            if (val < 50000) {
+                lessThan++;
+            }
+            if (val == 7) {
+                equals++;
+            }
+            histogram.addValue(val);
+        }
+        histogram.build(254, 20);
+        double eqSelectivity = histogram.estimateSelectivity(SqlKind.EQUALS, 7);
+        assertTrue(() -> Math.abs(eqSelectivity - equals / (double) total) < 0.05);
+        double ltSelectivity = histogram.estimateSelectivity(SqlKind.LESS_THAN, 50000);
+        assertTrue(() -> Math.abs(ltSelectivity - lessThan / (double) total) < 0.05);
+        double gtSelectivity = histogram.estimateSelectivity(SqlKind.GREATER_THAN_OR_EQUAL, 50000);
+        assertTrue(() -> Math.abs(gtSelectivity - (total - lessThan) / (double) total) < 0.05);
+    }
+
     @Test
     public void testCmSketch() {
         CountMinSketch countMinSketch = new CountMinSketch("dingo", "demo", "id", 0, 3, 5);
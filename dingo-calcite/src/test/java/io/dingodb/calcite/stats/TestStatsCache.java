@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.stats;
+
+import io.dingodb.common.profile.StmtSummaryMap;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestStatsCache {
+    private static final String SCHEMA = "STATS_SCHEMA";
+    private static final String TABLE = "STATS_TABLE";
+    private static final String KEY = SCHEMA + "." + TABLE;
+
+    private Map<String, TableStats> oldStats;
+
+    private static @NonNull TableStats tableStats(long rowCount) {
+        StatsNormal statsNormal = new StatsNormal("ID", rowCount, 0L, 4, rowCount);
+        TableStats tableStats = new TableStats(SCHEMA, TABLE);
+        tableStats.getStatsNormalList().add(statsNormal);
+        tableStats.initRowCount();
+        return tableStats;
+    }
+
+    @BeforeEach
+    public void setup() {
+        oldStats = StatsCache.statsMap;
+        StmtSummaryMap.resetModifyRows(KEY);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        StatsCache.statsMap = oldStats;
+        StmtSummaryMap.resetModifyRows(KEY);
+    }
+
+    @Test
+    public void testPut() {
+        StmtSummaryMap.addModifyRows(SCHEMA, TABLE, 50);
+        StatsCache.put(tableStats(100));
+        // The rows modified before are in the stats just analyzed.
+        assertThat(StatsCache.getTableRowCount(SCHEMA, TABLE)).isEqualTo(100);
+        StmtSummaryMap.addModifyRows(SCHEMA, TABLE, 30);
+        StmtSummaryMap.addModifyRows(SCHEMA, TABLE, -10);
+        assertThat(StatsCache.getTableRowCount(SCHEMA, TABLE)).isEqualTo(120);
+        StmtSummaryMap.addModifyRows(SCHEMA, TABLE, -500);
+        assertThat(StatsCache.getTableRowCount(SCHEMA, TABLE)).isZero();
+    }
+
+    @Test
+    public void testReloadSameRowCount() {
+        StatsCache.put(tableStats(100));
+        StmtSummaryMap.addModifyRows(SCHEMA, TABLE, 20);
+        Map<String, TableStats> stats = new HashMap<>();
+        stats.put(KEY, tableStats(100));
+        StatsCache.reload(stats);
+        // Not analyzed since loaded last time, the rows modified are kept.
+        assertThat(StatsCache.getTableRowCount(SCHEMA, TABLE)).isEqualTo(120);
+    }
+
+    @Test
+    public void testReloadNewRowCount() {
+        StatsCache.put(tableStats(100));
+        StmtSummaryMap.addModifyRows(SCHEMA, TABLE, 20);
+        Map<String, TableStats> stats = new HashMap<>();
+        stats.put(KEY, tableStats(130));
+        StatsCache.reload(stats);
+        // Analyzed elsewhere, the rows modified are in the new row count.
+        assertThat(StatsCache.getTableRowCount(SCHEMA, TABLE)).isEqualTo(130);
+    }
+
+    @Test
+    public void testReloadNewTable() {
+        StatsCache.statsMap = new HashMap<>();
+        StmtSummaryMap.addModifyRows(SCHEMA, TABLE, 20);
+        Map<String, TableStats> stats = new HashMap<>();
+        stats.put(KEY, tableStats(100));
+        StatsCache.reload(stats);
+        assertThat(StatsCache.getTableRowCount(SCHEMA, TABLE)).isEqualTo(100);
+        assertThat(StatsCache.statsMap).isSameAs(stats);
+    }
+}
@@ -31,4 +31,5 @@ public class ProcessInfo {
     private String info;
     private String client;
     private String txnIdStr;
+    private long memory;
 }
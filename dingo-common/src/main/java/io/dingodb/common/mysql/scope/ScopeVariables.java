@@ -93,6 +93,14 @@ public final class ScopeVariables {
         return (Double) executorProp.getOrDefault("request_factor", 15000D);
     }
 
+    public static Long getExecutorMemoryLimit() {
+        return (Long) executorProp.getOrDefault("executor_memory_limit", 0L);
+    }
+
+    public static Long getResultPrefetchBytes() {
+        return (Long) executorProp.getOrDefault("result_prefetch_bytes", 8L * 1024 * 1024);
+    }
+
     public static synchronized void setExecutorProp(String key, String val) {
         if ("rpc_batch_size".equalsIgnoreCase(key)) {
             int rpcBatchSize = Integer.parseInt(val);
@@ -106,6 +114,14 @@ public final class ScopeVariables {
             double requestFactor = Double.parseDouble(val);
             executorProp.put(key, requestFactor);
             return;
+        } else if ("executor_memory_limit".equalsIgnoreCase(key)) {
+            long executorMemoryLimit = Long.parseLong(val);
+            executorProp.put(key, executorMemoryLimit);
+            return;
+        } else if ("result_prefetch_bytes".equalsIgnoreCase(key)) {
+            long resultPrefetchBytes = Long.parseLong(val);
+            executorProp.put(key, resultPrefetchBytes);
+            return;
         }
         executorProp.put(key, val);
     }
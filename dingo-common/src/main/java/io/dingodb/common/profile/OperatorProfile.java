@@ -16,13 +16,29 @@
 
 package io.dingodb.common.profile;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.dingodb.common.config.DingoConfiguration;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.util.concurrent.atomic.LongAdder;
+
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class OperatorProfile extends Profile {
+    // Must be a power of 2.
+    public static final int SAMPLE_INTERVAL = 64;
+
+    // Only picks the calls to sample, an increment lost to another thread just samples another call.
+    @JsonIgnore
+    private transient long calls;
+    // Operators like hash join are pushed by several threads, so the calls timed by sampling are added up.
+    @JsonIgnore
+    private final transient LongAdder timed = new LongAdder();
+    @JsonIgnore
+    private final transient LongAdder sampled = new LongAdder();
+    @JsonIgnore
+    private final transient LongAdder sampledNanos = new LongAdder();
 
     public OperatorProfile(String type) {
         super(type);
@@ -32,6 +48,10 @@ public class OperatorProfile extends Profile {
     @Override
     public void end() {
         this.end = System.currentTimeMillis();
+        if (sampled.sum() > 0) {
+            count = timed.sum();
+            duration = estimateDuration();
+        }
         if (duration > 0 && count > 0) {
             this.avg = duration / count;
         }
@@ -54,6 +74,50 @@ public class OperatorProfile extends Profile {
         }
     }
 
+    /**
+     * Begin timing a call. The clock is read once every {@link #SAMPLE_INTERVAL} calls, {@code 0} is returned for
+     * the calls not sampled.
+     */
+    public long sampleStart() {
+        return (calls++ & (SAMPLE_INTERVAL - 1)) == 0 ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Count a call begun by {@link #sampleStart()}. The duration is estimated by the average time of the sampled
+     * calls, so that short calls are not rounded to 0 ms. The count and the duration are updated on the sampled calls
+     * and by {@link #end()}, {@code max} and {@code min} are best-effort if the calls are from several threads.
+     */
+    public void sampleTime(long start) {
+        timed.increment();
+        if (start != 0) {
+            long nanos = System.nanoTime() - start;
+            sampledNanos.add(nanos);
+            sampled.increment();
+            count = timed.sum();
+            long time = nanos / 1_000_000;
+            if (time > max) {
+                max = time;
+            }
+            if (time < min) {
+                min = time;
+            }
+            duration = estimateDuration();
+        }
+    }
+
+    long estimateDuration() {
+        return (long) ((double) sampledNanos.sum() / sampled.sum() * timed.sum() / 1_000_000);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        calls = 0;
+        timed.reset();
+        sampled.reset();
+        sampledNanos.reset();
+    }
+
     public void decreaseCount() {
         count --;
     }
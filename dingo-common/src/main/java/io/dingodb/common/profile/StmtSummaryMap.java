@@ -27,14 +27,18 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 public final class StmtSummaryMap {
     static BlockingQueue<SqlProfile> profileQueue;
     private static final LoadingCache<String, StmtSummary> stmtSummaryMap;
     private static final BlockingQueue<AnalyzeEvent> analyzeQueue;
+    private static final Map<String, LongAdder> modifyRows = new ConcurrentHashMap<>();
 
     private StmtSummaryMap() {
     }
@@ -124,6 +128,36 @@ public final class StmtSummaryMap {
         analyzeQueue.add(analyzeEvent);
     }
 
+    /**
+     * Count the rows inserted (positive) or deleted (negative) by committed transactions, so that the row count of
+     * the table stats stays fresh until the table is analyzed again.
+     *
+     * <p>The counts are kept in the memory of this coordinator only, and are lost when it restarts. The rows modified
+     * through other coordinators are seen here once the table is analyzed and the reloaded stats show a new row
+     * count, which also resets the count here.
+     */
+    public static void addModifyRows(String schemaName, String tableName, long rows) {
+        if (rows != 0) {
+            modifyRows.computeIfAbsent(modifyKey(schemaName, tableName), k -> new LongAdder()).add(rows);
+        }
+    }
+
+    /**
+     * Get the rows counted since the last reset, the key is {@code SCHEMA.TABLE} in upper case.
+     */
+    public static long getModifyRows(String key) {
+        LongAdder rows = modifyRows.get(key);
+        return rows == null ? 0 : rows.sum();
+    }
+
+    public static void resetModifyRows(String key) {
+        modifyRows.remove(key);
+    }
+
+    private static String modifyKey(String schemaName, String tableName) {
+        return (schemaName + "." + tableName).toUpperCase();
+    }
+
     public static AnalyzeEvent getAnalyzeEvent() {
         while (true) {
             try {
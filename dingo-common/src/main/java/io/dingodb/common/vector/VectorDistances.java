@@ -0,0 +1,188 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.common.vector;
+
+import io.dingodb.serial.util.FloatArrayList;
+
+import java.util.List;
+
+/**
+ * Distance kernels over primitive float vectors, the same metrics as the store: squared euclidean distance for
+ * L2, {@code 1 - a·b} for inner product and {@code 1 - cos(a, b)} for cosine. The loops are unrolled by 4 with
+ * separate accumulators so that the jit can pipeline them.
+ */
+public final class VectorDistances {
+
+    private static final double NORM_EPSILON = 1E-30;
+
+    private VectorDistances() {
+    }
+
+    public enum Metric {
+        L2,
+        INNER_PRODUCT,
+        COSINE;
+
+        /**
+         * Parse the metric type of a vector index, L2 by default as the store does.
+         */
+        public static Metric of(String metricType) {
+            if (metricType != null) {
+                String type = metricType.toUpperCase();
+                if (type.contains("INNER_PRODUCT")) {
+                    return INNER_PRODUCT;
+                }
+                if (type.contains("COSINE")) {
+                    return COSINE;
+                }
+            }
+            return L2;
+        }
+
+        public float distance(float[] vectorA, float[] vectorB) {
+            switch (this) {
+                case INNER_PRODUCT:
+                    return innerProductDistance(vectorA, vectorB);
+                case COSINE:
+                    return cosineDistance(vectorA, vectorB);
+                case L2:
+                default:
+                    return l2Distance(vectorA, vectorB);
+            }
+        }
+
+        /**
+         * Distances to a fixed target, the norm of the target is computed once for cosine.
+         */
+        public Target target(float[] target) {
+            return new Target(this, target);
+        }
+    }
+
+    public static final class Target {
+        private final Metric metric;
+        private final float[] vector;
+        private final double invNorm;
+
+        private Target(Metric metric, float[] vector) {
+            this.metric = metric;
+            this.vector = vector;
+            this.invNorm = metric == Metric.COSINE ? invNorm(vector) : 0;
+        }
+
+        public float distance(float[] other) {
+            checkDimension(vector, other);
+            if (metric == Metric.COSINE) {
+                return (float) (1 - dot(vector, other) * invNorm * invNorm(other));
+            }
+            return metric.distance(vector, other);
+        }
+
+        /**
+         * Distances of a batch of vectors, written to {@code out} by position.
+         */
+        public void distances(float[][] others, float[] out) {
+            for (int i = 0; i < others.length; i++) {
+                out[i] = distance(others[i]);
+            }
+        }
+    }
+
+    public static float l2Distance(float[] vectorA, float[] vectorB) {
+        checkDimension(vectorA, vectorB);
+        int length = vectorA.length;
+        int bound = length & ~3;
+        float sum0 = 0;
+        float sum1 = 0;
+        float sum2 = 0;
+        float sum3 = 0;
+        int i = 0;
+        for (; i < bound; i += 4) {
+            float d0 = vectorA[i] - vectorB[i];
+            float d1 = vectorA[i + 1] - vectorB[i + 1];
+            float d2 = vectorA[i + 2] - vectorB[i + 2];
+            float d3 = vectorA[i + 3] - vectorB[i + 3];
+            sum0 += d0 * d0;
+            sum1 += d1 * d1;
+            sum2 += d2 * d2;
+            sum3 += d3 * d3;
+        }
+        for (; i < length; i++) {
+            float d = vectorA[i] - vectorB[i];
+            sum0 += d * d;
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    public static float innerProductDistance(float[] vectorA, float[] vectorB) {
+        checkDimension(vectorA, vectorB);
+        return (float) (1 - dot(vectorA, vectorB));
+    }
+
+    public static float cosineDistance(float[] vectorA, float[] vectorB) {
+        checkDimension(vectorA, vectorB);
+        return (float) (1 - dot(vectorA, vectorB) * invNorm(vectorA) * invNorm(vectorB));
+    }
+
+    public static double dot(float[] vectorA, float[] vectorB) {
+        int length = vectorA.length;
+        int bound = length & ~3;
+        float sum0 = 0;
+        float sum1 = 0;
+        float sum2 = 0;
+        float sum3 = 0;
+        int i = 0;
+        for (; i < bound; i += 4) {
+            sum0 += vectorA[i] * vectorB[i];
+            sum1 += vectorA[i + 1] * vectorB[i + 1];
+            sum2 += vectorA[i + 2] * vectorB[i + 2];
+            sum3 += vectorA[i + 3] * vectorB[i + 3];
+        }
+        for (; i < length; i++) {
+            sum0 += vectorA[i] * vectorB[i];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    private static double invNorm(float[] vector) {
+        return 1.0 / (Math.sqrt(dot(vector, vector)) + NORM_EPSILON);
+    }
+
+    /**
+     * Primitive values of a vector, without copying if it is a {@link FloatArrayList}. The result must not be
+     * modified.
+     */
+    public static float[] toArray(List<? extends Number> vector) {
+        return FloatArrayList.toArray(vector);
+    }
+
+    public static float[] toArray(Float[] vector) {
+        float[] array = new float[vector.length];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = vector[i];
+        }
+        return array;
+    }
+
+    private static void checkDimension(float[] vectorA, float[] vectorB) {
+        if (vectorA.length != vectorB.length) {
+            throw new IllegalArgumentException(
+                "The dimensions of the source vector and the target vector must be consistent"
+            );
+        }
+    }
+}
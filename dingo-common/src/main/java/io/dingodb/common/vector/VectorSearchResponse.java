@@ -19,8 +19,6 @@ package io.dingodb.common.vector;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.List;
-
 @Getter
 @Setter
 public class VectorSearchResponse {
@@ -31,6 +29,6 @@ public class VectorSearchResponse {
 
     float distance;
 
-    List<Float> floatValues;
+    float[] floatValues;
 
 }
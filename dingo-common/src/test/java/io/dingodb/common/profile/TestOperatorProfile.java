@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.common.profile;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestOperatorProfile {
+    private static final long NANOS_2MS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Test
+    public void testSampleStart() {
+        OperatorProfile profile = new OperatorProfile("test");
+        for (int i = 0; i < 3 * OperatorProfile.SAMPLE_INTERVAL; ++i) {
+            long start = profile.sampleStart();
+            if (i % OperatorProfile.SAMPLE_INTERVAL == 0) {
+                assertThat(start).isNotZero();
+            } else {
+                assertThat(start).isZero();
+            }
+        }
+    }
+
+    @Test
+    public void testSampleTime() {
+        OperatorProfile profile = new OperatorProfile("test");
+        profile.start();
+        for (int i = 0; i < 2 * OperatorProfile.SAMPLE_INTERVAL; ++i) {
+            // Every sampled call takes 2 ms.
+            profile.sampleTime(i % OperatorProfile.SAMPLE_INTERVAL == 0 ? System.nanoTime() - NANOS_2MS : 0);
+        }
+        assertThat(profile.getTimed().sum()).isEqualTo(2 * OperatorProfile.SAMPLE_INTERVAL);
+        assertThat(profile.getSampled().sum()).isEqualTo(2);
+        assertThat(profile.getSampledNanos().sum()).isGreaterThanOrEqualTo(2 * NANOS_2MS);
+        profile.end();
+        assertThat(profile.getCount()).isEqualTo(2 * OperatorProfile.SAMPLE_INTERVAL);
+        assertThat(profile.getDuration()).isEqualTo(profile.estimateDuration());
+        assertThat(profile.getAvg()).isEqualTo(profile.getDuration() / profile.getCount());
+        assertThat(profile.getMax()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testEstimateDuration() {
+        OperatorProfile profile = new OperatorProfile("test");
+        profile.sampleTime(System.nanoTime() - NANOS_2MS);
+        for (int i = 1; i < 100; ++i) {
+            profile.sampleTime(0);
+        }
+        // 100 calls of about 2 ms each.
+        assertThat(profile.estimateDuration()).isBetween(200L, 2000L);
+        // The count and duration of the calls not sampled are not updated until the end.
+        assertThat(profile.getCount()).isEqualTo(1);
+        profile.end();
+        assertThat(profile.getCount()).isEqualTo(100);
+        assertThat(profile.getDuration()).isBetween(200L, 2000L);
+    }
+
+    @Test
+    public void testNotSampled() {
+        OperatorProfile profile = new OperatorProfile("test");
+        profile.time(System.currentTimeMillis());
+        profile.end();
+        assertThat(profile.getCount()).isEqualTo(1);
+        assertThat(profile.getSampled().sum()).isZero();
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        OperatorProfile profile = new OperatorProfile("test");
+        int threadNum = 4;
+        int calls = 10000;
+        List<Thread> threads = new ArrayList<>(threadNum);
+        for (int i = 0; i < threadNum; ++i) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < calls; ++j) {
+                    profile.sampleTime(profile.sampleStart());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        profile.end();
+        assertThat(profile.getCount()).isEqualTo((long) threadNum * calls);
+        assertThat(profile.getTimed().sum()).isEqualTo((long) threadNum * calls);
+        // The calls to sample may be picked twice by racing threads, but every sampled call is added up.
+        assertThat(profile.getSampled().sum()).isPositive();
+        assertThat(profile.getDuration()).isEqualTo(profile.estimateDuration());
+    }
+
+    @Test
+    public void testClear() {
+        OperatorProfile profile = new OperatorProfile("test");
+        profile.sampleTime(profile.sampleStart());
+        profile.sampleTime(profile.sampleStart());
+        profile.clear();
+        assertThat(profile.getCount()).isZero();
+        assertThat(profile.getTimed().sum()).isZero();
+        assertThat(profile.getSampled().sum()).isZero();
+        assertThat(profile.getSampledNanos().sum()).isZero();
+        assertThat(profile.sampleStart()).isNotZero();
+    }
+}
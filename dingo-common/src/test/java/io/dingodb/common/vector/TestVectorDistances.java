@@ -0,0 +1,145 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dingodb.common.vector;
+
+import io.dingodb.common.vector.VectorDistances.Metric;
+import io.dingodb.serial.util.FloatArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class TestVectorDistances {
+
+    private static float[] vector(Random random, int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        return vector;
+    }
+
+    private static double naiveDot(float[] vectorA, float[] vectorB) {
+        double sum = 0;
+        for (int i = 0; i < vectorA.length; i++) {
+            sum += (double) vectorA[i] * vectorB[i];
+        }
+        return sum;
+    }
+
+    private static double naiveL2(float[] vectorA, float[] vectorB) {
+        double sum = 0;
+        for (int i = 0; i < vectorA.length; i++) {
+            double d = (double) vectorA[i] - vectorB[i];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    private static double naiveCosine(float[] vectorA, float[] vectorB) {
+        return 1 - naiveDot(vectorA, vectorB)
+            / (Math.sqrt(naiveDot(vectorA, vectorA)) * Math.sqrt(naiveDot(vectorB, vectorB)));
+    }
+
+    // the lengths cover the unrolled loop, the tail loop and both
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 4, 5, 7, 8, 129})
+    public void testDistances(int length) {
+        Random random = new Random(length);
+        // the float sums are rounded by each step
+        double error = 1E-5 * length;
+        for (int n = 0; n < 10; n++) {
+            float[] vectorA = vector(random, length);
+            float[] vectorB = vector(random, length);
+            assertThat(VectorDistances.dot(vectorA, vectorB)).isCloseTo(naiveDot(vectorA, vectorB), within(error));
+            assertThat((double) VectorDistances.l2Distance(vectorA, vectorB))
+                .isCloseTo(naiveL2(vectorA, vectorB), within(error));
+            assertThat((double) VectorDistances.innerProductDistance(vectorA, vectorB))
+                .isCloseTo(1 - naiveDot(vectorA, vectorB), within(error));
+            assertThat((double) VectorDistances.cosineDistance(vectorA, vectorB))
+                .isCloseTo(naiveCosine(vectorA, vectorB), within(error));
+            for (Metric metric : Metric.values()) {
+                assertThat(metric.target(vectorA).distance(vectorB))
+                    .isCloseTo(metric.distance(vectorA, vectorB), within(1E-5f));
+            }
+        }
+    }
+
+    @Test
+    public void testTargetDistances() {
+        Random random = new Random(1);
+        float[] target = vector(random, 5);
+        float[][] others = {vector(random, 5), vector(random, 5), vector(random, 5)};
+        float[] out = new float[others.length];
+        Metric.COSINE.target(target).distances(others, out);
+        for (int i = 0; i < others.length; i++) {
+            assertThat(out[i]).isCloseTo(VectorDistances.cosineDistance(target, others[i]), within(1E-5f));
+        }
+    }
+
+    @Test
+    public void testCosineZero() {
+        float[] zero = new float[5];
+        float[] vector = {1, 2, 3, 4, 5};
+        // a zero vector is orthogonal to any vector, the distance is not NaN
+        assertThat(VectorDistances.cosineDistance(zero, vector)).isEqualTo(1f);
+        assertThat(VectorDistances.cosineDistance(vector, zero)).isEqualTo(1f);
+        assertThat(VectorDistances.cosineDistance(zero, zero)).isEqualTo(1f);
+        assertThat(Metric.COSINE.target(zero).distance(vector)).isEqualTo(1f);
+        assertThat(Metric.COSINE.target(vector).distance(zero)).isEqualTo(1f);
+        assertThat(VectorDistances.cosineDistance(vector, vector)).isCloseTo(0f, within(1E-6f));
+    }
+
+    @Test
+    public void testDimension() {
+        assertThatThrownBy(() -> VectorDistances.l2Distance(new float[3], new float[4]))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> VectorDistances.cosineDistance(new float[3], new float[4]))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Metric.INNER_PRODUCT.target(new float[3]).distance(new float[4]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testMetricOf() {
+        assertThat(Metric.of("L2")).isEqualTo(Metric.L2);
+        assertThat(Metric.of("METRIC_TYPE_L2")).isEqualTo(Metric.L2);
+        assertThat(Metric.of("INNER_PRODUCT")).isEqualTo(Metric.INNER_PRODUCT);
+        assertThat(Metric.of("METRIC_TYPE_INNER_PRODUCT")).isEqualTo(Metric.INNER_PRODUCT);
+        assertThat(Metric.of("COSINE")).isEqualTo(Metric.COSINE);
+        assertThat(Metric.of("metric_type_cosine")).isEqualTo(Metric.COSINE);
+        assertThat(Metric.of("HAMMING")).isEqualTo(Metric.L2);
+        assertThat(Metric.of(null)).isEqualTo(Metric.L2);
+        for (Metric metric : Metric.values()) {
+            assertThat(Metric.of(metric.name())).isEqualTo(metric);
+        }
+    }
+
+    @Test
+    public void testToArray() {
+        float[] array = {1, 2, 3};
+        assertThat(VectorDistances.toArray(new FloatArrayList(array))).isSameAs(array);
+        assertThat(VectorDistances.toArray(Arrays.asList(1, 2.5, 3f))).containsExactly(1f, 2.5f, 3f);
+        assertThat(VectorDistances.toArray(new Float[]{1f, 2f})).containsExactly(1f, 2f);
+        assertThat(VectorDistances.toArray(new Float[0])).isEmpty();
+    }
+}
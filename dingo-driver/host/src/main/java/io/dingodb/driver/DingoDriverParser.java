@@ -32,9 +32,11 @@ import io.dingodb.calcite.operation.Operation;
 import io.dingodb.calcite.operation.QueryOperation;
 import io.dingodb.calcite.operation.ShowProcessListOperation;
 import io.dingodb.calcite.rel.AutoIncrementShuttle;
+import io.dingodb.calcite.rel.BatchValuesShuttle;
 import io.dingodb.calcite.rel.DingoBasicCall;
 import io.dingodb.calcite.rel.DingoVector;
 import io.dingodb.calcite.type.converter.DefinitionMapper;
+import io.dingodb.calcite.utils.CalcValueUtils;
 import io.dingodb.calcite.utils.SqlUtil;
 import io.dingodb.calcite.visitor.DingoJobVisitor;
 import io.dingodb.common.CommonId;
@@ -50,10 +52,13 @@ import io.dingodb.common.profile.PlanProfile;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.util.Optional;
 import io.dingodb.common.util.Utils;
+import io.dingodb.exec.admission.ResourceGroup;
 import io.dingodb.exec.base.Job;
 import io.dingodb.exec.base.JobManager;
 import io.dingodb.exec.exception.TaskFinException;
 import io.dingodb.exec.fin.ErrorType;
+import io.dingodb.exec.fun.AutoIncrementFun;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.transaction.base.ITransaction;
 import io.dingodb.exec.transaction.base.TransactionType;
 import io.dingodb.meta.MetaService;
@@ -78,11 +83,16 @@ import org.apache.calcite.prepare.RelOptTableImpl;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelRoot;
 import org.apache.calcite.rel.RelShuttleImpl;
+import org.apache.calcite.rel.RelVisitor;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeFactory;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.rel.type.RelDataTypeSystem;
 import org.apache.calcite.runtime.CalciteContextException;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
+import org.apache.calcite.rex.RexSubQuery;
 import org.apache.calcite.server.DdlExecutor;
 import org.apache.calcite.sql.SqlBasicCall;
 import org.apache.calcite.sql.SqlExplain;
@@ -92,6 +102,7 @@ import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.SqlLiteral;
 import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.SqlNodeList;
+import org.apache.calcite.sql.SqlOperator;
 import org.apache.calcite.sql.SqlOrderBy;
 import org.apache.calcite.sql.SqlSelect;
 import org.apache.calcite.sql.parser.SqlParseException;
@@ -114,6 +125,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
@@ -132,6 +144,9 @@ public final class DingoDriverParser extends DingoParser {
     private CommitProfile commitProfile;
     @Getter
     private DingoAudit dingoAudit;
+    // Rows inserted by each parameter set of the job created by `createBatchJob`.
+    @Getter
+    private int batchRowCount;
 
     public DingoDriverParser(@NonNull DingoConnection connection) {
         super(connection.getContext());
@@ -257,6 +272,20 @@ public final class DingoDriverParser extends DingoParser {
         String sql,
         boolean prepare
     ) {
+        JavaTypeFactory typeFactory = connection.getTypeFactory();
+        final Meta.CursorFactory cursorFactory = Meta.CursorFactory.ARRAY;
+        PlanCache.Key planKey = planCacheKey(sql);
+        PlanCache.Plan plan = PlanCache.get(planKey);
+        if (plan != null) {
+            planProfile.endParse();
+            planProfile.setStmtType(plan.getSqlNode().getKind().lowerName);
+            planProfile.endValidator();
+            planProfile.endOptimize();
+            return createSignature(
+                jobManager, jobSeqId, sql, plan.getSqlNode(), null, plan.getRelNode(), plan.getParasType(),
+                plan.getStatementType(), plan.getColumns(), plan.getTables(), typeFactory, cursorFactory
+            );
+        }
         SqlNode sqlNode;
         try {
             sqlNode = parse(sql);
@@ -266,10 +295,9 @@ public final class DingoDriverParser extends DingoParser {
         } catch (SqlParseException e) {
             throw ExceptionUtils.toRuntime(e);
         }
-        syntacticSugar(sqlNode);
+        // the sugar bakes the connection into the plan
+        boolean connectionSugar = syntacticSugar(sqlNode);
         planProfile.endParse();
-        JavaTypeFactory typeFactory = connection.getTypeFactory();
-        final Meta.CursorFactory cursorFactory = Meta.CursorFactory.ARRAY;
         planProfile.setStmtType(sqlNode.getKind().lowerName);
         // for compatible mysql protocol
         MysqlSignature mysqlSignature = getMysqlSignature(SqlUtil.checkSql(sqlNode, sql), sqlNode, typeFactory, cursorFactory);
@@ -278,6 +306,7 @@ public final class DingoDriverParser extends DingoParser {
         }
 
         if (sqlNode.getKind().belongsTo(SqlKind.DDL)) {
+            PlanCache.invalidateAll();
             planProfile.end();
             DingoDdlVerify.verify(sqlNode, connection);
             execProfile = new ExecProfile("DDL");
@@ -349,10 +378,32 @@ public final class DingoDriverParser extends DingoParser {
         RelNode relNode = optimize(relRoot.rel);
         planProfile.endOptimize();
         markAutoIncForDml(relNode);
-        Location currentLocation = MetaService.root().currentLocation();
         RelDataType parasType = validator.getParameterRowType(sqlNode);
         Set<RelOptTable> tables = useTables(relNode, sqlNode);
+        if (explain == null && pointTs == 0 && !connectionSugar && isCacheable(relRoot.rel)) {
+            PlanCache.put(planKey, new PlanCache.Plan(sqlNode, relNode, parasType, statementType, columns, tables));
+        }
+        return createSignature(
+            jobManager, jobSeqId, sql, sqlNode, explain, relNode, parasType, statementType, columns, tables,
+            typeFactory, cursorFactory
+        );
+    }
 
+    private Meta.Signature createSignature(
+        JobManager jobManager,
+        long jobSeqId,
+        String sql,
+        SqlNode sqlNode,
+        @Nullable SqlExplain explain,
+        RelNode relNode,
+        RelDataType parasType,
+        Meta.StatementType statementType,
+        List<ColumnMetaData> columns,
+        Set<RelOptTable> tables,
+        JavaTypeFactory typeFactory,
+        Meta.CursorFactory cursorFactory
+    ) {
+        Location currentLocation = MetaService.root().currentLocation();
         boolean isTxn = checkEngine(sqlNode, tables, connection.getTransaction(), planProfile);
         // get startTs for jobSeqId, if transaction is not null ,transaction startTs is jobDomainId
         long startTs;
@@ -404,6 +455,7 @@ public final class DingoDriverParser extends DingoParser {
             startTs, jobSeqId, txn_Id, DefinitionMapper.mapToDingoType(parasType), maxTimeOut,
             statementType == Meta.StatementType.SELECT
         );
+        setAdmission(job);
         DingoJobVisitor.renderJob(
             job,
             relNode,
@@ -662,6 +714,7 @@ public final class DingoDriverParser extends DingoParser {
             startTs, jobSeqId, transaction.getTxnId(), DefinitionMapper.mapToDingoType(parasType), maxTimeOut,
             false
         );
+        setAdmission(job);
         DingoJobVisitor.renderJob(
             job,
             relNode,
@@ -685,6 +738,63 @@ public final class DingoDriverParser extends DingoParser {
             null
         );
     }
+    /**
+     * Render a job running all the parameter sets of a batch insert as the rows of one values source.
+     *
+     * @return null if the statement can not be run as one job, then the batch is executed one by one
+     */
+    public @Nullable Job createBatchJob(JobManager jobManager, DingoSignature signature, List<Object[]> parasList) {
+        ITransaction transaction = connection.getTransaction();
+        SqlNode sqlNode = signature.getSqlNode();
+        if (transaction == null || transaction.isPessimistic() || signature.getRelNode() == null
+            || sqlNode == null || sqlNode.getKind() != SqlKind.INSERT) {
+            return null;
+        }
+        BatchValuesShuttle shuttle = new BatchValuesShuttle(
+            signature.getParasType(), parasList, CalcValueUtils.getConfig(connection.getContext().getTimeZone())
+        );
+        RelNode relNode = signature.getRelNode().accept(shuttle);
+        if (!shuttle.isBound()) {
+            return null;
+        }
+        markAutoIncForDml(relNode);
+        long jobSeqId = TsoService.getDefault().tso();
+        try {
+            lockTables(
+                useTables(relNode, sqlNode), transaction.getStartTs(), jobSeqId, transaction.getFinishedFuture()
+            );
+        } catch (Exception e) {
+            LogUtils.error(log, e.getMessage(), e);
+            throw e;
+        }
+        String maxExecutionTimeStr = connection.getClientInfo("max_execution_time");
+        maxExecutionTimeStr = maxExecutionTimeStr == null ? "0" : maxExecutionTimeStr;
+        Job job = jobManager.createJob(
+            transaction.getStartTs(), jobSeqId, transaction.getTxnId(), null, Long.parseLong(maxExecutionTimeStr), false
+        );
+        setAdmission(job);
+        batchRowCount = shuttle.getRowCount();
+        DingoJobVisitor.renderJob(
+            job,
+            relNode,
+            MetaService.root().currentLocation(),
+            true,
+            transaction.getType() == NONE ? null : transaction,
+            sqlNode.getKind(),
+            "on".equalsIgnoreCase(connection.getClientInfo("dingo_join_concurrency_enable"))
+        );
+        return job;
+    }
+
+    private void setAdmission(@NonNull Job job) {
+        job.setMaxMemory(Optional.mapOrGet(connection.getClientInfo("query_memory_limit"), Long::parseLong, () -> 0L));
+        job.setResourceGroup(ResourceGroup.resolve(
+            connection.getClientInfo("resource_group"),
+            connection.getContext().getOption("user")
+        ));
+        job.setPriority(Optional.mapOrGet(connection.getClientInfo("query_priority"), Integer::parseInt, () -> 0));
+    }
+
     private static void runPessimisticPrimaryKeyJob(
         long jobSeqId,
         JobManager jobManager,
@@ -825,6 +935,14 @@ public final class DingoDriverParser extends DingoParser {
         return isTxn;
     }
 
+    private PlanCache.Key planCacheKey(String sql) {
+        DingoParserContext context = connection.getContext();
+        String schema = context.getUsedSchema() == null
+            ? context.getDefaultSchemaName() : context.getUsedSchema().getName();
+        String options = context.isUsingRelOp() + "," + context.isPushDown() + "," + context.getTimeZone().getID();
+        return PlanCache.key(sql, schema, context.getOption("user"), context.getOption("host"), options);
+    }
+
     private static void markAutoIncForDml(RelNode relNode) {
         try {
             relNode.accept(AutoIncrementShuttle.INSTANCE);
@@ -846,8 +964,10 @@ public final class DingoDriverParser extends DingoParser {
                 }
                 DingoConnection dingoConn = (DingoConnection) entry.getValue();
                 String txnIdStr = "";
+                long memory = 0;
                 if (dingoConn.getTransaction() != null && dingoConn.getTransaction().getTxnId() != null) {
                     txnIdStr = dingoConn.getTransaction().getTxnId().toString();
+                    memory = MemoryTracker.getTxnUsage(dingoConn.getTransaction().getTxnId());
                 }
                 String info = dingoConn.getCommand();
                 long commandStartTime = dingoConn.getCommandStartTime();
@@ -869,6 +989,7 @@ public final class DingoDriverParser extends DingoParser {
                 processInfo.setCommand(command);
                 processInfo.setTime(costTimeStr);
                 processInfo.setTxnIdStr(txnIdStr);
+                processInfo.setMemory(memory);
                 try {
                     processInfo.setState(dingoConn.isClosed() ? "closed" : "open");
                 } catch (SQLException e) {
@@ -880,23 +1001,30 @@ public final class DingoDriverParser extends DingoParser {
             .collect(Collectors.toList());
     }
 
-    private void syntacticSugar(SqlNode sqlNode) {
+    /**
+     * Pass the connection id to the calls reading connection variables.
+     *
+     * @return true if any call is rewritten
+     */
+    private boolean syntacticSugar(SqlNode sqlNode) {
         if (sqlNode instanceof SqlSelect) {
             SqlNodeList sqlNodes = ((SqlSelect) sqlNode).getSelectList();
-            deepSugar(sqlNodes);
+            return deepSugar(sqlNodes);
         } else if (sqlNode instanceof SqlOrderBy) {
             SqlOrderBy sqlOrderBy = (SqlOrderBy) sqlNode;
             if (sqlOrderBy.query instanceof SqlSelect) {
                 SqlSelect sqlSelect = (SqlSelect) sqlOrderBy.query;
-                deepSugar(sqlSelect.getSelectList());
+                return deepSugar(sqlSelect.getSelectList());
             }
         }
+        return false;
     }
 
-    public void deepSugar(List<SqlNode> sqlNodes) {
+    public boolean deepSugar(List<SqlNode> sqlNodes) {
         if (sqlNodes == null) {
-            return;
+            return false;
         }
+        boolean rewritten = false;
         for (int i = 0; i < sqlNodes.size(); i ++) {
             SqlNode sqlNode1 = sqlNodes.get(i);
             if (sqlNode1 instanceof SqlBasicCall) {
@@ -918,13 +1046,50 @@ public final class DingoDriverParser extends DingoParser {
                         call = new DingoBasicCall(call);
                         sqlNodes.add(i, call);
                     }
-                    deepSugar(call.getOperandList());
+                    rewritten |= deepSugar(call.getOperandList());
                     continue;
                 }
                 nodes.add(SqlLiteral.createCharString(connection.id, call.getParserPosition()));
                 sqlNodes.add(i, new SqlBasicCall(call.getOperator(), nodes, call.getParserPosition()));
+                rewritten = true;
             }
         }
+        return rewritten;
+    }
+
+    /**
+     * A plan can be shared only if the calls evaluated while planning give the same result for every execution.
+     */
+    private static boolean isCacheable(RelNode relNode) {
+        AtomicBoolean cacheable = new AtomicBoolean(true);
+        RexShuttle finder = new RexShuttle() {
+            @Override
+            public RexNode visitCall(RexCall call) {
+                SqlOperator operator = call.getOperator();
+                if (!operator.isDeterministic() || operator.isDynamicFunction()
+                    || operator.getName().equalsIgnoreCase(AutoIncrementFun.NAME)) {
+                    cacheable.set(false);
+                    return call;
+                }
+                return super.visitCall(call);
+            }
+
+            @Override
+            public RexNode visitSubQuery(RexSubQuery subQuery) {
+                if (!isCacheable(subQuery.rel)) {
+                    cacheable.set(false);
+                }
+                return super.visitSubQuery(subQuery);
+            }
+        };
+        new RelVisitor() {
+            @Override
+            public void visit(RelNode node, int ordinal, @Nullable RelNode parent) {
+                node.accept(finder);
+                super.visit(node, ordinal, parent);
+            }
+        }.go(relNode);
+        return cacheable.get();
     }
 
 }
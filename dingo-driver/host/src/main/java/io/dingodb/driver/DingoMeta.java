@@ -71,7 +71,9 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -456,8 +458,10 @@ public class DingoMeta extends MetaImpl {
             public void execute() {
                 assert signature != null;
                 if (signature.statementType.canUpdate()) {
+                    ITransaction transaction = ((DingoConnection) connection).getTransaction();
                     final Iterator<Object[]> iterator = createIterator(statement);
                     updateCount = ((Number) iterator.next()[0]).longValue();
+                    addModifyRows(transaction, signature, updateCount);
                 }
                 updateCounts.add(updateCount);
             }
@@ -481,14 +485,24 @@ public class DingoMeta extends MetaImpl {
         }
         SqlProfile profile = statement.getSqlProfile();
         try {
-            for (List<TypedValue> parameterValue : parameterValues) {
-                ExecuteResult executeResult = execBatch(sh, parameterValue, -1);
-                final long updateCount =
-                    executeResult.resultSets.size() == 1
-                        ? executeResult.resultSets.get(0).updateCount
-                        : -1L;
-                updateCounts.add(updateCount);
+            long[] batchCounts = execBatchInOneJob(statement, parameterValues);
+            if (batchCounts != null) {
+                updateCounts.addAll(Longs.asList(batchCounts));
+            } else {
+                for (List<TypedValue> parameterValue : parameterValues) {
+                    ExecuteResult executeResult = execBatch(sh, parameterValue, -1);
+                    final long updateCount =
+                        executeResult.resultSets.size() == 1
+                            ? executeResult.resultSets.get(0).updateCount
+                            : -1L;
+                    updateCounts.add(updateCount);
+                }
             }
+            addModifyRows(
+                transaction,
+                statement.getSignature(),
+                updateCounts.stream().mapToLong(Long::longValue).filter(c -> c > 0).sum()
+            );
         } catch (Throwable throwable) {
             LogUtils.error(log, "run job exception:{}", throwable, throwable);
             if (transaction != null && transaction.isPessimistic()
@@ -635,6 +649,12 @@ public class DingoMeta extends MetaImpl {
                 throw ExceptionUtils.toRuntime(e);
             }
             done = fetchMaxRowCount == 0 || !iterator.hasNext();
+            if (offset == 0 && isDml(signature) && !rows.isEmpty() && rows.get(0) instanceof Object[]) {
+                Object count = ((Object[]) rows.get(0))[0];
+                if (count instanceof Number) {
+                    addModifyRows(transaction, signature, ((Number) count).longValue());
+                }
+            }
             if (transaction != null) {
                 LogUtils.info(log, "{} sql:{} , txnAutoCommit:{}, txnType:{} ", transaction.getTxnId(),
                     signature.sql, transaction.isAutoCommit(), transaction.getType());
@@ -700,6 +720,29 @@ public class DingoMeta extends MetaImpl {
             || signature.statementType == StatementType.IS_DML;
     }
 
+    /**
+     * Count the rows inserted or deleted by a statement on a single table, they are added to the row count of the
+     * table stats when the transaction commits.
+     */
+    private static void addModifyRows(@Nullable ITransaction transaction, Signature signature, long rows) {
+        if (transaction == null || rows <= 0 || !(signature instanceof DingoSignature)) {
+            return;
+        }
+        List<String> tables = ((DingoSignature) signature).getFullyTableList();
+        if (tables == null || tables.size() != 1 || tables.get(0) == null) {
+            return;
+        }
+        String[] names = tables.get(0).split("\\.", 2);
+        if (names.length < 2) {
+            return;
+        }
+        if (signature.statementType == StatementType.INSERT) {
+            transaction.addModifyRows(names[0], names[1], rows);
+        } else if (signature.statementType == StatementType.DELETE) {
+            transaction.addModifyRows(names[0], names[1], -rows);
+        }
+    }
+
     private static SqlProfile getProfile(Iterator<Object[]> iterator, AvaticaStatement statement) {
         SqlProfile sqlProfile = null;
         if (statement instanceof DingoStatement) {
@@ -834,12 +877,10 @@ public class DingoMeta extends MetaImpl {
         try {
             if (statement.getStatementType().canUpdate()) {
                 final Iterator<Object[]> iterator = createIterator(statement);
-                MetaResultSet metaResultSet = MetaResultSet.count(
-                    sh.connectionId,
-                    sh.id,
-                    ((Number) iterator.next()[0]).longValue()
-                );
+                long count = ((Number) iterator.next()[0]).longValue();
+                MetaResultSet metaResultSet = MetaResultSet.count(sh.connectionId, sh.id, count);
                 SqlProfile sqlProfile = getProfile(iterator, statement);
+                addModifyRows(transaction, statement.getSignature(), count);
                 if (transaction != null) {
                     transaction.addSql(statement.getSql());
                     sqlProfile.setAutoCommit(transaction.isAutoCommit());
@@ -932,6 +973,46 @@ public class DingoMeta extends MetaImpl {
         }
     }
 
+    /**
+     * Run all the parameter sets of a batch insert as the rows of one job.
+     *
+     * @return the update counts, or null if the statement must be executed once for each parameter set
+     */
+    private long @Nullable [] execBatchInOneJob(
+        @NonNull DingoPreparedStatement statement,
+        @NonNull List<List<TypedValue>> parameterValues
+    ) {
+        Job prepared = statement.getJob(jobManager);
+        if (parameterValues.size() < 2 || prepared == null || !statement.isDml()) {
+            return null;
+        }
+        List<Object[]> parasList = new ArrayList<>(parameterValues.size());
+        for (List<TypedValue> parameterValue : parameterValues) {
+            parasList.add(statement.toParas(parameterValue, prepared.getParasType()));
+        }
+        DingoDriverParser parser = new DingoDriverParser((DingoConnection) connection);
+        Job job = parser.createBatchJob(jobManager, (DingoSignature) statement.getSignature(), parasList);
+        if (job == null) {
+            return null;
+        }
+        try {
+            Iterator<Object[]> iterator = jobManager.createIterator(job, null);
+            long count = ((Number) iterator.next()[0]).longValue();
+            // A plain insert writes all its rows or fails, so every parameter set inserts the same number of rows.
+            long[] updateCounts = new long[parameterValues.size()];
+            if (count != (long) parser.getBatchRowCount() * updateCounts.length) {
+                throw new IllegalStateException(
+                    "Batch inserted " + count + " rows, expected " + parser.getBatchRowCount() + " rows for each of "
+                        + updateCounts.length + " parameter sets."
+                );
+            }
+            Arrays.fill(updateCounts, parser.getBatchRowCount());
+            return updateCounts;
+        } finally {
+            jobManager.removeJob(job.getJobId());
+        }
+    }
+
     public ExecuteResult execBatch(
         @NonNull StatementHandle sh,
         List<TypedValue> parameterValues,
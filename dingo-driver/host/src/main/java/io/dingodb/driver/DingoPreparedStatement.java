@@ -20,6 +20,7 @@ import io.dingodb.common.config.DingoConfiguration;
 import io.dingodb.common.profile.SqlProfile;
 import io.dingodb.driver.type.converter.TypedValueConverter;
 import io.dingodb.common.CommonId;
+import io.dingodb.common.type.DingoType;
 import io.dingodb.exec.base.Job;
 import io.dingodb.exec.base.JobManager;
 import lombok.Getter;
@@ -116,23 +117,13 @@ public class DingoPreparedStatement extends AvaticaPreparedStatement {
         Meta.Signature signature = getSignature();
         if (signature instanceof DingoSignature) {
             try {
-                Object[] parasValue = TypedValue.values(getParameterValues()).toArray();
-                for (int i = 0; i < parasValue.length; i ++) {
-                    if (parasValue[i] instanceof ByteString) {
-                        parasValue[i] = ((ByteString) parasValue[i]).getBytes();
-                    }
-                }
                 CommonId jobId = ((DingoSignature) signature).getJobId();
                 if (jobId == null) {
                     List<Object[]> empty = new ArrayList<>();
                     return empty.iterator();
                 }
                 Job job = jobManager.getJob(jobId);
-                Object[] paras = ((Object[]) job.getParasType().convertFrom(
-                    parasValue,
-                    new TypedValueConverter(getCalendar())
-                ));
-                return jobManager.createIterator(job, paras);
+                return jobManager.createIterator(job, toParas(getParameterValues(), job.getParasType()));
             } catch (NullPointerException e) {
                 throw new IllegalStateException("Not all parameters are set.");
             }
@@ -140,6 +131,16 @@ public class DingoPreparedStatement extends AvaticaPreparedStatement {
         throw ExceptionUtils.wrongSignatureType(this, signature);
     }
 
+    Object[] toParas(@NonNull List<TypedValue> parameterValues, @NonNull DingoType parasType) {
+        Object[] parasValue = TypedValue.values(parameterValues).toArray();
+        for (int i = 0; i < parasValue.length; i ++) {
+            if (parasValue[i] instanceof ByteString) {
+                parasValue[i] = ((ByteString) parasValue[i]).getBytes();
+            }
+        }
+        return (Object[]) parasType.convertFrom(parasValue, new TypedValueConverter(getCalendar()));
+    }
+
     public Job getJob(@NonNull JobManager jobManager) {
         Meta.Signature signature = getSignature();
         if (signature instanceof DingoSignature) {
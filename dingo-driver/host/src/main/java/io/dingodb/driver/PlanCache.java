@@ -0,0 +1,215 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.driver;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.dingodb.calcite.DingoRelOptTable;
+import io.dingodb.calcite.DingoTable;
+import io.dingodb.common.config.DingoConfiguration;
+import io.dingodb.common.util.Optional;
+import io.dingodb.meta.MetaService;
+import io.dingodb.meta.entity.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.apache.calcite.avatica.ColumnMetaData;
+import org.apache.calcite.avatica.Meta;
+import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.sql.SqlNode;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plans of select and dml statements shared by all connections of this server, so that a statement executed
+ * again skips parsing, validation and optimization.
+ *
+ * <p>An entry records the id and version of every table it reads or writes, and the access the user had on them.
+ * The entry is dropped when any of them changes. All entries are dropped by a ddl executed on this server.
+ *
+ * <p>Plans depending on the connection or on calls evaluated while planning, e.g. user variables, {@code now()}
+ * or auto increment values folded into a values source, are not cached. The cached nodes are shared by concurrent
+ * executions and are only read after they are cached: the auto increment marking is applied before, and a batch
+ * rewrites a copy of the plan.
+ */
+final class PlanCache {
+
+    private static final Cache<Key, Plan> cache;
+    private static final AtomicLong ddlEpoch = new AtomicLong();
+
+    static {
+        int size = DingoConfiguration.instance() == null ? 4096 : Optional.mapOrGet(
+            DingoConfiguration.instance().find("planCacheSize", int.class), __ -> __, () -> 4096
+        );
+        cache = CacheBuilder.newBuilder().maximumSize(size).build();
+    }
+
+    private PlanCache() {
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    static class Key {
+        private final String sql;
+        private final String schema;
+        private final String user;
+        private final String host;
+        // Connection options read by the planner.
+        private final String options;
+        private final long ddlEpoch;
+    }
+
+    @AllArgsConstructor
+    private static class TableVersion {
+        private final RelOptTable table;
+        private final Table definition;
+        private final @Nullable String access;
+    }
+
+    static class Plan {
+        @Getter
+        private final SqlNode sqlNode;
+        @Getter
+        private final RelNode relNode;
+        @Getter
+        private final RelDataType parasType;
+        @Getter
+        private final Meta.StatementType statementType;
+        @Getter
+        private final List<ColumnMetaData> columns;
+        @Getter
+        private final Set<RelOptTable> tables;
+        private final List<TableVersion> versions;
+
+        Plan(
+            SqlNode sqlNode,
+            RelNode relNode,
+            RelDataType parasType,
+            Meta.StatementType statementType,
+            List<ColumnMetaData> columns,
+            Set<RelOptTable> tables
+        ) {
+            this.sqlNode = sqlNode;
+            this.relNode = relNode;
+            this.parasType = parasType;
+            this.statementType = statementType;
+            this.columns = columns;
+            this.tables = tables;
+            this.versions = new ArrayList<>(tables.size());
+            for (RelOptTable table : tables) {
+                DingoTable dingoTable = table.unwrap(DingoTable.class);
+                versions.add(new TableVersion(
+                    table, dingoTable == null ? null : dingoTable.getTable(), access(table)
+                ));
+            }
+        }
+
+        private boolean isValid() {
+            for (TableVersion version : versions) {
+                if (version.definition != null) {
+                    Table current = MetaService.root().getTable(version.definition.getTableId());
+                    if (current == null || current.getVersion() != version.definition.getVersion()) {
+                        return false;
+                    }
+                }
+                String access = access(version.table);
+                if (access != null && !access.equals(version.access)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static @Nullable String access(RelOptTable table) {
+            if (table instanceof DingoRelOptTable) {
+                return table.getAllowedAccess().toString();
+            }
+            return null;
+        }
+    }
+
+    static Key key(String sql, String schema, String user, String host, String options) {
+        return new Key(normalize(sql), schema, user, host, options, ddlEpoch.get());
+    }
+
+    static @Nullable Plan get(Key key) {
+        Plan plan = cache.getIfPresent(key);
+        if (plan != null && !plan.isValid()) {
+            cache.invalidate(key);
+            return null;
+        }
+        return plan;
+    }
+
+    static void put(Key key, Plan plan) {
+        cache.put(key, plan);
+    }
+
+    static void invalidateAll() {
+        ddlEpoch.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Collapse white spaces out of quotes, so that statements differing only in formatting share the plan.
+     * Statements with comments are kept as is, a line comment ends at the line break.
+     */
+    static String normalize(String sql) {
+        StringBuilder builder = new StringBuilder(sql.length());
+        char quote = 0;
+        boolean space = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                builder.append(c);
+                if (c == '\\' && quote != '`' && i + 1 < sql.length()) {
+                    builder.append(sql.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                space = builder.length() > 0;
+                continue;
+            }
+            if (space) {
+                builder.append(' ');
+                space = false;
+            }
+            if (c == '#' || sql.startsWith("--", i) || sql.startsWith("/*", i)) {
+                return sql;
+            }
+            if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            }
+            builder.append(c);
+        }
+        int end = builder.length();
+        while (end > 0 && builder.charAt(end - 1) == ';') {
+            end--;
+        }
+        builder.setLength(end);
+        return builder.toString();
+    }
+}
@@ -33,6 +33,7 @@ import io.dingodb.driver.mysql.packet.PrepareResultSetRowPacket;
 import io.dingodb.driver.mysql.packet.ResultSetRowPacket;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.socket.SocketChannel;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.calcite.avatica.util.ArrayImpl;
@@ -56,6 +57,11 @@ public final class MysqlResponseHandler {
 
     static MysqlPacketFactory factory = MysqlPacketFactory.getInstance();
 
+    // Rows are sent in chunks of about this size, so that the client receives them while the next rows are
+    // produced, instead of after the whole result set is encoded. The chunks not taken by the client are bounded by
+    // the write buffer water mark of the channel.
+    private static final int FLUSH_BYTES = 64 * 1024;
+
     private MysqlResponseHandler() {
     }
 
@@ -94,12 +100,14 @@ public final class MysqlResponseHandler {
         // 5. eof packet
         boolean deprecateEof = (mysqlConnection.authPacket.extendClientFlags
             & ExtendedClientCapabilities.CLIENT_DEPRECATE_EOF) != 0;
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
+        int columnCount;
+        int initServerStatus;
         try {
-            ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
             ResultSetMetaData metaData = resultSet.getMetaData();
             ColumnsNumberPacket columnsNumberPacket = new ColumnsNumberPacket();
             columnsNumberPacket.packetId = (byte) packetId.getAndIncrement();
-            int columnCount = metaData.getColumnCount();
+            columnCount = metaData.getColumnCount();
             columnsNumberPacket.columnsNumber = columnCount;
             columnsNumberPacket.write(buffer);
 
@@ -108,18 +116,25 @@ public final class MysqlResponseHandler {
                 columnPacket.write(buffer);
             }
 
-            int initServerStatus = getInitServerStatus((DingoConnection) mysqlConnection.getConnection());
+            initServerStatus = getInitServerStatus((DingoConnection) mysqlConnection.getConnection());
+            if (!deprecateEof) {
+                // intermediate eof
+                MysqlPacketFactory.getEofPacket(packetId).write(buffer);
+            }
+        } catch (SQLException e) {
+            buffer.release();
+            responseError(packetId, mysqlConnection.channel, e);
+            return;
+        }
+        try {
+            // row packet...
+            buffer = handlerRowPacket(resultSet, packetId, mysqlConnection, buffer, columnCount);
             if (deprecateEof) {
-                handlerRowPacket(resultSet, packetId, mysqlConnection, buffer, columnCount);
                 OKPacket okEofPacket = factory.getOkEofPacket(
                     0, packetId, initServerStatus
                 );
                 okEofPacket.write(buffer);
             } else {
-                // intermediate eof
-                MysqlPacketFactory.getEofPacket(packetId).write(buffer);
-                // row packet...
-                handlerRowPacket(resultSet, packetId, mysqlConnection, buffer, columnCount);
                 // response EOF
                 //resultSetPacket.rowsEof = getEofPacket(packetId);
                 MysqlPacketFactory.getEofPacket(packetId).write(buffer);
@@ -131,33 +146,48 @@ public final class MysqlResponseHandler {
         }
     }
 
-    private static void handlerRowPacket(ResultSet resultSet, AtomicLong packetId, MysqlConnection mysqlConnection,
+    /**
+     * Encode the rows into the buffer, flushed when full, and return the buffer of the rows not sent yet. If it fails,
+     * the rows encoded are still sent, so that the error packet follows the rows already flushed in sequence.
+     */
+    private static ByteBuf handlerRowPacket(ResultSet resultSet, AtomicLong packetId, MysqlConnection mysqlConnection,
                                   ByteBuf buffer, int columnCount) throws SQLException {
-        ResultSetMetaData metaData = resultSet.getMetaData();
-        String typeName;
-        while (resultSet.next()) {
-            ResultSetRowPacket resultSetRowPacket = new ResultSetRowPacket();
-            resultSetRowPacket.packetId = (byte) packetId.getAndIncrement();
-            String characterSet = mysqlConnection.getConnection().getClientInfo(CONNECTION_CHARSET);
-            characterSet = getCharacterSet(characterSet);
-            resultSetRowPacket.setCharacterSet(characterSet);
-            for (int i = 1; i <= columnCount; i ++) {
-                Object val = resultSet.getObject(i);
-                typeName = metaData.getColumnTypeName(i);
-                if (typeName.equalsIgnoreCase("BOOLEAN")) {
-                    if (val != null) {
-                        if ("TRUE".equalsIgnoreCase(val.toString())) {
-                            val = "1";
-                        } else {
-                            val = "0";
+        boolean done = false;
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            String typeName;
+            while (resultSet.next()) {
+                ResultSetRowPacket resultSetRowPacket = new ResultSetRowPacket();
+                String characterSet = mysqlConnection.getConnection().getClientInfo(CONNECTION_CHARSET);
+                characterSet = getCharacterSet(characterSet);
+                resultSetRowPacket.setCharacterSet(characterSet);
+                for (int i = 1; i <= columnCount; i ++) {
+                    Object val = resultSet.getObject(i);
+                    typeName = metaData.getColumnTypeName(i);
+                    if (typeName.equalsIgnoreCase("BOOLEAN")) {
+                        if (val != null) {
+                            if ("TRUE".equalsIgnoreCase(val.toString())) {
+                                val = "1";
+                            } else {
+                                val = "0";
+                            }
                         }
+                    } else if (typeName.equalsIgnoreCase("ARRAY")) {
+                        val = getArrayObject(mysqlConnection, val);
                     }
-                } else if (typeName.equalsIgnoreCase("ARRAY")) {
-                    val = getArrayObject(mysqlConnection, val);
+                    resultSetRowPacket.addColumnValue(val);
                 }
-                resultSetRowPacket.addColumnValue(val);
+                // Numbered only when complete, a row failing to encode does not take a packet id.
+                resultSetRowPacket.packetId = (byte) packetId.getAndIncrement();
+                resultSetRowPacket.write(buffer);
+                buffer = flushIfFull(mysqlConnection.channel, buffer);
+            }
+            done = true;
+            return buffer;
+        } finally {
+            if (!done) {
+                mysqlConnection.channel.write(buffer);
             }
-            resultSetRowPacket.write(buffer);
         }
     }
 
@@ -183,25 +213,58 @@ public final class MysqlResponseHandler {
         return StringUtils.join(arrayVal);
     }
 
-    private static void handlerPrepareRowPacket(ResultSet resultSet,
+    /**
+     * Same as {@link #handlerRowPacket}, in the binary protocol.
+     */
+    private static ByteBuf handlerPrepareRowPacket(ResultSet resultSet,
                                                 AtomicLong packetId,
                                                 MysqlConnection mysqlConnection,
                                                 ByteBuf buffer,
                                                 int columnCount) throws SQLException {
-        while (resultSet.next()) {
-            PrepareResultSetRowPacket resultSetRowPacket = new PrepareResultSetRowPacket();
-            String characterSet = mysqlConnection.getConnection().getClientInfo(CONNECTION_CHARSET);
-            characterSet = getCharacterSet(characterSet);
-            resultSetRowPacket.setCharacterSet(characterSet);
-            resultSetRowPacket.packetId = (byte) packetId.getAndIncrement();
-            resultSetRowPacket.setMetaData(resultSet.getMetaData());
-            for (int i = 1; i <= columnCount; i ++) {
-                resultSetRowPacket.addColumnValue(resultSet.getObject(i), mysqlConnection);
+        boolean done = false;
+        try {
+            while (resultSet.next()) {
+                PrepareResultSetRowPacket resultSetRowPacket = new PrepareResultSetRowPacket();
+                String characterSet = mysqlConnection.getConnection().getClientInfo(CONNECTION_CHARSET);
+                characterSet = getCharacterSet(characterSet);
+                resultSetRowPacket.setCharacterSet(characterSet);
+                resultSetRowPacket.setMetaData(resultSet.getMetaData());
+                for (int i = 1; i <= columnCount; i ++) {
+                    resultSetRowPacket.addColumnValue(resultSet.getObject(i), mysqlConnection);
+                }
+                resultSetRowPacket.packetId = (byte) packetId.getAndIncrement();
+                resultSetRowPacket.write(buffer);
+                buffer = flushIfFull(mysqlConnection.channel, buffer);
+            }
+            done = true;
+            return buffer;
+        } finally {
+            if (!done) {
+                mysqlConnection.channel.write(buffer);
             }
-            resultSetRowPacket.write(buffer);
         }
     }
 
+    /**
+     * Send the rows if the buffer is full. If the channel is not writable, i.e. the bytes queued exceed the high water
+     * mark, wait until the rows are sent, so that a client slower than the result set does not make all the rows
+     * queued in memory. The commands are run by the executors of {@code MysqlHandler}, not the event loop, so they can
+     * wait here.
+     */
+    private static ByteBuf flushIfFull(SocketChannel channel, ByteBuf buffer) throws SQLException {
+        if (buffer.readableBytes() < FLUSH_BYTES) {
+            return buffer;
+        }
+        ChannelFuture future = channel.writeAndFlush(buffer);
+        if (!channel.isWritable() && !channel.eventLoop().inEventLoop()) {
+            future.awaitUninterruptibly();
+            if (!future.isSuccess()) {
+                throw new SQLException("Failed to send the rows to the client.", future.cause());
+            }
+        }
+        return ByteBufAllocator.DEFAULT.buffer();
+    }
+
     public static void responseError(AtomicLong packetId,
                                      SocketChannel channel,
                                      io.dingodb.common.mysql.constant.ErrorCode errorCode) {
@@ -289,12 +352,14 @@ public final class MysqlResponseHandler {
         // 5. eof packet
         boolean deprecateEof = (mysqlConnection.authPacket.extendClientFlags
             & ExtendedClientCapabilities.CLIENT_DEPRECATE_EOF) != 0;
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
+        int columnCount;
+        int serverStatus;
         try {
-            ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
             ResultSetMetaData metaData = resultSet.getMetaData();
             ColumnsNumberPacket columnsNumberPacket = new ColumnsNumberPacket();
             columnsNumberPacket.packetId = (byte) packetId.getAndIncrement();
-            int columnCount = metaData.getColumnCount();
+            columnCount = metaData.getColumnCount();
             columnsNumberPacket.columnsNumber = columnCount;
             columnsNumberPacket.write(buffer);
 
@@ -302,19 +367,25 @@ public final class MysqlResponseHandler {
             for (ColumnPacket columnPacket : columns) {
                 columnPacket.write(buffer);
             }
-            int serverStatus = getInitServerStatus((DingoConnection) mysqlConnection.getConnection());
-
+            serverStatus = getInitServerStatus((DingoConnection) mysqlConnection.getConnection());
+            if (!deprecateEof) {
+                // intermediate eof
+                MysqlPacketFactory.getEofPacket(packetId).write(buffer);
+            }
+        } catch (SQLException e) {
+            buffer.release();
+            responseError(packetId, mysqlConnection.channel, e);
+            return;
+        }
+        try {
+            // row packet...
+            buffer = handlerPrepareRowPacket(resultSet, packetId, mysqlConnection, buffer, columnCount);
             if (deprecateEof) {
-                handlerPrepareRowPacket(resultSet, packetId, mysqlConnection, buffer, columnCount);
                 OKPacket okEofPacket = factory.getOkEofPacket(
                     0, packetId, serverStatus
                 );
                 okEofPacket.write(buffer);
             } else {
-                // intermediate eof
-                MysqlPacketFactory.getEofPacket(packetId).write(buffer);
-                // row packet...
-                handlerPrepareRowPacket(resultSet, packetId, mysqlConnection, buffer, columnCount);
                 // response EOF
                 //resultSetPacket.rowsEof = getEofPacket(packetId);
                 MysqlPacketFactory.getEofPacket(packetId).write(buffer);
@@ -23,10 +23,14 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioChannelOption;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutorGroup;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -42,20 +46,30 @@ public class MysqlNettyServer {
     public final String host;
     public final int port;
     public static final Map<String, MysqlConnection> connections = new ConcurrentHashMap<>();
+    // The rows of a result set wait for the client when more than the high water mark are queued.
+    private static final int WRITE_BUFFER_LOW_WATER_MARK = 512 * 1024;
+    private static final int WRITE_BUFFER_HIGH_WATER_MARK = 1024 * 1024;
 
     private EventLoopGroup eventLoopGroup;
+    // Run the commands, which block for the results and the client, off the event loop.
+    private EventExecutorGroup commandExecutorGroup;
     private ServerBootstrap server;
 
     public void start() throws Exception {
         server = new ServerBootstrap();
         eventLoopGroup = new NioEventLoopGroup(151,
             new ThreadPoolBuilder().name("mysql server " + port).coreThreads(151).maximumThreads(151).build());
+        commandExecutorGroup = new DefaultEventExecutorGroup(151, new DefaultThreadFactory("mysql command " + port));
         server
             .channel(NioServerSocketChannel.class)
             .group(eventLoopGroup)
             .childOption(ChannelOption.TCP_NODELAY, true)
             .childOption(ChannelOption.SO_KEEPALIVE, Boolean.TRUE)
             .childOption(NioChannelOption.of(StandardSocketOptions.SO_KEEPALIVE), Boolean.TRUE)
+            .childOption(
+                ChannelOption.WRITE_BUFFER_WATER_MARK,
+                new WriteBufferWaterMark(WRITE_BUFFER_LOW_WATER_MARK, WRITE_BUFFER_HIGH_WATER_MARK)
+            )
             .childHandler(channelInitializer());
         if (host != null) {
             server.localAddress(host, port);
@@ -87,7 +101,7 @@ public class MysqlNettyServer {
                 mysqlConnection.mysqlIdleStateHandler = mysqlIdleStateHandler;
                 ch.pipeline().addLast("idleStateHandler", mysqlIdleStateHandler);
                 ch.pipeline()
-                    .addLast("mysqlHandler", new MysqlHandler(mysqlConnection));
+                    .addLast(commandExecutorGroup, "mysqlHandler", new MysqlHandler(mysqlConnection));
                 ch.pipeline().addLast("exception", new NettyHandlers.ExceptionHandler());
             }
         };
@@ -95,5 +109,6 @@ public class MysqlNettyServer {
 
     public void close() {
         eventLoopGroup.shutdownGracefully();
+        commandExecutorGroup.shutdownGracefully();
     }
 }
@@ -36,6 +36,7 @@ import io.dingodb.exec.operator.HashOperator;
 import io.dingodb.exec.operator.IndexMergeOperator;
 import io.dingodb.exec.operator.InfoSchemaScanOperator;
 import io.dingodb.exec.operator.LikeScanOperator;
+import io.dingodb.exec.operator.LooseScanOperator;
 import io.dingodb.exec.operator.NewCalcDistributionOperator;
 import io.dingodb.exec.operator.PartCountOperator;
 import io.dingodb.exec.operator.PartDeleteOperator;
@@ -66,6 +67,7 @@ import io.dingodb.exec.operator.TxnGetByIndexOperator;
 import io.dingodb.exec.operator.TxnGetByKeysOperator;
 import io.dingodb.exec.operator.TxnIndexRangeScanOperator;
 import io.dingodb.exec.operator.TxnLikeScanOperator;
+import io.dingodb.exec.operator.TxnLooseScanOperator;
 import io.dingodb.exec.operator.TxnPartDeleteOperator;
 import io.dingodb.exec.operator.TxnPartInsertOperator;
 import io.dingodb.exec.operator.TxnPartRangeDeleteOperator;
@@ -78,6 +80,7 @@ import io.dingodb.exec.operator.TxnScanWithPipeOpOperator;
 import io.dingodb.exec.operator.ValuesOperator;
 import io.dingodb.exec.operator.VectorPartitionOperator;
 import io.dingodb.exec.operator.VectorPointDistanceOperator;
+import io.dingodb.exec.operator.VectorTopKOperator;
 import io.dingodb.exec.transaction.operator.CleanCacheOperator;
 import io.dingodb.exec.transaction.operator.CommitOperator;
 import io.dingodb.exec.transaction.operator.OptimisticRollBackOperator;
@@ -110,6 +113,7 @@ import static io.dingodb.exec.utils.OperatorCodeUtils.HASH_JOIN;
 import static io.dingodb.exec.utils.OperatorCodeUtils.INDEX_MERGE;
 import static io.dingodb.exec.utils.OperatorCodeUtils.INFO_SCHEMA_SCAN;
 import static io.dingodb.exec.utils.OperatorCodeUtils.LIKE_SCAN;
+import static io.dingodb.exec.utils.OperatorCodeUtils.LOOSE_SCAN;
 import static io.dingodb.exec.utils.OperatorCodeUtils.OPTIMISTIC_ROLL_BACK;
 import static io.dingodb.exec.utils.OperatorCodeUtils.PARTITION;
 import static io.dingodb.exec.utils.OperatorCodeUtils.PART_COUNT;
@@ -146,6 +150,7 @@ import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_GET_BY_INDEX;
 import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_GET_BY_KEYS;
 import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_INDEX_RANGE_SCAN;
 import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_LIKE_SCAN;
+import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_LOOSE_SCAN;
 import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_PART_DELETE;
 import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_PART_INSERT;
 import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_PART_RANGE_DELETE;
@@ -158,6 +163,7 @@ import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_SCAN_WITH_PIPE_OP;
 import static io.dingodb.exec.utils.OperatorCodeUtils.VALUES;
 import static io.dingodb.exec.utils.OperatorCodeUtils.VECTOR_PARTITION;
 import static io.dingodb.exec.utils.OperatorCodeUtils.VECTOR_POINT_DISTANCE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.VECTOR_TOP_K;
 
 public final class OperatorFactory {
 
@@ -176,6 +182,7 @@ public final class OperatorFactory {
         OPERATORS.put(HASH, HashOperator.INSTANCE);
         OPERATORS.put(INDEX_MERGE, IndexMergeOperator.INSTANCE);
         OPERATORS.put(LIKE_SCAN, LikeScanOperator.INSTANCE);
+        OPERATORS.put(LOOSE_SCAN, LooseScanOperator.INSTANCE);
         OPERATORS.put(PART_COUNT, PartCountOperator.INSTANCE);
         OPERATORS.put(PART_DELETE, PartDeleteOperator.INSTANCE);
         OPERATORS.put(PART_INSERT, PartInsertOperator.INSTANCE);
@@ -201,7 +208,9 @@ public final class OperatorFactory {
         OPERATORS.put(VALUES, ValuesOperator.INSTANCE);
         OPERATORS.put(VECTOR_PARTITION, VectorPartitionOperator.INSTANCE);
         OPERATORS.put(VECTOR_POINT_DISTANCE, VectorPointDistanceOperator.INSTANCE);
+        OPERATORS.put(VECTOR_TOP_K, VectorTopKOperator.INSTANCE);
         OPERATORS.put(TXN_LIKE_SCAN, TxnLikeScanOperator.INSTANCE);
+        OPERATORS.put(TXN_LOOSE_SCAN, TxnLooseScanOperator.INSTANCE);
         OPERATORS.put(TXN_PART_RANGE_SCAN, TxnPartRangeScanOperator.INSTANCE);
         OPERATORS.put(TXN_PART_RANGE_DELETE, TxnPartRangeDeleteOperator.INSTANCE);
         OPERATORS.put(TXN_PART_UPDATE, TxnPartUpdateOperator.INSTANCE);
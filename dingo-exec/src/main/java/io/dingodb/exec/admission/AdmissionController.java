@@ -0,0 +1,227 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.admission;
+
+import com.codahale.metrics.Gauge;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.exec.base.Job;
+import io.dingodb.exec.exception.AdmissionTimeoutException;
+import io.dingodb.exec.exception.TaskCancelException;
+import io.dingodb.exec.memory.MemoryTracker;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.dingodb.exec.utils.OperatorCodeUtils.CALC_DISTRIBUTION;
+import static io.dingodb.exec.utils.OperatorCodeUtils.CALC_DISTRIBUTION_1;
+import static io.dingodb.exec.utils.OperatorCodeUtils.COALESCE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.EMPTY_SOURCE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.FILTER;
+import static io.dingodb.exec.utils.OperatorCodeUtils.GET_BY_KEYS;
+import static io.dingodb.exec.utils.OperatorCodeUtils.PART_DELETE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.PART_INSERT;
+import static io.dingodb.exec.utils.OperatorCodeUtils.PART_UPDATE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.PESSIMISTIC_LOCK;
+import static io.dingodb.exec.utils.OperatorCodeUtils.PESSIMISTIC_LOCK_DELETE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.PESSIMISTIC_LOCK_INSERT;
+import static io.dingodb.exec.utils.OperatorCodeUtils.PESSIMISTIC_LOCK_UPDATE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.PROJECT;
+import static io.dingodb.exec.utils.OperatorCodeUtils.RECEIVE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.ROOT;
+import static io.dingodb.exec.utils.OperatorCodeUtils.SEND;
+import static io.dingodb.exec.utils.OperatorCodeUtils.SUM_UP;
+import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_GET_BY_KEYS;
+import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_PART_DELETE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_PART_INSERT;
+import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_PART_UPDATE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.VALUES;
+
+/**
+ * Admit the runs of statement jobs by the limits of their {@link ResourceGroup}. A run waits in the queue of its
+ * group, by priority and then by arrival, until the group has less running queries than its concurrency and less
+ * memory than its limit, or fails when it waits longer than the queue timeout.
+ *
+ * <p>The memory checked is the usage of the group on this executor, the coordinator of the query. The tasks on the
+ * other executors are not waited for, they are limited by the trackers of the group there, and fail instead of
+ * waiting when the group is out of memory.
+ *
+ * <p>Point jobs, which read or write rows by keys only, take the fast lane: they never wait, and are not counted
+ * in the concurrency of the group.
+ */
+public final class AdmissionController {
+    public static final AdmissionController INSTANCE = new AdmissionController();
+
+    // Recheck the memory of the group, which is released without notifying the waiters.
+    private static final long RECHECK_MS = 100;
+
+    private static final Set<CommonId> POINT_OPS = new HashSet<>(Arrays.asList(
+        CALC_DISTRIBUTION, CALC_DISTRIBUTION_1, VALUES, EMPTY_SOURCE, GET_BY_KEYS, TXN_GET_BY_KEYS,
+        PROJECT, FILTER, COALESCE, SUM_UP, ROOT, SEND, RECEIVE,
+        PART_INSERT, PART_UPDATE, PART_DELETE, TXN_PART_INSERT, TXN_PART_UPDATE, TXN_PART_DELETE,
+        PESSIMISTIC_LOCK, PESSIMISTIC_LOCK_INSERT, PESSIMISTIC_LOCK_UPDATE, PESSIMISTIC_LOCK_DELETE
+    ));
+
+    private final Map<String, GroupQueue> queues = new ConcurrentHashMap<>();
+    // Tickets of the runs still holding their group, by job.
+    private final Map<CommonId, Ticket> tickets = new ConcurrentHashMap<>();
+    private final AtomicLong seq = new AtomicLong();
+
+    private AdmissionController() {
+    }
+
+    public static boolean isPointJob(@NonNull Job job) {
+        return job.getTasks().values().stream()
+            .flatMap(t -> t.getVertexes().values().stream())
+            .allMatch(v -> POINT_OPS.contains(v.getOp()));
+    }
+
+    /**
+     * Wait until the job can run, the ticket must be closed when the run is finished. The ticket of the previous run
+     * of the job is closed first, the previous run of a prepared job must have finished.
+     *
+     * @throws AdmissionTimeoutException if the job waits longer than the queue timeout of the group
+     * @throws TaskCancelException       if the thread is interrupted while waiting
+     */
+    public @NonNull Ticket admit(@NonNull Job job) {
+        CommonId jobId = job.getJobId();
+        release(jobId);
+        ResourceGroup group = ResourceGroup.of(job.getResourceGroup());
+        if (isPointJob(job)) {
+            DingoMetrics.meter("admission_fast_lane").mark();
+            return new Ticket(jobId, null);
+        }
+        GroupQueue queue = queues.computeIfAbsent(group.getName(), GroupQueue::new);
+        long start = System.currentTimeMillis();
+        queue.acquire(group, new Waiter(group.getPriority() + job.getPriority(), seq.incrementAndGet()), start);
+        DingoMetrics.latency("admission_wait_" + group.getName(), System.currentTimeMillis() - start);
+        Ticket ticket = new Ticket(jobId, queue);
+        tickets.put(jobId, ticket);
+        return ticket;
+    }
+
+    /**
+     * Close the ticket of the current run of the job, if any, like when the job is removed.
+     */
+    public void release(@NonNull CommonId jobId) {
+        Ticket ticket = tickets.remove(jobId);
+        if (ticket != null) {
+            ticket.close();
+        }
+    }
+
+    private static final class Waiter {
+        private static final Comparator<Waiter> ORDER = Comparator
+            .comparingInt((Waiter w) -> -w.priority)
+            .thenComparingLong(w -> w.seq);
+
+        private final int priority;
+        private final long seq;
+
+        private Waiter(int priority, long seq) {
+            this.priority = priority;
+            this.seq = seq;
+        }
+    }
+
+    private static final class GroupQueue {
+        private final String name;
+        private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(Waiter.ORDER);
+        private int running;
+
+        private GroupQueue(String name) {
+            this.name = name;
+            DingoMetrics.metricRegistry.register("admission_queue_" + name, (Gauge<Integer>) this::depth);
+            DingoMetrics.metricRegistry.register("admission_running_" + name, (Gauge<Integer>) this::running);
+        }
+
+        private synchronized int depth() {
+            return waiters.size();
+        }
+
+        private synchronized int running() {
+            return running;
+        }
+
+        private synchronized void acquire(ResourceGroup group, Waiter waiter, long start) {
+            waiters.add(waiter);
+            try {
+                while (waiters.peek() != waiter || !hasRoom(group)) {
+                    long timeout = group.getQueueTimeout();
+                    long remain = start + timeout - System.currentTimeMillis();
+                    if (remain <= 0) {
+                        throw new AdmissionTimeoutException(
+                            "Query waited more than " + timeout + "ms in the queue of resource group "
+                                + name + ", " + running + " queries are running."
+                        );
+                    }
+                    try {
+                        wait(Math.min(RECHECK_MS, remain));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new TaskCancelException("Query is interrupted in the queue of resource group "
+                            + name + ".");
+                    }
+                }
+                ++running;
+            } finally {
+                waiters.remove(waiter);
+                // The next waiter may be admitted now.
+                notifyAll();
+            }
+        }
+
+        // Only the memory of the group on this executor is known here.
+        private boolean hasRoom(ResourceGroup group) {
+            return (group.getConcurrency() <= 0 || running < group.getConcurrency())
+                && (group.getMemory() <= 0 || MemoryTracker.group(name).getUsage() < group.getMemory());
+        }
+
+        private synchronized void release() {
+            --running;
+            notifyAll();
+        }
+    }
+
+    public final class Ticket implements AutoCloseable {
+        private final CommonId jobId;
+        private final @Nullable GroupQueue queue;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Ticket(CommonId jobId, @Nullable GroupQueue queue) {
+            this.jobId = jobId;
+            this.queue = queue;
+        }
+
+        @Override
+        public void close() {
+            if (queue != null && closed.compareAndSet(false, true)) {
+                tickets.remove(jobId, this);
+                queue.release();
+            }
+        }
+    }
+}
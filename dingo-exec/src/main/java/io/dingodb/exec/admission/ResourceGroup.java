@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.admission;
+
+import io.dingodb.common.config.DingoConfiguration;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits shared by the queries of a group, configured in the {@code admission} section of the executor config:
+ *
+ * <pre>
+ * admission:
+ *   groups:
+ *     default:
+ *       concurrency: 64
+ *     analytics:
+ *       concurrency: 4
+ *       memory: 4294967296
+ *       priority: -1
+ *       queueTimeout: 60000
+ *   users:
+ *     report: analytics
+ * </pre>
+ *
+ * <p>A query is in the group of the session variable {@code resource_group}, or the group of its user, or the
+ * {@code default} group. Limits of {@code 0} mean no limit, so nothing is queued without the config. A query never
+ * waits forever, the queue timeout in milliseconds is {@link #DEFAULT_QUEUE_TIMEOUT} if it is not set.
+ */
+@Getter
+public final class ResourceGroup {
+    public static final String DEFAULT = "default";
+    public static final long DEFAULT_QUEUE_TIMEOUT = 60_000;
+
+    private static final Map<String, ResourceGroup> GROUPS = new ConcurrentHashMap<>();
+    private static final Map<String, String> USERS = new ConcurrentHashMap<>();
+
+    static {
+        load(DingoConfiguration.instance().getConfigMap("admission"));
+    }
+
+    private final String name;
+    private final int concurrency;
+    private final long memory;
+    private final int priority;
+    private final long queueTimeout;
+
+    private ResourceGroup(String name, int concurrency, long memory, int priority, long queueTimeout) {
+        this.name = name;
+        this.concurrency = concurrency;
+        this.memory = memory;
+        this.priority = priority;
+        this.queueTimeout = queueTimeout;
+    }
+
+    static void load(@NonNull Map<String, Object> config) {
+        Object groups = config.get("groups");
+        if (groups instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) groups).entrySet()) {
+                String name = entry.getKey().toString();
+                Map<?, ?> group = entry.getValue() instanceof Map ? (Map<?, ?>) entry.getValue() : null;
+                GROUPS.put(name, new ResourceGroup(
+                    name,
+                    (int) number(group, "concurrency"),
+                    number(group, "memory"),
+                    (int) number(group, "priority"),
+                    queueTimeout(number(group, "queueTimeout"))
+                ));
+            }
+        }
+        Object users = config.get("users");
+        if (users instanceof Map) {
+            ((Map<?, ?>) users).forEach((user, group) -> USERS.put(user.toString(), group.toString()));
+        }
+    }
+
+    private static long number(@Nullable Map<?, ?> group, String key) {
+        Object value = group != null ? group.get(key) : null;
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value != null ? Long.parseLong(value.toString()) : 0;
+    }
+
+    private static long queueTimeout(long queueTimeout) {
+        return queueTimeout > 0 ? queueTimeout : DEFAULT_QUEUE_TIMEOUT;
+    }
+
+    /**
+     * Get the group of the name, the default group if it is not configured.
+     */
+    public static @NonNull ResourceGroup of(@Nullable String name) {
+        ResourceGroup group = name != null ? GROUPS.get(name) : null;
+        if (group == null) {
+            group = GROUPS.computeIfAbsent(DEFAULT, n -> new ResourceGroup(n, 0, 0, 0, DEFAULT_QUEUE_TIMEOUT));
+        }
+        return group;
+    }
+
+    /**
+     * Get the name of the group of a query.
+     *
+     * @param sessionGroup the session variable {@code resource_group}
+     * @param user         the user of the session
+     */
+    public static @NonNull String resolve(@Nullable String sessionGroup, @Nullable String user) {
+        if (sessionGroup != null && !sessionGroup.isEmpty()) {
+            return of(sessionGroup).getName();
+        }
+        return of(user != null ? USERS.get(user) : null).getName();
+    }
+}
@@ -19,9 +19,11 @@ package io.dingodb.exec.aggregate;
 import com.google.common.collect.Iterators;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.common.util.ArrayUtils;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.tuple.TupleKey;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,15 +37,28 @@ public class AggCache implements Iterable<Object[]> {
     private final TupleMapping keyMapping;
     private final List<Agg> aggList;
     private final Map<TupleKey, Object[]> cache;
+    private final @Nullable MemoryTracker memoryTracker;
 
     public AggCache(TupleMapping keyMapping, @NonNull List<Agg> aggList) {
+        this(keyMapping, aggList, null);
+    }
+
+    public AggCache(TupleMapping keyMapping, @NonNull List<Agg> aggList, @Nullable MemoryTracker memoryTracker) {
         this.keyMapping = keyMapping;
         this.aggList = aggList;
         this.cache = new ConcurrentHashMap<>();
+        this.memoryTracker = memoryTracker;
     }
 
     private Object @NonNull [] getVars(TupleKey key) {
-        return cache.computeIfAbsent(key, k -> new Object[aggList.size()]);
+        return cache.computeIfAbsent(key, k -> {
+            Object[] vars = new Object[aggList.size()];
+            if (memoryTracker != null) {
+                // The size of the vars is unknown before the first tuple, count the key and the slots only.
+                memoryTracker.consume(MemoryTracker.estimate(k.getTuple()) + MemoryTracker.estimate(vars));
+            }
+            return vars;
+        });
     }
 
     public void addTuple(Object[] tuple) {
@@ -90,5 +105,8 @@ public class AggCache implements Iterable<Object[]> {
 
     public void clear() {
         cache.clear();
+        if (memoryTracker != null) {
+            memoryTracker.reset();
+        }
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.aggregate;
+
+import io.dingodb.common.type.TupleMapping;
+import io.dingodb.common.util.ArrayUtils;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregate the tuples sorted by the keys, so that only the current group is kept and it is done once the keys
+ * change.
+ */
+public class SortedAggCache {
+    private final TupleMapping keyMapping;
+    private final List<Agg> aggList;
+
+    private Object[] keyTuple;
+    private Object[] vars;
+
+    public SortedAggCache(TupleMapping keyMapping, @NonNull List<Agg> aggList) {
+        this.keyMapping = keyMapping;
+        this.aggList = aggList;
+    }
+
+    /**
+     * Add a tuple to the current group.
+     *
+     * @param tuple the tuple
+     * @return the result of the previous group if the keys change, or {@code null}
+     */
+    public Object @Nullable [] addTuple(Object[] tuple) {
+        Object[] newKeyTuple = keyMapping.revMap(tuple);
+        Object[] result = null;
+        if (keyTuple != null && !Arrays.equals(keyTuple, newKeyTuple)) {
+            result = finish();
+        }
+        if (keyTuple == null) {
+            keyTuple = newKeyTuple;
+            vars = new Object[aggList.size()];
+        }
+        for (int i = 0; i < vars.length; ++i) {
+            Agg agg = aggList.get(i);
+            if (vars[i] == null) {
+                vars[i] = agg.first(tuple);
+            } else {
+                vars[i] = agg.add(vars[i], tuple);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finish the current group.
+     *
+     * @return the result of the current group, or {@code null} if there is none
+     */
+    public Object @Nullable [] finish() {
+        if (keyTuple == null) {
+            return null;
+        }
+        Object[] values = new Object[vars.length];
+        for (int i = 0; i < vars.length; ++i) {
+            values[i] = aggList.get(i).getValue(vars[i]);
+        }
+        Object[] result = ArrayUtils.concat(keyTuple, values);
+        keyTuple = null;
+        vars = null;
+        return result;
+    }
+}
@@ -22,6 +22,7 @@ import io.dingodb.common.type.DingoType;
 import io.dingodb.exec.transaction.base.TransactionType;
 import io.dingodb.store.api.transaction.data.IsolationLevel;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.List;
 import java.util.Map;
@@ -77,4 +78,29 @@ public interface Job {
     }
 
     default void setTxnId(CommonId txnId) {}
+
+    /**
+     * Set the memory limit of the job on each executor, in bytes, {@code 0} for no limit. Only the tasks created
+     * after are limited.
+     */
+    default void setMaxMemory(long maxMemory) {}
+
+    /**
+     * The resource group admitting the runs of the job, {@code null} for the jobs not run for statements, which
+     * are never queued.
+     */
+    default @Nullable String getResourceGroup() {
+        return null;
+    }
+
+    default void setResourceGroup(String resourceGroup) {}
+
+    /**
+     * The priority of the job in the queue of its resource group, added to the priority of the group.
+     */
+    default int getPriority() {
+        return 0;
+    }
+
+    default void setPriority(int priority) {}
 }
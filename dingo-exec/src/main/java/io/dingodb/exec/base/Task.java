@@ -20,6 +20,7 @@ import io.dingodb.common.CommonId;
 import io.dingodb.common.Location;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.transaction.base.TransactionType;
 import io.dingodb.store.api.transaction.data.IsolationLevel;
@@ -71,6 +72,11 @@ public interface Task {
 
     boolean cancel();
 
+    /**
+     * The memory tracker of this task, the parent of the trackers of its operators.
+     */
+    MemoryTracker getMemoryTracker();
+
     default void destroy() {
         cancel(); // stop the task.
         getVertexes().values().forEach(Vertex::destroy);
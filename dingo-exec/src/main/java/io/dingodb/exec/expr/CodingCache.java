@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.expr;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.dingodb.common.CoprocessorV2;
+import io.dingodb.common.config.DingoConfiguration;
+import io.dingodb.common.util.Optional;
+import lombok.EqualsAndHashCode;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Push down programs shared by the jobs of the same statement shape. Parameters are bound at run time, so the
+ * encoded programs do not depend on their values.
+ *
+ * <p>Cached coprocessors are shared, they must not be modified.
+ */
+public final class CodingCache {
+
+    private static final Cache<List<Object>, byte[]> exprs;
+    private static final Cache<List<Object>, CoprocessorV2> coprocessors;
+
+    static {
+        int size = DingoConfiguration.instance() == null ? 4096 : Optional.mapOrGet(
+            DingoConfiguration.instance().find("codingCacheSize", int.class), __ -> __, () -> 4096
+        );
+        exprs = CacheBuilder.newBuilder().maximumSize(size).build();
+        coprocessors = CacheBuilder.newBuilder().maximumSize(size).build();
+    }
+
+    private CodingCache() {
+    }
+
+    /**
+     * Wrap a byte array so that it can be a part of a key.
+     */
+    @EqualsAndHashCode
+    private static final class Bytes {
+        private final byte[] value;
+
+        private Bytes(byte[] value) {
+            this.value = value;
+        }
+    }
+
+    public static List<Object> key(Object... parts) {
+        Object[] key = new Object[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            key[i] = parts[i] instanceof byte[] ? new Bytes((byte[]) parts[i]) : parts[i];
+        }
+        return Arrays.asList(key);
+    }
+
+    public static byte[] getExpr(List<Object> key) {
+        return exprs.getIfPresent(key);
+    }
+
+    public static void putExpr(List<Object> key, byte[] code) {
+        exprs.put(key, code);
+    }
+
+    /**
+     * Get the coprocessor of the key, or build and cache it. Nothing is cached if the builder returns null.
+     */
+    public static @Nullable CoprocessorV2 getCoprocessor(List<Object> key, Supplier<CoprocessorV2> builder) {
+        CoprocessorV2 coprocessor = coprocessors.getIfPresent(key);
+        if (coprocessor == null) {
+            coprocessor = builder.get();
+            if (coprocessor != null) {
+                coprocessors.put(key, coprocessor);
+            }
+        }
+        return coprocessor;
+    }
+}
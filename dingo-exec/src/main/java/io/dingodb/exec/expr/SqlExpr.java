@@ -33,6 +33,7 @@ import io.dingodb.expr.runtime.expr.Expr;
 import lombok.Getter;
 
 import java.io.ByteArrayOutputStream;
+import java.util.List;
 
 public class SqlExpr {
     private static final ExprParser EXPR_PARSER = new ExprParser(DingoFunFactory.getInstance());
@@ -60,12 +61,23 @@ public class SqlExpr {
         return EXPR_PARSER.parse(exprString);
     }
 
+    /**
+     * Get the push down code of this expr. The expr is not compiled if the code is cached, so it must not be
+     * evaluated locally if the code is not null.
+     */
     public byte[] getCoding(DingoType tupleType, DingoType parasType) {
+        List<Object> key = CodingCache.key(exprString, tupleType, parasType);
+        byte[] code = CodingCache.getExpr(key);
+        if (code != null) {
+            return code;
+        }
         try {
             compileIn(tupleType, parasType);
             ByteArrayOutputStream os = new ByteArrayOutputStream();
             if (ExprCoder.INSTANCE.visit(expr, os) == CodingFlag.OK) {
-                return os.toByteArray();
+                code = os.toByteArray();
+                CodingCache.putExpr(key, code);
+                return code;
             }
             return null;
         } catch (ExprCompileException e) {
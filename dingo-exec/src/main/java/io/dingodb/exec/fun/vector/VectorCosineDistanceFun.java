@@ -17,6 +17,7 @@
 package io.dingodb.exec.fun.vector;
 
 import io.dingodb.common.exception.DingoSqlException;
+import io.dingodb.common.vector.VectorDistances;
 import io.dingodb.expr.runtime.ExprConfig;
 import io.dingodb.expr.runtime.op.BinaryOp;
 import io.dingodb.expr.runtime.op.OpKey;
@@ -26,13 +27,8 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.ArrayList;
 import java.util.List;
 
-import static io.dingodb.exec.fun.vector.VectorIPDistanceFun.innerProduct;
-
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class VectorCosineDistanceFun extends BinaryVectorVectorFun {
     public static final VectorCosineDistanceFun INSTANCE = new VectorCosineDistanceFun();
@@ -40,36 +36,6 @@ public class VectorCosineDistanceFun extends BinaryVectorVectorFun {
 
     private static final long serialVersionUID = 7709745346405714020L;
 
-    private static final double tmp = 1E-30;
-
-    private static List<Float> transform(List<Float> vector) {
-        int dimension = vector.size();
-        List<Float> vectorRes = new ArrayList<>(dimension);
-        double norm = 0.0f;
-        for (int i = 0; i < dimension; i++) {
-            norm += vector.get(i) * vector.get(i);
-        }
-        norm = 1.0 / (Math.sqrt(norm) + tmp);
-        for (int i = 0; i < dimension; i++) {
-            vectorRes.add((float) (vector.get(i) * norm));
-        }
-        return vectorRes;
-    }
-
-    private static List<Float> transformDecimal(List<Number> vector) {
-        int dimension = vector.size();
-        List<Float> vectorRes = new ArrayList<>(dimension);
-        double norm = 0.0f;
-        for (int i = 0; i < dimension; i++) {
-            norm += vector.get(i).floatValue() * vector.get(i).floatValue();
-        }
-        norm = 1.0 / (Math.sqrt(norm) + tmp);
-        for (int i = 0; i < dimension; i++) {
-            vectorRes.add((float) (vector.get(i).floatValue() * norm));
-        }
-        return vectorRes;
-    }
-
     @Override
     protected Object evalNonNullValue(@NonNull Object value0, @NonNull Object value1, ExprConfig config) {
         return cosine((List<Float>) value0, value1);
@@ -82,16 +48,7 @@ public class VectorCosineDistanceFun extends BinaryVectorVectorFun {
                 "The dimensions of the source vector and the target vector must be consistent",5001, "45000"
             );
         }
-        List<Float> vectorA = transform(value0);
-        List<Float> vectorB;
-        if (tmp.size() > 0 && tmp.get(0) instanceof Float) {
-            vectorB = transform((List<Float>) value1);
-        } else {
-            vectorB = transformDecimal((List<Number>) value1);
-        }
-        double distance = innerProduct(vectorA, vectorB);
-        BigDecimal distanceAccurate = new BigDecimal(distance);
-        return distanceAccurate.floatValue();
+        return VectorDistances.cosineDistance(VectorDistances.toArray(value0), VectorDistances.toArray((List<Number>) tmp));
     }
 
     @Override
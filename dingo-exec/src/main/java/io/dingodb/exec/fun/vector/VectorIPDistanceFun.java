@@ -17,6 +17,7 @@
 package io.dingodb.exec.fun.vector;
 
 import io.dingodb.common.exception.DingoSqlException;
+import io.dingodb.common.vector.VectorDistances;
 import io.dingodb.expr.runtime.ExprConfig;
 import io.dingodb.expr.runtime.op.BinaryOp;
 import io.dingodb.expr.runtime.op.OpKey;
@@ -26,8 +27,6 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
@@ -38,11 +37,7 @@ public class VectorIPDistanceFun extends BinaryVectorVectorFun {
     private static final long serialVersionUID = 7869256649847747534L;
 
     public static double innerProduct(List<Float> vectorA, List<Float> vectorB) {
-        double dotProduct = 0.0;
-        for (int i = 0; i < vectorA.size(); i++) {
-            dotProduct += vectorA.get(i) * vectorB.get(i);
-        }
-        return 1 - dotProduct;
+        return 1 - VectorDistances.dot(VectorDistances.toArray(vectorA), VectorDistances.toArray(vectorB));
     }
 
     public static double innerProductCombine(List<Float> vectorA, List<Number> vectorB) {
@@ -51,18 +46,12 @@ public class VectorIPDistanceFun extends BinaryVectorVectorFun {
                 "The dimensions of the source vector and the target vector must be consistent",5001, "45000"
             );
         }
-        double dotProduct = 0.0;
-        for (int i = 0; i < vectorA.size(); i++) {
-            dotProduct += vectorA.get(i) * vectorB.get(i).floatValue();
-        }
-        return 1 - dotProduct;
+        return 1 - VectorDistances.dot(VectorDistances.toArray(vectorA), VectorDistances.toArray(vectorB));
     }
 
     @Override
     protected Object evalNonNullValue(@NonNull Object value0, @NonNull Object value1, ExprConfig config) {
-        double distance = innerProductCombine((List<Float>) value0, (List<Number>) value1);
-        BigDecimal distanceAccurate = new BigDecimal(distance);
-        return distanceAccurate.floatValue();
+        return (float) innerProductCombine((List<Float>) value0, (List<Number>) value1);
     }
 
     @Override
@@ -17,6 +17,7 @@
 package io.dingodb.exec.fun.vector;
 
 import io.dingodb.common.exception.DingoSqlException;
+import io.dingodb.common.vector.VectorDistances;
 import io.dingodb.expr.runtime.ExprConfig;
 import io.dingodb.expr.runtime.op.BinaryOp;
 import io.dingodb.expr.runtime.op.OpKey;
@@ -42,11 +43,7 @@ public class VectorL2DistanceFun extends BinaryVectorVectorFun {
                 "The dimensions of the source vector and the target vector must be consistent",5001, "45000"
             );
         }
-        double distance = 0.0;
-        for (int i = 0; i < vectorA.size(); i++) {
-            distance += Math.pow(vectorA.get(i) - vectorB.get(i).floatValue(), 2);
-        }
-        return distance;
+        return VectorDistances.l2Distance(VectorDistances.toArray(vectorA), VectorDistances.toArray(vectorB));
     }
 
     @Override
@@ -33,6 +33,7 @@ import io.dingodb.expr.json.runtime.Parser;
 import io.dingodb.store.api.transaction.data.IsolationLevel;
 import io.dingodb.tso.TsoService;
 import lombok.Getter;
+import lombok.Setter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -69,6 +70,14 @@ public final class JobImpl implements Job {
 
     private final long maxExecutionTime;
     private final Boolean isSelect;
+    @Setter
+    private long maxMemory;
+    @Getter
+    @Setter
+    private String resourceGroup;
+    @Getter
+    @Setter
+    private int priority;
 
     @JsonCreator
     public JobImpl(@JsonProperty("jobId") CommonId jobId, @JsonProperty("jobId") CommonId txnId) {
@@ -96,7 +105,7 @@ public final class JobImpl implements Job {
         if (tasks.containsKey(id)) {
             throw new IllegalArgumentException("The task \"" + id + "\" already exists in job \"" + jobId + "\".");
         }
-        Task task = new TaskImpl(
+        TaskImpl task = new TaskImpl(
             id,
             jobId,
             txnId,
@@ -106,6 +115,8 @@ public final class JobImpl implements Job {
             isolationLevel,
             maxExecutionTime,
             isSelect);
+        task.setMaxMemory(maxMemory);
+        task.setResourceGroup(resourceGroup);
         tasks.put(id, task);
         return task;
     }
@@ -18,12 +18,14 @@ package io.dingodb.exec.impl;
 
 import io.dingodb.common.profile.ExecProfile;
 import io.dingodb.exec.OperatorFactory;
+import io.dingodb.exec.admission.AdmissionController;
 import io.dingodb.exec.base.Job;
 import io.dingodb.exec.base.JobIterator;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.operator.RootOperator;
 import lombok.Getter;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class JobIteratorImpl extends JobIterator {
     private final RootOperator operator;
@@ -33,15 +35,24 @@ public class JobIteratorImpl extends JobIterator {
     private transient Object[] prev;
     private transient Object[] current;
     private final transient Vertex vertex;
+    private final transient AdmissionController.@Nullable Ticket ticket;
 
     @Getter
     private ExecProfile execProfile;
 
     public JobIteratorImpl(Job job, @NonNull Vertex vertex) {
+        this(job, vertex, null);
+    }
+
+    /**
+     * Create an iterator closing the admission ticket of the run when the results are all taken or fail.
+     */
+    public JobIteratorImpl(Job job, @NonNull Vertex vertex, AdmissionController.@Nullable Ticket ticket) {
         super(job);
         this.operator = (RootOperator) OperatorFactory.getInstance(vertex.getOp());
         this.vertex = vertex;
-        current = operator.popValue(vertex);
+        this.ticket = ticket;
+        current = pop();
     }
 
     @Override
@@ -49,7 +60,11 @@ public class JobIteratorImpl extends JobIterator {
         if (current != RootOperator.FIN) {
             return true;
         }
-        operator.checkError(vertex);
+        try {
+            operator.checkError(vertex);
+        } finally {
+            closeTicket();
+        }
         autoIncId = operator.popAutoIncId(vertex);
         execProfile = operator.popExecProfile(vertex);
         execProfile.setLastTuple(prev);
@@ -59,7 +74,22 @@ public class JobIteratorImpl extends JobIterator {
     @Override
     public Object[] next() {
         prev = current;
-        current = operator.popValue(vertex);
+        current = pop();
         return prev;
     }
+
+    private Object[] pop() {
+        try {
+            return operator.popValue(vertex);
+        } catch (RuntimeException e) {
+            closeTicket();
+            throw e;
+        }
+    }
+
+    private void closeTicket() {
+        if (ticket != null) {
+            ticket.close();
+        }
+    }
 }
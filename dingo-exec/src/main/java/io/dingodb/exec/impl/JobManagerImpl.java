@@ -24,6 +24,7 @@ import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.metrics.DingoMetrics;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.exec.Services;
+import io.dingodb.exec.admission.AdmissionController;
 import io.dingodb.exec.base.IdGenerator;
 import io.dingodb.exec.base.Job;
 import io.dingodb.exec.base.JobManager;
@@ -33,6 +34,7 @@ import io.dingodb.exec.base.TaskManager;
 import io.dingodb.exec.impl.message.CancelTaskMessage;
 import io.dingodb.exec.impl.message.CreateTaskMessage;
 import io.dingodb.exec.impl.message.DestroyTaskMessage;
+import io.dingodb.exec.impl.message.RunTaskBatchMessage;
 import io.dingodb.exec.impl.message.RunTaskMessage;
 import io.dingodb.exec.impl.message.TaskMessage;
 import io.dingodb.exec.operator.params.RootParam;
@@ -46,8 +48,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -93,6 +98,7 @@ public final class JobManagerImpl implements JobManager {
     @Override
     public void removeJob(CommonId jobId) {
         Job job = jobMap.remove(jobId);
+        AdmissionController.INSTANCE.release(jobId);
         LogUtils.debug(log, "Removed job \"{}\". # of jobs: {}.", jobId, jobMap.size());
         if (job != null) {
             for (Task task : job.getTasks().values()) {
@@ -110,12 +116,28 @@ public final class JobManagerImpl implements JobManager {
         if (job.isEmpty()) {
             return Collections.emptyIterator();
         }
-        if (job.getStatus() == Status.BORN) {
-            distributeTasks(job);
+        AdmissionController.Ticket ticket = admit(job);
+        try {
+            boolean create = job.getStatus() == Status.BORN;
+            if (create) {
+                addRootTask(job);
+            }
+            run(job, paras, create);
+            Task root = job.getRoot();
+            return new JobIteratorImpl(job, root.getRoot(), ticket);
+        } catch (RuntimeException e) {
+            if (ticket != null) {
+                ticket.close();
+            }
+            throw e;
         }
-        run(job, paras);
-        Task root = job.getRoot();
-        return new JobIteratorImpl(job, root.getRoot());
+    }
+
+    private AdmissionController.@Nullable Ticket admit(@NonNull Job job) {
+        if (job.getResourceGroup() == null) {
+            return null;
+        }
+        return AdmissionController.INSTANCE.admit(job);
     }
 
     @Override
@@ -155,46 +177,68 @@ public final class JobManagerImpl implements JobManager {
         }
     }
 
-    private void distributeTasks(@NonNull Job job) {
+    private void addRootTask(@NonNull Job job) {
         for (Task task : job.getTasks().values()) {
             if (task.getRoot() != null) {
                 assert task.getLocation().equals(MetaService.root().currentLocation())
                     : "The root task must be at current location.";
                 taskManager.addTask(task);
+            }
+        }
+    }
+
+    /**
+     * Run the tasks, the tasks at the same location are sent in one message. Tasks are created with the first
+     * run, later runs of the job send only the task ids and parameters.
+     */
+    void run(@NonNull Job job, Object @Nullable [] paras, boolean create) {
+        Map<Location, List<Task>> remoteTasks = new LinkedHashMap<>();
+        Task root = null;
+        for (Task task : job.getTasks().values()) {
+            if (task.getRoot() != null) {
+                root = task;
                 continue;
             }
             // Currently only root task is run at localhost, if a task is at localhost but not root task,
             // it is just ignored. Just distribute all the tasks to avoid this.
+            remoteTasks.computeIfAbsent(task.getLocation(), l -> new ArrayList<>()).add(task);
+        }
+        for (Map.Entry<Location, List<Task>> entry : remoteTasks.entrySet()) {
+            List<Task> tasks = entry.getValue();
             try {
-                sendTaskMessage(task, new Message(TASK_TAG, new CreateTaskMessage(task).toBytes()));
+                sendTaskMessage(entry.getKey(), tasks, new Message(
+                    TASK_TAG, new RunTaskBatchMessage(tasks, create, job.getParasType(), paras).toBytes()
+                ));
             } catch (Exception e) {
+                if (!create) {
+                    throw e;
+                }
                 LogUtils.error(log, "jobId:{}, Error to distribute tasks.", job.getJobId(), e);
-                throw new RuntimeException("jobId:" + job.getJobId() + "taskId:" + task.getId() + ", Error to distribute tasks.", e);
+                throw new RuntimeException("jobId:" + job.getJobId() + ", location:" + entry.getKey()
+                    + ", Error to distribute tasks.", e);
             }
         }
-    }
-
-    private void run(@NonNull Job job, Object @Nullable [] paras) {
-        for (Task task : job.getTasks().values()) {
-            if (task.getRoot() != null) {
-                task.run(paras);
-                continue;
-            }
-            sendTaskMessage(task, new Message(TASK_TAG, new RunTaskMessage(task, job.getParasType(), paras).toBytes()));
+        if (root != null) {
+            root.run(paras);
         }
     }
 
     private void sendTaskMessage(@NonNull Task task, Message message) {
-        Location location = task.getLocation();
+        sendTaskMessage(task.getLocation(), Collections.singletonList(task), message);
+    }
+
+    private void sendTaskMessage(@NonNull Location location, @NonNull List<Task> tasks, Message message) {
         Channel channel = channelMap.computeIfAbsent(
             location,
             l -> Services.openNewSysChannel(l.getHost(), l.getPort())
         );
         channel.setCloseListener(__ -> channelMap.remove(location));
         channel.send(message);
-        ITransaction transaction = TransactionManager.getTransaction(task.getTxnId());
-        if (transaction != null) {
-            transaction.registerChannel(task.getId(), channel);
+        for (Task task : tasks) {
+            ITransaction transaction = TransactionManager.getTransaction(task.getTxnId());
+            if (transaction != null) {
+                transaction.registerChannel(task.getId(), channel);
+            }
         }
     }
 
@@ -212,6 +256,8 @@ public final class JobManagerImpl implements JobManager {
             processCommand((CreateTaskMessage) taskMessage);
         } else if (taskMessage instanceof RunTaskMessage) {
             processCommand((RunTaskMessage) taskMessage);
+        } else if (taskMessage instanceof RunTaskBatchMessage) {
+            processCommand((RunTaskBatchMessage) taskMessage);
         } else if (taskMessage instanceof CancelTaskMessage) {
             processCommand((CancelTaskMessage) taskMessage);
         } else if (taskMessage instanceof DestroyTaskMessage) {
@@ -220,17 +266,13 @@ public final class JobManagerImpl implements JobManager {
     }
 
     private void processCommand(@NonNull CreateTaskMessage cmd) {
+        createTask(cmd.getTask());
+    }
+
+    private void createTask(@NonNull Task task) {
         final long startTime = System.currentTimeMillis();
         try {
-            Task task = cmd.getTask();
-            // 1、cross node need add transaction
-            // 2、check whether the current node can execute transactions
-            ITransaction transaction = TransactionManager.getTransaction(task.getTxnId() == null ? CommonId.EMPTY_TRANSACTION : task.getTxnId());
-            if (transaction == null) {
-                TransactionManager.createTransaction(task.getTransactionType(),
-                    task.getTxnId() == null ? CommonId.EMPTY_TRANSACTION : task.getTxnId(),
-                    task.getIsolationLevel().getCode());
-            }
+            prepareTransaction(task, task.getTxnId());
             taskManager.addTask(task);
         } finally {
             final long cost = System.currentTimeMillis() - startTime;
@@ -239,11 +281,39 @@ public final class JobManagerImpl implements JobManager {
         }
     }
 
+    private static void prepareTransaction(@NonNull Task task, CommonId txnId) {
+        // 1、cross node need add transaction
+        // 2、check whether the current node can execute transactions
+        ITransaction transaction = TransactionManager.getTransaction(txnId == null ? CommonId.EMPTY_TRANSACTION : txnId);
+        if (transaction == null) {
+            TransactionManager.createTransaction(task.getTransactionType(),
+                txnId == null ? CommonId.EMPTY_TRANSACTION : txnId,
+                task.getIsolationLevel().getCode());
+        }
+    }
+
     private void processCommand(@NonNull RunTaskMessage cmd) {
         Task task = taskManager.getTask(cmd.getJobId(), cmd.getTaskId());
         task.run(cmd.getParas());
     }
 
+    private void processCommand(@NonNull RunTaskBatchMessage cmd) {
+        if (cmd.getTasks() != null) {
+            cmd.getTasks().forEach(this::createTask);
+        }
+        CommonId txnId = cmd.getTxnId();
+        for (CommonId taskId : cmd.getTaskIds()) {
+            Task task = taskManager.getTask(cmd.getJobId(), taskId);
+            if (txnId != null && !txnId.equals(task.getTxnId())) {
+                // The job is run again in another transaction, as `JobImpl.setTxnId` does.
+                prepareTransaction(task, txnId);
+                task.setTxnId(txnId);
+                task.setBathTask(true);
+            }
+            task.run(cmd.getParas());
+        }
+    }
+
     private void processCommand(@NonNull CancelTaskMessage cmd) {
         Task task = taskManager.getTask(cmd.getJobId(), cmd.getTaskId());
         task.cancel();
@@ -38,6 +38,7 @@ import io.dingodb.exec.exception.TaskCancelException;
 import io.dingodb.exec.fin.ErrorType;
 import io.dingodb.exec.fin.FinWithException;
 import io.dingodb.exec.fin.TaskStatus;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.operator.SourceOperator;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.transaction.base.TransactionType;
@@ -114,6 +115,12 @@ public final class TaskImpl implements Task {
 
     @JsonProperty("isSelect")
     private Boolean isSelect;
+    @JsonProperty("maxMemory")
+    @Setter
+    private long maxMemory;
+    @JsonProperty("resourceGroup")
+    @Setter
+    private String resourceGroup;
     private CommonId rootOperatorId = null;
 
     private transient AtomicInteger status = new AtomicInteger(Status.BORN);
@@ -122,6 +129,7 @@ public final class TaskImpl implements Task {
     private transient TaskStatus taskInitStatus;
     @Setter
     private transient Context context;
+    private transient MemoryTracker memoryTracker;
 
     @JsonCreator
     public TaskImpl(
@@ -182,9 +190,18 @@ public final class TaskImpl implements Task {
         }
     }
 
+    @Override
+    public MemoryTracker getMemoryTracker() {
+        return memoryTracker != null ? memoryTracker : MemoryTracker.PROCESS;
+    }
+
     @Override
     public void init() {
         status = new AtomicInteger(Status.BORN);
+        if (memoryTracker == null) {
+            memoryTracker = MemoryTracker.acquireJob(jobId, txnId, maxMemory, resourceGroup)
+                .child("task " + id);
+        }
         boolean isStatusOK = true;
         String statusErrMsg = "";
         this.getVertexes().forEach((id, v) -> {
@@ -304,6 +321,16 @@ public final class TaskImpl implements Task {
         return true;
     }
 
+    @Override
+    public void destroy() {
+        Task.super.destroy();
+        if (memoryTracker != null) {
+            memoryTracker.close();
+            MemoryTracker.releaseJob(jobId);
+            memoryTracker = null;
+        }
+    }
+
     @Override
     public boolean getBachTask() {
         return bachTask;
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.impl.message;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.type.DingoType;
+import io.dingodb.exec.base.Task;
+import io.dingodb.exec.codec.RawJsonDeserializer;
+import io.dingodb.exec.converter.JsonConverter;
+import io.dingodb.exec.impl.TaskImpl;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Run the tasks of a job at one location. The tasks are carried only when they are not created at the location,
+ * a job run again, like a prepared statement, sends the task ids, the transaction and the parameters only.
+ */
+@JsonTypeName("runBatch")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RunTaskBatchMessage extends TaskMessage {
+    @JsonProperty("job")
+    @Getter
+    @JsonSerialize(using = CommonId.JacksonSerializer.class)
+    @JsonDeserialize(using = CommonId.JacksonDeserializer.class)
+    private final CommonId jobId;
+    @JsonProperty("txn")
+    @Getter
+    @JsonSerialize(using = CommonId.JacksonSerializer.class)
+    @JsonDeserialize(using = CommonId.JacksonDeserializer.class)
+    private final CommonId txnId;
+    @JsonProperty("taskIds")
+    @Getter
+    @JsonSerialize(contentUsing = CommonId.JacksonSerializer.class)
+    @JsonDeserialize(contentUsing = CommonId.JacksonDeserializer.class)
+    private final List<CommonId> taskIds;
+    @JsonProperty("tasks")
+    @Getter
+    @JsonDeserialize(contentAs = TaskImpl.class)
+    private final @Nullable List<Task> tasks;
+    @JsonProperty("parasType")
+    @Getter
+    private final @NonNull DingoType parasType;
+    @Getter
+    private final Object @Nullable [] paras;
+
+    public RunTaskBatchMessage(
+        CommonId jobId,
+        CommonId txnId,
+        List<CommonId> taskIds,
+        @Nullable List<Task> tasks,
+        @NonNull DingoType parasType,
+        Object @Nullable [] paras
+    ) {
+        this.jobId = jobId;
+        this.txnId = txnId;
+        this.taskIds = taskIds;
+        this.tasks = tasks;
+        this.parasType = parasType;
+        this.paras = paras;
+    }
+
+    public RunTaskBatchMessage(
+        @NonNull List<Task> tasks,
+        boolean create,
+        @NonNull DingoType parasType,
+        Object @Nullable [] paras
+    ) {
+        this(
+            tasks.get(0).getJobId(),
+            tasks.get(0).getTxnId(),
+            tasks.stream().map(Task::getId).collect(Collectors.toList()),
+            create ? tasks : null,
+            parasType,
+            paras
+        );
+    }
+
+    @JsonCreator
+    public static @NonNull RunTaskBatchMessage fromJson(
+        @JsonProperty("job") CommonId jobId,
+        @JsonProperty("txn") CommonId txnId,
+        @JsonProperty("taskIds") List<CommonId> taskIds,
+        @JsonProperty("tasks") List<Task> tasks,
+        @NonNull @JsonProperty("parasType") DingoType parasType,
+        @JsonDeserialize(using = RawJsonDeserializer.class)
+        @JsonProperty("paras") JsonNode paras
+    ) {
+        Object[] newParas = null;
+        if (paras != null) {
+            newParas = (Object[]) parasType.convertFrom(paras, JsonConverter.INSTANCE);
+        }
+        return new RunTaskBatchMessage(jobId, txnId, taskIds, tasks, parasType, newParas);
+    }
+
+    @JsonProperty("paras")
+    Object @Nullable [] getParasJson() {
+        return (Object[]) parasType.convertTo(paras, JsonConverter.INSTANCE);
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.memory;
+
+import com.codahale.metrics.Gauge;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.common.mysql.scope.ScopeVariables;
+import io.dingodb.exec.admission.ResourceGroup;
+import io.dingodb.exec.exception.MemoryLimitExceededException;
+import io.dingodb.serial.util.FloatArrayList;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estimated heap held by the operators, tracked in a tree of process, resource group, job, task and operator. A
+ * limit of {@code 0} means no limit. The process limit is the executor variable {@code executor_memory_limit}, the
+ * group limit is the memory of the {@link ResourceGroup}, the job limit is the session variable
+ * {@code query_memory_limit}.
+ *
+ * <p>A tracker charges its parent in chunks of {@link #CHUNK} bytes, so that most calls touch only the tracker of
+ * the operator. The usage of a parent is an upper bound of the sum of its children, by at most a chunk each.
+ */
+public final class MemoryTracker {
+    public static final long CHUNK = 64 * 1024;
+
+    public static final MemoryTracker PROCESS = new MemoryTracker("executor", null, 0, null);
+
+    private static final Map<String, MemoryTracker> GROUPS = new ConcurrentHashMap<>();
+    private static final Map<CommonId, MemoryTracker> JOBS = new ConcurrentHashMap<>();
+
+    private static final int OBJECT_HEADER = 16;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    static {
+        DingoMetrics.metricRegistry.register("exec_memory_usage", (Gauge<Long>) PROCESS::getUsage);
+    }
+
+    @Getter
+    private final String label;
+    private final @Nullable MemoryTracker parent;
+    private final long limit;
+    private final @Nullable CommonId txnId;
+    private final AtomicLong usage = new AtomicLong();
+    // Bytes charged to the parent, changed only when synchronized.
+    private volatile long reserved;
+    // Released by its owner, the children no longer charge it.
+    private volatile boolean closed;
+    // Tasks of the job on this executor, changed only in the map operations of `JOBS`.
+    private int refs;
+
+    private MemoryTracker(
+        String label,
+        @Nullable MemoryTracker parent,
+        long limit,
+        @Nullable CommonId txnId
+    ) {
+        this.label = label;
+        this.parent = parent;
+        this.limit = limit;
+        this.txnId = txnId;
+    }
+
+    public static @NonNull MemoryTracker group(@NonNull String name) {
+        return GROUPS.computeIfAbsent(
+            name,
+            n -> new MemoryTracker("resource group " + n, PROCESS, ResourceGroup.of(n).getMemory(), null)
+        );
+    }
+
+    public static @NonNull MemoryTracker acquireJob(@NonNull CommonId jobId, @Nullable CommonId txnId, long limit) {
+        return acquireJob(jobId, txnId, limit, null);
+    }
+
+    /**
+     * Get the tracker of the job on this executor, created under the tracker of the resource group on the first
+     * call, or the process tracker if the job is not in a group. Each call must be paired with
+     * {@link #releaseJob(CommonId)}.
+     */
+    public static @NonNull MemoryTracker acquireJob(
+        @NonNull CommonId jobId,
+        @Nullable CommonId txnId,
+        long limit,
+        @Nullable String group
+    ) {
+        return JOBS.compute(jobId, (k, tracker) -> {
+            if (tracker == null) {
+                tracker = new MemoryTracker("job " + jobId, group != null ? group(group) : PROCESS, limit, txnId);
+            }
+            ++tracker.refs;
+            return tracker;
+        });
+    }
+
+    public static void releaseJob(@NonNull CommonId jobId) {
+        JOBS.computeIfPresent(jobId, (k, tracker) -> {
+            if (--tracker.refs > 0) {
+                return tracker;
+            }
+            tracker.close();
+            return null;
+        });
+    }
+
+    /**
+     * Memory held on this executor by the jobs of a transaction.
+     */
+    public static long getTxnUsage(@Nullable CommonId txnId) {
+        if (txnId == null) {
+            return 0;
+        }
+        return JOBS.values().stream()
+            .filter(t -> txnId.equals(t.txnId))
+            .mapToLong(MemoryTracker::getUsage)
+            .sum();
+    }
+
+    public @NonNull MemoryTracker child(String label) {
+        return new MemoryTracker(label, this, 0, null);
+    }
+
+    public long getUsage() {
+        return usage.get();
+    }
+
+    public long getLimit() {
+        return this == PROCESS ? ScopeVariables.getExecutorMemoryLimit() : limit;
+    }
+
+    /**
+     * Account for {@code bytes} more memory.
+     *
+     * @throws MemoryLimitExceededException if the limit of this tracker or any ancestor is exceeded, nothing is
+     *                                      accounted in this case
+     */
+    public void consume(long bytes) {
+        long used = usage.addAndGet(bytes);
+        long max = getLimit();
+        if (max > 0 && used > max) {
+            usage.addAndGet(-bytes);
+            throw new MemoryLimitExceededException(
+                "Memory of " + label + " exceeds the limit of " + max + " bytes, used " + used + " bytes."
+            );
+        }
+        if (parent != null && !closed && used > reserved) {
+            try {
+                reserve(used);
+            } catch (MemoryLimitExceededException e) {
+                usage.addAndGet(-bytes);
+                throw e;
+            }
+        }
+    }
+
+    public void release(long bytes) {
+        long used = usage.addAndGet(-bytes);
+        if (parent != null && reserved - used > 2 * CHUNK) {
+            unreserve();
+        }
+    }
+
+    /**
+     * Release all the memory of this tracker, the tracker can be used again after.
+     */
+    public synchronized void reset() {
+        usage.set(0);
+        if (parent != null && reserved > 0) {
+            // A closed parent has already given back what its children reserved.
+            if (!parent.closed) {
+                parent.release(reserved);
+            }
+            reserved = 0;
+        }
+    }
+
+    /**
+     * Release all the memory of this tracker for good. The children still holding memory, like the operators of a
+     * destroyed task, may reset or release later without charging this tracker or its ancestors again.
+     */
+    public synchronized void close() {
+        reset();
+        closed = true;
+    }
+
+    private synchronized void reserve(long used) {
+        if (used > reserved) {
+            long more = used - reserved;
+            try {
+                Objects.requireNonNull(parent).consume(more + CHUNK);
+                more += CHUNK;
+            } catch (MemoryLimitExceededException e) {
+                // Near the limit, charge exactly what is used.
+                parent.consume(more);
+            }
+            reserved += more;
+        }
+    }
+
+    private synchronized void unreserve() {
+        long less = Math.min(reserved, reserved - usage.get() - CHUNK);
+        if (less > 0) {
+            reserved -= less;
+            if (!Objects.requireNonNull(parent).closed) {
+                parent.release(less);
+            }
+        }
+    }
+
+    /**
+     * Estimate the heap size of a tuple held by an operator.
+     */
+    public static long estimate(Object @Nullable [] tuple) {
+        if (tuple == null) {
+            return 0;
+        }
+        long size = ARRAY_HEADER + (long) REFERENCE * tuple.length;
+        for (Object value : tuple) {
+            size += estimateValue(value);
+        }
+        return size;
+    }
+
+    private static long estimateValue(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return OBJECT_HEADER + 24 + ((String) value).length();
+        }
+        if (value instanceof Integer || value instanceof Float || value instanceof Boolean) {
+            return OBJECT_HEADER;
+        }
+        if (value instanceof Long || value instanceof Double || value instanceof java.util.Date) {
+            return OBJECT_HEADER + 8;
+        }
+        if (value instanceof BigDecimal) {
+            return OBJECT_HEADER + 48 + ((BigDecimal) value).precision() / 2;
+        }
+        if (value instanceof byte[]) {
+            return ARRAY_HEADER + ((byte[]) value).length;
+        }
+        if (value instanceof Object[]) {
+            return estimate((Object[]) value);
+        }
+        if (value instanceof FloatArrayList) {
+            return OBJECT_HEADER + ARRAY_HEADER + 4L * ((FloatArrayList) value).size();
+        }
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            long size = OBJECT_HEADER + ARRAY_HEADER + (long) REFERENCE * list.size();
+            for (Object element : list) {
+                size += estimateValue(element);
+            }
+            return size;
+        }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            long size = OBJECT_HEADER + ARRAY_HEADER;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += 32 + estimateValue(entry.getKey()) + estimateValue(entry.getValue());
+            }
+            return size;
+        }
+        return OBJECT_HEADER + 8;
+    }
+}
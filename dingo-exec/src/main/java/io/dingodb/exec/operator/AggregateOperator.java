@@ -19,6 +19,7 @@ package io.dingodb.exec.operator;
 import io.dingodb.exec.dag.Edge;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithException;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.AggregateParams;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +35,11 @@ public final class AggregateOperator extends SoleOutOperator {
     @Override
     public boolean push(Context context, @Nullable Object[] tuple, Vertex vertex) {
         AggregateParams params = vertex.getParam();
+        if (params.isSorted()) {
+            Object[] result = params.addSortedTuple(tuple);
+            // Emit a group once the next one starts; the input stops only if the downstream is stopped, e.g. cancelled.
+            return result == null || vertex.getSoleEdge().transformToNext(context, result);
+        }
         params.addTuple(tuple);
         return true;
     }
@@ -42,6 +48,14 @@ public final class AggregateOperator extends SoleOutOperator {
     public  void fin(int pin, Fin fin, Vertex vertex) {
         AggregateParams params = vertex.getParam();
         Edge edge = vertex.getSoleEdge();
+        if (params.isSorted()) {
+            Object[] result = params.finishSorted();
+            if (result != null && !(fin instanceof FinWithException)) {
+                edge.transformToNext(result);
+            }
+            edge.fin(fin);
+            return;
+        }
         for (Object[] t : params.getCache()) {
             if (!edge.transformToNext(t)) {
                 break;
@@ -41,10 +41,10 @@ public final class CoalesceOperator extends SoleOutOperator {
         synchronized (vertex) {
             CoalesceParam param = vertex.getParam();
             OperatorProfile profile = param.getProfile("coalesce");
-            long start = System.currentTimeMillis();
+            long start = profile.sampleStart();
             LogUtils.debug(log, "Got tuple from pin {}.", context.getPin());
             boolean result = vertex.getSoleEdge().transformToNext(context, tuple);
-            profile.time(start);
+            profile.sampleTime(start);
             LogUtils.debug(log, "task status: {}", vertex.getTask().getStatus());
             if (param.getFinWithException().get()) {
                 return false;
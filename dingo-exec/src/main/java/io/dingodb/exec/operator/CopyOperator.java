@@ -33,9 +33,9 @@ public class CopyOperator extends FanOutOperator {
     public boolean push(Context context, @Nullable Object[] tuple, Vertex vertex) {
         AbstractParams param = vertex.getParam();
         OperatorProfile profile = param.getProfile("copy");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         vertex.getOutList().forEach(o -> o.transformToNext(context, tuple));
-        profile.time(start);
+        profile.sampleTime(start);
         return true;
     }
 
@@ -59,7 +59,7 @@ public final class GetByIndexOperator extends FilterProjectOperator {
     protected @NonNull Iterator<Object[]> createSourceIterator(Context context, Object[] tuple, Vertex vertex) {
         GetByIndexParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("getByIndex");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         StoreInstance store = Services.KV_STORE.getInstance(param.getIndexTableId(), context.getDistribution().getId());
         byte[] keys = param.getCodec().encodeKeyPrefix(tuple, calculatePrefixCount(tuple));
         Iterator<Object[]> iterator = Iterators.transform(
@@ -69,7 +69,7 @@ public final class GetByIndexOperator extends FilterProjectOperator {
 
         iterator = Iterators.transform(iterator, tuples -> revMap(tuples, vertex));
 
-        profile.time(start);
+        profile.sampleTime(start);
         return iterator;
     }
 
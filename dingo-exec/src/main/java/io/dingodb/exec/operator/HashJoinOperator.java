@@ -24,6 +24,7 @@ import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.fin.Fin;
 import io.dingodb.exec.fin.FinWithException;
 import io.dingodb.exec.fin.FinWithProfiles;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.data.TupleWithJoinFlag;
 import io.dingodb.exec.operator.params.HashJoinParam;
@@ -48,7 +49,7 @@ public class HashJoinOperator extends SoleOutOperator {
         Edge edge = vertex.getSoleEdge();
         HashJoinParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("hashJoin");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         TupleMapping leftMapping = param.getLeftMapping();
         TupleMapping rightMapping = param.getRightMapping();
         int leftLength = param.getLeftLength();
@@ -66,23 +67,24 @@ public class HashJoinOperator extends SoleOutOperator {
                     System.arraycopy(t.getTuple(), 0, newTuple, leftLength, rightLength);
                     t.setJoined(true);
                     if (!edge.transformToNext(context, newTuple)) {
-                        profile.time(start);
+                        profile.sampleTime(start);
                         return false;
                     }
                 }
             } else if (leftRequired) {
                 Object[] newTuple = Arrays.copyOf(tuple, leftLength + rightLength);
                 Arrays.fill(newTuple, leftLength, leftLength + rightLength, null);
-                profile.time(start);
+                profile.sampleTime(start);
                 return edge.transformToNext(context, newTuple);
             }
         } else if (pin == 1) { //right
+            param.getMemoryTracker().consume(MemoryTracker.estimate(tuple));
             TupleKey rightKey = new TupleKey(rightMapping.revMap(tuple));
             List<TupleWithJoinFlag> list = param.getHashMap()
                 .computeIfAbsent(rightKey, k -> Collections.synchronizedList(new LinkedList<>()));
             list.add(new TupleWithJoinFlag(tuple));
         }
-        profile.time(start);
+        profile.sampleTime(start);
         return true;
     }
 
@@ -31,9 +31,9 @@ public class HashOperator extends FanOutOperator {
     protected int calcOutputIndex(Context context, Object @NonNull [] tuple, Vertex vertex) {
         HashParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("hash");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         int index = param.getStrategy().selectOutput(param.getKeyMapping().revMap(tuple));
-        profile.time(start);
+        profile.sampleTime(start);
         return index;
     }
 
@@ -19,6 +19,7 @@ package io.dingodb.exec.operator;
 import io.dingodb.exec.dag.Edge;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.IndexMergeParam;
 import io.dingodb.exec.tuple.TupleKey;
@@ -37,7 +38,10 @@ public class IndexMergeOperator extends SoleOutOperator {
         IndexMergeParam params = vertex.getParam();
         params.setContext(context);
         Object[] keyTuple = params.getKeyMapping().revMap(tuple);
-        params.getHashMap().put(new TupleKey(keyTuple), params.getSelection().revMap(tuple));
+        Object[] value = params.getSelection().revMap(tuple);
+        if (params.getHashMap().put(new TupleKey(keyTuple), value) == null) {
+            params.getMemoryTracker().consume(MemoryTracker.estimate(keyTuple) + MemoryTracker.estimate(value));
+        }
         return true;
     }
 
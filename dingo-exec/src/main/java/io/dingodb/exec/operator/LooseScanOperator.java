@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import io.dingodb.codec.CodecService;
+import io.dingodb.codec.KeyValueCodec;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.partition.RangeDistribution;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.LooseScanParam;
+import io.dingodb.exec.utils.RelOpUtils;
+import io.dingodb.store.api.StoreInstance;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Skip scan over the leading key columns. The first row of a prefix is read by a seek, then the next seek starts
+ * after all the keys of the prefix, so the rows read are as many as the distinct prefixes.
+ */
+@Slf4j
+@RequiredArgsConstructor(access = AccessLevel.PROTECTED)
+public class LooseScanOperator extends ScanOperatorBase {
+    public static final LooseScanOperator INSTANCE = new LooseScanOperator();
+
+    @Override
+    protected @NonNull Iterator<Object[]> createIterator(@NonNull Context context, @NonNull Vertex vertex) {
+        LooseScanParam param = vertex.getParam();
+        return Iterators.transform(
+            new SeekIterator(vertex, param, context.getDistribution()),
+            param.getSelection()::revMap
+        );
+    }
+
+    @Override
+    protected @NonNull Scanner getScanner(@NonNull Context context, @NonNull Vertex vertex) {
+        return RelOpUtils::doScan;
+    }
+
+    /**
+     * Read the first row in the range, {@code null} if the range is empty.
+     */
+    protected Object @Nullable [] seek(@NonNull Vertex vertex, @NonNull RangeDistribution range) {
+        LooseScanParam param = vertex.getParam();
+        StoreInstance storeInstance = Services.KV_STORE.getInstance(param.getTableId(), range.getId());
+        KeyValue keyValue = storeInstance.seek(System.identityHashCode(range), new StoreInstance.Range(
+            range.getStartKey(), range.getEndKey(), range.isWithStart(), range.isWithEnd()
+        ));
+        return keyValue != null ? param.getCodec().decode(keyValue) : null;
+    }
+
+    /**
+     * Keep the first row of every prefix of an ordered iterator.
+     */
+    protected static @NonNull Iterator<Object[]> firstOfPrefixes(
+        @NonNull Iterator<Object[]> iterator,
+        @NonNull KeyValueCodec codec,
+        int prefixCount
+    ) {
+        if (prefixCount == 0) {
+            return Iterators.limit(iterator, 1);
+        }
+        return new AbstractIterator<Object[]>() {
+            private byte[] last;
+
+            @Override
+            protected Object[] computeNext() {
+                while (iterator.hasNext()) {
+                    Object[] tuple = iterator.next();
+                    byte[] prefix = codec.encodeKeyPrefix(tuple, prefixCount);
+                    if (last == null || !Arrays.equals(prefix, last)) {
+                        last = prefix;
+                        return tuple;
+                    }
+                }
+                return endOfData();
+            }
+        };
+    }
+
+    /**
+     * The smallest key greater than all the keys beginning with the prefix, {@code null} if there is none.
+     */
+    static byte @Nullable [] nextPrefix(byte @NonNull [] prefix) {
+        for (int i = prefix.length - 1; i >= ByteArrayUtils.SKIP_LONG_POS; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] next = Arrays.copyOf(prefix, i + 1);
+                next[i]++;
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private final class SeekIterator extends AbstractIterator<Object[]> {
+        private final Vertex vertex;
+        private final LooseScanParam param;
+        private final KeyValueCodec codec;
+        private final CommonId partId;
+        private final byte[] endKey;
+        private final boolean withEnd;
+        private byte[] startKey;
+        private boolean withStart;
+
+        private SeekIterator(Vertex vertex, LooseScanParam param, RangeDistribution distribution) {
+            this.vertex = vertex;
+            this.param = param;
+            this.codec = param.getCodec();
+            this.partId = distribution.getId();
+            this.startKey = CodecService.getDefault().setId(distribution.getStartKey(), partId.domain);
+            this.endKey = CodecService.getDefault().setId(distribution.getEndKey(), partId.domain);
+            this.withStart = distribution.isWithStart();
+            this.withEnd = distribution.isWithEnd();
+        }
+
+        @Override
+        protected Object[] computeNext() {
+            if (startKey == null) {
+                return endOfData();
+            }
+            Object[] tuple = seek(vertex, RangeDistribution.builder()
+                .id(partId)
+                .startKey(startKey)
+                .endKey(endKey)
+                .withStart(withStart)
+                .withEnd(withEnd)
+                .build());
+            if (tuple == null) {
+                startKey = null;
+                return endOfData();
+            }
+            startKey = param.getPrefixCount() == 0 ? null : next(tuple);
+            withStart = true;
+            return tuple;
+        }
+
+        private byte @Nullable [] next(Object[] tuple) {
+            byte[] prefix = CodecService.getDefault().setId(
+                codec.encodeKeyPrefix(tuple, param.getPrefixCount()), partId.domain
+            );
+            byte[] next = nextPrefix(prefix);
+            if (next == null || endKey == null) {
+                return next;
+            }
+            int result = ByteArrayUtils.compare(next, endKey, ByteArrayUtils.SKIP_LONG_POS);
+            return result < 0 || (result == 0 && withEnd) ? next : null;
+        }
+    }
+}
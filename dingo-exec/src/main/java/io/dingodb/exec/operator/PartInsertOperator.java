@@ -47,7 +47,7 @@ public final class PartInsertOperator extends PartModifyOperator {
     public boolean pushTuple(Context context, Object[] tuple, Vertex vertex) {
         PartInsertParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("partInsert");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         if (param.isHasAutoInc() && param.getAutoIncColIdx() < tuple.length) {
             Object tmp = tuple[param.getAutoIncColIdx()];
             if (tmp instanceof Long || tmp instanceof Integer) {
@@ -72,7 +72,7 @@ public final class PartInsertOperator extends PartModifyOperator {
         } else {
             context.addKeyState(false);
         }
-        profile.time(start);
+        profile.sampleTime(start);
         return true;
     }
 
@@ -33,9 +33,9 @@ public final class PartitionOperator extends FanOutOperator {
     protected int calcOutputIndex(Context context, Object @NonNull [] tuple, Vertex vertex) {
         PartitionParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("partition");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         int index = param.getPartIndices().get(context.getDistribution().getId().domain);
-        profile.time(start);
+        profile.sampleTime(start);
         return index;
     }
 
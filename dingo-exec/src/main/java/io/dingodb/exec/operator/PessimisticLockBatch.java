@@ -0,0 +1,298 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.codec.PrimitiveCodec;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.base.Status;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.exception.TaskCancelException;
+import io.dingodb.exec.operator.data.PessimisticLockKey;
+import io.dingodb.exec.operator.params.TxnPartModifyParam;
+import io.dingodb.exec.transaction.util.TransactionUtil;
+import io.dingodb.exec.utils.ByteUtils;
+import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.transaction.data.Op;
+import io.dingodb.store.api.transaction.data.pessimisticlock.TxnPessimisticLock;
+import io.dingodb.store.api.transaction.exception.LockWaitException;
+import io.dingodb.store.api.transaction.exception.RegionSplitException;
+import io.dingodb.tso.TsoService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.dingodb.exec.utils.ByteUtils.decodePessimisticKey;
+import static io.dingodb.exec.utils.ByteUtils.getKeyByOp;
+
+/**
+ * Lock the keys buffered by the pessimistic lock operators with one {@code txnPessimisticLock} per region, up to
+ * {@link TransactionUtil#max_pessimistic_lock_parallel} regions in flight.
+ */
+@Slf4j
+final class PessimisticLockBatch {
+    private PessimisticLockBatch() {
+    }
+
+    /**
+     * Lock the keys, the keys are unlocked again if any region fails.
+     *
+     * @return {@code false} if the task is stopped
+     */
+    static boolean lock(Vertex vertex, TxnPartModifyParam param, boolean isScan, List<PessimisticLockKey> lockKeys) {
+        CommonId txnId = vertex.getTask().getTxnId();
+        lockKeys.forEach(k -> localStore(k).put(new KeyValue(k.getDeadLockKey(), null)));
+        if (vertex.getTask().getStatus() == Status.STOPPED) {
+            LogUtils.warn(log, "Task status is stop...");
+            // delete deadLockKey
+            lockKeys.forEach(k -> localStore(k).delete(k.getDeadLockKey()));
+            return false;
+        } else if (vertex.getTask().getStatus() == Status.CANCEL) {
+            LogUtils.warn(log, "Task status is cancel...");
+            // delete deadLockKey
+            lockKeys.forEach(k -> localStore(k).delete(k.getDeadLockKey()));
+            throw new TaskCancelException("task is cancel");
+        }
+        byte[] primaryLockKeyBytes = decodePessimisticKey(param.getPrimaryLockKey());
+        long forUpdateTs = vertex.getTask().getJobId().seq;
+        lockKeys.forEach(k -> k.setForUpdateTs(forUpdateTs));
+        List<List<PessimisticLockKey>> regions = groupByRegion(lockKeys);
+        LogUtils.debug(log, "{}, forUpdateTs:{} txnPessimisticLock {} keys in {} regions",
+            txnId, forUpdateTs, lockKeys.size(), regions.size());
+        try {
+            TransactionUtil.parallelRun(
+                "pessimistic-lock",
+                regions.stream()
+                    .<Runnable>map(r -> () -> lockRegion(param, isScan, txnId, primaryLockKeyBytes, r))
+                    .collect(Collectors.toList()),
+                TransactionUtil.max_pessimistic_lock_parallel
+            );
+            if (vertex.getTask().getStatus() == Status.STOPPED) {
+                rollback(param, txnId, lockKeys, false, null);
+                return false;
+            } else if (vertex.getTask().getStatus() == Status.CANCEL) {
+                throw new TaskCancelException("task is cancel");
+            }
+        } catch (Throwable throwable) {
+            LogUtils.error(log, throwable.getMessage(), throwable);
+            rollback(param, txnId, lockKeys, true, throwable);
+        }
+        // get lock success, delete deadLockKey
+        lockKeys.forEach(k -> localStore(k).delete(k.getDeadLockKey()));
+        return true;
+    }
+
+    private static void lockRegion(
+        TxnPartModifyParam param,
+        boolean isScan,
+        CommonId txnId,
+        byte[] primaryLockKey,
+        List<PessimisticLockKey> regionKeys
+    ) {
+        PessimisticLockKey first = regionKeys.get(0);
+        CommonId tableId = first.getTableId();
+        CommonId regionId = first.getRegionId();
+        List<byte[]> keys = regionKeys.stream().map(PessimisticLockKey::getKey).collect(Collectors.toList());
+        // The extra data of the locks refers to the partition, the request goes to the region.
+        TxnPessimisticLock txnPessimisticLock = TransactionUtil.getTxnPessimisticLock(
+            txnId,
+            tableId,
+            first.getPartId(),
+            primaryLockKey,
+            keys,
+            param.getStartTs(),
+            first.getForUpdateTs(),
+            param.getIsolationLevel()
+        );
+        try {
+            StoreInstance store = Services.KV_STORE.getInstance(tableId, regionId);
+            boolean result = store.txnPessimisticLock(txnPessimisticLock, param.getLockTimeOut(), isScan);
+            if (!result) {
+                throw new RuntimeException(txnId + " " + regionId + ",txnPessimisticLock false, txnPessimisticLock: "
+                    + txnPessimisticLock.toString());
+            }
+        } catch (RegionSplitException e) {
+            LogUtils.error(log, e.getMessage(), e);
+            // 2、regin split
+            Map<CommonId, List<byte[]>> partMap = TransactionUtil.multiKeySplitRegionId(tableId, txnId, keys);
+            for (List<PessimisticLockKey> splitKeys : splitByRegion(regionKeys, partMap)) {
+                lockRegion(param, isScan, txnId, primaryLockKey, splitKeys);
+            }
+            return;
+        }
+        long newForUpdateTs = txnPessimisticLock.getForUpdateTs();
+        regionKeys.forEach(k -> k.setForUpdateTs(newForUpdateTs));
+    }
+
+    /**
+     * Read the rows of the locked keys, one multi-key {@code txnGet} per region. Keys without a row are not in the
+     * result.
+     */
+    static Map<PessimisticLockKey, KeyValue> txnGet(TxnPartModifyParam param, List<PessimisticLockKey> lockKeys) {
+        long startTs = TsoService.getDefault().tso();
+        Map<PessimisticLockKey, KeyValue> rows = new IdentityHashMap<>();
+        for (List<PessimisticLockKey> regionKeys : groupByRegion(lockKeys)) {
+            PessimisticLockKey first = regionKeys.get(0);
+            StoreInstance kvStore = Services.KV_STORE.getInstance(first.getTableId(), first.getRegionId());
+            Map<ByteArrayUtils.ComparableByteArray, PessimisticLockKey> keyMap = new LinkedHashMap<>();
+            for (PessimisticLockKey lockKey : regionKeys) {
+                if (lockKey.isVector()) {
+                    // index use keyPrefix
+                    KeyValue kvKeyValue = kvStore.txnGet(startTs, lockKey.getVectorKey(), param.getLockTimeOut());
+                    if (kvKeyValue != null && kvKeyValue.getValue() != null) {
+                        rows.put(lockKey, kvKeyValue);
+                    }
+                } else {
+                    keyMap.put(new ByteArrayUtils.ComparableByteArray(lockKey.getVectorKey()), lockKey);
+                }
+            }
+            if (keyMap.isEmpty()) {
+                continue;
+            }
+            List<byte[]> keys = keyMap.keySet().stream()
+                .map(ByteArrayUtils.ComparableByteArray::getBytes)
+                .collect(Collectors.toList());
+            for (KeyValue kv : kvStore.txnGet(startTs, keys, param.getLockTimeOut())) {
+                if (kv != null && kv.getValue() != null) {
+                    PessimisticLockKey lockKey = keyMap.get(new ByteArrayUtils.ComparableByteArray(kv.getKey()));
+                    if (lockKey != null) {
+                        rows.put(lockKey, kv);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Roll back the locks of the keys, and rethrow the cause if there is.
+     */
+    static void rollback(
+        TxnPartModifyParam param,
+        CommonId txnId,
+        List<PessimisticLockKey> lockKeys,
+        boolean hasException,
+        Throwable e
+    ) {
+        for (List<PessimisticLockKey> regionKeys : groupByRegion(lockKeys)) {
+            PessimisticLockKey first = regionKeys.get(0);
+            try {
+                boolean result = TransactionUtil.pessimisticLockRollBack(
+                    txnId,
+                    first.getTableId(),
+                    first.getRegionId(),
+                    param.getIsolationLevel(),
+                    param.getStartTs(),
+                    first.getForUpdateTs(),
+                    regionKeys.stream().map(PessimisticLockKey::getKey).collect(Collectors.toList())
+                );
+                if (!result) {
+                    LogUtils.warn(log, "{} pessimisticLockRollBack fail, region:{}, forUpdateTs:{}",
+                        txnId, first.getRegionId(), first.getForUpdateTs());
+                }
+            } catch (Throwable throwable) {
+                LogUtils.error(log, throwable.getMessage(), throwable);
+            }
+        }
+        // delete deadLockKey
+        lockKeys.forEach(k -> localStore(k).delete(k.getDeadLockKey()));
+        if (hasException) {
+            if (e instanceof LockWaitException) {
+                throw (LockWaitException) e;
+            }
+            if (e instanceof TaskCancelException) {
+                throw (TaskCancelException) e;
+            }
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    /**
+     * Record the lock of the key in the local store.
+     */
+    static void putLock(PessimisticLockKey lockKey) {
+        byte[] lockKeyBytes = getKeyByOp(CommonId.CommonType.TXN_CACHE_LOCK, Op.LOCK, lockKey.getDeadLockKey());
+        localStore(lockKey).put(new KeyValue(lockKeyBytes, PrimitiveCodec.encodeLong(lockKey.getForUpdateTs())));
+    }
+
+    /**
+     * Record the old value of the key in the local store, to be restored if the statement is rolled back.
+     */
+    static void putExtraData(CommonId jobId, PessimisticLockKey lockKey, Op op, byte[] value) {
+        byte[] jobIdByte = jobId.encode();
+        byte[] tableIdByte = lockKey.getTableId().encode();
+        byte[] partIdByte = lockKey.getPartId().encode();
+        int len = jobIdByte.length + tableIdByte.length + partIdByte.length;
+        localStore(lockKey).put(new KeyValue(
+            ByteUtils.encode(
+                CommonId.CommonType.TXN_CACHE_EXTRA_DATA,
+                lockKey.getKey(),
+                op.getCode(),
+                len,
+                jobIdByte,
+                tableIdByte,
+                partIdByte),
+            value
+        ));
+    }
+
+    static List<List<PessimisticLockKey>> groupByRegion(List<PessimisticLockKey> lockKeys) {
+        Map<CommonId, Map<CommonId, List<PessimisticLockKey>>> regions = new LinkedHashMap<>();
+        for (PessimisticLockKey lockKey : lockKeys) {
+            regions.computeIfAbsent(lockKey.getTableId(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(lockKey.getRegionId(), k -> new ArrayList<>())
+                .add(lockKey);
+        }
+        return regions.values().stream()
+            .flatMap(m -> m.values().stream())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Move the keys of a split region to the new regions.
+     */
+    static List<List<PessimisticLockKey>> splitByRegion(
+        List<PessimisticLockKey> regionKeys,
+        Map<CommonId, List<byte[]>> partMap
+    ) {
+        Map<byte[], PessimisticLockKey> keyMap = new IdentityHashMap<>();
+        regionKeys.forEach(k -> keyMap.put(k.getKey(), k));
+        List<List<PessimisticLockKey>> regions = new ArrayList<>(partMap.size());
+        for (Map.Entry<CommonId, List<byte[]>> entry : partMap.entrySet()) {
+            List<PessimisticLockKey> splitKeys = new ArrayList<>(entry.getValue().size());
+            for (byte[] key : entry.getValue()) {
+                PessimisticLockKey lockKey = keyMap.get(key);
+                lockKey.setRegionId(entry.getKey());
+                splitKeys.add(lockKey);
+            }
+            regions.add(splitKeys);
+        }
+        return regions;
+    }
+
+    static StoreInstance localStore(PessimisticLockKey lockKey) {
+        return Services.LOCAL_STORE.getInstance(lockKey.getTableId(), lockKey.getPartId());
+    }
+}
@@ -19,40 +19,33 @@ package io.dingodb.exec.operator;
 import io.dingodb.codec.CodecService;
 import io.dingodb.codec.KeyValueCodec;
 import io.dingodb.common.CommonId;
-import io.dingodb.common.codec.PrimitiveCodec;
-import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.store.KeyValue;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.exec.Services;
-import io.dingodb.exec.base.Status;
 import io.dingodb.exec.converter.ValueConverter;
 import io.dingodb.exec.dag.Vertex;
-import io.dingodb.exec.exception.TaskCancelException;
 import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithException;
 import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.data.PessimisticLockKey;
 import io.dingodb.exec.operator.params.PessimisticLockInsertParam;
 import io.dingodb.exec.transaction.util.TransactionUtil;
-import io.dingodb.exec.utils.ByteUtils;
 import io.dingodb.meta.MetaService;
 import io.dingodb.meta.entity.Column;
 import io.dingodb.meta.entity.IndexTable;
 import io.dingodb.meta.entity.Table;
 import io.dingodb.store.api.StoreInstance;
 import io.dingodb.store.api.transaction.data.Op;
-import io.dingodb.store.api.transaction.data.pessimisticlock.TxnPessimisticLock;
 import io.dingodb.store.api.transaction.exception.DuplicateEntryException;
-import io.dingodb.tso.TsoService;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static io.dingodb.common.util.NoBreakFunctions.wrap;
-import static io.dingodb.exec.utils.ByteUtils.decodePessimisticKey;
 import static io.dingodb.exec.utils.ByteUtils.encode;
-import static io.dingodb.exec.utils.ByteUtils.getKeyByOp;
 
 @Slf4j
 public class PessimisticLockInsertOperator extends SoleOutOperator {
@@ -66,8 +59,6 @@ public class PessimisticLockInsertOperator extends SoleOutOperator {
             CommonId txnId = vertex.getTask().getTxnId();
             CommonId tableId = param.getTableId();
             CommonId partId = context.getDistribution().getId();
-            CommonId jobId = vertex.getTask().getJobId();
-            byte[] primaryLockKey = param.getPrimaryLockKey();
             DingoType schema = param.getSchema();
             StoreInstance localStore = Services.LOCAL_STORE.getInstance(tableId, partId);
             KeyValueCodec codec = param.getCodec();
@@ -88,7 +79,6 @@ public class PessimisticLockInsertOperator extends SoleOutOperator {
                 localStore = Services.LOCAL_STORE.getInstance(context.getIndexId(), partId);
                 codec = CodecService.getDefault().createKeyValueCodec(indexTable.version, indexTable.tupleType(), indexTable.keyMapping());
             }
-            StoreInstance kvStore = Services.KV_STORE.getInstance(tableId, partId);
             Object[] newTuple = (Object[]) schema.convertFrom(tuple, ValueConverter.INSTANCE);
             KeyValue keyValue = wrap(codec::encode).apply(newTuple);
             CodecService.getDefault().setId(keyValue.getKey(), partId.domain);
@@ -103,7 +93,6 @@ public class PessimisticLockInsertOperator extends SoleOutOperator {
             byte[] txnIdByte = txnId.encode();
             byte[] tableIdByte = tableId.encode();
             byte[] partIdByte = partId.encode();
-            byte[] jobIdByte = vertex.getTask().getJobId().encode();
             int len = txnIdByte.length + tableIdByte.length + partIdByte.length;
             byte[] lockKeyBytes = encode(
                 CommonId.CommonType.TXN_CACHE_LOCK,
@@ -115,7 +104,7 @@ public class PessimisticLockInsertOperator extends SoleOutOperator {
                 partIdByte
             );
             KeyValue oldKeyValue = localStore.get(lockKeyBytes);
-            if (oldKeyValue == null) {
+            if (oldKeyValue == null && !param.isPending(lockKeyBytes)) {
                 // for check deadLock
                 byte[] deadLockKeyBytes = encode(
                     CommonId.CommonType.TXN_CACHE_BLOCK_LOCK,
@@ -126,130 +115,71 @@ public class PessimisticLockInsertOperator extends SoleOutOperator {
                     tableIdByte,
                     partIdByte
                 );
-                KeyValue deadLockKeyValue = new KeyValue(deadLockKeyBytes, null);
-                localStore.put(deadLockKeyValue);
-
-                byte[] primaryLockKeyBytes = decodePessimisticKey(primaryLockKey);
-                long forUpdateTs = vertex.getTask().getJobId().seq;
-                byte[] forUpdateTsByte = PrimitiveCodec.encodeLong(forUpdateTs);
-                LogUtils.debug(log, "{}, forUpdateTs:{} txnPessimisticLock :{}", txnId, forUpdateTs, Arrays.toString(key));
-                if(vertex.getTask().getStatus() == Status.STOPPED) {
-                    LogUtils.warn(log, "Task status is stop...");
-                    // delete deadLockKey
-                    localStore.delete(deadLockKeyBytes);
-                    return false;
-                } else if (vertex.getTask().getStatus() == Status.CANCEL) {
-                    LogUtils.warn(log, "Task status is cancel...");
-                    // delete deadLockKey
-                    localStore.delete(deadLockKeyBytes);
-                    throw new TaskCancelException("task is cancel");
-                }
-                TxnPessimisticLock txnPessimisticLock = TransactionUtil.getTxnPessimisticLock(
-                    txnId,
-                    tableId,
-                    partId,
-                    primaryLockKeyBytes,
-                    key,
-                    param.getStartTs(),
-                    forUpdateTs,
-                    param.getIsolationLevel()
-                );
-                try {
-                    TransactionUtil.pessimisticLock(
-                        txnPessimisticLock,
-                        param.getLockTimeOut(),
-                        txnId,
-                        tableId,
-                        partId,
-                        key,
-                        param.isScan()
-                    );
-                    long newForUpdateTs = txnPessimisticLock.getForUpdateTs();
-                    if (newForUpdateTs != forUpdateTs) {
-                        forUpdateTs = newForUpdateTs;
-                        forUpdateTsByte = PrimitiveCodec.encodeLong(newForUpdateTs);
-                    }
-                    LogUtils.debug(log, "{}, forUpdateTs:{} txnPessimisticLock :{}", txnId, newForUpdateTs, Arrays.toString(key));
-                    if(vertex.getTask().getStatus() == Status.STOPPED) {
-                        TransactionUtil.resolvePessimisticLock(
-                            param.getIsolationLevel(),
-                            txnId,
-                            tableId,
-                            partId,
-                            deadLockKeyBytes,
-                            key,
-                            param.getStartTs(),
-                            txnPessimisticLock.getForUpdateTs(),
-                            false,
-                            null
-                        );
-                        return false;
-                    } else if (vertex.getTask().getStatus() == Status.CANCEL) {
-                        throw new TaskCancelException("task is cancel");
-                    }
-                } catch (Throwable throwable) {
-                    LogUtils.error(log, throwable.getMessage(), throwable);
-                    TransactionUtil.resolvePessimisticLock(
-                        param.getIsolationLevel(),
-                        txnId,
-                        tableId,
-                        partId,
-                        deadLockKeyBytes,
-                        key,
-                        param.getStartTs(),
-                        txnPessimisticLock.getForUpdateTs(),
-                        true,
-                        throwable
-                    );
-                }
-                // get lock success, delete deadLockKey
-                localStore.delete(deadLockKeyBytes);
-                // index use keyPrefix
-                KeyValue kvKeyValue = kvStore.txnGet(TsoService.getDefault().tso(), vectorKey, param.getLockTimeOut());
-                if (kvKeyValue != null && kvKeyValue.getValue() != null) {
-                    TransactionUtil.resolvePessimisticLock(
-                        param.getIsolationLevel(),
-                        txnId,
-                        tableId,
-                        partId,
-                        deadLockKeyBytes,
-                        key,
-                        param.getStartTs(),
-                        forUpdateTs,
-                        true,
-                        new DuplicateEntryException("Duplicate entry " +
-                            TransactionUtil.duplicateEntryKey(CommonId.decode(tableIdByte), key) + " for key 'PRIMARY'")
-                    );
+                param.addPendingKey(lockKeyBytes, PessimisticLockKey.builder()
+                    .context(context.snapshot())
+                    .tuple(newTuple)
+                    .tableId(tableId)
+                    .partId(partId)
+                    .key(key)
+                    .vectorKey(vectorKey)
+                    .value(keyValue.getValue())
+                    .deadLockKey(deadLockKeyBytes)
+                    .vector(isVector)
+                    .build());
+                if (param.getPendingLockCount() >= TransactionUtil.max_pessimistic_lock_count) {
+                    return flush(vertex, param);
                 }
-                byte[] lockKey = getKeyByOp(CommonId.CommonType.TXN_CACHE_LOCK, Op.LOCK, deadLockKeyBytes);
-                // lockKeyValue
-                KeyValue lockKeyValue = new KeyValue(lockKey, forUpdateTsByte);
-                localStore.put(lockKeyValue);
-                // extraKeyValue
-                KeyValue extraKeyValue = new KeyValue(
-                    ByteUtils.encode(
-                        CommonId.CommonType.TXN_CACHE_EXTRA_DATA,
-                        key,
-                        Op.NONE.getCode(),
-                        len,
-                        jobIdByte,
-                        tableIdByte,
-                        partIdByte),
-                    keyValue.getValue()
-                );
-                localStore.put(extraKeyValue);
-                vertex.getOutList().forEach(o -> o.transformToNext(context, newTuple));
-            } else {
+            } else if (param.getPendingKeys().isEmpty()) {
                 @Nullable Object[] finalTuple1 = tuple;
                 vertex.getOutList().forEach(o -> o.transformToNext(context, finalTuple1));
+            } else {
+                // keep the input order
+                param.addPendingKey(lockKeyBytes, PessimisticLockKey.locked(context.snapshot(), tuple));
             }
             return true;
         }
     }
 
+    private static boolean flush(Vertex vertex, PessimisticLockInsertParam param) {
+        List<PessimisticLockKey> pendingKeys = param.drainPendingKeys();
+        List<PessimisticLockKey> lockKeys = pendingKeys.stream()
+            .filter(k -> !k.isLocked())
+            .collect(Collectors.toList());
+        if (!lockKeys.isEmpty()) {
+            if (!PessimisticLockBatch.lock(vertex, param, param.isScan(), lockKeys)) {
+                return false;
+            }
+            // index use keyPrefix
+            Map<PessimisticLockKey, KeyValue> existed = PessimisticLockBatch.txnGet(param, lockKeys);
+            if (!existed.isEmpty()) {
+                PessimisticLockKey duplicate = lockKeys.stream().filter(existed::containsKey).findFirst().get();
+                PessimisticLockBatch.rollback(param, vertex.getTask().getTxnId(), lockKeys, true,
+                    new DuplicateEntryException("Duplicate entry "
+                        + TransactionUtil.duplicateEntryKey(duplicate.getTableId(), duplicate.getKey())
+                        + " for key 'PRIMARY'"));
+            }
+        }
+        CommonId jobId = vertex.getTask().getJobId();
+        for (PessimisticLockKey lockKey : pendingKeys) {
+            if (!lockKey.isLocked()) {
+                // lockKeyValue
+                PessimisticLockBatch.putLock(lockKey);
+                // extraKeyValue
+                PessimisticLockBatch.putExtraData(jobId, lockKey, Op.NONE, lockKey.getValue());
+            }
+            vertex.getOutList().forEach(o -> o.transformToNext(lockKey.getContext(), lockKey.getTuple()));
+        }
+        return true;
+    }
+
     @Override
     public synchronized void fin(int pin, Fin fin, Vertex vertex) {
         PessimisticLockInsertParam param = vertex.getParam();
+        synchronized (vertex) {
+            if (!(fin instanceof FinWithException)) {
+                flush(vertex, param);
+            }
+        }
         vertex.getSoleEdge().fin(fin);
         // Reset
         param.reset();
@@ -19,7 +19,6 @@ package io.dingodb.exec.operator;
 import io.dingodb.codec.CodecService;
 import io.dingodb.codec.KeyValueCodec;
 import io.dingodb.common.CommonId;
-import io.dingodb.common.codec.PrimitiveCodec;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.store.KeyValue;
 import io.dingodb.common.type.DingoType;
@@ -27,13 +26,13 @@ import io.dingodb.common.type.TupleMapping;
 import io.dingodb.common.util.ByteArrayUtils;
 import io.dingodb.common.util.Optional;
 import io.dingodb.exec.Services;
-import io.dingodb.exec.base.Status;
 import io.dingodb.exec.converter.ValueConverter;
 import io.dingodb.exec.dag.Vertex;
-import io.dingodb.exec.exception.TaskCancelException;
 import io.dingodb.exec.expr.SqlExpr;
 import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithException;
 import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.data.PessimisticLockKey;
 import io.dingodb.exec.operator.params.PessimisticLockUpdateParam;
 import io.dingodb.exec.transaction.base.TxnLocalData;
 import io.dingodb.exec.transaction.util.TransactionUtil;
@@ -46,14 +45,15 @@ import io.dingodb.partition.DingoPartitionServiceProvider;
 import io.dingodb.partition.PartitionService;
 import io.dingodb.store.api.StoreInstance;
 import io.dingodb.store.api.transaction.data.Op;
-import io.dingodb.store.api.transaction.data.pessimisticlock.TxnPessimisticLock;
 import io.dingodb.tso.TsoService;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static io.dingodb.common.util.NoBreakFunctions.wrap;
@@ -74,7 +74,6 @@ public class PessimisticLockUpdateOperator extends SoleOutOperator {
             CommonId txnId = vertex.getTask().getTxnId();
             CommonId tableId = param.getTableId();
             CommonId partId = context.getDistribution().getId();
-            CommonId jobId = vertex.getTask().getJobId();
             byte[] primaryLockKey = param.getPrimaryLockKey();
             DingoType schema = param.getSchema();
             StoreInstance localStore = Services.LOCAL_STORE.getInstance(tableId, partId);
@@ -162,11 +161,14 @@ public class PessimisticLockUpdateOperator extends SoleOutOperator {
                 tableIdByte,
                 partIdByte
             );
+            if (param.isPending(lockKeyBytes) && !flush(vertex, param)) {
+                return false;
+            }
             KeyValue oldKeyValue = localStore.get(lockKeyBytes);
             if (oldKeyValue == null) {
                 if (calcPartId) {
-                    resolveKeyChange(vertex, param, txnId, tableId, context.getDistribution().getId(), primaryLockKey,
-                        codec, oldIndexTuple, txnIdByte, tableIdByte, jobIdByte, len, isVector, key);
+                    addOldIndexKey(param, txnId, tableId, context, codec, oldIndexTuple,
+                        txnIdByte, tableIdByte, len, isVector, key);
                 }
                 // for check deadLock
                 byte[] deadLockKeyBytes = encode(
@@ -178,129 +180,29 @@ public class PessimisticLockUpdateOperator extends SoleOutOperator {
                     tableIdByte,
                     partIdByte
                 );
-                KeyValue deadLockKeyValue = new KeyValue(deadLockKeyBytes, null);
-                localStore.put(deadLockKeyValue);
-                byte[] primaryLockKeyBytes = decodePessimisticKey(primaryLockKey);
-                long forUpdateTs = vertex.getTask().getJobId().seq;
-                byte[] forUpdateTsByte = PrimitiveCodec.encodeLong(forUpdateTs);
-                LogUtils.debug(log, "{}, forUpdateTs:{} txnPessimisticLock :{}", txnId, forUpdateTs, Arrays.toString(key));
-                if(vertex.getTask().getStatus() == Status.STOPPED) {
-                    LogUtils.warn(log, "Task status is stop...");
-                    // delete deadLockKey
-                    localStore.delete(deadLockKeyBytes);
-                    return false;
-                } else if (vertex.getTask().getStatus() == Status.CANCEL) {
-                    LogUtils.warn(log, "Task status is cancel...");
-                    // delete deadLockKey
-                    localStore.delete(deadLockKeyBytes);
-                    throw new TaskCancelException("task is cancel");
-                }
-                TxnPessimisticLock txnPessimisticLock = TransactionUtil.getTxnPessimisticLock(
-                    txnId,
-                    tableId,
-                    partId,
-                    primaryLockKeyBytes,
-                    key,
-                    param.getStartTs(),
-                    forUpdateTs,
-                    param.getIsolationLevel()
-                );
-                try {
-                    TransactionUtil.pessimisticLock(
-                        txnPessimisticLock,
-                        param.getLockTimeOut(),
-                        txnId,
-                        tableId,
-                        partId,
-                        key,
-                        param.isScan()
-                    );
-                    long newForUpdateTs = txnPessimisticLock.getForUpdateTs();
-                    if (newForUpdateTs != forUpdateTs) {
-                        forUpdateTs = newForUpdateTs;
-                        forUpdateTsByte = PrimitiveCodec.encodeLong(newForUpdateTs);
-                    }
-                    LogUtils.debug(log, "{}, forUpdateTs:{} txnPessimisticLock :{}", txnId, newForUpdateTs, Arrays.toString(key));
-                    if(vertex.getTask().getStatus() == Status.STOPPED) {
-                        TransactionUtil.resolvePessimisticLock(
-                            param.getIsolationLevel(),
-                            txnId,
-                            tableId,
-                            partId,
-                            deadLockKeyBytes,
-                            key,
-                            param.getStartTs(),
-                            txnPessimisticLock.getForUpdateTs(),
-                            false,
-                            null
-                        );
-                        return false;
-                    } else if (vertex.getTask().getStatus() == Status.CANCEL) {
-                        throw new TaskCancelException("task is cancel");
-                    }
-                } catch (Throwable throwable) {
-                    LogUtils.error(log, throwable.getMessage(), throwable);
-                    TransactionUtil.resolvePessimisticLock(
-                        param.getIsolationLevel(),
-                        txnId,
-                        tableId,
-                        partId,
-                        deadLockKeyBytes,
-                        key,
-                        param.getStartTs(),
-                        txnPessimisticLock.getForUpdateTs(),
-                        true,
-                        throwable
-                    );
+                boolean isIndex = context.getIndexId() != null;
+                param.addPendingKey(lockKeyBytes, PessimisticLockKey.builder()
+                    .context(context.snapshot())
+                    .tuple(isIndex ? copyTuple : tuple)
+                    .forward(isIndex)
+                    .row(dest)
+                    .codec(codec)
+                    .tableId(tableId)
+                    .partId(partId)
+                    .key(key)
+                    .vectorKey(vectorKey)
+                    .deadLockKey(deadLockKeyBytes)
+                    .vector(isVector)
+                    .build());
+                if (param.getPendingLockCount() >= TransactionUtil.max_pessimistic_lock_count) {
+                    return flush(vertex, param);
                 }
-                // get lock success, delete deadLockKey
-                localStore.delete(deadLockKeyBytes);
-                byte[] lockKey = getKeyByOp(CommonId.CommonType.TXN_CACHE_LOCK, Op.LOCK, deadLockKeyBytes);
-                // lockKeyValue
-                KeyValue lockKeyValue = new KeyValue(lockKey, forUpdateTsByte);
-                localStore.put(lockKeyValue);
-                KeyValue kvKeyValue = null;
-                try {
-                    // index use keyPrefix
-                    kvKeyValue = kvStore.txnGet(TsoService.getDefault().tso(), vectorKey, param.getLockTimeOut());
-                } catch (Throwable throwable) {
-                    throw new RuntimeException(throwable);
-                } finally {
-                    if (kvKeyValue != null && kvKeyValue.getValue() != null) {
-                        // extraKeyValue
-                        KeyValue extraKeyValue = new KeyValue(
-                            ByteUtils.encode(
-                                CommonId.CommonType.TXN_CACHE_EXTRA_DATA,
-                                key,
-                                Op.NONE.getCode(),
-                                len,
-                                jobIdByte,
-                                tableIdByte,
-                                partIdByte),
-                            kvKeyValue.getValue()
-                        );
-                        localStore.put(extraKeyValue);
-                    }
-                }
-                if (context.getIndexId() != null) {
-                    LogUtils.info(log, "{}, txnPessimisticLock :{} , index is not null", txnId, Arrays.toString(key));
-                    vertex.getOutList().forEach(o -> o.transformToNext(context, copyTuple));
-                    return true;
-                }
-                if (kvKeyValue == null || kvKeyValue.getValue() == null) {
-                    byte[] rollBackKey = ByteUtils.getKeyByOp(CommonId.CommonType.TXN_CACHE_RESIDUAL_LOCK, Op.DELETE, deadLockKeyBytes);
-                    localStore.put(new KeyValue(rollBackKey, null));
-                    @Nullable Object[] finalTuple1 = tuple;
-                    vertex.getOutList().forEach(o -> o.transformToNext(context, finalTuple1));
-                    return true;
-                }
-                if (isVector) {
-                    kvKeyValue.setKey(codec.encodeKey(dest));
-                }
-                Object[] result = codec.decode(kvKeyValue);
-                vertex.getOutList().forEach(o -> o.transformToNext(context, result));
                 return true;
             } else {
+                // keep the input order
+                if (!param.getPendingKeys().isEmpty() && !flush(vertex, param)) {
+                    return false;
+                }
                 byte[] dataKey = getKeyByOp(CommonId.CommonType.TXN_CACHE_DATA, Op.PUT, lockKeyBytes);
                 byte[] deleteKey = Arrays.copyOf(dataKey, dataKey.length);
                 deleteKey[deleteKey.length - 2] = (byte) Op.DELETE.getCode();
@@ -375,28 +277,28 @@ public class PessimisticLockUpdateOperator extends SoleOutOperator {
         }
     }
 
-    private void resolveKeyChange(Vertex vertex, PessimisticLockUpdateParam param, CommonId txnId,
-                                  CommonId tableId, CommonId partId, byte[] primaryLockKey,
-                                  KeyValueCodec codec, Object[] newTuple, byte[] txnIdByte,
-                                  byte[] tableIdByte, byte[] jobIdByte, int len, boolean isVector, byte[] key) {
-        byte[] oldKey = wrap(codec::encodeKey).apply(newTuple);
+    /**
+     * Buffer the old key of an index row whose key is changed, to be locked and marked deleted with the new key.
+     */
+    private static void addOldIndexKey(PessimisticLockUpdateParam param, CommonId txnId, CommonId tableId,
+                                       Context context, KeyValueCodec codec, Object[] oldIndexTuple,
+                                       byte[] txnIdByte, byte[] tableIdByte, int len, boolean isVector, byte[] key) {
+        CommonId partId = context.getDistribution().getId();
+        byte[] oldKey = wrap(codec::encodeKey).apply(oldIndexTuple);
         CodecService.getDefault().setId(oldKey, partId.domain);
         if (ByteArrayUtils.equal(key, oldKey)) {
             return;
         }
         byte[] vectorKey;
         if (isVector) {
-            vectorKey = codec.encodeKeyPrefix(newTuple, 1);
+            vectorKey = codec.encodeKeyPrefix(oldIndexTuple, 1);
             CodecService.getDefault().setId(vectorKey, partId.domain);
         } else {
             vectorKey = oldKey;
         }
-        StoreInstance localStore = Services.LOCAL_STORE.getInstance(tableId, partId);
-        StoreInstance kvStore = Services.KV_STORE.getInstance(tableId, partId);
         byte[] partIdByte = partId.encode();
-        // for check deadLock
-        byte[] deadLockKeyBytes = encode(
-            CommonId.CommonType.TXN_CACHE_BLOCK_LOCK,
+        byte[] lockKeyBytes = encode(
+            CommonId.CommonType.TXN_CACHE_LOCK,
             oldKey,
             Op.LOCK.getCode(),
             len,
@@ -404,124 +306,115 @@ public class PessimisticLockUpdateOperator extends SoleOutOperator {
             tableIdByte,
             partIdByte
         );
-        KeyValue deadLockKeyValue = new KeyValue(deadLockKeyBytes, null);
-        localStore.put(deadLockKeyValue);
-        byte[] primaryLockKeyBytes = decodePessimisticKey(primaryLockKey);
-        long forUpdateTs = vertex.getTask().getJobId().seq;
-        byte[] forUpdateTsByte = PrimitiveCodec.encodeLong(forUpdateTs);
-        LogUtils.debug(log, "{}, forUpdateTs:{} txnPessimisticLock :{}", txnId, forUpdateTs, Arrays.toString(oldKey));
-        if(vertex.getTask().getStatus() == Status.STOPPED) {
-            LogUtils.warn(log, "Task status is stop...");
-            // delete deadLockKey
-            localStore.delete(deadLockKeyBytes);
+        if (param.isPending(lockKeyBytes)) {
             return;
-        } else if (vertex.getTask().getStatus() == Status.CANCEL) {
-            LogUtils.warn(log, "Task status is cancel...");
-            // delete deadLockKey
-            localStore.delete(deadLockKeyBytes);
-            throw new TaskCancelException("task is cancel");
         }
-        TxnPessimisticLock txnPessimisticLock = TransactionUtil.getTxnPessimisticLock(
-            txnId,
-            tableId,
-            partId,
-            primaryLockKeyBytes,
+        LogUtils.debug(log, "{}, txnPessimisticLock old index key:{}", txnId, Arrays.toString(oldKey));
+        // for check deadLock
+        byte[] deadLockKeyBytes = encode(
+            CommonId.CommonType.TXN_CACHE_BLOCK_LOCK,
             oldKey,
-            param.getStartTs(),
-            forUpdateTs,
-            param.getIsolationLevel()
+            Op.LOCK.getCode(),
+            len,
+            txnIdByte,
+            tableIdByte,
+            partIdByte
         );
-        try {
-            TransactionUtil.pessimisticLock(
-                txnPessimisticLock,
-                param.getLockTimeOut(),
-                txnId,
-                tableId,
-                partId,
-                oldKey,
-                param.isScan()
-            );
-            long newForUpdateTs = txnPessimisticLock.getForUpdateTs();
-            if (newForUpdateTs != forUpdateTs) {
-                forUpdateTsByte = PrimitiveCodec.encodeLong(newForUpdateTs);
+        param.addPendingKey(lockKeyBytes, PessimisticLockKey.builder()
+            .context(context.snapshot())
+            .tableId(tableId)
+            .partId(partId)
+            .key(oldKey)
+            .vectorKey(vectorKey)
+            .deadLockKey(deadLockKeyBytes)
+            .vector(isVector)
+            .oldIndexKey(true)
+            .build());
+    }
+
+    private static boolean flush(Vertex vertex, PessimisticLockUpdateParam param) {
+        List<PessimisticLockKey> pendingKeys = param.drainPendingKeys();
+        List<PessimisticLockKey> lockKeys = pendingKeys.stream()
+            .filter(k -> !k.isLocked())
+            .collect(Collectors.toList());
+        Map<PessimisticLockKey, KeyValue> rows = Collections.emptyMap();
+        if (!lockKeys.isEmpty()) {
+            if (!PessimisticLockBatch.lock(vertex, param, param.isScan(), lockKeys)) {
+                return false;
             }
-            LogUtils.info(log, "{}, forUpdateTs:{} txnPessimisticLock :{}", txnId, newForUpdateTs, Arrays.toString(oldKey));
-            if(vertex.getTask().getStatus() == Status.STOPPED) {
-                TransactionUtil.resolvePessimisticLock(
-                    param.getIsolationLevel(),
-                    txnId,
-                    tableId,
-                    partId,
-                    deadLockKeyBytes,
-                    oldKey,
-                    param.getStartTs(),
-                    txnPessimisticLock.getForUpdateTs(),
-                    false,
-                    null
-                );
-                return;
-            } else if (vertex.getTask().getStatus() == Status.CANCEL) {
-                throw new TaskCancelException("task is cancel");
+            // lockKeyValue
+            lockKeys.forEach(PessimisticLockBatch::putLock);
+            try {
+                // index use keyPrefix
+                rows = PessimisticLockBatch.txnGet(param, lockKeys);
+            } catch (Throwable throwable) {
+                throw new RuntimeException(throwable);
             }
-        } catch (Throwable throwable) {
-            LogUtils.error(log, throwable.getMessage(), throwable);
-            TransactionUtil.resolvePessimisticLock(
-                param.getIsolationLevel(),
-                txnId,
-                tableId,
-                partId,
-                deadLockKeyBytes,
-                oldKey,
-                param.getStartTs(),
-                txnPessimisticLock.getForUpdateTs(),
-                true,
-                throwable
-            );
         }
-        // get lock success, delete deadLockKey
-        localStore.delete(deadLockKeyBytes);
-        byte[] lockKey = getKeyByOp(CommonId.CommonType.TXN_CACHE_LOCK, Op.LOCK, deadLockKeyBytes);
-        // lockKeyValue
-        KeyValue lockKeyValue = new KeyValue(lockKey, forUpdateTsByte);
-        localStore.put(lockKeyValue);
-        KeyValue kvKeyValue = null;
-        try {
-            // index use keyPrefix
-            kvKeyValue = kvStore.txnGet(TsoService.getDefault().tso(), vectorKey, param.getLockTimeOut());
-        } catch (Throwable throwable) {
-            throw new RuntimeException(throwable);
-        } finally {
-            if (kvKeyValue != null && kvKeyValue.getValue() != null) {
+        CommonId jobId = vertex.getTask().getJobId();
+        for (PessimisticLockKey lockKey : pendingKeys) {
+            if (lockKey.isLocked()) {
+                vertex.getOutList().forEach(o -> o.transformToNext(lockKey.getContext(), lockKey.getTuple()));
+                continue;
+            }
+            KeyValue kvKeyValue = rows.get(lockKey);
+            if (kvKeyValue != null) {
                 // extraKeyValue
-                KeyValue extraKeyValue = new KeyValue(
-                    ByteUtils.encode(
-                        CommonId.CommonType.TXN_CACHE_EXTRA_DATA,
-                        oldKey,
-                        Op.NONE.getCode(),
-                        len,
-                        jobIdByte,
-                        tableIdByte,
-                        partIdByte),
-                    kvKeyValue.getValue()
+                PessimisticLockBatch.putExtraData(jobId, lockKey, Op.NONE, kvKeyValue.getValue());
+            }
+            if (lockKey.isOldIndexKey()) {
+                if (kvKeyValue != null) {
+                    markDeleted(lockKey, kvKeyValue.getValue());
+                }
+                continue;
+            }
+            if (lockKey.isForward()) {
+                LogUtils.info(log, "{}, txnPessimisticLock :{} , index is not null",
+                    vertex.getTask().getTxnId(), Arrays.toString(lockKey.getKey()));
+                vertex.getOutList().forEach(o -> o.transformToNext(lockKey.getContext(), lockKey.getTuple()));
+                continue;
+            }
+            if (kvKeyValue == null) {
+                byte[] rollBackKey = ByteUtils.getKeyByOp(
+                    CommonId.CommonType.TXN_CACHE_RESIDUAL_LOCK, Op.DELETE, lockKey.getDeadLockKey()
                 );
-                localStore.put(extraKeyValue);
-                // data
-                byte[] dataKey = getKeyByOp(CommonId.CommonType.TXN_CACHE_DATA, Op.PUTIFABSENT, deadLockKeyBytes);
-                localStore.delete(dataKey);
-                byte[] updateKey = Arrays.copyOf(dataKey, dataKey.length);
-                updateKey[updateKey.length - 2] = (byte) Op.PUT.getCode();
-                localStore.delete(updateKey);
-                byte[] deleteKey = Arrays.copyOf(dataKey, dataKey.length);
-                deleteKey[deleteKey.length - 2] = (byte) Op.DELETE.getCode();
-                localStore.put(new KeyValue(deleteKey, kvKeyValue.getValue()));
+                PessimisticLockBatch.localStore(lockKey).put(new KeyValue(rollBackKey, null));
+                vertex.getOutList().forEach(o -> o.transformToNext(lockKey.getContext(), lockKey.getTuple()));
+                continue;
             }
+            KeyValueCodec codec = lockKey.getCodec();
+            if (lockKey.isVector()) {
+                kvKeyValue.setKey(codec.encodeKey(lockKey.getRow()));
+            }
+            Object[] result = codec.decode(kvKeyValue);
+            vertex.getOutList().forEach(o -> o.transformToNext(lockKey.getContext(), result));
         }
+        return true;
     }
 
+    /**
+     * Replace the data of the old index key in the local store with a delete.
+     */
+    private static void markDeleted(PessimisticLockKey lockKey, byte[] value) {
+        StoreInstance localStore = PessimisticLockBatch.localStore(lockKey);
+        byte[] dataKey = getKeyByOp(CommonId.CommonType.TXN_CACHE_DATA, Op.PUTIFABSENT, lockKey.getDeadLockKey());
+        localStore.delete(dataKey);
+        byte[] updateKey = Arrays.copyOf(dataKey, dataKey.length);
+        updateKey[updateKey.length - 2] = (byte) Op.PUT.getCode();
+        localStore.delete(updateKey);
+        byte[] deleteKey = Arrays.copyOf(dataKey, dataKey.length);
+        deleteKey[deleteKey.length - 2] = (byte) Op.DELETE.getCode();
+        localStore.put(new KeyValue(deleteKey, value));
+    }
 
     @Override
     public synchronized void fin(int pin, Fin fin, Vertex vertex) {
         PessimisticLockUpdateParam param = vertex.getParam();
+        synchronized (vertex) {
+            if (!(fin instanceof FinWithException)) {
+                flush(vertex, param);
+            }
+        }
         vertex.getSoleEdge().fin(fin);
         // Reset
         param.reset();
@@ -46,10 +46,10 @@ public final class PipeOpOperator extends SoleOutOperator {
     public boolean push(Context context, @Nullable Object[] tuple, @NonNull Vertex vertex) {
         RelOpParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("pipeOp");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         PipeOp relOp = (PipeOp) param.getRelOp();
         boolean res = RelOpUtils.processWithPipeOp(relOp, tuple, vertex.getSoleEdge(), context);
-        profile.time(start);
+        profile.sampleTime(start);
         return res;
     }
 }
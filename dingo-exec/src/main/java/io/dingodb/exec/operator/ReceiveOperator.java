@@ -26,7 +26,6 @@ import io.dingodb.exec.fin.FinWithProfiles;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.ReceiveParam;
 import io.dingodb.exec.tuple.TupleId;
-import io.dingodb.exec.utils.QueueUtils;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -65,7 +64,7 @@ public final class ReceiveOperator extends SourceOperator {
         OperatorProfile profile = param.getProfile("receive");
         profile.start();
         while (true) {
-            TupleId tupleId = QueueUtils.forceTake(param.getTupleQueue());
+            TupleId tupleId = param.getTupleQueue().take();
             Object[] tuple = tupleId.getTuple();
             if (!(tuple[0] instanceof Fin)) {
                 RangeDistribution distribution = null;
@@ -50,7 +50,7 @@ public final class RootOperator extends SinkOperator {
         synchronized (vertex) {
             RootParam param = vertex.getParam();
             OperatorProfile profile = param.getProfile("root");
-            long start = System.currentTimeMillis();
+            long start = profile.sampleStart();
             LogUtils.debug(log, "task status: {}", vertex.getTask().getStatus());
             if(vertex.getTask().getStatus() == Status.CANCEL) {
                 throw new TaskCancelException("task is cancel");
@@ -66,7 +66,7 @@ public final class RootOperator extends SinkOperator {
             }
             param.getExecProfile().increment();
             param.forcePut(tuple);
-            profile.time(start);
+            profile.sampleTime(start);
             return true;
         }
     }
@@ -101,7 +101,10 @@ public final class RootOperator extends SinkOperator {
                 }
             }
         }
-        param.forcePut(FIN);
+        // Serialized with the pushes, the queue buffers tuples of the producer.
+        synchronized (vertex) {
+            param.forcePutLast(FIN);
+        }
     }
 
     private static Pair<Boolean, Long> autoInc(Profile profile) {
@@ -21,6 +21,7 @@ import io.dingodb.exec.dag.Edge;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.fin.Fin;
 import io.dingodb.exec.fin.FinWithProfiles;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.data.SortCollation;
 import io.dingodb.exec.operator.params.SortParam;
@@ -46,6 +47,7 @@ public class SortOperator extends SoleOutOperator {
             if (limit == 0) {
                 return false;
             }
+            param.getMemoryTracker().consume(MemoryTracker.estimate(tuple));
             param.getCache().add(tuple);
             return !collations.isEmpty() || limit < 0 || param.getCache().size() < offset + limit;
         }
@@ -31,7 +31,7 @@ import io.dingodb.exec.base.Task;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.TxnGetByIndexParam;
-import io.dingodb.exec.transaction.base.TransactionType;
+import io.dingodb.exec.transaction.util.TransactionUtil;
 import io.dingodb.exec.utils.ByteUtils;
 import io.dingodb.meta.MetaService;
 import io.dingodb.meta.entity.Table;
@@ -48,8 +48,11 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import static io.dingodb.common.util.NoBreakFunctions.wrap;
 import static io.dingodb.common.util.Utils.calculatePrefixCount;
@@ -58,6 +61,9 @@ import static io.dingodb.common.util.Utils.calculatePrefixCount;
 public class TxnGetByIndexOperator extends FilterProjectOperator {
     public static final TxnGetByIndexOperator INSTANCE = new TxnGetByIndexOperator();
 
+    private static final int LOOKUP_BATCH_SIZE = 256;
+    private static final int LOOKUP_PARALLELISM = 8;
+
     public TxnGetByIndexOperator() {
     }
 
@@ -65,7 +71,7 @@ public class TxnGetByIndexOperator extends FilterProjectOperator {
     protected @NonNull Iterator<Object[]> createSourceIterator(Context context, Object[] tuple, Vertex vertex) {
         TxnGetByIndexParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("getByIndex");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         byte[] keys = param.getCodec().encodeKeyPrefix(tuple, calculatePrefixCount(tuple));
         Iterator<KeyValue> localIterator = createScanLocalIterator(
             vertex.getTask().getTxnId(),
@@ -78,52 +84,111 @@ public class TxnGetByIndexOperator extends FilterProjectOperator {
             new StoreInstance.Range(keys, keys, true, true),
             param.getTimeout());
         Iterator<Object[]> iterator = createMergedIterator(localIterator, storeIterator, param.getCodec());
-        iterator = Iterators.transform(iterator, tuples -> revMap(tuples, vertex));
-
-        profile.time(start);
-        return iterator;
-    }
-
-    public static Object[] revMap(Object[] tuple, Vertex vertex) {
-        TxnGetByIndexParam param = vertex.getParam();
         if (param.isLookup()) {
-            return lookUp(tuple, param, vertex.getTask());
+            iterator = Iterators.concat(Iterators.transform(
+                Iterators.partition(iterator, LOOKUP_BATCH_SIZE),
+                batch -> lookUp(batch, param, vertex.getTask()).iterator()
+            ));
         } else {
-            return transformTuple(tuple, param);
+            iterator = Iterators.transform(iterator, tuples -> transformTuple(tuples, param));
         }
+
+        profile.sampleTime(start);
+        return iterator;
     }
 
-    public static Object[] lookUp(Object[] tuples, TxnGetByIndexParam param, Task task) {
-        CommonId txnId = task.getTxnId();
-        TransactionType transactionType = task.getTransactionType();
+    /**
+     * Get the rows of a batch of index hits. The keys are grouped by region, each region reads the local transaction
+     * cache and then the store by one call for all of its keys, regions are read in parallel. The rows are returned
+     * in the order of the index hits, missing rows and rows deleted by the transaction are skipped.
+     */
+    public static List<Object[]> lookUp(List<Object[]> tuples, TxnGetByIndexParam param, Task task) {
         TupleMapping indices = param.getKeyMapping();
         Table tableDefinition = param.getTable();
         NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> ranges =
             MetaService.root().getRangeDistribution(tableDefinition.tableId);
-        Object[] keyTuples = new Object[tableDefinition.getColumns().size()];
-        for (int i = 0; i < indices.getMappings().length; i ++) {
-            keyTuples[indices.get(i)] = tuples[i];
+        PartitionService partitionService = PartitionService.getService(
+            Optional.ofNullable(tableDefinition.getPartitionStrategy())
+                .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME));
+        byte[][] keys = new byte[tuples.size()][];
+        Map<CommonId, List<Integer>> regions = new LinkedHashMap<>();
+        for (int i = 0; i < tuples.size(); i++) {
+            Object[] tuple = tuples.get(i);
+            Object[] keyTuples = new Object[tableDefinition.getColumns().size()];
+            for (int j = 0; j < indices.getMappings().length; j++) {
+                keyTuples[indices.get(j)] = tuple[j];
+            }
+            byte[] key = param.getLookupCodec().encodeKey(keyTuples);
+            CommonId regionId = partitionService.calcPartId(key, ranges);
+            keys[i] = CodecService.getDefault().setId(key, regionId.domain);
+            regions.computeIfAbsent(regionId, k -> new ArrayList<>()).add(i);
         }
-        byte[] keys = param.getLookupCodec().encodeKey(keyTuples);
-        CommonId regionId = PartitionService.getService(
-                Optional.ofNullable(tableDefinition.getPartitionStrategy())
-                    .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME))
-            .calcPartId(keys, ranges);
-
-        keys = CodecService.getDefault().setId(keys, regionId.domain);
-        Object[] local = createGetLocal(
-            keys,
-            txnId,
-            regionId,
-            param.getTableId(),
-            param.getLookupCodec(),
-            transactionType);
-        if (local != null) {
-            return local;
+        Object[][] rows = new Object[tuples.size()][];
+        List<Runnable> gets = new ArrayList<>(regions.size());
+        regions.forEach((regionId, positions) -> gets.add(
+            () -> lookUpRegion(regionId, positions, keys, rows, param, task)
+        ));
+        TransactionUtil.parallelRun("txn-lookup-" + task.getTxnId(), gets, LOOKUP_PARALLELISM);
+        List<Object[]> result = new ArrayList<>(rows.length);
+        for (Object[] row : rows) {
+            if (row != null) {
+                result.add(row);
+            }
         }
+        return result;
+    }
 
+    private static void lookUpRegion(
+        CommonId regionId,
+        List<Integer> positions,
+        byte[][] keys,
+        Object[][] rows,
+        TxnGetByIndexParam param,
+        Task task
+    ) {
+        KeyValueCodec codec = param.getLookupCodec();
+        List<byte[]> regionKeys = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            regionKeys.add(keys[position]);
+        }
+        KeyValue[] local = getLocal(regionKeys, task.getTxnId(), regionId, param.getTableId());
+        List<Integer> remotePositions = new ArrayList<>(positions.size());
+        List<byte[]> remoteKeys = new ArrayList<>(positions.size());
+        for (int i = 0; i < positions.size(); i++) {
+            int position = positions.get(i);
+            KeyValue value = local[i];
+            if (value != null) {
+                byte[] localKey = value.getKey();
+                int code = localKey[localKey.length - 2];
+                if (code == Op.PUTIFABSENT.getCode() || code == Op.PUT.getCode()) {
+                    rows[position] = codec.decode(new KeyValue(keys[position], value.getValue()));
+                    continue;
+                }
+                if (code == Op.DELETE.getCode()) {
+                    // deleted by the transaction, the row in the store is not visible to it
+                    continue;
+                }
+            }
+            remotePositions.add(position);
+            remoteKeys.add(keys[position]);
+        }
+        if (remoteKeys.isEmpty()) {
+            return;
+        }
         StoreInstance store = Services.KV_STORE.getInstance(param.getTableId(), regionId);
-        return param.getLookupCodec().decode(store.txnGet(param.getScanTs(), keys, param.getTimeout()));
+        // The store may rewrite the key prefix, so the results are matched without the first byte.
+        NavigableMap<byte[], KeyValue> values = new TreeMap<>((a, b) -> ByteArrayUtils.compare(a, b, 1));
+        for (KeyValue keyValue : store.txnGet(param.getScanTs(), remoteKeys, param.getTimeout())) {
+            if (keyValue != null && keyValue.getValue() != null) {
+                values.put(keyValue.getKey(), keyValue);
+            }
+        }
+        for (int i = 0; i < remotePositions.size(); i++) {
+            KeyValue keyValue = values.get(remoteKeys.get(i));
+            if (keyValue != null) {
+                rows[remotePositions.get(i)] = codec.decode(keyValue);
+            }
+        }
     }
 
     private static Object[] transformTuple(Object[] tuple, TxnGetByIndexParam param) {
@@ -137,61 +202,55 @@ public class TxnGetByIndexOperator extends FilterProjectOperator {
         return response;
     }
 
-    public static Object[] createGetLocal(
-        byte[] keys,
-        CommonId txnId,
-        CommonId partId,
-        CommonId tableId,
-        KeyValueCodec codec,
-        TransactionType transactionType
-    ) {
+    /**
+     * Get the entries of the keys in the local transaction cache by one call, by the position of the keys, null if
+     * a key is not written by the transaction.
+     */
+    public static KeyValue[] getLocal(List<byte[]> keys, CommonId txnId, CommonId partId, CommonId tableId) {
         byte[] txnIdByte = txnId.encode();
         byte[] partIdByte = partId.encode();
         byte[] tableIdByte = tableId.encode();
         int len = txnIdByte.length + tableIdByte.length + partIdByte.length;
-        byte[] dataKey = ByteUtils.encode(
-            CommonId.CommonType.TXN_CACHE_DATA,
-            keys,
-            Op.PUTIFABSENT.getCode(),
-            len,
-            txnIdByte, tableIdByte, partIdByte);
-        byte[] deleteKey = Arrays.copyOf(dataKey, dataKey.length);
-        deleteKey[deleteKey.length - 2] = (byte) Op.DELETE.getCode();
-        byte[] updateKey = Arrays.copyOf(dataKey, dataKey.length);
-        updateKey[updateKey.length - 2] = (byte) Op.PUT.getCode();
-        List<byte[]> bytes = new ArrayList<>(3);
-        bytes.add(dataKey);
-        bytes.add(deleteKey);
-        bytes.add(updateKey);
-        StoreInstance store;
-        store = Services.LOCAL_STORE.getInstance(tableId, partId);
+        List<byte[]> dataKeys = new ArrayList<>(keys.size());
+        List<byte[]> bytes = new ArrayList<>(keys.size() * 3);
+        for (byte[] key : keys) {
+            byte[] dataKey = ByteUtils.encode(
+                CommonId.CommonType.TXN_CACHE_DATA,
+                key,
+                Op.PUTIFABSENT.getCode(),
+                len,
+                txnIdByte, tableIdByte, partIdByte);
+            byte[] deleteKey = Arrays.copyOf(dataKey, dataKey.length);
+            deleteKey[deleteKey.length - 2] = (byte) Op.DELETE.getCode();
+            byte[] updateKey = Arrays.copyOf(dataKey, dataKey.length);
+            updateKey[updateKey.length - 2] = (byte) Op.PUT.getCode();
+            dataKeys.add(dataKey);
+            bytes.add(dataKey);
+            bytes.add(deleteKey);
+            bytes.add(updateKey);
+        }
+        StoreInstance store = Services.LOCAL_STORE.getInstance(tableId, partId);
         List<KeyValue> keyValues = store.get(bytes);
-        if (keyValues != null && !keyValues.isEmpty()) {
-            if (keyValues.size() > 1) {
-                throw new RuntimeException(txnId + " Key is not existed than two in local store");
+        KeyValue[] result = new KeyValue[keys.size()];
+        if (keyValues == null || keyValues.isEmpty()) {
+            return result;
+        }
+        // Entries are matched by the data key, the op byte is ignored.
+        NavigableMap<byte[], KeyValue> entries = new TreeMap<>(ByteArrayUtils::compare);
+        for (KeyValue keyValue : keyValues) {
+            if (keyValue == null) {
+                continue;
             }
-            KeyValue value = keyValues.get(0);
-            byte[] oldKey = value.getKey();
-            if (oldKey[oldKey.length - 2] == Op.PUTIFABSENT.getCode()
-                || oldKey[oldKey.length - 2] == Op.PUT.getCode()) {
-                KeyValue keyValue = new KeyValue(keys, value.getValue());
-                return codec.decode(keyValue);
-            } else {
-                if (transactionType == TransactionType.PESSIMISTIC) {
-                    KeyValue keyValue = store.get(ByteUtils.getKeyByOp(
-                        CommonId.CommonType.TXN_CACHE_LOCK,
-                        Op.LOCK,
-                        dataKey)
-                    );
-                    // first primary key
-                    if (keyValue == null) {
-                        return null;
-                    }
-                }
-                return null;
+            byte[] dataKey = Arrays.copyOf(keyValue.getKey(), keyValue.getKey().length);
+            dataKey[dataKey.length - 2] = (byte) Op.PUTIFABSENT.getCode();
+            if (entries.put(dataKey, keyValue) != null) {
+                throw new RuntimeException(txnId + " Key is not existed than two in local store");
             }
         }
-        return null;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = entries.get(dataKeys.get(i));
+        }
+        return result;
     }
 
     private static @Nullable KeyValue getNextValue(@NonNull Iterator<KeyValue> iterator) {
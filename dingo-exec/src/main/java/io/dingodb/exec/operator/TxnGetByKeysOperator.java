@@ -51,7 +51,7 @@ public final class TxnGetByKeysOperator extends FilterProjectOperator {
     protected @NonNull Iterator<Object[]> createSourceIterator(Context context, Object[] tuple, Vertex vertex) {
         TxnGetByKeysParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("getByKeys");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         param.setContext(context);
         byte[] keys = param.getCodec().encodeKey(tuple);
         CommonId tableId = param.getTableId();
@@ -68,14 +68,14 @@ public final class TxnGetByKeysOperator extends FilterProjectOperator {
             partIdByte,
             vertex.getTask().getTransactionType());
         if (local != null) {
-            profile.time(start);
+            profile.sampleTime(start);
             return local;
         }
         StoreInstance store;
         store = Services.KV_STORE.getInstance(tableId, partId);
         KeyValue keyValue = store.txnGet(param.getScanTs(), keys, param.getTimeOut());
         if (keyValue == null || keyValue.getValue() == null) {
-            profile.time(start);
+            profile.sampleTime(start);
             if (vertex.getTask().getTransactionType() == TransactionType.PESSIMISTIC && !param.isSelect()) {
                 return Collections.singletonList(tuple).iterator();
             } else {
@@ -83,7 +83,7 @@ public final class TxnGetByKeysOperator extends FilterProjectOperator {
             }
         }
         Object[] result = param.getCodec().decode(keyValue);
-        profile.time(start);
+        profile.sampleTime(start);
         return Collections.singletonList(result).iterator();
     }
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import com.google.common.collect.Iterators;
+import io.dingodb.codec.CodecService;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.partition.RangeDistribution;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.TxnLooseScanParam;
+import io.dingodb.store.api.StoreInstance;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Iterator;
+
+@Slf4j
+public final class TxnLooseScanOperator extends LooseScanOperator {
+    public static final TxnLooseScanOperator INSTANCE = new TxnLooseScanOperator();
+
+    @Override
+    protected @NonNull Iterator<Object[]> createIterator(@NonNull Context context, @NonNull Vertex vertex) {
+        TxnLooseScanParam param = vertex.getParam();
+        RangeDistribution distribution = context.getDistribution();
+        Iterator<KeyValue> localIterator = TxnScanOperatorBase.createLocalIterator(
+            vertex.getTask().getTxnId(),
+            param.getTableId(),
+            distribution
+        );
+        if (!localIterator.hasNext()) {
+            return super.createIterator(context, vertex);
+        }
+        // Uncommitted writes of the region are merged by one scan, instead of merging them again for every seek.
+        Iterator<Object[]> iterator = TxnScanOperatorBase.createMergedIterator(
+            localIterator,
+            TxnScanOperatorBase.createStoreIterator(
+                param.getTableId(),
+                distribution,
+                param.getScanTs(),
+                param.getTimeOut()
+            ),
+            param.getCodec()
+        );
+        return Iterators.transform(
+            firstOfPrefixes(iterator, param.getCodec(), param.getPrefixCount()),
+            param.getSelection()::revMap
+        );
+    }
+
+    @Override
+    protected Object @Nullable [] seek(@NonNull Vertex vertex, @NonNull RangeDistribution range) {
+        TxnLooseScanParam param = vertex.getParam();
+        CommonId partId = range.getId();
+        StoreInstance storeInstance = Services.KV_STORE.getInstance(param.getTableId(), partId);
+        KeyValue keyValue = storeInstance.txnSeek(
+            param.getScanTs(),
+            new StoreInstance.Range(
+                CodecService.getDefault().setId(range.getStartKey(), partId.domain),
+                CodecService.getDefault().setId(range.getEndKey(), partId.domain),
+                range.isWithStart(),
+                range.isWithEnd()
+            ),
+            param.getTimeOut()
+        );
+        return keyValue != null ? param.getCodec().decode(keyValue) : null;
+    }
+}
@@ -52,7 +52,7 @@ public class TxnPartDeleteOperator extends PartModifyOperator {
     protected boolean pushTuple(Context context, Object[] tuple, Vertex vertex) {
         TxnPartDeleteParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("partDelete");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         param.setContext(context);
         CommonId txnId = vertex.getTask().getTxnId();
         CommonId tableId = param.getTableId();
@@ -108,7 +108,7 @@ public class TxnPartDeleteOperator extends PartModifyOperator {
                 byte[] oldKey = value.getKey();
                 LogUtils.info(log, "{}, repeat key :{}", txnId, Arrays.toString(oldKey));
                 if (oldKey[oldKey.length - 2] == Op.DELETE.getCode()) {
-                    profile.time(start);
+                    profile.sampleTime(start);
                     return true;
                 }
                 localStore.delete(oldKey);
@@ -143,7 +143,7 @@ public class TxnPartDeleteOperator extends PartModifyOperator {
                 byte[] rollBackKey = ByteUtils.getKeyByOp(CommonId.CommonType.TXN_CACHE_RESIDUAL_LOCK, Op.DELETE, dataKey);
                 // first lock and kvGet is null
                 if (localStore.get(rollBackKey) != null) {
-                    profile.time(start);
+                    profile.sampleTime(start);
                     return true;
                 } else {
                     KeyValue kv = wrap(codec::encode).apply(tuple);
@@ -209,7 +209,7 @@ public class TxnPartDeleteOperator extends PartModifyOperator {
                 context.addKeyState(true);
             }
         }
-        profile.time(start);
+        profile.sampleTime(start);
         return true;
     }
 
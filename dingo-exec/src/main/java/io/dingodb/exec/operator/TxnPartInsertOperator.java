@@ -60,7 +60,7 @@ public class TxnPartInsertOperator extends PartModifyOperator {
     protected boolean pushTuple(Context context, Object[] tuple, Vertex vertex) {
         TxnPartInsertParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("partInsertLocal");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         if (param.isHasAutoInc() && param.getAutoIncColIdx() < tuple.length) {
             Object tmp = tuple[param.getAutoIncColIdx()];
             if (tmp instanceof Long || tmp instanceof Integer) {
@@ -240,7 +240,7 @@ public class TxnPartInsertOperator extends PartModifyOperator {
                 context.addKeyState(true);
             }
         }
-        profile.time(start);
+        profile.sampleTime(start);
         return true;
     }
 
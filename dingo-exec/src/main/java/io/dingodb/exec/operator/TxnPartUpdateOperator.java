@@ -60,7 +60,7 @@ public class TxnPartUpdateOperator extends PartModifyOperator {
     protected boolean pushTuple(Context context, Object[] tuple, Vertex vertex) {
         TxnPartUpdateParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("partUpdate");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         param.setContext(context);
         DingoType schema = param.getSchema();
         TupleMapping mapping = param.getMapping();
@@ -293,7 +293,7 @@ public class TxnPartUpdateOperator extends PartModifyOperator {
             LogUtils.error(log, ex.getMessage(), ex);
             throw new RuntimeException(ex);
         }
-        profile.time(start);
+        profile.sampleTime(start);
         return true;
     }
 
@@ -25,6 +25,7 @@ import io.dingodb.common.type.ListType;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.common.util.Optional;
 import io.dingodb.common.vector.TxnVectorSearchResponse;
+import io.dingodb.common.vector.VectorDistances;
 import io.dingodb.common.vector.VectorSearchResponse;
 import io.dingodb.exec.Services;
 import io.dingodb.exec.dag.Vertex;
@@ -32,21 +33,18 @@ import io.dingodb.exec.operator.params.TxnPartVectorParam;
 import io.dingodb.meta.entity.Column;
 import io.dingodb.partition.DingoPartitionServiceProvider;
 import io.dingodb.partition.PartitionService;
+import io.dingodb.serial.util.FloatArrayList;
 import io.dingodb.store.api.StoreInstance;
 import io.dingodb.store.api.StoreService;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import static io.dingodb.exec.fun.vector.VectorCosineDistanceFun.cosine;
-import static io.dingodb.exec.fun.vector.VectorIPDistanceFun.innerProduct;
-import static io.dingodb.exec.fun.vector.VectorL2DistanceFun.l2DistanceCombine;
 import static io.dingodb.exec.operator.TxnGetByKeysOperator.getLocalStore;
 
 @Slf4j
@@ -61,6 +59,7 @@ public class TxnPartVectorOperator extends FilterProjectSourceOperator {
         long start = System.currentTimeMillis();
         int vecIdx = param.getVectorIndex();
         String distanceType = param.getDistanceType();
+        VectorDistances.Target target = VectorDistances.Metric.of(distanceType).target(param.getFloatArray());
         KeyValueCodec tableCodec;
         tableCodec = CodecService.getDefault().createKeyValueCodec(
             param.getTable().version, param.getTableDataSchema(), param.tableDataKeyMapping()
@@ -106,16 +105,9 @@ public class TxnPartVectorOperator extends FilterProjectSourceOperator {
                         } else {
                             Object ov = objects[vecIdx];
                             if (ov instanceof List) {
-                                Object targetVector = Arrays.asList(param.getFloatArray());
-                                float distance = 0.0f;
-                                if (distanceType.contains("L2")) {
-                                    distance = (float) l2DistanceCombine((List<Float>) ov, (List<Number>) targetVector);
-                                } else if (distanceType.contains("INNER_PRODUCT")) {
-                                    distance = (float) innerProduct((List<Float>) ov, (List<Float>) targetVector);
-                                } else if (distanceType.contains("COSINE")) {
-                                    distance = cosine((List<Float>) ov, targetVector);
-                                }
-                                objects[objects.length - 1] = distance;
+                                objects[objects.length - 1] = target.distance(
+                                    VectorDistances.toArray((List<Number>) ov)
+                                );
                             } else {
                                 objects[objects.length - 1] = 0.0;
                             }
@@ -132,7 +124,8 @@ public class TxnPartVectorOperator extends FilterProjectSourceOperator {
                 }
                 Object[] decode = param.getCodec().decode(keyValue);
                 decode[decode.length - 1] = response.getDistance();
-                decode[vecIdx] = response.getFloatValues();
+                decode[vecIdx] = response.getFloatValues() == null
+                    ? null : new FloatArrayList(response.getFloatValues());
 
                 vecPriIdxMapping.forEach((key, value) -> decode[value] = vecTuples[key]);
                 results.add(decode);
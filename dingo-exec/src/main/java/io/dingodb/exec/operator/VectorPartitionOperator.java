@@ -37,7 +37,7 @@ public class VectorPartitionOperator extends FanOutOperator {
     protected int calcOutputIndex(Context context, Object @NonNull [] tuple, Vertex vertex) {
         VectorPartitionParam param = vertex.getParam();
         OperatorProfile profile = param.getProfile("vectorPart");
-        long start = System.currentTimeMillis();
+        long start = profile.sampleStart();
         // extract vector id from tuple
         Long vectorId = (Long) tuple[param.getIndex()];
         Object[] record = new Object[] {vectorId};
@@ -48,7 +48,7 @@ public class VectorPartitionOperator extends FanOutOperator {
                 Optional.ofNullable(param.getTable().getPartitionStrategy())
                     .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME))
             .calcPartId(key, param.getDistributions());
-        profile.time(start);
+        profile.sampleTime(start);
         return param.getPartIndices().get(partId);
     }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import io.dingodb.common.profile.OperatorProfile;
+import io.dingodb.common.vector.VectorDistances;
+import io.dingodb.exec.dag.Edge;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithException;
+import io.dingodb.exec.fin.FinWithProfiles;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.VectorTopKParam;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merge the candidates of a vector search from all the regions into the global top n by distance. Every input
+ * stream is merged as it arrives into a heap bounded to n, so that candidates that can not be in the result are
+ * dropped at once instead of being collected and sorted. Optionally the distance is recomputed from the vector
+ * before merging, for indexes returning approximate distances.
+ */
+@Slf4j
+public final class VectorTopKOperator extends SoleOutOperator {
+
+    public static final VectorTopKOperator INSTANCE = new VectorTopKOperator();
+
+    private VectorTopKOperator() {
+    }
+
+    @Override
+    public boolean push(Context context, @Nullable Object[] tuple, Vertex vertex) {
+        synchronized (vertex) {
+            VectorTopKParam param = vertex.getParam();
+            if (param.getFinWithException() != null) {
+                return false;
+            }
+            param.setContext(context);
+            OperatorProfile profile = param.getProfile("vectorTopK");
+            long start = profile.sampleStart();
+            if (param.isRefine()) {
+                Object vector = tuple[param.getVectorIndex()];
+                if (vector != null) {
+                    tuple[param.getDistanceIndex()] = param.getTarget().distance(
+                        VectorDistances.toArray((List<Number>) vector)
+                    );
+                }
+            }
+            PriorityQueue<Object[]> heap = param.getHeap();
+            if (heap.size() < param.getTopN()) {
+                heap.offer(tuple);
+            } else if (param.getTopN() > 0 && param.getComparator().compare(tuple, heap.peek()) < 0) {
+                heap.poll();
+                heap.offer(tuple);
+            }
+            profile.sampleTime(start);
+            return true;
+        }
+    }
+
+    @Override
+    public void fin(int pin, Fin fin, Vertex vertex) {
+        synchronized (vertex) {
+            VectorTopKParam param = vertex.getParam();
+            OperatorProfile profile = param.getProfile("vectorTopK");
+            if (fin instanceof FinWithException) {
+                param.setFinWithException(fin);
+            }
+            if (fin instanceof FinWithProfiles) {
+                profile.getChildren().add(((FinWithProfiles) fin).getProfile());
+            }
+            param.getFinFlags()[pin] = true;
+            for (boolean finished : param.getFinFlags()) {
+                if (!finished) {
+                    return;
+                }
+            }
+            Edge edge = vertex.getSoleEdge();
+            if (param.getFinWithException() != null) {
+                param.getHeap().clear();
+                edge.fin(param.getFinWithException());
+                return;
+            }
+            List<Object[]> result = new ArrayList<>(param.getHeap());
+            param.getHeap().clear();
+            result.sort(param.getComparator());
+            for (Object[] tuple : result) {
+                if (!edge.transformToNext(param.getContext(), tuple)) {
+                    break;
+                }
+            }
+            if (fin instanceof FinWithProfiles) {
+                profile.mergeChild();
+                ((FinWithProfiles) fin).addProfile(vertex);
+            }
+            edge.fin(fin);
+        }
+    }
+}
@@ -44,6 +44,15 @@ public class Context {
         return Context.builder().pin(pin).keyState(keyState).build();
     }
 
+    public Context snapshot() {
+        return Context.builder()
+            .pin(pin)
+            .indexId(indexId)
+            .distribution(distribution)
+            .keyState(keyState == null ? null : new ArrayList<>(keyState))
+            .build();
+    }
+
     public void addKeyState(boolean state) {
         keyState.add(state);
     }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator.data;
+
+import io.dingodb.codec.KeyValueCodec;
+import io.dingodb.common.CommonId;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A key buffered by a pessimistic lock operator, waiting to be locked together with other keys of the same region.
+ */
+@Getter
+@Builder
+public class PessimisticLockKey {
+    private final Context context;
+    // The tuple to forward.
+    private final Object[] tuple;
+    // The tuple converted to encode the key, to decode the row read after locking.
+    private final Object[] row;
+    private final KeyValueCodec codec;
+    private final CommonId tableId;
+    private final CommonId partId;
+    private final byte[] key;
+    private final byte[] vectorKey;
+    private final byte[] value;
+    private final byte[] deadLockKey;
+    private final boolean vector;
+    // The key is already locked by this transaction, only forward the tuple.
+    private final boolean locked;
+    // Forward the tuple as it is, instead of the row read after locking.
+    private final boolean forward;
+    // The old key of an index row whose key is changed by an update, locked and marked deleted, not forwarded.
+    private final boolean oldIndexKey;
+    @Setter
+    private CommonId regionId;
+    @Setter
+    private long forUpdateTs;
+
+    public static PessimisticLockKey locked(Context context, Object[] tuple) {
+        return builder().context(context).tuple(tuple).locked(true).build();
+    }
+
+    public CommonId getRegionId() {
+        return regionId != null ? regionId : partId;
+    }
+}
@@ -25,7 +25,9 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.dingodb.common.CommonId;
 import io.dingodb.common.profile.OperatorProfile;
 import io.dingodb.common.profile.Profile;
+import io.dingodb.exec.base.Task;
 import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.table.Part;
 import io.dingodb.exec.transaction.params.CleanCacheParam;
@@ -82,6 +84,7 @@ import lombok.Setter;
     @JsonSubTypes.Type(PartVectorParam.class),
     @JsonSubTypes.Type(VectorPartitionParam.class),
     @JsonSubTypes.Type(VectorPointDistanceParam.class),
+    @JsonSubTypes.Type(VectorTopKParam.class),
     @JsonSubTypes.Type(TxnPartInsertParam.class),
     @JsonSubTypes.Type(TxnPartUpdateParam.class),
     @JsonSubTypes.Type(TxnPartDeleteParam.class),
@@ -90,6 +93,8 @@ import lombok.Setter;
     @JsonSubTypes.Type(TxnPartRangeScanParam.class),
     @JsonSubTypes.Type(TxnScanParam.class),
     @JsonSubTypes.Type(TxnScanWithRelOpParam.class),
+    @JsonSubTypes.Type(LooseScanParam.class),
+    @JsonSubTypes.Type(TxnLooseScanParam.class),
     @JsonSubTypes.Type(CommitParam.class),
     @JsonSubTypes.Type(PreWriteParam.class),
     @JsonSubTypes.Type(RollBackParam.class),
@@ -128,7 +133,7 @@ public abstract class AbstractParams {
     @Setter
     protected transient Context context;
 
-    protected transient Profile profile;
+    protected transient volatile Profile profile;
 
     public AbstractParams() {
     }
@@ -153,11 +158,27 @@ public abstract class AbstractParams {
 
     }
 
-    public synchronized OperatorProfile getProfile(String type) {
-        if (profile == null) {
-            profile = new OperatorProfile(type);
-            profile.start();
+    /**
+     * Create a tracker for the memory held by the operator, under the tracker of its task.
+     */
+    protected static MemoryTracker memoryTracker(Vertex vertex, String label) {
+        Task task = vertex.getTask();
+        return (task != null ? task.getMemoryTracker() : MemoryTracker.PROCESS).child(label);
+    }
+
+    public OperatorProfile getProfile(String type) {
+        // Called for every tuple, lock only to create the profile.
+        Profile current = profile;
+        if (current == null) {
+            synchronized (this) {
+                if (profile == null) {
+                    OperatorProfile operatorProfile = new OperatorProfile(type);
+                    operatorProfile.start();
+                    profile = operatorProfile;
+                }
+                current = profile;
+            }
         }
-        return (OperatorProfile) profile;
+        return (OperatorProfile) current;
     }
 }
@@ -25,13 +25,15 @@ import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.aggregate.AbstractAgg;
 import io.dingodb.exec.aggregate.Agg;
 import io.dingodb.exec.aggregate.AggCache;
+import io.dingodb.exec.aggregate.SortedAggCache;
 import io.dingodb.exec.dag.Vertex;
 import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.List;
 
 @JsonTypeName("aggregate")
-@JsonPropertyOrder({"keys", "aggregates"})
+@JsonPropertyOrder({"keys", "aggregates", "sorted"})
 public class AggregateParams extends AbstractParams {
 
     @JsonProperty("keys")
@@ -41,24 +43,53 @@ public class AggregateParams extends AbstractParams {
     @JsonSerialize(contentAs = AbstractAgg.class)
     @JsonDeserialize(contentAs = AbstractAgg.class)
     private final List<Agg> aggList;
+    /**
+     * The input is sorted by the keys, so the groups are output one by one.
+     */
+    @Getter
+    @JsonProperty("sorted")
+    private final boolean sorted;
     @Getter
     private transient AggCache cache;
+    private transient SortedAggCache sortedCache;
+
+    public AggregateParams(TupleMapping keyMapping, List<Agg> aggList) {
+        this(keyMapping, aggList, false);
+    }
 
     public AggregateParams(@JsonProperty("keys") TupleMapping keyMapping,
-                           @JsonProperty("aggregates") List<Agg> aggList) {
+                           @JsonProperty("aggregates") List<Agg> aggList,
+                           @JsonProperty("sorted") boolean sorted) {
         this.keyMapping = keyMapping;
         this.aggList = aggList;
+        this.sorted = sorted;
     }
 
 
     public void init(Vertex vertex) {
-        cache = new AggCache(keyMapping, aggList);
+        cache = new AggCache(keyMapping, aggList, memoryTracker(vertex, "aggregate"));
+        if (sorted) {
+            sortedCache = new SortedAggCache(keyMapping, aggList);
+        }
     }
 
     public synchronized void addTuple(Object[] tuple) {
         cache.addTuple(tuple);
     }
 
+    /**
+     * Add a tuple sorted by the keys.
+     *
+     * @return the result of the previous group if the keys change, or {@code null}
+     */
+    public synchronized Object @Nullable [] addSortedTuple(Object[] tuple) {
+        return sortedCache.addTuple(tuple);
+    }
+
+    public synchronized Object @Nullable [] finishSorted() {
+        return sortedCache.finish();
+    }
+
     public void clear() {
         cache.clear();
     }
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import io.dingodb.common.profile.Profile;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.operator.data.TupleWithJoinFlag;
 import io.dingodb.exec.tuple.TupleKey;
 import lombok.Getter;
@@ -53,6 +54,7 @@ public class HashJoinParam extends AbstractParams {
     @Setter
     private transient boolean rightFinFlag;
     private transient ConcurrentHashMap<TupleKey, List<TupleWithJoinFlag>> hashMap;
+    private transient MemoryTracker memoryTracker;
     @Setter
     private transient CompletableFuture<Void> future;
 
@@ -83,10 +85,12 @@ public class HashJoinParam extends AbstractParams {
     public void init(Vertex vertex) {
         rightFinFlag = false;
         hashMap = new ConcurrentHashMap<>();
+        memoryTracker = memoryTracker(vertex, "hashJoin");
         future = new CompletableFuture<>();
     }
 
     public void clear() {
         hashMap.clear();
+        memoryTracker.reset();
     }
 }
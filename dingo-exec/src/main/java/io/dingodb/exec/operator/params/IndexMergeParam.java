@@ -21,6 +21,7 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.tuple.TupleKey;
 import lombok.Getter;
 
@@ -38,6 +39,7 @@ public class IndexMergeParam extends AbstractParams {
     @JsonProperty("selection")
     private final TupleMapping selection;
     private transient ConcurrentHashMap<TupleKey, Object[]> hashMap;
+    private transient MemoryTracker memoryTracker;
 
     public IndexMergeParam(TupleMapping keyMapping, TupleMapping selection) {
         this.keyMapping = keyMapping;
@@ -46,6 +48,7 @@ public class IndexMergeParam extends AbstractParams {
 
     public void init(Vertex vertex) {
         hashMap = new ConcurrentHashMap<>();
+        memoryTracker = memoryTracker(vertex, "indexMerge");
     }
 
     private TupleMapping transformSelection(TupleMapping selection) {
@@ -59,5 +62,6 @@ public class IndexMergeParam extends AbstractParams {
 
     public void clear() {
         hashMap.clear();
+        memoryTracker.reset();
     }
 }
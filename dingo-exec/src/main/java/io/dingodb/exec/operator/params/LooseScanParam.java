@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator.params;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.type.DingoType;
+import io.dingodb.common.type.TupleMapping;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Read the first row of every distinct prefix of {@code prefixCount} key columns, then seek to the next prefix.
+ * Only one row is read if {@code prefixCount} is 0.
+ */
+@Getter
+@JsonTypeName("looseScan")
+@JsonPropertyOrder({
+    "tableId",
+    "schema",
+    "keyMapping",
+    "selection",
+    "prefixCount",
+})
+public class LooseScanParam extends ScanParam {
+    @JsonProperty("selection")
+    protected final TupleMapping selection;
+    @JsonProperty("prefixCount")
+    protected final int prefixCount;
+
+    public LooseScanParam(
+        CommonId tableId,
+        @NonNull DingoType schema,
+        TupleMapping keyMapping,
+        TupleMapping selection,
+        int prefixCount,
+        int schemaVersion
+    ) {
+        super(tableId, schema, keyMapping, schemaVersion);
+        this.selection = selection;
+        this.prefixCount = prefixCount;
+    }
+}
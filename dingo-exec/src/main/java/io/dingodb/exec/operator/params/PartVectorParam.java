@@ -43,7 +43,7 @@ public class PartVectorParam extends FilterProjectSourceParam {
     private final Table table;
     private final NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> distributions;
     private final CommonId indexId;
-    private final Float[] floatArray;
+    private final float[] floatArray;
     private final int topN;
     private final Map<String, Object> parameterMap;
 
@@ -57,7 +57,7 @@ public class PartVectorParam extends FilterProjectSourceParam {
         Table table,
         NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> distributions,
         CommonId indexId,
-        Float[] floatArray,
+        float[] floatArray,
         int topN,
         Map<String, Object> parameterMap
     ) {
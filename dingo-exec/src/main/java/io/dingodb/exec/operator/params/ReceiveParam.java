@@ -28,7 +28,7 @@ import io.dingodb.exec.codec.TxRxCodecImpl;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.fin.Fin;
 import io.dingodb.exec.tuple.TupleId;
-import io.dingodb.exec.utils.QueueUtils;
+import io.dingodb.exec.utils.BatchQueue;
 import io.dingodb.exec.utils.TagUtils;
 import lombok.Getter;
 import lombok.Setter;
@@ -36,8 +36,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
 
 @Slf4j
 @Getter
@@ -46,6 +44,8 @@ import java.util.concurrent.LinkedBlockingDeque;
 public class ReceiveParam extends SourceParam {
 
     private static final int QUEUE_CAPACITY = 1024;
+    // A message of the sender carries at most `SendOperator.SEND_BATCH_SIZE` tuples.
+    private static final int QUEUE_BATCH_SIZE = 256;
 
     @JsonProperty("host")
     private final String host;
@@ -56,7 +56,7 @@ public class ReceiveParam extends SourceParam {
 
     private transient String tag;
     private transient TxRxCodec codec;
-    private transient BlockingQueue<TupleId> tupleQueue;
+    private transient BatchQueue<TupleId> tupleQueue;
     private transient ReceiveEndpoint endpoint;
     @Setter
     private transient Fin finObj = null;
@@ -74,15 +74,16 @@ public class ReceiveParam extends SourceParam {
     @Override
     public void init(Vertex vertex) {
         codec = new TxRxCodecImpl(schema);
-        tupleQueue = new LinkedBlockingDeque<>(QUEUE_CAPACITY);
+        tupleQueue = new BatchQueue<>(QUEUE_CAPACITY, QUEUE_BATCH_SIZE);
         tag = TagUtils.tag(vertex.getTask().getJobId(), vertex.getId());
         endpoint = new ReceiveEndpoint(host, port, tag, (byte[] content) -> {
             try {
                 List<TupleId> tuples = codec.decode(content);
-                for (TupleId tuple : tuples) {
-                    if (!endpoint.isStopped() || tuple.getTuple()[0] instanceof Fin) {
-                        QueueUtils.forcePut(tupleQueue, tuple);
-                    }
+                // The tuples of a message are handed over as one batch.
+                if (endpoint.isStopped()) {
+                    tupleQueue.putBatch(tuples.stream().filter(t -> t.getTuple()[0] instanceof Fin).toArray());
+                } else {
+                    tupleQueue.putBatch(tuples.toArray());
                 }
             } catch (IOException e) {
                 log.error("Exception in receive handler:", e);
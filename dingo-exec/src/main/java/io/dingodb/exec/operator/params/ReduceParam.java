@@ -53,7 +53,7 @@ public class ReduceParam extends AbstractParams {
 
     @Override
     public void init(Vertex vertex) {
-        cache = new AggCache(keys, aggList);
+        cache = new AggCache(keys, aggList, memoryTracker(vertex, "reduce"));
     }
 
     public synchronized void reduce(Object[] tuple) {
@@ -19,25 +19,29 @@ package io.dingodb.exec.operator.params;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.profile.ExecProfile;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.TupleMapping;
+import io.dingodb.exec.base.Status;
+import io.dingodb.exec.base.Task;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.fin.Fin;
-import io.dingodb.exec.utils.QueueUtils;
+import io.dingodb.exec.memory.MemoryTracker;
+import io.dingodb.exec.utils.BatchQueue;
 import lombok.Getter;
 import lombok.Setter;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
-
 @Getter
 @JsonTypeName("root")
 @JsonPropertyOrder({"schema", "takeTtl"})
 public class RootParam extends AbstractParams {
 
-    public static final int TUPLE_QUEUE_SIZE = 512;
+    // The queue is bounded mainly by the executor variable `result_prefetch_bytes`, so that the job keeps
+    // producing the next frames while a frame is sent, and waits when the client is slow.
+    public static final int TUPLE_QUEUE_SIZE = 65536;
+    public static final int TUPLE_BATCH_SIZE = 64;
 
     @JsonProperty("schema")
     private final DingoType schema;
@@ -45,7 +49,7 @@ public class RootParam extends AbstractParams {
     private final @Nullable TupleMapping selection;
     @Setter
     private transient Fin errorFin;
-    private transient BlockingQueue<Object[]> tupleQueue;
+    private transient BatchQueue<Object[]> tupleQueue;
     @Setter
     private transient long takeTtl;
 
@@ -62,19 +66,33 @@ public class RootParam extends AbstractParams {
 
     @Override
     public void init(Vertex vertex) {
-        tupleQueue = new LinkedBlockingDeque<>(TUPLE_QUEUE_SIZE);
+        tupleQueue = new BatchQueue<>(
+            TUPLE_QUEUE_SIZE,
+            TUPLE_BATCH_SIZE,
+            ScopeVariables.getResultPrefetchBytes(),
+            MemoryTracker::estimate,
+            () -> {
+                // The producer waits holding the vertex, stop it if the client will never fetch again.
+                Task task = vertex.getTask();
+                return task != null && task.getStatus() == Status.CANCEL;
+            }
+        );
         execProfile = new ExecProfile("job");
     }
 
     public void forcePut(Object[] tuple) {
-        QueueUtils.forcePut(tupleQueue, tuple);
+        tupleQueue.put(tuple);
+    }
+
+    /**
+     * Put the last tuple and hand over the tuples buffered.
+     */
+    public void forcePutLast(Object[] tuple) {
+        tupleQueue.put(tuple);
+        tupleQueue.flush();
     }
 
     public Object[] forceTake() {
-        if (takeTtl == 0) {
-            return QueueUtils.forceTake(tupleQueue);
-        } else {
-            return QueueUtils.forceTake(tupleQueue, takeTtl);
-        }
+        return tupleQueue.take(takeTtl);
     }
 }
@@ -27,7 +27,9 @@ import io.dingodb.common.CommonId;
 import io.dingodb.common.CoprocessorV2;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.TupleMapping;
+import io.dingodb.common.util.Optional;
 import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.expr.CodingCache;
 import io.dingodb.exec.expr.DingoCompileContext;
 import io.dingodb.exec.expr.DingoRelConfig;
 import io.dingodb.exec.utils.SchemaWrapperUtils;
@@ -40,6 +42,7 @@ import io.dingodb.expr.runtime.type.TupleType;
 import lombok.Getter;
 import lombok.Setter;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.ByteArrayOutputStream;
 import java.util.List;
@@ -63,11 +66,13 @@ public class ScanWithRelOpParam extends ScanParam {
     @Getter
     protected final transient DingoRelConfig config;
 
-    @Getter
     @JsonProperty("rel")
     @JsonSerialize(using = RelOpSerializer.class)
     @JsonDeserialize(using = RelOpDeserializer.class)
     protected RelOp relOp;
+    // Set by init, the rel op is compiled on first use.
+    protected transient TupleType relOpParasType;
+    private transient boolean relOpCompiled;
 
     @Getter
     @Setter
@@ -99,28 +104,51 @@ public class ScanWithRelOpParam extends ScanParam {
     @Override
     public void init(Vertex vertex) {
         super.init(vertex);
-        relOp = relOp.compile(new DingoCompileContext(
-            (TupleType) schema.getType(),
-            (TupleType) vertex.getParasType().getType()
-        ), config);
+        relOpParasType = (TupleType) vertex.getParasType().getType();
         if (pushDown) {
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            if (RelOpCoder.INSTANCE.visit(relOp, os) == CodingFlag.OK) {
-                List<Integer> selection = IntStream.range(0, schema.fieldCount())
-                    .boxed()
-                    .collect(Collectors.toList());
-                TupleMapping outputKeyMapping = TupleMapping.of(new int[]{});
-                coprocessor = CoprocessorV2.builder()
-                    .originalSchema(SchemaWrapperUtils.buildSchemaWrapper(schema, keyMapping, tableId.seq))
-                    .resultSchema(SchemaWrapperUtils.buildSchemaWrapper(outputSchema, outputKeyMapping, tableId.seq))
-                    .selection(selection)
-                    .relExpr(os.toByteArray())
-                    .build();
-                if (limit > 0) {
-                    coprocessor.setLimit(limit);
-                }
-            }
+            // Keyed by the rel op as planned, so that it is compiled only if the coprocessor is not cached yet or the
+            // scan falls back to run it locally.
+            coprocessor = CodingCache.getCoprocessor(
+                CodingCache.key(
+                    relOp.toString(), vertex.getParasType(), schema, keyMapping, outputSchema, tableId, schemaVersion,
+                    limit
+                ),
+                () -> Optional.mapOrNull(encodeRelOp(), this::buildCoprocessor)
+            );
+        }
+    }
+
+    /**
+     * The rel op compiled against the schema and the parameter types, compiled on the first call after init.
+     */
+    public synchronized RelOp getRelOp() {
+        if (relOp != null && relOpParasType != null && !relOpCompiled) {
+            relOp = relOp.compile(new DingoCompileContext((TupleType) schema.getType(), relOpParasType), config);
+            relOpCompiled = true;
+        }
+        return relOp;
+    }
+
+    protected byte @Nullable [] encodeRelOp() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        return RelOpCoder.INSTANCE.visit(getRelOp(), os) == CodingFlag.OK ? os.toByteArray() : null;
+    }
+
+    private CoprocessorV2 buildCoprocessor(byte[] relExpr) {
+        List<Integer> selection = IntStream.range(0, schema.fieldCount())
+            .boxed()
+            .collect(Collectors.toList());
+        TupleMapping outputKeyMapping = TupleMapping.of(new int[]{});
+        CoprocessorV2 coprocessor = CoprocessorV2.builder()
+            .originalSchema(SchemaWrapperUtils.buildSchemaWrapper(schema, keyMapping, tableId.seq))
+            .resultSchema(SchemaWrapperUtils.buildSchemaWrapper(outputSchema, outputKeyMapping, tableId.seq))
+            .selection(selection)
+            .relExpr(relExpr)
+            .build();
+        if (limit > 0) {
+            coprocessor.setLimit(limit);
         }
+        return coprocessor;
     }
 
     public KeyValueCodec getPushDownCodec() {
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import io.dingodb.common.profile.OperatorProfile;
 import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.memory.MemoryTracker;
 import io.dingodb.exec.operator.data.SortCollation;
 import lombok.Getter;
 import lombok.NonNull;
@@ -43,6 +44,7 @@ public class SortParam extends AbstractParams {
     private final int offset;
     private final List<Object[]> cache;
     private transient Comparator<Object[]> comparator;
+    private transient MemoryTracker memoryTracker;
 
     @JsonCreator
     public SortParam(
@@ -68,6 +70,7 @@ public class SortParam extends AbstractParams {
     @Override
     public void init(Vertex vertex) {
         super.init(vertex);
+        memoryTracker = memoryTracker(vertex, "sort");
         if (!collations.isEmpty()) {
             Comparator<Object[]> c = collations.get(0).makeComparator();
             for (int i = 1; i < collations.size(); ++i) {
@@ -81,6 +84,7 @@ public class SortParam extends AbstractParams {
 
     public void clear() {
         cache.clear();
+        memoryTracker.reset();
     }
 
     public OperatorProfile getProfile() {
@@ -25,17 +25,15 @@ import io.dingodb.common.CommonId;
 import io.dingodb.common.CoprocessorV2;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.TupleMapping;
+import io.dingodb.common.util.Optional;
 import io.dingodb.exec.dag.Vertex;
-import io.dingodb.exec.expr.DingoCompileContext;
+import io.dingodb.exec.expr.CodingCache;
 import io.dingodb.exec.utils.SchemaWrapperUtils;
-import io.dingodb.expr.coding.CodingFlag;
-import io.dingodb.expr.coding.RelOpCoder;
 import io.dingodb.expr.rel.RelOp;
 import io.dingodb.expr.runtime.type.TupleType;
 import io.dingodb.meta.entity.Table;
 import lombok.Getter;
 
-import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -106,28 +104,29 @@ public class TxnIndexRangeScanParam extends ScanWithRelOpParam {
         if (relOp == null) {
             return;
         }
-        relOp = relOp.compile(new DingoCompileContext(
-            (TupleType) indexSchema.getType(),
-            (TupleType) vertex.getParasType().getType()
-        ), config);
+        relOpParasType = (TupleType) vertex.getParasType().getType();
         if (pushDown) {
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            if (RelOpCoder.INSTANCE.visit(relOp, os) == CodingFlag.OK) {
-                List<Integer> selection = IntStream.range(0, indexSchema.fieldCount())
-                    .boxed()
-                    .collect(Collectors.toList());
-                TupleMapping keyMapping = indexKeyMapping();
-                TupleMapping outputKeyMapping = TupleMapping.of(new int[]{});
-                coprocessor = CoprocessorV2.builder()
-                    .originalSchema(SchemaWrapperUtils.buildSchemaWrapper(indexSchema, keyMapping, indexTableId.seq))
-                    .resultSchema(SchemaWrapperUtils.buildSchemaWrapper(indexSchema, outputKeyMapping, indexTableId.seq))
-                    .selection(selection)
-                    .relExpr(os.toByteArray())
-                    .build();
-            }
+            coprocessor = CodingCache.getCoprocessor(
+                CodingCache.key(relOp.toString(), vertex.getParasType(), indexSchema, indexTableId, index.getVersion()),
+                () -> Optional.mapOrNull(encodeRelOp(), this::buildCoprocessor)
+            );
         }
     }
 
+    private CoprocessorV2 buildCoprocessor(byte[] relExpr) {
+        List<Integer> selection = IntStream.range(0, indexSchema.fieldCount())
+            .boxed()
+            .collect(Collectors.toList());
+        TupleMapping keyMapping = indexKeyMapping();
+        TupleMapping outputKeyMapping = TupleMapping.of(new int[]{});
+        return CoprocessorV2.builder()
+            .originalSchema(SchemaWrapperUtils.buildSchemaWrapper(indexSchema, keyMapping, indexTableId.seq))
+            .resultSchema(SchemaWrapperUtils.buildSchemaWrapper(indexSchema, outputKeyMapping, indexTableId.seq))
+            .selection(selection)
+            .relExpr(relExpr)
+            .build();
+    }
+
     public TupleMapping indexKeyMapping() {
         int[] mappings = new int[indexSchema.fieldCount()];
         int keyCount = 0;
@@ -20,10 +20,17 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.dingodb.common.CommonId;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.TupleMapping;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.exec.operator.data.PessimisticLockKey;
 import io.dingodb.meta.entity.Table;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Getter
 public abstract class TxnPartModifyParam extends PartModifyParam {
     @JsonProperty("pessimisticTxn")
@@ -38,6 +45,10 @@ public abstract class TxnPartModifyParam extends PartModifyParam {
     private final long forUpdateTs;
     @JsonProperty("lockTimeOut")
     private final long lockTimeOut;
+    // keys waiting to be locked in region batches by the pessimistic lock operators, in input order
+    private final transient List<PessimisticLockKey> pendingKeys = new ArrayList<>();
+    private final transient Set<ByteArrayUtils.ComparableByteArray> pendingLockKeys = new HashSet<>();
+    private transient int pendingLockCount;
 
     public TxnPartModifyParam(
         CommonId tableId,
@@ -63,4 +74,30 @@ public abstract class TxnPartModifyParam extends PartModifyParam {
     public void setStartTs(long startTs) {
         this.startTs = startTs;
     }
+
+    public boolean isPending(byte[] lockKey) {
+        return pendingLockKeys.contains(new ByteArrayUtils.ComparableByteArray(lockKey));
+    }
+
+    public void addPendingKey(byte[] lockKey, PessimisticLockKey pessimisticLockKey) {
+        pendingKeys.add(pessimisticLockKey);
+        if (!pessimisticLockKey.isLocked()) {
+            pendingLockKeys.add(new ByteArrayUtils.ComparableByteArray(lockKey));
+            pendingLockCount++;
+        }
+    }
+
+    public List<PessimisticLockKey> drainPendingKeys() {
+        List<PessimisticLockKey> keys = new ArrayList<>(pendingKeys);
+        pendingKeys.clear();
+        pendingLockKeys.clear();
+        pendingLockCount = 0;
+        return keys;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        drainPendingKeys();
+    }
 }
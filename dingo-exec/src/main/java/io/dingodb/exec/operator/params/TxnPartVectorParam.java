@@ -60,7 +60,7 @@ public class TxnPartVectorParam extends FilterProjectSourceParam {
 
     private final NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> distributions;
     private final CommonId indexId;
-    private final Float[] floatArray;
+    private final float[] floatArray;
     private final int topN;
     private final Map<String, Object> parameterMap;
     private final IndexTable indexTable;
@@ -93,7 +93,7 @@ public class TxnPartVectorParam extends FilterProjectSourceParam {
         DingoType schema,
         Table table,
         NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> distributions,
-        Float[] floatArray,
+        float[] floatArray,
         int topN,
         Map<String, Object> parameterMap,
         Table indexTable,
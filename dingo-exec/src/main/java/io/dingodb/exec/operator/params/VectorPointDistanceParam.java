@@ -22,9 +22,10 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import io.dingodb.common.CommonId;
 import io.dingodb.common.partition.RangeDistribution;
 import io.dingodb.common.type.TupleMapping;
+import io.dingodb.common.vector.VectorDistances;
+import io.dingodb.exec.dag.Vertex;
 import lombok.Getter;
 
-import java.util.LinkedList;
 import java.util.List;
 
 @Getter
@@ -46,10 +47,10 @@ public class VectorPointDistanceParam extends AbstractParams {
 
     private final CommonId indexTableId;
 
-    private final List<Object[]> cache;
-
     private final TupleMapping selection;
 
+    private transient VectorDistances.Target target;
+
     public VectorPointDistanceParam(
         RangeDistribution rangeDistribution,
         Integer vectorIndex,
@@ -67,12 +68,12 @@ public class VectorPointDistanceParam extends AbstractParams {
         this.algType = algType;
         this.metricType = metricType;
         this.indexTableId = indexTableId;
-        cache = new LinkedList<>();
         this.selection = selection;
     }
 
-    public void clear() {
-        cache.clear();
+    @Override
+    public void init(Vertex vertex) {
+        target = VectorDistances.Metric.of(metricType).target(VectorDistances.toArray(targetVector));
     }
 
 }
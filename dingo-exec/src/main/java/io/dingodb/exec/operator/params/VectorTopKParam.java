@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator.params;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dingodb.common.vector.VectorDistances;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.fin.Fin;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+@Getter
+@JsonTypeName("vectorTopK")
+@JsonPropertyOrder({"inputNum", "topN", "distanceIndex", "vectorIndex", "metricType", "floatArray"})
+public class VectorTopKParam extends AbstractParams {
+
+    @JsonProperty("inputNum")
+    private final int inputNum;
+    @JsonProperty("topN")
+    private final int topN;
+    @JsonProperty("distanceIndex")
+    private final int distanceIndex;
+    // Index of the vector column to recompute exact distances on, -1 to keep the distances of the index.
+    @JsonProperty("vectorIndex")
+    private final int vectorIndex;
+    @JsonProperty("metricType")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final String metricType;
+    @JsonProperty("floatArray")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final float[] floatArray;
+
+    private transient boolean[] finFlags;
+    private transient Comparator<Object[]> comparator;
+    // The worst candidate on top.
+    private transient PriorityQueue<Object[]> heap;
+    private transient VectorDistances.Target target;
+    @Setter
+    private transient Fin finWithException;
+
+    @JsonCreator
+    public VectorTopKParam(
+        @JsonProperty("inputNum") int inputNum,
+        @JsonProperty("topN") int topN,
+        @JsonProperty("distanceIndex") int distanceIndex,
+        @JsonProperty("vectorIndex") int vectorIndex,
+        @JsonProperty("metricType") String metricType,
+        @JsonProperty("floatArray") float[] floatArray
+    ) {
+        this.inputNum = inputNum;
+        this.topN = topN;
+        this.distanceIndex = distanceIndex;
+        this.vectorIndex = vectorIndex;
+        this.metricType = metricType;
+        this.floatArray = floatArray;
+    }
+
+    @Override
+    public void init(Vertex vertex) {
+        finFlags = new boolean[inputNum];
+        comparator = Comparator.comparingDouble(this::distance);
+        heap = new PriorityQueue<>(Math.max(1, topN), comparator.reversed());
+        if (vectorIndex >= 0 && floatArray != null) {
+            target = VectorDistances.Metric.of(metricType).target(floatArray);
+        }
+    }
+
+    @Override
+    public void setParas(Object[] paras) {
+        Arrays.fill(finFlags, false);
+        heap.clear();
+        finWithException = null;
+        super.setParas(paras);
+    }
+
+    private double distance(Object[] tuple) {
+        Object distance = tuple[distanceIndex];
+        return distance == null ? Double.MAX_VALUE : ((Number) distance).doubleValue();
+    }
+
+    public boolean isRefine() {
+        return target != null;
+    }
+}
@@ -22,6 +22,7 @@ import io.dingodb.common.concurrent.Executors;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.log.MdcUtils;
 import io.dingodb.common.profile.CommitProfile;
+import io.dingodb.common.profile.StmtSummaryMap;
 import io.dingodb.exec.Services;
 import io.dingodb.exec.base.Job;
 import io.dingodb.exec.base.JobManager;
@@ -74,7 +75,7 @@ public abstract class BaseTransaction implements ITransaction {
     protected CommonId txnInstanceId;
     protected boolean closed = false;
     protected boolean isCrossNode = false;
-    protected TransactionStatus status;
+    protected volatile TransactionStatus status;
     protected TransactionCache cache;
     protected Map<CommonId, Channel> channelMap;
     protected byte[] primaryKey;
@@ -89,6 +90,8 @@ public abstract class BaseTransaction implements ITransaction {
     protected AtomicBoolean cancel;
     protected AtomicBoolean primaryKeyPreWrite;
     protected CommitProfile commitProfile;
+    // Rows inserted (positive) or deleted (negative) by the statements, by `SCHEMA.TABLE`, counted when committed.
+    protected final Map<String, Long> modifyRows = new ConcurrentHashMap<>();
 
     protected CompletableFuture<Void> finishedFuture = new CompletableFuture<>();
 
@@ -129,6 +132,24 @@ public abstract class BaseTransaction implements ITransaction {
         sqlList.add(sql);
     }
 
+    @Override
+    public void addModifyRows(String schemaName, String tableName, long rows) {
+        if (rows != 0) {
+            modifyRows.merge(schemaName + "." + tableName, rows, Long::sum);
+        }
+    }
+
+    /**
+     * Count the rows modified for the table stats, once the transaction is known to be committed.
+     */
+    protected void commitModifyRows() {
+        modifyRows.forEach((table, rows) -> {
+            String[] names = table.split("\\.", 2);
+            StmtSummaryMap.addModifyRows(names[0], names[1], rows);
+        });
+        modifyRows.clear();
+    }
+
     @Override
     public void setTransactionConfig(Properties sessionVariables) {
         transactionConfig.setSessionVariables(sessionVariables);
@@ -229,6 +250,15 @@ public abstract class BaseTransaction implements ITransaction {
         MdcUtils.removeTxnId();
     }
 
+    /**
+     * Prewrite all mutations together with the primary key when they belong to a single region.
+     *
+     * @return -1 if not applicable, 0 if all mutations are prewritten but not committed, otherwise the 1PC commit ts
+     */
+    protected long preWriteOnePc() {
+        return -1L;
+    }
+
     @Override
     public void registerChannel(CommonId commonId, Channel channel) {
         channelMap.put(commonId, channel);
@@ -314,32 +344,53 @@ public abstract class BaseTransaction implements ITransaction {
         Location currentLocation = MetaService.root().currentLocation();
         AtomicReference<CommonId> jobId = new AtomicReference<>(CommonId.EMPTY_JOB);
         this.status = TransactionStatus.PRE_WRITE_START;
+        boolean onePc = false;
+        boolean asyncCommit = false;
         try {
-            LogUtils.info(log, "{} Start PreWritePrimaryKey", transactionOf());
             checkContinue();
-            // 1、PreWritePrimaryKey 、heartBeat
-            preWritePrimaryKey();
-            this.primaryKeyPreWrite.compareAndSet(false, true);
-            this.status = TransactionStatus.PRE_WRITE_PRIMARY_KEY;
-            commitProfile.endPreWritePrimary();
-            if (cacheToObject.getMutation().getOp() == Op.CheckNotExists) {
-                LogUtils.info(log, "{} PreWritePrimaryKey Op is CheckNotExists", transactionOf());
-                return;
+            long onePcCommitTs = -1L;
+            if (!isCrossNode && transactionConfig.isOne_pc()) {
+                // 0、all mutations are in one region, prewrite them in one request and try 1PC
+                onePcCommitTs = preWriteOnePc();
             }
-            LogUtils.info(log, "{} PreWritePrimaryKey end, PrimaryKey is {}", transactionOf(), Arrays.toString(primaryKey));
-            checkContinue();
-            // 2、generator job、task、PreWriteOperator
-            long jobSeqId = TransactionManager.nextTimestamp();
-            job = jobManager.createJob(startTs, jobSeqId, txnId, null);
-            jobId.set(job.getJobId());
-            DingoTransactionRenderJob.renderPreWriteJob(job, currentLocation, this, true);
-            // 3、run PreWrite
-            Iterator<Object[]> iterator = jobManager.createIterator(job, null);
-            while (iterator.hasNext()) {
-                iterator.next();
+            if (onePcCommitTs >= 0) {
+                this.primaryKeyPreWrite.compareAndSet(false, true);
+                commitProfile.endPreWritePrimary();
+                commitProfile.endPreWriteSecond();
+                this.status = TransactionStatus.PRE_WRITE;
+                if (onePcCommitTs > 0) {
+                    this.commitTs = onePcCommitTs;
+                    onePc = true;
+                }
+                LogUtils.info(log, "{} OnePcPreWrite end, onePc:{}, PrimaryKey is {}", transactionOf(), onePc,
+                    Arrays.toString(primaryKey));
+            } else {
+                LogUtils.info(log, "{} Start PreWritePrimaryKey", transactionOf());
+                checkContinue();
+                // 1、PreWritePrimaryKey 、heartBeat
+                preWritePrimaryKey();
+                this.primaryKeyPreWrite.compareAndSet(false, true);
+                this.status = TransactionStatus.PRE_WRITE_PRIMARY_KEY;
+                commitProfile.endPreWritePrimary();
+                if (cacheToObject.getMutation().getOp() == Op.CheckNotExists) {
+                    LogUtils.info(log, "{} PreWritePrimaryKey Op is CheckNotExists", transactionOf());
+                    return;
+                }
+                LogUtils.info(log, "{} PreWritePrimaryKey end, PrimaryKey is {}", transactionOf(), Arrays.toString(primaryKey));
+                checkContinue();
+                // 2、generator job、task、PreWriteOperator
+                long jobSeqId = TransactionManager.nextTimestamp();
+                job = jobManager.createJob(startTs, jobSeqId, txnId, null);
+                jobId.set(job.getJobId());
+                DingoTransactionRenderJob.renderPreWriteJob(job, currentLocation, this, true);
+                // 3、run PreWrite
+                Iterator<Object[]> iterator = jobManager.createIterator(job, null);
+                while (iterator.hasNext()) {
+                    iterator.next();
+                }
+                commitProfile.endPreWriteSecond();
+                this.status = TransactionStatus.PRE_WRITE;
             }
-            commitProfile.endPreWriteSecond();
-            this.status = TransactionStatus.PRE_WRITE;
         } catch (WriteConflictException e) {
             LogUtils.error(log, e.getMessage(), e);
             // rollback or retry
@@ -392,6 +443,15 @@ public abstract class BaseTransaction implements ITransaction {
         }
 
         try {
+            if (onePc) {
+                // the store has committed all mutations with the prewrite
+                commitProfile.endCommitPrimary();
+                commitProfile.endCommitSecond();
+                this.status = TransactionStatus.COMMIT;
+                commitModifyRows();
+                LogUtils.info(log, "{} Commit with 1PC, commit_ts:{}", transactionOf(), commitTs);
+                return;
+            }
             if (cancel.get()) {
                 LogUtils.info(log, "The current {} has been canceled", transactionOf());
                 rollback(jobManager);
@@ -411,21 +471,16 @@ public abstract class BaseTransaction implements ITransaction {
                     + Arrays.toString(primaryKey));
             }
             this.status = TransactionStatus.COMMIT_PRIMARY_KEY;
+            commitModifyRows();
             LogUtils.info(log, "{} CommitPrimaryKey end", transactionOf());
-            CompletableFuture<Void> commit_future = CompletableFuture.runAsync(() ->
-                commitJobRun(jobManager, currentLocation), Executors.executor("exec-txnCommit")
-            ).exceptionally(
-                ex -> {
-                    LogUtils.error(log, ex.toString(), ex);
-                    return null;
-                }
-            );
+            CompletableFuture<Void> commit_future = commitSecondaryKeys(jobManager, currentLocation);
             commitFuture = commit_future;
-            if (!cancel.get()) {
+            // once the primary key is committed the transaction is committed, with async commit the secondary keys
+            // are committed in background, and the clean up waits for them before the cache is removed
+            asyncCommit = transactionConfig.isAsync_commit();
+            if (!cancel.get() && !asyncCommit) {
                 commit_future.get();
             }
-            commitProfile.endCommitSecond();
-            this.status = TransactionStatus.COMMIT;
         } catch (Throwable t) {
             LogUtils.error(log, t.getMessage(), t);
             this.status = TransactionStatus.COMMIT_FAIL;
@@ -437,7 +492,7 @@ public abstract class BaseTransaction implements ITransaction {
             LogUtils.info(log, "{} Commit End Status:{}, Cost:{}ms", transactionOf(),
                 status, (System.currentTimeMillis() - preWriteStart));
             jobManager.removeJob(jobId.get());
-            if (!cancel.get()) {
+            if (!cancel.get() && !asyncCommit) {
                 commitFuture = null;
             }
 //            cleanUp();
@@ -471,7 +526,45 @@ public abstract class BaseTransaction implements ITransaction {
         }
     }
 
-    private void commitJobRun(JobManager jobManager, Location currentLocation) {
+    /**
+     * Commit the secondary keys in background, the commit profile and the status are recorded when it completes.
+     */
+    protected CompletableFuture<Void> commitSecondaryKeys(JobManager jobManager, Location currentLocation) {
+        return CompletableFuture.supplyAsync(() ->
+            commitJobRetry(jobManager, currentLocation), Executors.executor("exec-txnCommit")
+        ).exceptionally(
+            ex -> {
+                LogUtils.error(log, ex.toString(), ex);
+                return false;
+            }
+        ).thenAccept(this::endCommitSecond);
+    }
+
+    private void endCommitSecond(boolean committed) {
+        commitProfile.endCommitSecond();
+        if (!committed) {
+            // the transaction is committed with the primary key, the secondary keys are resolved by the readers
+            LogUtils.warn(log, "{} Commit secondary keys failed, commit_ts:{}", transactionOf(), commitTs);
+        }
+        if (this.status == TransactionStatus.COMMIT_PRIMARY_KEY) {
+            this.status = TransactionStatus.COMMIT;
+        }
+    }
+
+    protected boolean commitJobRetry(JobManager jobManager, Location currentLocation) {
+        // committing secondary keys is idempotent, the keys left locked are resolved by the committed primary key
+        int retry = TransactionUtil.max_commit_retry;
+        while (!commitJobRun(jobManager, currentLocation)) {
+            if (--retry <= 0) {
+                return false;
+            }
+            LogUtils.warn(log, "{} commitJobRun failed, retry left:{}", transactionOf(), retry);
+            sleep();
+        }
+        return true;
+    }
+
+    private boolean commitJobRun(JobManager jobManager, Location currentLocation) {
         CommonId jobId = CommonId.EMPTY_JOB;
         try {
             MdcUtils.setTxnId(txnId.toString());
@@ -485,8 +578,10 @@ public abstract class BaseTransaction implements ITransaction {
                 iterator.next();
             }
             LogUtils.info(log, "{} commitJobRun end", transactionOf());
+            return true;
         } catch (Throwable throwable) {
             LogUtils.error(log, throwable.getMessage(), throwable);
+            return false;
         } finally {
             MdcUtils.removeTxnId();
             jobManager.removeJob(jobId);
@@ -75,6 +75,12 @@ public interface ITransaction {
 
     List<String> getSqlList();
 
+    /**
+     * Count the rows inserted (positive) or deleted (negative) in a table, added to the row count of the table
+     * stats when the transaction is committed.
+     */
+    void addModifyRows(String schemaName, String tableName, long rows);
+
     boolean isAutoCommit();
 
     void setAutoCommit(boolean autoCommit);
@@ -48,6 +48,14 @@ public class TransactionConfig {
         return "on".equalsIgnoreCase(sessionVariables.getProperty("txn_inert_check"));
     }
 
+    public boolean isOne_pc() {
+        return "on".equalsIgnoreCase(sessionVariables.getProperty("txn_one_pc"));
+    }
+
+    public boolean isAsync_commit() {
+        return "on".equalsIgnoreCase(sessionVariables.getProperty("txn_async_commit"));
+    }
+
     public long getLockTimeOut() {
         Optional<String> retryCountOpt = Optional.ofNullable(
             sessionVariables.getProperty("lock_wait_timeout"));
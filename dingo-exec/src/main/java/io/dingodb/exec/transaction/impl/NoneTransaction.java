@@ -107,6 +107,8 @@ public class NoneTransaction extends BaseTransaction {
 
     @Override
     public synchronized void commit(JobManager jobManager) {
+        // Written without a transaction, the rows are already in the store.
+        commitModifyRows();
         cleanUp(jobManager);
     }
 
@@ -34,6 +34,7 @@ import io.dingodb.exec.transaction.visitor.DingoTransactionRenderJob;
 import io.dingodb.meta.MetaService;
 import io.dingodb.store.api.StoreInstance;
 import io.dingodb.store.api.transaction.data.IsolationLevel;
+import io.dingodb.store.api.transaction.data.Mutation;
 import io.dingodb.store.api.transaction.data.prewrite.TxnPreWrite;
 import io.dingodb.store.api.transaction.exception.RegionSplitException;
 import lombok.Getter;
@@ -222,6 +223,52 @@ public class OptimisticTransaction extends BaseTransaction {
         txnPreWritePrimaryKey(cacheToObject);
     }
 
+    @Override
+    protected long preWriteOnePc() {
+        List<CacheToObject> cacheToObjects = cache.getSingleRegionMutations(TransactionUtil.max_pre_write_count);
+        if (cacheToObjects == null) {
+            return -1L;
+        }
+        StoreInstance store = Services.KV_STORE.getInstance(
+            cacheToObjects.get(0).getTableId(), cacheToObjects.get(0).getPartId()
+        );
+        if (!store.isSupportOnePc()) {
+            return -1L;
+        }
+        cacheToObject = cacheToObjects.get(0);
+        primaryKey = cacheToObject.getMutation().getKey();
+        List<Mutation> mutations = new ArrayList<>(cacheToObjects.size());
+        for (CacheToObject object : cacheToObjects) {
+            mutations.add(object.getMutation());
+        }
+        TxnPreWrite txnPreWrite = TxnPreWrite.builder()
+            .isolationLevel(IsolationLevel.of(
+                isolationLevel
+            ))
+            .mutations(mutations)
+            .primaryLock(primaryKey)
+            .startTs(startTs)
+            .lockTtl(TransactionManager.lockTtlTm())
+            .txnSize(mutations.size())
+            .tryOnePc(true)
+            .maxCommitTs(0L)
+            .lockExtraDatas(TransactionUtil.toLockExtraDataList(cacheToObject.getTableId(), cacheToObject.getPartId(),
+                txnId, TransactionType.OPTIMISTIC.getCode(), mutations.size()))
+            .build();
+        try {
+            long onePcCommitTs = store.txnOnePcPreWrite(txnPreWrite, getLockTimeOut());
+            if (onePcCommitTs == 0) {
+                // 1PC declined, the primary lock must be kept alive until the regular commit
+                this.future = store.txnHeartBeat(txnPreWrite);
+            }
+            return onePcCommitTs;
+        } catch (RegionSplitException e) {
+            // nothing is written, fall back to 2PC
+            LogUtils.info(log, "{} OnePcPreWrite skipped, {}", transactionOf(), e.getMessage());
+            return -1L;
+        }
+    }
+
     private void txnPreWritePrimaryKey(CacheToObject cacheToObject) {
         Future future = null;
         Integer retry = Optional.mapOrGet(DingoConfiguration.instance().find("retry", int.class), __ -> __, () -> 30);
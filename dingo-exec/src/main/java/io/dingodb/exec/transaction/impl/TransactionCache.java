@@ -30,6 +30,7 @@ import io.dingodb.store.api.transaction.data.Op;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -103,49 +104,9 @@ public class TransactionCache {
         CacheToObject primaryKey = null;
         Iterator<KeyValue> iterator = cache.scan(getScanPrefix(CommonId.CommonType.TXN_CACHE_DATA, txnId));
         while (iterator.hasNext()) {
-            KeyValue keyValue = iterator.next();
-            Object[] tuple = ByteUtils.decode(keyValue);
-            TxnLocalData txnLocalData = (TxnLocalData) tuple[0];
-            CommonId.CommonType type = txnLocalData.getDataType();
-            CommonId txnId = txnLocalData.getTxnId();
-            CommonId tableId = txnLocalData.getTableId();
-            CommonId newPartId = txnLocalData.getPartId();
-            int op = txnLocalData.getOp().getCode();
-            byte[] key = txnLocalData.getKey();
-            byte[] value = txnLocalData.getValue();
-            byte[] txnIdByte = txnId.encode();
-            byte[] tableIdByte = tableId.encode();
-            byte[] partIdByte = newPartId.encode();
-            int len = txnIdByte.length + tableIdByte.length + partIdByte.length;
-            byte[] checkBytes = ByteUtils.encode(
-                CommonId.CommonType.TXN_CACHE_CHECK_DATA,
-                key,
-                Op.CheckNotExists.getCode(),
-                len,
-                txnIdByte, tableIdByte, partIdByte);
-            keyValue = cache.get(checkBytes);
-            if (keyValue != null && keyValue.getValue() != null) {
-                switch (Op.forNumber(op)) {
-                    case PUT:
-                        op = Op.PUTIFABSENT.getCode();
-                        break;
-                    case DELETE:
-                        op = Op.CheckNotExists.getCode();
-                        break;
-                    default:
-                        break;
-                }
-            }
-            primaryKey = new CacheToObject(TransactionCacheToMutation.cacheToMutation(
-                op,
-                key,
-                value,
-                0L,
-                tableId,
-                newPartId), tableId, newPartId
-            );
+            primaryKey = toCacheToObject(iterator.next());
             LogUtils.debug(log, "txnId:{} primary key is {}" , txnId, primaryKey);
-            if (op != Op.CheckNotExists.getCode()) {
+            if (primaryKey.getMutation().getOp() != Op.CheckNotExists) {
                 break;
             }
         }
@@ -155,6 +116,81 @@ public class TransactionCache {
         return primaryKey;
     }
 
+    /**
+     * Collect all mutations of the transaction when they belong to a single region, the first one that is not
+     * {@link Op#CheckNotExists} comes first and is used as primary key.
+     *
+     * @param limit the max count of mutations
+     * @return the mutations, or null if they span several regions, exceed the limit or are all check only
+     */
+    public List<CacheToObject> getSingleRegionMutations(int limit) {
+        List<CacheToObject> mutations = new ArrayList<>();
+        int primaryIndex = -1;
+        Iterator<KeyValue> iterator = cache.scan(getScanPrefix(CommonId.CommonType.TXN_CACHE_DATA, txnId));
+        while (iterator.hasNext()) {
+            CacheToObject cacheToObject = toCacheToObject(iterator.next());
+            if (!mutations.isEmpty() && !mutations.get(0).getPartId().equals(cacheToObject.getPartId())) {
+                return null;
+            }
+            if (mutations.size() >= limit) {
+                return null;
+            }
+            if (primaryIndex < 0 && cacheToObject.getMutation().getOp() != Op.CheckNotExists) {
+                primaryIndex = mutations.size();
+            }
+            mutations.add(cacheToObject);
+        }
+        if (primaryIndex < 0) {
+            return null;
+        }
+        if (primaryIndex > 0) {
+            mutations.add(0, mutations.remove(primaryIndex));
+        }
+        return mutations;
+    }
+
+    private CacheToObject toCacheToObject(KeyValue keyValue) {
+        Object[] tuple = ByteUtils.decode(keyValue);
+        TxnLocalData txnLocalData = (TxnLocalData) tuple[0];
+        CommonId txnId = txnLocalData.getTxnId();
+        CommonId tableId = txnLocalData.getTableId();
+        CommonId newPartId = txnLocalData.getPartId();
+        int op = txnLocalData.getOp().getCode();
+        byte[] key = txnLocalData.getKey();
+        byte[] value = txnLocalData.getValue();
+        byte[] txnIdByte = txnId.encode();
+        byte[] tableIdByte = tableId.encode();
+        byte[] partIdByte = newPartId.encode();
+        int len = txnIdByte.length + tableIdByte.length + partIdByte.length;
+        byte[] checkBytes = ByteUtils.encode(
+            CommonId.CommonType.TXN_CACHE_CHECK_DATA,
+            key,
+            Op.CheckNotExists.getCode(),
+            len,
+            txnIdByte, tableIdByte, partIdByte);
+        KeyValue checkKeyValue = cache.get(checkBytes);
+        if (checkKeyValue != null && checkKeyValue.getValue() != null) {
+            switch (Op.forNumber(op)) {
+                case PUT:
+                    op = Op.PUTIFABSENT.getCode();
+                    break;
+                case DELETE:
+                    op = Op.CheckNotExists.getCode();
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new CacheToObject(TransactionCacheToMutation.cacheToMutation(
+            op,
+            key,
+            value,
+            0L,
+            tableId,
+            newPartId), tableId, newPartId
+        );
+    }
+
     public KeyValue get(byte[] key) {
         return cache.get(key);
     }
@@ -17,6 +17,7 @@
 package io.dingodb.exec.transaction.operator;
 
 import io.dingodb.common.CommonId;
+import io.dingodb.common.concurrent.Executors;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.store.KeyValue;
 import io.dingodb.common.util.ByteArrayUtils;
@@ -41,8 +42,11 @@ import io.dingodb.store.api.transaction.exception.RegionSplitException;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 public final class PreWriteOperator extends TransactionOperator {
@@ -118,19 +122,11 @@ public final class PreWriteOperator extends TransactionOperator {
             } else if (partId.equals(newPartId)) {
                 param.addMutation(mutation);
                 if (param.getMutations().size() == TransactionUtil.max_pre_write_count) {
-                    boolean result = txnPreWrite(param, txnId, tableId, partId);
-                    if (!result) {
-                        throw new RuntimeException(txnId + " " + partId + ",txnPreWrite false,PrimaryKey:" + param.getPrimaryKey().toString());
-                    }
-                    param.getMutations().clear();
+                    submitPreWrite(param, txnId, tableId, partId);
                     param.setPartId(null);
                 }
             } else {
-                boolean result = txnPreWrite(param, txnId, param.getTableId(), partId);
-                if (!result) {
-                    throw new RuntimeException(txnId + " " + partId + ",txnPreWrite false,PrimaryKey:" + param.getPrimaryKey().toString());
-                }
-                param.getMutations().clear();
+                submitPreWrite(param, txnId, param.getTableId(), partId);
                 param.addMutation(mutation);
                 param.setPartId(newPartId);
                 param.setTableId(tableId);
@@ -139,18 +135,41 @@ public final class PreWriteOperator extends TransactionOperator {
         }
     }
 
-    private boolean txnPreWrite(PreWriteParam param, CommonId txnId, CommonId tableId, CommonId partId) {
+    // Hand the buffered batch to a worker, so that batches of different regions are prewritten in parallel.
+    private static void submitPreWrite(PreWriteParam param, CommonId txnId, CommonId tableId, CommonId partId) {
+        List<Mutation> mutations = param.getMutations();
+        param.setMutations(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = param.getPreWriteFutures();
+        if (futures.size() >= TransactionUtil.max_pre_write_parallel) {
+            TransactionUtil.awaitAll(futures);
+            futures.clear();
+        }
+        futures.add(Executors.submit("txn-pre-write-" + txnId, () -> {
+            boolean result = txnPreWrite(param, mutations, txnId, tableId, partId);
+            if (!result) {
+                throw new RuntimeException(txnId + " " + partId + ",txnPreWrite false,PrimaryKey:"
+                    + Arrays.toString(param.getPrimaryKey()));
+            }
+        }));
+    }
+
+    private static boolean txnPreWrite(
+        PreWriteParam param,
+        List<Mutation> mutations,
+        CommonId txnId,
+        CommonId tableId,
+        CommonId partId
+    ) {
         // 1、call sdk TxnPreWrite
-        param.setTxnSize(param.getMutations().size());
         TxnPreWrite txnPreWrite;
         if (param.getTransactionType() == TransactionType.OPTIMISTIC) {
             txnPreWrite = TxnPreWrite.builder()
                 .isolationLevel(IsolationLevel.of(param.getIsolationLevel()))
-                .mutations(param.getMutations())
+                .mutations(mutations)
                 .primaryLock(param.getPrimaryKey())
                 .startTs(param.getStartTs())
                 .lockTtl(TransactionManager.lockTtlTm())
-                .txnSize(param.getTxnSize())
+                .txnSize(mutations.size())
                 .tryOnePc(param.isTryOnePc())
                 .maxCommitTs(param.getMaxCommitTs())
                 .lockExtraDatas(TransactionUtil.toLockExtraDataList(
@@ -158,28 +177,28 @@ public final class PreWriteOperator extends TransactionOperator {
                     partId,
                     txnId,
                     param.getTransactionType().getCode(),
-                    param.getMutations().size())
+                    mutations.size())
                 )
                 .build();
         } else {
             // ToDo Non-unique indexes do not require pessimistic locks and are equivalent to optimistic transactions
             txnPreWrite = TxnPreWrite.builder()
                 .isolationLevel(IsolationLevel.of(param.getIsolationLevel()))
-                .mutations(param.getMutations())
+                .mutations(mutations)
                 .primaryLock(param.getPrimaryKey())
                 .startTs(param.getStartTs())
                 .lockTtl(TransactionManager.lockTtlTm())
-                .txnSize(param.getTxnSize())
+                .txnSize(mutations.size())
                 .tryOnePc(param.isTryOnePc())
                 .maxCommitTs(param.getMaxCommitTs())
-                .pessimisticChecks(TransactionUtil.toPessimisticCheck(param.getMutations().size()))
-                .forUpdateTsChecks(TransactionUtil.toForUpdateTsChecks(param.getMutations()))
+                .pessimisticChecks(TransactionUtil.toPessimisticCheck(mutations.size()))
+                .forUpdateTsChecks(TransactionUtil.toForUpdateTsChecks(mutations))
                 .lockExtraDatas(TransactionUtil.toLockExtraDataList(
                     tableId,
                     partId,
                     txnId,
                     param.getTransactionType().getCode(),
-                    param.getMutations().size())
+                    mutations.size())
                 )
                 .build();
         }
@@ -192,13 +211,13 @@ public final class PreWriteOperator extends TransactionOperator {
             Map<CommonId, List<byte[]>> partMap = TransactionUtil.multiKeySplitRegionId(
                 tableId,
                 txnId,
-                TransactionUtil.mutationToKey(param.getMutations())
+                TransactionUtil.mutationToKey(mutations)
             );
             for (Map.Entry<CommonId, List<byte[]>> entry : partMap.entrySet()) {
                 CommonId regionId = entry.getKey();
                 List<byte[]> value = entry.getValue();
                 StoreInstance store = Services.KV_STORE.getInstance(tableId, regionId);
-                txnPreWrite.setMutations(TransactionUtil.keyToMutation(value, param.getMutations()));
+                txnPreWrite.setMutations(TransactionUtil.keyToMutation(value, mutations));
                 boolean result = store.txnPreWrite(txnPreWrite, param.getTimeOut());
                 if (!result) {
                     return false;
@@ -211,22 +230,21 @@ public final class PreWriteOperator extends TransactionOperator {
     @Override
     public void fin(int pin, @Nullable Fin fin, Vertex vertex) {
         synchronized (vertex) {
+            PreWriteParam param = vertex.getParam();
             if (!(fin instanceof FinWithException)) {
-                PreWriteParam param = vertex.getParam();
                 if (param.getMutations().size() > 0) {
-                    boolean result = txnPreWrite(
-                        param,
-                        vertex.getTask().getTxnId(),
-                        param.getTableId(),
-                        param.getPartId()
-                    );
-                    if (!result) {
-                        throw new RuntimeException(vertex.getTask().getTxnId() + " " + param.getPartId()
-                            + ",txnPreWrite false,PrimaryKey:" + param.getPrimaryKey().toString());
-                    }
-                    param.getMutations().clear();
+                    submitPreWrite(param, vertex.getTask().getTxnId(), param.getTableId(), param.getPartId());
                 }
+                TransactionUtil.awaitAll(param.getPreWriteFutures());
+                param.getPreWriteFutures().clear();
                 vertex.getSoleEdge().transformToNext(new Object[]{true});
+            } else {
+                try {
+                    TransactionUtil.awaitAll(param.getPreWriteFutures());
+                } catch (RuntimeException e) {
+                    LogUtils.error(log, e.getMessage(), e);
+                }
+                param.getPreWriteFutures().clear();
             }
             vertex.getSoleEdge().fin(fin);
         }
@@ -30,6 +30,7 @@ import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Getter
 @JsonTypeName("preWrite")
@@ -58,6 +59,8 @@ public class PreWriteParam extends AbstractParams {
     private CommonId partId;
     private boolean tryOnePc = false;
     private long maxCommitTs = 0L;
+    // In flight prewrite batches, waited before the operator finishes.
+    private transient List<CompletableFuture<Void>> preWriteFutures;
 
     public PreWriteParam(
         @JsonProperty("schema") DingoType schema,
@@ -79,6 +82,7 @@ public class PreWriteParam extends AbstractParams {
     public void init(Vertex vertex) {
         super.init(vertex);
         mutations = new ArrayList<>();
+        preWriteFutures = new ArrayList<>();
     }
 
     public void addMutation(Mutation mutation) {
@@ -19,6 +19,7 @@ package io.dingodb.exec.transaction.util;
 import io.dingodb.codec.CodecService;
 import io.dingodb.codec.KeyValueCodec;
 import io.dingodb.common.CommonId;
+import io.dingodb.common.concurrent.Executors;
 import io.dingodb.common.config.DingoConfiguration;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.partition.RangeDistribution;
@@ -56,6 +57,8 @@ import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -64,6 +67,10 @@ import java.util.stream.IntStream;
 public class TransactionUtil {
     public static final long lock_ttl = 60000L;
     public static final int max_pre_write_count = 1024;
+    public static final int max_pessimistic_lock_count = 1024;
+    public static final int max_pessimistic_lock_parallel = 8;
+    public static final int max_pre_write_parallel = 8;
+    public static final int max_commit_retry = 3;
     public static final String snapshotIsolation = "REPEATABLE-READ";
     public static final String readCommitted = "READ-COMMITTED";
 
@@ -254,6 +261,98 @@ public class TransactionUtil {
         return txnPessimisticLock;
     }
 
+    public static TxnPessimisticLock getTxnPessimisticLock(CommonId txnId,
+                                                           CommonId tableId,
+                                                           CommonId partId,
+                                                           byte[] primaryLockKey,
+                                                           List<byte[]> keys,
+                                                           long startTs,
+                                                           long forUpdateTs,
+                                                           int isolationLevel) {
+        byte[] lockExtraData = toLockExtraData(
+            tableId,
+            partId,
+            txnId,
+            TransactionType.PESSIMISTIC.getCode()
+        );
+        List<Mutation> mutations = keys.stream()
+            .map(key -> TransactionCacheToMutation.cacheToPessimisticLockMutation(key, lockExtraData, forUpdateTs))
+            .collect(Collectors.toList());
+        return TxnPessimisticLock.builder()
+            .isolationLevel(IsolationLevel.of(isolationLevel))
+            .primaryLock(primaryLockKey)
+            .mutations(mutations)
+            .lockTtl(TransactionManager.lockTtlTm())
+            .startTs(startTs)
+            .forUpdateTs(forUpdateTs)
+            .build();
+    }
+
+    public static boolean pessimisticLockRollBack(CommonId txnId, CommonId tableId,
+                                                  CommonId partId, int isolationLevel,
+                                                  long startTs, long forUpdateTs, List<byte[]> keys) {
+        TxnPessimisticRollBack pessimisticRollBack = TxnPessimisticRollBack.builder()
+            .isolationLevel(IsolationLevel.of(isolationLevel))
+            .startTs(startTs)
+            .forUpdateTs(forUpdateTs)
+            .keys(keys)
+            .build();
+        try {
+            StoreInstance store = Services.KV_STORE.getInstance(tableId, partId);
+            return store.txnPessimisticLockRollback(pessimisticRollBack);
+        } catch (RegionSplitException e) {
+            LogUtils.error(log, e.getMessage(), e);
+            // 2、regin split
+            Map<CommonId, List<byte[]>> partMap = multiKeySplitRegionId(tableId, txnId, keys);
+            boolean result = true;
+            for (Map.Entry<CommonId, List<byte[]>> entry : partMap.entrySet()) {
+                pessimisticRollBack.setKeys(entry.getValue());
+                StoreInstance store = Services.KV_STORE.getInstance(tableId, entry.getKey());
+                result &= store.txnPessimisticLockRollback(pessimisticRollBack);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Run the tasks with at most {@code parallel} of them in flight, rethrow the first failure after the running
+     * tasks are done.
+     */
+    public static void parallelRun(String name, List<Runnable> tasks, int parallel) {
+        if (tasks.size() == 1) {
+            tasks.get(0).run();
+            return;
+        }
+        for (int i = 0; i < tasks.size(); i += parallel) {
+            awaitAll(tasks.subList(i, Math.min(i + parallel, tasks.size())).stream()
+                .map(task -> Executors.submit(name, task))
+                .collect(Collectors.toList()));
+        }
+    }
+
+    public static void awaitAll(List<CompletableFuture<Void>> futures) {
+        Throwable error = null;
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+
     public static boolean pessimisticPrimaryLockRollBack(CommonId txnId, CommonId tableId,
                                                          CommonId partId, int isolationLevel,
                                                          long startTs, long forUpdateTs, byte[] primaryKey) {
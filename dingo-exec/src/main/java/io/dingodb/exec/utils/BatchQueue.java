@@ -0,0 +1,270 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.utils;
+
+import io.dingodb.exec.exception.TaskCancelException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded queue handing items over to a single consumer in batches, so that the blocking queue is locked once
+ * per batch instead of once per item.
+ *
+ * <p>Items of {@link #put(Object)} are buffered until the batch is full, {@link #flush()} is called, or the
+ * consumer is found waiting. A consumer finding the queue empty takes the buffered items itself before waiting, so an
+ * item is never left in the buffer while the consumer waits for it. Calls of {@link #put(Object)} and
+ * {@link #flush()} must be serialized by the caller, {@link #putBatch(Object[])} can be called from any thread.
+ *
+ * <p>The queue can also be bounded by the estimated bytes of the items in it, then the producer waits in
+ * {@link #flush()} until the consumer has taken enough. A batch is always accepted by an empty queue, so that an
+ * item larger than the bound does not block forever. The wait is aborted with {@link TaskCancelException} if the
+ * producer is interrupted or the queue is cancelled, for the consumer may never take again.
+ */
+public final class BatchQueue<T> {
+    private static final Batch EMPTY = new Batch(new Object[0], 0);
+    // Recheck if the queue is cancelled, which is not notified.
+    private static final long RECHECK_MS = 100;
+
+    private final BlockingQueue<Batch> batches;
+    private final int batchSize;
+    private final long maxBytes;
+    private final @Nullable ToLongFunction<T> sizer;
+    private final @Nullable BooleanSupplier cancelled;
+
+    private final Object pendingLock = new Object();
+    // The items buffered by the producer, guarded by `pendingLock`, for the consumer may take them when waiting.
+    private Object[] pending;
+    private int pendingSize;
+    private long pendingBytes;
+    // Set by the consumer under `pendingLock` only if there is nothing buffered.
+    private volatile boolean waiting;
+
+    private Batch current = EMPTY;
+    private int index;
+
+    private final Object lock = new Object();
+    // Bytes of the batches in the queue and the batch being taken, guarded by `lock`.
+    private long bytes;
+
+    /**
+     * Create a queue.
+     *
+     * @param capacity  max number of items in the queue, not counting the items buffered by the producer
+     * @param batchSize max number of items in a batch
+     */
+    public BatchQueue(int capacity, int batchSize) {
+        this(capacity, batchSize, 0, null);
+    }
+
+    /**
+     * Create a queue bounded also by bytes.
+     *
+     * @param capacity  max number of items in the queue, not counting the items buffered by the producer
+     * @param batchSize max number of items in a batch
+     * @param maxBytes  max estimated bytes of the items in the queue, {@code 0} means no limit
+     * @param sizer     estimate the bytes of an item
+     */
+    public BatchQueue(int capacity, int batchSize, long maxBytes, @Nullable ToLongFunction<T> sizer) {
+        this(capacity, batchSize, maxBytes, sizer, null);
+    }
+
+    /**
+     * Create a queue bounded also by bytes, whose producer stops waiting when it is cancelled.
+     *
+     * @param capacity  max number of items in the queue, not counting the items buffered by the producer
+     * @param batchSize max number of items in a batch
+     * @param maxBytes  max estimated bytes of the items in the queue, {@code 0} means no limit
+     * @param sizer     estimate the bytes of an item
+     * @param cancelled tell if the queue is cancelled, like when its task is cancelled
+     */
+    public BatchQueue(
+        int capacity,
+        int batchSize,
+        long maxBytes,
+        @Nullable ToLongFunction<T> sizer,
+        @Nullable BooleanSupplier cancelled
+    ) {
+        this.batches = new LinkedBlockingQueue<>(Math.max(1, capacity / batchSize));
+        this.batchSize = batchSize;
+        this.maxBytes = sizer != null ? maxBytes : 0;
+        this.sizer = sizer;
+        this.cancelled = cancelled;
+        this.pending = new Object[batchSize];
+    }
+
+    public void put(T item) {
+        Batch batch;
+        synchronized (pendingLock) {
+            pending[pendingSize++] = item;
+            if (maxBytes > 0) {
+                pendingBytes += sizer.applyAsLong(item);
+            }
+            if (pendingSize < batchSize && !waiting && (maxBytes <= 0 || pendingBytes < maxBytes)) {
+                return;
+            }
+            batch = drain();
+        }
+        offer(batch);
+    }
+
+    public void flush() {
+        Batch batch;
+        synchronized (pendingLock) {
+            batch = drain();
+        }
+        if (batch != null) {
+            offer(batch);
+        }
+    }
+
+    // Must be called with `pendingLock` held.
+    private @Nullable Batch drain() {
+        if (pendingSize == 0) {
+            return null;
+        }
+        Object[] items;
+        if (pendingSize == batchSize) {
+            items = pending;
+            pending = new Object[batchSize];
+        } else {
+            items = Arrays.copyOf(pending, pendingSize);
+            Arrays.fill(pending, 0, pendingSize, null);
+        }
+        Batch batch = new Batch(items, pendingBytes);
+        pendingSize = 0;
+        pendingBytes = 0;
+        return batch;
+    }
+
+    private void offer(@NonNull Batch batch) {
+        acquire(batch.bytes);
+        QueueUtils.forcePut(batches, batch);
+    }
+
+    /**
+     * Put a batch of items directly, the array must not be modified after.
+     */
+    @SuppressWarnings("unchecked")
+    public void putBatch(Object @NonNull [] items) {
+        if (items.length > 0) {
+            long size = 0;
+            if (maxBytes > 0) {
+                for (Object item : items) {
+                    size += sizer.applyAsLong((T) item);
+                }
+                acquire(size);
+            }
+            QueueUtils.forcePut(batches, new Batch(items, size));
+        }
+    }
+
+    public @NonNull T take() {
+        return take(0);
+    }
+
+    /**
+     * Take an item, waiting at most {@code timeoutMS} milliseconds, or forever if it is {@code 0}.
+     */
+    @SuppressWarnings("unchecked")
+    public @NonNull T take(long timeoutMS) {
+        if (index == current.items.length) {
+            // Release the bytes of the batch taken before waiting, for the producer may be waiting for them.
+            release(current.bytes);
+            current = EMPTY;
+            Batch batch = batches.poll();
+            if (batch == null) {
+                synchronized (pendingLock) {
+                    batch = drain();
+                    if (batch == null) {
+                        waiting = true;
+                    }
+                }
+                if (batch != null && batch.bytes > 0) {
+                    // Not passed through the queue, but released the same way when taken.
+                    synchronized (lock) {
+                        bytes += batch.bytes;
+                    }
+                }
+            }
+            if (batch == null) {
+                try {
+                    batch = timeoutMS == 0 ? QueueUtils.forceTake(batches) : QueueUtils.forceTake(batches, timeoutMS);
+                } finally {
+                    waiting = false;
+                }
+            }
+            current = batch;
+            index = 0;
+        }
+        return (T) current.items[index++];
+    }
+
+    /**
+     * Estimated bytes of the items in the queue, {@code 0} if the queue is not bounded by bytes.
+     */
+    public long getBytes() {
+        synchronized (lock) {
+            return bytes;
+        }
+    }
+
+    private void acquire(long size) {
+        if (maxBytes <= 0) {
+            return;
+        }
+        synchronized (lock) {
+            while (bytes > 0 && bytes + size > maxBytes) {
+                if (cancelled != null && cancelled.getAsBoolean()) {
+                    throw new TaskCancelException("task is cancel");
+                }
+                try {
+                    lock.wait(cancelled != null ? RECHECK_MS : 0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TaskCancelException("task is interrupted");
+                }
+            }
+            bytes += size;
+        }
+    }
+
+    private void release(long size) {
+        if (size <= 0) {
+            return;
+        }
+        synchronized (lock) {
+            bytes -= size;
+            lock.notifyAll();
+        }
+    }
+
+    private static final class Batch {
+        private final Object[] items;
+        private final long bytes;
+
+        private Batch(Object[] items, long bytes) {
+            this.items = items;
+            this.bytes = bytes;
+        }
+    }
+}
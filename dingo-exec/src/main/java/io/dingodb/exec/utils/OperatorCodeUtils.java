@@ -40,6 +40,8 @@ public final class OperatorCodeUtils {
     public static final CommonId INFO_SCHEMA_SCAN = new CommonId(CommonId.CommonType.OP, SOURCE, 13);
     public static final CommonId TXN_PART_VECTOR = new CommonId(CommonId.CommonType.OP, SOURCE, 14);
     public static final CommonId CALC_DISTRIBUTION_1 = new CommonId(CommonId.CommonType.OP, SOURCE, 15);
+    public static final CommonId LOOSE_SCAN = new CommonId(CommonId.CommonType.OP, SOURCE, 16);
+    public static final CommonId TXN_LOOSE_SCAN = new CommonId(CommonId.CommonType.OP, SOURCE, 17);
 
     // op
     public static final CommonId PROJECT = new CommonId(CommonId.CommonType.OP, OP, 20);
@@ -98,6 +100,7 @@ public final class OperatorCodeUtils {
     public static final CommonId TXN_INDEX_RANGE_SCAN = new CommonId(CommonId.CommonType.OP, OP, 73);
 
     public static final CommonId OPTIMISTIC_ROLL_BACK = new CommonId(CommonId.CommonType.OP, OP, 74);
+    public static final CommonId VECTOR_TOP_K = new CommonId(CommonId.CommonType.OP, OP, 75);
 
     // sink
     public static final CommonId ROOT = new CommonId(CommonId.CommonType.OP, SINK, 80);
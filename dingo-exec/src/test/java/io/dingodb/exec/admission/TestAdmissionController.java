@@ -0,0 +1,209 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.admission;
+
+import com.google.common.collect.ImmutableMap;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.exec.base.Job;
+import io.dingodb.exec.base.Task;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.exception.AdmissionTimeoutException;
+import io.dingodb.exec.exception.TaskCancelException;
+import io.dingodb.exec.impl.JobIteratorImpl;
+import io.dingodb.exec.impl.JobManagerImpl;
+import io.dingodb.exec.operator.params.RootParam;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.dingodb.exec.utils.OperatorCodeUtils.ROOT;
+import static io.dingodb.exec.utils.OperatorCodeUtils.SORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestAdmissionController {
+    private static final AdmissionController CONTROLLER = AdmissionController.INSTANCE;
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @BeforeAll
+    public static void setupAll() {
+        ImmutableMap<String, Object> group = ImmutableMap.of("concurrency", 1, "queueTimeout", 10_000);
+        ResourceGroup.load(ImmutableMap.<String, Object>of(
+            "groups", ImmutableMap.builder()
+                .put("order", group)
+                .put("concurrency", ImmutableMap.of("concurrency", 2, "queueTimeout", 10_000))
+                .put("timeout", ImmutableMap.of("concurrency", 1, "queueTimeout", 200))
+                .put("interrupt", group)
+                .put("iterator", group)
+                .put("remove", group)
+                .build()
+        ));
+    }
+
+    private static Job job(String group, int priority) {
+        Vertex vertex = mock(Vertex.class);
+        when(vertex.getOp()).thenReturn(SORT);
+        Task task = mock(Task.class);
+        when(task.getVertexes()).thenReturn(ImmutableMap.of(new CommonId(CommonId.CommonType.OP, 1, 1), vertex));
+        Job job = mock(Job.class);
+        when(job.getJobId()).thenReturn(new CommonId(CommonId.CommonType.JOB, 3, SEQ.incrementAndGet()));
+        when(job.getTasks()).thenReturn(ImmutableMap.of(new CommonId(CommonId.CommonType.TASK, 1, 1), task));
+        when(job.getResourceGroup()).thenReturn(group);
+        when(job.getPriority()).thenReturn(priority);
+        return job;
+    }
+
+    private static int gauge(String name) {
+        return (Integer) DingoMetrics.metricRegistry.getGauges().get(name).getValue();
+    }
+
+    private static void awaitQueued(String group, int count) throws InterruptedException {
+        while (gauge("admission_queue_" + group) < count) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static Thread admitLater(Job job, String name, List<String> admitted) {
+        Thread thread = new Thread(() -> {
+            try (AdmissionController.Ticket ignored = CONTROLLER.admit(job)) {
+                admitted.add(name);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    public void testPointJob() {
+        Job job = job("order", 0);
+        when(job.getTasks()).thenReturn(Collections.emptyMap());
+        // The fast lane is not counted, so it does not block the next job.
+        CONTROLLER.admit(job);
+        CONTROLLER.admit(job("order", 0)).close();
+    }
+
+    @Test
+    public void testQueueOrder() throws InterruptedException {
+        List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+        AdmissionController.Ticket ticket = CONTROLLER.admit(job("order", 0));
+        Thread first = admitLater(job("order", 1), "first", admitted);
+        awaitQueued("order", 1);
+        Thread second = admitLater(job("order", 2), "second", admitted);
+        awaitQueued("order", 2);
+        Thread third = admitLater(job("order", 5), "third", admitted);
+        awaitQueued("order", 3);
+        Thread fourth = admitLater(job("order", 2), "fourth", admitted);
+        awaitQueued("order", 4);
+        ticket.close();
+        first.join();
+        second.join();
+        third.join();
+        fourth.join();
+        // By priority, then by arrival.
+        assertThat(admitted).containsExactly("third", "second", "fourth", "first");
+        assertThat(gauge("admission_running_order")).isZero();
+    }
+
+    @Test
+    public void testConcurrency() throws InterruptedException {
+        AdmissionController.Ticket ticket1 = CONTROLLER.admit(job("concurrency", 0));
+        AdmissionController.Ticket ticket2 = CONTROLLER.admit(job("concurrency", 0));
+        assertThat(gauge("admission_running_concurrency")).isEqualTo(2);
+        List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+        Thread thread = admitLater(job("concurrency", 0), "third", admitted);
+        awaitQueued("concurrency", 1);
+        assertThat(admitted).isEmpty();
+        ticket1.close();
+        thread.join();
+        assertThat(admitted).hasSize(1);
+        // Closing again does nothing.
+        ticket1.close();
+        assertThat(gauge("admission_running_concurrency")).isEqualTo(1);
+        ticket2.close();
+        assertThat(gauge("admission_running_concurrency")).isZero();
+    }
+
+    @Test
+    public void testTimeout() {
+        AdmissionController.Ticket ticket = CONTROLLER.admit(job("timeout", 0));
+        long start = System.currentTimeMillis();
+        assertThatThrownBy(() -> CONTROLLER.admit(job("timeout", 0)))
+            .isInstanceOf(AdmissionTimeoutException.class)
+            .hasMessageContaining("timeout");
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(200);
+        assertThat(gauge("admission_queue_timeout")).isZero();
+        ticket.close();
+        CONTROLLER.admit(job("timeout", 0)).close();
+    }
+
+    @Test
+    public void testInterrupt() throws InterruptedException {
+        AdmissionController.Ticket ticket = CONTROLLER.admit(job("interrupt", 0));
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                CONTROLLER.admit(job("interrupt", 0));
+            } catch (Throwable e) {
+                error.set(e);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        thread.start();
+        awaitQueued("interrupt", 1);
+        thread.interrupt();
+        thread.join();
+        assertThat(error.get()).isInstanceOf(TaskCancelException.class);
+        assertThat(interrupted.get()).isTrue();
+        ticket.close();
+        assertThat(gauge("admission_running_interrupt")).isZero();
+    }
+
+    @Test
+    public void testReleaseOnIteratorError() {
+        Job job = job("iterator", 0);
+        AdmissionController.Ticket ticket = CONTROLLER.admit(job);
+        RootParam param = mock(RootParam.class);
+        when(param.forceTake()).thenThrow(new IllegalStateException("error"));
+        assertThatThrownBy(() -> new JobIteratorImpl(job, new Vertex(ROOT, param), ticket))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(gauge("admission_running_iterator")).isZero();
+    }
+
+    @Test
+    public void testReleaseOnRemoveJob() {
+        Job job = job("remove", 0);
+        CONTROLLER.admit(job);
+        assertThat(gauge("admission_running_remove")).isEqualTo(1);
+        JobManagerImpl.INSTANCE.removeJob(job.getJobId());
+        assertThat(gauge("admission_running_remove")).isZero();
+        // The next run of the same job is admitted after the previous one.
+        CONTROLLER.admit(job);
+        CONTROLLER.admit(job);
+        assertThat(gauge("admission_running_remove")).isEqualTo(1);
+        CONTROLLER.release(job.getJobId());
+        assertThat(gauge("admission_running_remove")).isZero();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.admission;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestResourceGroup {
+    @Test
+    public void testResolve() {
+        ResourceGroup.load(ImmutableMap.<String, Object>of(
+            "groups", ImmutableMap.of(
+                "analytics", ImmutableMap.of("concurrency", 4, "memory", "1048576", "priority", -1)
+            ),
+            "users", ImmutableMap.of("report", "analytics")
+        ));
+        ResourceGroup group = ResourceGroup.of("analytics");
+        assertThat(group.getConcurrency()).isEqualTo(4);
+        assertThat(group.getMemory()).isEqualTo(1048576L);
+        assertThat(group.getPriority()).isEqualTo(-1);
+        assertThat(group.getQueueTimeout()).isEqualTo(ResourceGroup.DEFAULT_QUEUE_TIMEOUT);
+        assertThat(ResourceGroup.resolve(null, "report")).isEqualTo("analytics");
+        assertThat(ResourceGroup.resolve("", "root")).isEqualTo(ResourceGroup.DEFAULT);
+        assertThat(ResourceGroup.resolve("unknown", "report")).isEqualTo(ResourceGroup.DEFAULT);
+        assertThat(ResourceGroup.resolve("analytics", "root")).isEqualTo("analytics");
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.aggregate;
+
+import io.dingodb.common.type.TupleMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestSortedAggCache {
+    @Test
+    public void testGroups() {
+        SortedAggCache cache = new SortedAggCache(TupleMapping.of(new int[]{0}), Collections.singletonList(
+            new CountAllAgg()
+        ));
+        List<Object[]> results = new ArrayList<>();
+        Object[][] tuples = {{1, "a"}, {1, "b"}, {2, "c"}, {3, "d"}, {3, "e"}, {3, "f"}};
+        for (Object[] tuple : tuples) {
+            Object[] result = cache.addTuple(tuple);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        assertThat(results).containsExactly(new Object[]{1, 2L}, new Object[]{2, 1L});
+        assertThat(cache.finish()).isEqualTo(new Object[]{3, 3L});
+        assertThat(cache.finish()).isNull();
+    }
+}
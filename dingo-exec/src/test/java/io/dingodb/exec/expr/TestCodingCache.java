@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.expr;
+
+import io.dingodb.common.CoprocessorV2;
+import io.dingodb.common.type.DingoTypeFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestCodingCache {
+    @Test
+    public void testKeyWithBytes() {
+        assertThat(CodingCache.key(new byte[]{1, 2}, "a", 1))
+            .isEqualTo(CodingCache.key(new byte[]{1, 2}, "a", 1))
+            .isNotEqualTo(CodingCache.key(new byte[]{1, 3}, "a", 1));
+        assertThat(CodingCache.key(new byte[]{1, 2}, "a").hashCode())
+            .isEqualTo(CodingCache.key(new byte[]{1, 2}, "a").hashCode());
+    }
+
+    @Test
+    public void testCoprocessorBuiltOnce() {
+        AtomicInteger builds = new AtomicInteger();
+        CoprocessorV2 built = CoprocessorV2.builder().relExpr(new byte[]{1}).build();
+        for (int i = 0; i < 3; i++) {
+            CoprocessorV2 coprocessor = CodingCache.getCoprocessor(
+                CodingCache.key("testCoprocessorBuiltOnce", DingoTypeFactory.INSTANCE.tuple("INT")),
+                () -> {
+                    builds.incrementAndGet();
+                    return built;
+                }
+            );
+            assertThat(coprocessor).isSameAs(built);
+        }
+        assertThat(builds).hasValue(1);
+        // Different parameter types are different keys.
+        CodingCache.getCoprocessor(
+            CodingCache.key("testCoprocessorBuiltOnce", DingoTypeFactory.INSTANCE.tuple("STRING")),
+            () -> {
+                builds.incrementAndGet();
+                return built;
+            }
+        );
+        assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    public void testNullNotCached() {
+        AtomicInteger builds = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            assertThat(CodingCache.getCoprocessor(CodingCache.key("testNullNotCached"), () -> {
+                builds.incrementAndGet();
+                return null;
+            })).isNull();
+        }
+        assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    public void testExpr() {
+        SqlExpr expr = new SqlExpr("_[0] + 1", DingoTypeFactory.INSTANCE.scalar("INT"));
+        byte[] code = expr.getCoding(DingoTypeFactory.INSTANCE.tuple("INT"), DingoTypeFactory.INSTANCE.tuple());
+        assertThat(code).isNotNull();
+        assertThat(CodingCache.getExpr(CodingCache.key(
+            "_[0] + 1", DingoTypeFactory.INSTANCE.tuple("INT"), DingoTypeFactory.INSTANCE.tuple()
+        ))).isEqualTo(code);
+        // A new expr of the same text gets the cached code.
+        SqlExpr other = new SqlExpr("_[0] + 1", DingoTypeFactory.INSTANCE.scalar("INT"));
+        assertThat(other.getCoding(DingoTypeFactory.INSTANCE.tuple("INT"), DingoTypeFactory.INSTANCE.tuple()))
+            .isSameAs(code);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.impl;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.Location;
+import io.dingodb.common.type.DingoType;
+import io.dingodb.common.type.DingoTypeFactory;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.base.Task;
+import io.dingodb.exec.impl.message.RunTaskBatchMessage;
+import io.dingodb.exec.impl.message.TaskMessage;
+import io.dingodb.exec.transaction.base.TransactionType;
+import io.dingodb.exec.transaction.impl.TransactionManager;
+import io.dingodb.net.Channel;
+import io.dingodb.net.Message;
+import io.dingodb.store.api.transaction.data.IsolationLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestJobManagerImpl {
+    private static final DingoType PARAS_TYPE = DingoTypeFactory.INSTANCE.tuple("INT", "STRING");
+
+    @AfterEach
+    public void tearDown() {
+        reset(Services.NET);
+    }
+
+    private static RunTaskBatchMessage decode(Message message) throws Exception {
+        TaskMessage taskMessage = TaskMessage.fromBytes(message.content());
+        assertThat(taskMessage).isInstanceOf(RunTaskBatchMessage.class);
+        return (RunTaskBatchMessage) taskMessage;
+    }
+
+    @Test
+    public void testRunAgain() throws Exception {
+        Location location = new Location("remote", 41001);
+        Channel channel = mock(Channel.class);
+        when(Services.NET.newChannel(location)).thenReturn(channel);
+        CommonId jobId = new CommonId(CommonId.CommonType.JOB, 41, 1);
+        CommonId txnId = new CommonId(CommonId.CommonType.TRANSACTION, 41, 1);
+        JobImpl job = new JobImpl(jobId, txnId, PARAS_TYPE, 0, null);
+        CommonId taskId0 = new CommonId(CommonId.CommonType.TASK, 41, 1);
+        CommonId taskId1 = new CommonId(CommonId.CommonType.TASK, 41, 2);
+        job.create(taskId0, location, TransactionType.OPTIMISTIC, IsolationLevel.SnapshotIsolation);
+        job.create(taskId1, location, TransactionType.OPTIMISTIC, IsolationLevel.SnapshotIsolation);
+
+        JobManagerImpl.INSTANCE.run(job, new Object[]{1, "Alice"}, true);
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(channel).send(captor.capture());
+        RunTaskBatchMessage first = decode(captor.getValue());
+        assertThat(first.getJobId()).isEqualTo(jobId);
+        assertThat(first.getTxnId()).isEqualTo(txnId);
+        assertThat(first.getTaskIds()).containsExactlyInAnyOrder(taskId0, taskId1);
+        assertThat(first.getTasks()).extracting(Task::getId).containsExactlyElementsOf(first.getTaskIds());
+        assertThat(first.getParas()).containsExactly(1, "Alice");
+
+        // Run the job again in another transaction, the tasks at the location are not sent again.
+        CommonId newTxnId = new CommonId(CommonId.CommonType.TRANSACTION, 41, 2);
+        job.setTxnId(newTxnId);
+        JobManagerImpl.INSTANCE.run(job, new Object[]{2, "Betty"}, false);
+        verify(channel, times(2)).send(captor.capture());
+        RunTaskBatchMessage second = decode(captor.getValue());
+        assertThat(second.getJobId()).isEqualTo(jobId);
+        assertThat(second.getTxnId()).isEqualTo(newTxnId);
+        assertThat(second.getTaskIds()).containsExactlyElementsOf(first.getTaskIds());
+        assertThat(second.getTasks()).isNull();
+        assertThat(second.getParas()).containsExactly(2, "Betty");
+    }
+
+    @Test
+    public void testRunAgainFailed() {
+        Location location = new Location("remote", 41002);
+        Channel channel = mock(Channel.class);
+        when(Services.NET.newChannel(location)).thenReturn(channel);
+        CommonId jobId = new CommonId(CommonId.CommonType.JOB, 41, 2);
+        JobImpl job = new JobImpl(jobId, new CommonId(CommonId.CommonType.TRANSACTION, 41, 3), PARAS_TYPE, 0, null);
+        job.create(
+            new CommonId(CommonId.CommonType.TASK, 41, 3), location,
+            TransactionType.OPTIMISTIC, IsolationLevel.SnapshotIsolation
+        );
+        IllegalStateException exception = new IllegalStateException("closed");
+        doThrow(exception).when(channel).send(any(Message.class));
+        // The error of a later run is thrown as is.
+        assertThatThrownBy(
+            () -> JobManagerImpl.INSTANCE.run(job, null, false)
+        ).isSameAs(exception);
+    }
+
+    @Test
+    public void testProcessRunAgain() {
+        CommonId jobId = new CommonId(CommonId.CommonType.JOB, 41, 3);
+        CommonId txnId = new CommonId(CommonId.CommonType.TRANSACTION, 41, 4);
+        CommonId taskId = new CommonId(CommonId.CommonType.TASK, 41, 4);
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(taskId);
+        when(task.getJobId()).thenReturn(jobId);
+        when(task.getTxnId()).thenReturn(txnId);
+        when(task.getTransactionType()).thenReturn(TransactionType.OPTIMISTIC);
+        when(task.getIsolationLevel()).thenReturn(IsolationLevel.SnapshotIsolation);
+        JobManagerImpl.INSTANCE.getTaskManager().addTask(task);
+        List<CommonId> taskIds = Collections.singletonList(taskId);
+        ArgumentCaptor<Object[]> paras = ArgumentCaptor.forClass(Object[].class);
+
+        // Run in the transaction the task was created in.
+        JobManagerImpl.INSTANCE.processMessage(new Message(JobManagerImpl.TASK_TAG, new RunTaskBatchMessage(
+            jobId, txnId, taskIds, null, PARAS_TYPE, new Object[]{1, "Alice"}
+        ).toBytes()));
+        verify(task).run(paras.capture());
+        assertThat(paras.getValue()).containsExactly(1, "Alice");
+        verify(task, never()).setTxnId(any());
+        verify(task, never()).setBathTask(true);
+
+        // Run again in another transaction, the task is bound to it.
+        CommonId newTxnId = new CommonId(CommonId.CommonType.TRANSACTION, 41, 5);
+        try {
+            JobManagerImpl.INSTANCE.processMessage(new Message(JobManagerImpl.TASK_TAG, new RunTaskBatchMessage(
+                jobId, newTxnId, taskIds, null, PARAS_TYPE, new Object[]{2, "Betty"}
+            ).toBytes()));
+            assertThat(TransactionManager.getTransaction(newTxnId)).isNotNull();
+            verify(task).setTxnId(newTxnId);
+            verify(task).setBathTask(true);
+            verify(task, times(2)).run(paras.capture());
+            assertThat(paras.getValue()).containsExactly(2, "Betty");
+        } finally {
+            TransactionManager.unregister(newTxnId);
+            JobManagerImpl.INSTANCE.getTaskManager().removeTask(jobId, taskId);
+        }
+    }
+}
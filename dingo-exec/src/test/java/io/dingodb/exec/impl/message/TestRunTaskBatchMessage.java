@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.impl.message;
+
+import com.google.common.collect.ImmutableList;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.Location;
+import io.dingodb.common.type.DingoType;
+import io.dingodb.common.type.DingoTypeFactory;
+import io.dingodb.exec.OperatorFactory;
+import io.dingodb.exec.base.Task;
+import io.dingodb.exec.dag.Edge;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.impl.IdGeneratorImpl;
+import io.dingodb.exec.impl.TaskImpl;
+import io.dingodb.exec.operator.RootOperator;
+import io.dingodb.exec.operator.params.RootParam;
+import io.dingodb.exec.operator.params.ValuesParam;
+import io.dingodb.exec.transaction.base.TransactionType;
+import io.dingodb.store.api.transaction.data.IsolationLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static io.dingodb.exec.utils.OperatorCodeUtils.ROOT;
+import static io.dingodb.exec.utils.OperatorCodeUtils.VALUES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestRunTaskBatchMessage {
+    private static final CommonId JOB = new CommonId(CommonId.CommonType.JOB, 41, 1);
+    private static final CommonId TXN = new CommonId(CommonId.CommonType.TRANSACTION, 41, 1);
+    private static final CommonId TASK = new CommonId(CommonId.CommonType.TASK, 41, 1);
+    private static final DingoType PARAS_TYPE = DingoTypeFactory.INSTANCE.tuple("INT", "STRING");
+
+    private static Task task() {
+        Task task = new TaskImpl(TASK, JOB, TXN, new Location("localhost", 8765), PARAS_TYPE,
+            TransactionType.OPTIMISTIC, IsolationLevel.SnapshotIsolation, 0, null);
+        ValuesParam param = new ValuesParam(
+            ImmutableList.of(
+                new Object[]{1, "Alice"},
+                new Object[]{2, "Betty"}
+            ),
+            DingoTypeFactory.INSTANCE.tuple("INT", "STRING")
+        );
+        Vertex values = new Vertex(VALUES, param);
+        IdGeneratorImpl idGenerator = new IdGeneratorImpl(JOB.seq);
+        values.setId(idGenerator.getOperatorId(TASK.seq));
+        task.putVertex(values);
+        RootParam rootParam = new RootParam(DingoTypeFactory.INSTANCE.tuple("INT", "STRING"), null);
+        Vertex root = new Vertex(ROOT, rootParam);
+        CommonId id = idGenerator.getOperatorId(TASK.seq);
+        root.setId(id);
+        task.putVertex(root);
+        task.markRoot(id);
+        Edge edge = new Edge(values, root);
+        values.addEdge(edge);
+        root.addIn(edge);
+        return task;
+    }
+
+    private static RunTaskBatchMessage roundTrip(RunTaskBatchMessage message) throws Exception {
+        TaskMessage decoded = TaskMessage.fromBytes(message.toBytes());
+        assertThat(decoded).isInstanceOf(RunTaskBatchMessage.class);
+        return (RunTaskBatchMessage) decoded;
+    }
+
+    @Test
+    public void testCreate() throws Exception {
+        Task task = task();
+        RunTaskBatchMessage message = roundTrip(new RunTaskBatchMessage(
+            Collections.singletonList(task), true, PARAS_TYPE, new Object[]{1, "Alice"}
+        ));
+        assertThat(message.getJobId()).isEqualTo(JOB);
+        assertThat(message.getTxnId()).isEqualTo(TXN);
+        assertThat(message.getTaskIds()).containsExactly(TASK);
+        assertThat(message.getParas()).containsExactly(1, "Alice");
+        assertThat(message.getTasks()).hasSize(1);
+        Task decoded = message.getTasks().get(0);
+        assertThat(decoded.getId()).isEqualTo(TASK);
+        assertThat(decoded.getJobId()).isEqualTo(JOB);
+        assertThat(decoded.getTxnId()).isEqualTo(TXN);
+        assertThat(decoded.getLocation()).isEqualTo(task.getLocation());
+        assertThat(decoded.getVertexes()).containsOnlyKeys(task.getVertexes().keySet());
+        // The decoded task must be runnable.
+        decoded.init();
+        decoded.run(message.getParas());
+        Vertex root = decoded.getRoot();
+        RootOperator rootOperator = (RootOperator) OperatorFactory.getInstance(root.getOp());
+        assertThat(rootOperator.popValue(root)).containsExactly(1, "Alice");
+        assertThat(rootOperator.popValue(root)).containsExactly(2, "Betty");
+        assertThat(rootOperator.popValue(root)).isSameAs(RootOperator.FIN);
+    }
+
+    @Test
+    public void testRunAgain() throws Exception {
+        Task task = task();
+        CommonId txnId = new CommonId(CommonId.CommonType.TRANSACTION, 41, 2);
+        task.setTxnId(txnId);
+        RunTaskBatchMessage message = roundTrip(new RunTaskBatchMessage(
+            Collections.singletonList(task), false, PARAS_TYPE, new Object[]{2, "Betty"}
+        ));
+        assertThat(message.getJobId()).isEqualTo(JOB);
+        assertThat(message.getTxnId()).isEqualTo(txnId);
+        assertThat(message.getTaskIds()).containsExactly(TASK);
+        assertThat(message.getTasks()).isNull();
+        assertThat(message.getParas()).containsExactly(2, "Betty");
+    }
+
+    @Test
+    public void testWithoutParas() throws Exception {
+        RunTaskBatchMessage message = roundTrip(new RunTaskBatchMessage(
+            Collections.singletonList(task()), false, PARAS_TYPE, null
+        ));
+        assertThat(message.getTaskIds()).containsExactly(TASK);
+        assertThat(message.getParas()).isNull();
+    }
+}
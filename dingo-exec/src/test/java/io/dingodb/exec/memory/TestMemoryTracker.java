@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.memory;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.exec.exception.MemoryLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestMemoryTracker {
+    @Test
+    public void testJobLimit() {
+        CommonId jobId = new CommonId(CommonId.CommonType.JOB, 1, 1);
+        CommonId txnId = new CommonId(CommonId.CommonType.TRANSACTION, 1, 1);
+        long processUsage = MemoryTracker.PROCESS.getUsage();
+        MemoryTracker job = MemoryTracker.acquireJob(jobId, txnId, 100_000);
+        MemoryTracker operator = job.child("task").child("sort");
+        operator.consume(50_000);
+        assertThat(operator.getUsage()).isEqualTo(50_000);
+        assertThat(MemoryTracker.getTxnUsage(txnId)).isBetween(50_000L, 100_000L);
+        assertThatThrownBy(() -> operator.consume(60_000))
+            .isInstanceOf(MemoryLimitExceededException.class)
+            .hasMessageContaining("job");
+        assertThat(operator.getUsage()).isEqualTo(50_000);
+        operator.release(50_000);
+        assertThat(operator.getUsage()).isZero();
+        MemoryTracker.releaseJob(jobId);
+        assertThat(MemoryTracker.getTxnUsage(txnId)).isZero();
+        assertThat(MemoryTracker.PROCESS.getUsage()).isEqualTo(processUsage);
+    }
+
+    @Test
+    public void testEstimate() {
+        assertThat(MemoryTracker.estimate(null)).isZero();
+        assertThat(MemoryTracker.estimate(new Object[]{1, "abc", null}))
+            .isGreaterThan(MemoryTracker.estimate(new Object[]{1, null, null}));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.dingodb.codec.KeyValueCodec;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.partition.RangeDistribution;
+import io.dingodb.common.type.TupleMapping;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.LooseScanParam;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static io.dingodb.exec.utils.OperatorCodeUtils.LOOSE_SCAN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestLooseScanOperator {
+    private static final CommonId PART_ID = new CommonId(CommonId.CommonType.PARTITION, 1, 1);
+
+    // Rows of key (a, b), ordered by the key.
+    private static final List<Object[]> ROWS = ImmutableList.of(
+        new Object[]{1, 1},
+        new Object[]{1, 2},
+        new Object[]{2, 5},
+        new Object[]{3, 0},
+        new Object[]{3, 9}
+    );
+
+    private final List<RangeDistribution> seeks = new ArrayList<>();
+    private KeyValueCodec codec;
+
+    // The key is the header followed by the int columns, so the prefix of a key is the prefix of the bytes.
+    private static byte @NonNull [] encode(Object @NonNull [] tuple, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(ByteArrayUtils.SKIP_LONG_POS + 4 * count);
+        buffer.put((byte) 'r');
+        buffer.putLong(0);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt((Integer) tuple[i]);
+        }
+        return buffer.array();
+    }
+
+    private static boolean inRange(byte[] key, @NonNull RangeDistribution range) {
+        int start = ByteArrayUtils.compare(key, range.getStartKey());
+        if (start < 0 || (start == 0 && !range.isWithStart())) {
+            return false;
+        }
+        if (range.getEndKey() == null) {
+            return true;
+        }
+        int end = ByteArrayUtils.compare(key, range.getEndKey());
+        return end < 0 || (end == 0 && range.isWithEnd());
+    }
+
+    @BeforeEach
+    public void setup() {
+        seeks.clear();
+        codec = mock(KeyValueCodec.class);
+        when(codec.encodeKeyPrefix(any(), anyInt()))
+            .thenAnswer(invocation -> encode(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    private @NonNull List<Object[]> looseScan(int prefixCount, byte[] endKey) {
+        LooseScanParam param = mock(LooseScanParam.class);
+        when(param.getCodec()).thenReturn(codec);
+        when(param.getPrefixCount()).thenReturn(prefixCount);
+        when(param.getSelection()).thenReturn(TupleMapping.of(new int[]{0, 1}));
+        Vertex vertex = new Vertex(LOOSE_SCAN, param);
+        LooseScanOperator operator = new LooseScanOperator() {
+            @Override
+            protected Object @Nullable [] seek(@NonNull Vertex vertex, @NonNull RangeDistribution range) {
+                seeks.add(range);
+                for (Object[] row : ROWS) {
+                    if (inRange(encode(row, 2), range)) {
+                        return row;
+                    }
+                }
+                return null;
+            }
+        };
+        Context context = Context.builder()
+            .distribution(RangeDistribution.builder()
+                .id(PART_ID)
+                .startKey(encode(new Object[0], 0))
+                .endKey(endKey)
+                .withStart(true)
+                .withEnd(false)
+                .build())
+            .build();
+        List<Object[]> result = new ArrayList<>();
+        operator.createIterator(context, vertex).forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    public void testSeekPrefixes() {
+        List<Object[]> result = looseScan(1, null);
+        assertThat(result).containsExactly(new Object[]{1, 1}, new Object[]{2, 5}, new Object[]{3, 0});
+        // One seek for every prefix, and the last one finds the region exhausted.
+        assertThat(seeks).hasSize(4);
+        assertThat(seeks.get(1).getStartKey()).isEqualTo(encode(new Object[]{2}, 1));
+        assertThat(seeks.get(1).isWithStart()).isTrue();
+        assertThat(seeks.get(3).getStartKey()).isEqualTo(encode(new Object[]{4}, 1));
+    }
+
+    @Test
+    public void testSeekStopsAtRegionEnd() {
+        List<Object[]> result = looseScan(1, encode(new Object[]{3}, 1));
+        assertThat(result).containsExactly(new Object[]{1, 1}, new Object[]{2, 5});
+        // The next prefix is the end of the region, so no seek is made for it.
+        assertThat(seeks).hasSize(2);
+    }
+
+    @Test
+    public void testSeekWithoutPrefix() {
+        List<Object[]> result = looseScan(0, null);
+        assertThat(result).containsExactly(new Object[]{1, 1});
+        assertThat(seeks).hasSize(1);
+    }
+
+    @Test
+    public void testFirstOfPrefixes() {
+        Iterator<Object[]> iterator = LooseScanOperator.firstOfPrefixes(ROWS.iterator(), codec, 1);
+        List<Object[]> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        assertThat(result).containsExactly(new Object[]{1, 1}, new Object[]{2, 5}, new Object[]{3, 0});
+    }
+
+    @Test
+    public void testFirstOfPrefixesWithoutPrefix() {
+        Iterator<Object[]> iterator = LooseScanOperator.firstOfPrefixes(ROWS.iterator(), codec, 0);
+        List<Object[]> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        assertThat(result).containsExactly(new Object[]{1, 1});
+    }
+
+    @Test
+    public void testNextPrefix() {
+        byte[] prefix = encode(new Object[]{0x01FF}, 1);
+        // The trailing 0xFF is dropped, for all the keys after the prefix begin with 0x02.
+        byte[] next = encode(new Object[]{0x0200}, 1);
+        assertThat(LooseScanOperator.nextPrefix(prefix)).isEqualTo(Arrays.copyOf(next, next.length - 1));
+        byte[] last = encode(new Object[]{0x01FFFFFF}, 1);
+        last[ByteArrayUtils.SKIP_LONG_POS] = (byte) 0xFF;
+        assertThat(LooseScanOperator.nextPrefix(last)).isNull();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.base.Status;
+import io.dingodb.exec.base.Task;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.exception.TaskCancelException;
+import io.dingodb.exec.operator.data.PessimisticLockKey;
+import io.dingodb.exec.operator.params.TxnPartModifyParam;
+import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.transaction.data.IsolationLevel;
+import io.dingodb.store.api.transaction.data.rollback.TxnPessimisticRollBack;
+import io.dingodb.store.api.transaction.exception.LockWaitException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestPessimisticLockBatch {
+    private static final CommonId TABLE = new CommonId(CommonId.CommonType.TABLE, 1, 1);
+    private static final CommonId INDEX = new CommonId(CommonId.CommonType.INDEX, 1, 2);
+    private static final CommonId TXN = new CommonId(CommonId.CommonType.TRANSACTION, 1, 1);
+
+    @AfterEach
+    public void tearDown() {
+        reset(Services.KV_STORE, Services.LOCAL_STORE);
+    }
+
+    private static CommonId part(long seq) {
+        return new CommonId(CommonId.CommonType.PARTITION, 1, seq);
+    }
+
+    private static PessimisticLockKey key(CommonId tableId, CommonId partId, int key) {
+        return PessimisticLockKey.builder()
+            .tableId(tableId)
+            .partId(partId)
+            .key(new byte[]{(byte) key})
+            .deadLockKey(new byte[]{(byte) -key})
+            .build();
+    }
+
+    private static Vertex vertex(Integer... statuses) {
+        Task task = mock(Task.class);
+        when(task.getTxnId()).thenReturn(TXN);
+        when(task.getJobId()).thenReturn(new CommonId(CommonId.CommonType.JOB, 1, 100));
+        when(task.getStatus()).thenReturn(Status.RUNNING, statuses);
+        Vertex vertex = mock(Vertex.class);
+        when(vertex.getTask()).thenReturn(task);
+        return vertex;
+    }
+
+    private static TxnPartModifyParam param() {
+        TxnPartModifyParam param = mock(TxnPartModifyParam.class);
+        when(param.getPrimaryLockKey()).thenReturn(new byte[CommonId.TYPE_LEN + CommonId.LEN * 3 + 4]);
+        when(param.getStartTs()).thenReturn(10L);
+        when(param.getIsolationLevel()).thenReturn(IsolationLevel.SnapshotIsolation.getCode());
+        when(param.getLockTimeOut()).thenReturn(1000L);
+        return param;
+    }
+
+    private static StoreInstance region(CommonId regionId) {
+        StoreInstance store = mock(StoreInstance.class);
+        when(Services.KV_STORE.getInstance(TABLE, regionId)).thenReturn(store);
+        when(store.txnPessimisticLock(any(), anyLong(), anyBoolean())).thenReturn(true);
+        when(store.txnPessimisticLockRollback(any(TxnPessimisticRollBack.class))).thenReturn(true);
+        return store;
+    }
+
+    private static StoreInstance localStore() {
+        StoreInstance local = mock(StoreInstance.class);
+        when(Services.LOCAL_STORE.getInstance(any(), any())).thenReturn(local);
+        return local;
+    }
+
+    private static List<byte[]> rolledBack(StoreInstance store) {
+        ArgumentCaptor<TxnPessimisticRollBack> captor = ArgumentCaptor.forClass(TxnPessimisticRollBack.class);
+        verify(store).txnPessimisticLockRollback(captor.capture());
+        return captor.getValue().getKeys();
+    }
+
+    @Test
+    public void testGroupByRegion() {
+        PessimisticLockKey k1 = key(TABLE, part(1), 1);
+        PessimisticLockKey k2 = key(TABLE, part(2), 2);
+        PessimisticLockKey k3 = key(INDEX, part(1), 3);
+        PessimisticLockKey k4 = key(TABLE, part(1), 4);
+        List<List<PessimisticLockKey>> regions = PessimisticLockBatch.groupByRegion(Arrays.asList(k1, k2, k3, k4));
+        assertThat(regions).hasSize(3);
+        assertThat(regions.get(0)).containsExactly(k1, k4);
+        assertThat(regions.get(1)).containsExactly(k2);
+        assertThat(regions.get(2)).containsExactly(k3);
+    }
+
+    @Test
+    public void testSplitByRegion() {
+        PessimisticLockKey k1 = key(TABLE, part(1), 1);
+        PessimisticLockKey k2 = key(TABLE, part(1), 2);
+        PessimisticLockKey k3 = key(TABLE, part(1), 3);
+        CommonId region1 = part(11);
+        CommonId region2 = part(12);
+        Map<CommonId, List<byte[]>> partMap = new LinkedHashMap<>();
+        partMap.put(region1, Arrays.asList(k1.getKey(), k3.getKey()));
+        partMap.put(region2, Arrays.asList(k2.getKey()));
+        List<List<PessimisticLockKey>> regions = PessimisticLockBatch.splitByRegion(Arrays.asList(k1, k2, k3), partMap);
+        assertThat(regions).hasSize(2);
+        assertThat(regions.get(0)).containsExactly(k1, k3);
+        assertThat(regions.get(1)).containsExactly(k2);
+        assertThat(k1.getRegionId()).isEqualTo(region1);
+        assertThat(k2.getRegionId()).isEqualTo(region2);
+        // The partition of the key is kept for the lock extra data and the local store.
+        assertThat(k2.getPartId()).isEqualTo(part(1));
+        assertThat(PessimisticLockBatch.groupByRegion(Arrays.asList(k1, k2, k3))).containsExactly(
+            Arrays.asList(k1, k3), Arrays.asList(k2)
+        );
+    }
+
+    @Test
+    public void testLock() {
+        StoreInstance region1 = region(part(1));
+        StoreInstance region2 = region(part(2));
+        StoreInstance local = localStore();
+        PessimisticLockKey k1 = key(TABLE, part(1), 1);
+        PessimisticLockKey k2 = key(TABLE, part(2), 2);
+        assertThat(PessimisticLockBatch.lock(vertex(), param(), false, Arrays.asList(k1, k2))).isTrue();
+        verify(region1).txnPessimisticLock(any(), anyLong(), anyBoolean());
+        verify(region2).txnPessimisticLock(any(), anyLong(), anyBoolean());
+        verify(region1, never()).txnPessimisticLockRollback(any(TxnPessimisticRollBack.class));
+        verify(local).delete(k1.getDeadLockKey());
+        verify(local).delete(k2.getDeadLockKey());
+    }
+
+    @Test
+    public void testLockConflict() {
+        StoreInstance region1 = region(part(1));
+        StoreInstance region2 = region(part(2));
+        when(region2.txnPessimisticLock(any(), anyLong(), anyBoolean())).thenThrow(new LockWaitException("conflict"));
+        StoreInstance local = localStore();
+        PessimisticLockKey k1 = key(TABLE, part(1), 1);
+        PessimisticLockKey k2 = key(TABLE, part(2), 2);
+        PessimisticLockKey k3 = key(TABLE, part(1), 3);
+        assertThatThrownBy(() -> PessimisticLockBatch.lock(vertex(), param(), false, Arrays.asList(k1, k2, k3)))
+            .isInstanceOf(LockWaitException.class)
+            .hasMessage("conflict");
+        // The keys already locked are unlocked again.
+        assertThat(rolledBack(region1)).containsExactly(k1.getKey(), k3.getKey());
+        assertThat(rolledBack(region2)).containsExactly(k2.getKey());
+        verify(local).delete(k1.getDeadLockKey());
+        verify(local).delete(k2.getDeadLockKey());
+        verify(local).delete(k3.getDeadLockKey());
+    }
+
+    @Test
+    public void testLockCanceled() {
+        StoreInstance region1 = region(part(1));
+        localStore();
+        PessimisticLockKey k1 = key(TABLE, part(1), 1);
+        // Canceled while the keys are locked.
+        Vertex vertex = vertex(Status.RUNNING, Status.CANCEL);
+        assertThatThrownBy(() -> PessimisticLockBatch.lock(vertex, param(), false, Arrays.asList(k1)))
+            .isExactlyInstanceOf(TaskCancelException.class);
+        assertThat(rolledBack(region1)).containsExactly(k1.getKey());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.exec.base.Task;
+import io.dingodb.exec.dag.Edge;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.exception.MemoryLimitExceededException;
+import io.dingodb.exec.memory.MemoryTracker;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.SortParam;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static io.dingodb.exec.utils.OperatorCodeUtils.SORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestSortOperator {
+    @Test
+    public void testMemoryLimit() {
+        CommonId jobId = new CommonId(CommonId.CommonType.JOB, 2, 1);
+        long processUsage = MemoryTracker.PROCESS.getUsage();
+        MemoryTracker taskTracker = MemoryTracker.acquireJob(jobId, null, 100_000).child("task");
+        Task task = mock(Task.class);
+        when(task.getMemoryTracker()).thenReturn(taskTracker);
+        Vertex vertex = new Vertex(SORT, new SortParam(Collections.emptyList(), -1, 0));
+        vertex.setTask(task);
+        vertex.addEdge(mock(Edge.class));
+        vertex.init();
+        Context context = Context.builder().keyState(new ArrayList<>()).build();
+        String value = String.join("", Collections.nCopies(1000, "a"));
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 1000; ++i) {
+                SortOperator.INSTANCE.push(context, new Object[]{i, value}, vertex);
+            }
+        }).isInstanceOf(MemoryLimitExceededException.class)
+            .hasMessageContaining("job");
+        SortParam param = vertex.getParam();
+        assertThat(param.getCache()).isNotEmpty();
+        // The task is destroyed before the operator is cleared.
+        taskTracker.close();
+        MemoryTracker.releaseJob(jobId);
+        param.clear();
+        assertThat(taskTracker.getUsage()).isZero();
+        assertThat(MemoryTracker.PROCESS.getUsage()).isEqualTo(processUsage);
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dingodb.exec.operator;
+
+import io.dingodb.codec.KeyValueCodec;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.partition.RangeDistribution;
+import io.dingodb.common.profile.OperatorProfile;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.type.TupleMapping;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.base.Task;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.TxnGetByIndexParam;
+import io.dingodb.exec.utils.ByteUtils;
+import io.dingodb.meta.entity.Column;
+import io.dingodb.meta.entity.Table;
+import io.dingodb.meta.local.LocalMetaService;
+import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.transaction.data.Op;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestTxnGetByIndexOperator {
+    private static final CommonId TABLE = new CommonId(CommonId.CommonType.TABLE, 39, 1);
+    private static final CommonId INDEX = new CommonId(CommonId.CommonType.INDEX, 39, 2);
+    private static final CommonId TXN = new CommonId(CommonId.CommonType.TRANSACTION, 1, 39);
+    // the table has two regions, split at id 150
+    private static final CommonId REGION1 = new CommonId(CommonId.CommonType.DISTRIBUTION, TABLE.seq, 1);
+    private static final CommonId REGION2 = new CommonId(CommonId.CommonType.DISTRIBUTION, TABLE.seq, 2);
+    private static final int SPLIT = 150;
+
+    private final NavigableMap<byte[], byte[]> local = new TreeMap<>(ByteArrayUtils::compare);
+
+    @BeforeAll
+    public static void setupAll() {
+        LocalMetaService.ROOT.addRangeDistributions(TABLE, ByteArrayUtils.EMPTY_BYTES, key(SPLIT));
+        LocalMetaService.ROOT.addRangeDistributions(TABLE, key(SPLIT), ByteArrayUtils.MAX);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        reset(Services.KV_STORE, Services.LOCAL_STORE);
+    }
+
+    private static byte[] key(int id) {
+        return new byte[]{'t', (byte) (id >> 8), (byte) id, 0, 0};
+    }
+
+    private static int id(byte[] key) {
+        return ((key[1] & 0xFF) << 8) | (key[2] & 0xFF);
+    }
+
+    private static CommonId region(int id) {
+        return id < SPLIT ? REGION1 : REGION2;
+    }
+
+    private void putLocal(int id, Op op, int value) {
+        byte[] txnIdByte = TXN.encode();
+        byte[] tableIdByte = TABLE.encode();
+        byte[] partIdByte = region(id).encode();
+        byte[] key = ByteUtils.encode(
+            CommonId.CommonType.TXN_CACHE_DATA,
+            key(id),
+            op.getCode(),
+            txnIdByte.length + tableIdByte.length + partIdByte.length,
+            txnIdByte, tableIdByte, partIdByte
+        );
+        local.put(key, new byte[]{(byte) value});
+    }
+
+    private StoreInstance localStore() {
+        StoreInstance store = mock(StoreInstance.class);
+        when(Services.LOCAL_STORE.getInstance(any(), any())).thenReturn(store);
+        when(store.scan(any(StoreInstance.Range.class))).thenReturn(Collections.emptyIterator());
+        when(store.get(anyList())).thenAnswer(invocation -> {
+            List<KeyValue> result = new ArrayList<>();
+            for (byte[] key : invocation.<List<byte[]>>getArgument(0)) {
+                byte[] value = local.get(key);
+                if (value != null) {
+                    result.add(new KeyValue(key, value));
+                }
+            }
+            return result;
+        });
+        return store;
+    }
+
+    /**
+     * The rows of the ids in the region, the value is the id modulo 100. The store returns the keys with its own
+     * prefix.
+     */
+    private static StoreInstance region(CommonId regionId, List<Integer> ids) {
+        StoreInstance store = mock(StoreInstance.class);
+        when(Services.KV_STORE.getInstance(TABLE, regionId)).thenReturn(store);
+        when(store.txnGet(anyLong(), anyList(), anyLong())).thenAnswer(invocation -> {
+            List<KeyValue> result = new ArrayList<>();
+            for (byte[] key : invocation.<List<byte[]>>getArgument(1)) {
+                int id = id(key);
+                assertThat(region(id)).isEqualTo(regionId);
+                if (ids.contains(id)) {
+                    byte[] storeKey = key.clone();
+                    storeKey[0] = 'r';
+                    result.add(new KeyValue(storeKey, new byte[]{(byte) (id % 100)}));
+                }
+            }
+            return result;
+        });
+        return store;
+    }
+
+    private static TxnGetByIndexParam param() {
+        KeyValueCodec indexCodec = mock(KeyValueCodec.class);
+        when(indexCodec.encodeKeyPrefix(any(), anyInt())).thenReturn(new byte[]{'t', 0, 0, 0});
+        when(indexCodec.decode(any(KeyValue.class)))
+            .thenAnswer(invocation -> new Object[]{id(invocation.<KeyValue>getArgument(0).getKey())});
+        KeyValueCodec codec = mock(KeyValueCodec.class);
+        when(codec.encodeKey(any())).thenAnswer(invocation -> key((Integer) invocation.<Object[]>getArgument(0)[0]));
+        when(codec.decode(any(KeyValue.class))).thenAnswer(invocation -> {
+            KeyValue keyValue = invocation.getArgument(0);
+            return new Object[]{id(keyValue.getKey()), (int) keyValue.getValue()[0]};
+        });
+        Table table = Table.builder()
+            .tableId(TABLE)
+            .name("T")
+            .columns(Arrays.asList(mock(Column.class), mock(Column.class)))
+            .build();
+        TxnGetByIndexParam param = mock(TxnGetByIndexParam.class);
+        when(param.getProfile(any())).thenReturn(new OperatorProfile("getByIndex"));
+        when(param.getTableId()).thenReturn(TABLE);
+        when(param.getIndexTableId()).thenReturn(INDEX);
+        when(param.getTable()).thenReturn(table);
+        when(param.getKeyMapping()).thenReturn(TupleMapping.of(new int[]{0}));
+        when(param.isLookup()).thenReturn(true);
+        when(param.getCodec()).thenReturn(indexCodec);
+        when(param.getLookupCodec()).thenReturn(codec);
+        return param;
+    }
+
+    private static Vertex vertex(TxnGetByIndexParam param) {
+        Task task = mock(Task.class);
+        when(task.getTxnId()).thenReturn(TXN);
+        Vertex vertex = mock(Vertex.class);
+        when(vertex.getTask()).thenReturn(task);
+        when(vertex.<TxnGetByIndexParam>getParam()).thenReturn(param);
+        return vertex;
+    }
+
+    private static List<Object[]> lookUp(List<Integer> hits) {
+        List<Object[]> tuples = new ArrayList<>();
+        for (int hit : hits) {
+            tuples.add(new Object[]{hit});
+        }
+        TxnGetByIndexParam param = param();
+        return TxnGetByIndexOperator.lookUp(tuples, param, vertex(param).getTask());
+    }
+
+    @Test
+    public void testLookUp() {
+        localStore();
+        // the ids 1 to 300 by a stride, so that the regions are interleaved, ids 10, 20... are missing
+        List<Integer> hits = new ArrayList<>();
+        List<Integer> ids1 = new ArrayList<>();
+        List<Integer> ids2 = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int id = (i * 7) % 300 + 1;
+            hits.add(id);
+            if (id % 10 != 0) {
+                (id < SPLIT ? ids1 : ids2).add(id);
+            }
+        }
+        StoreInstance region1 = region(REGION1, ids1);
+        StoreInstance region2 = region(REGION2, ids2);
+        TxnGetByIndexParam param = param();
+        StoreInstance index = mock(StoreInstance.class);
+        when(Services.KV_STORE.getInstance(INDEX, REGION1)).thenReturn(index);
+        List<KeyValue> indexRows = new ArrayList<>();
+        for (int hit : hits) {
+            indexRows.add(new KeyValue(key(hit), new byte[0]));
+        }
+        when(index.txnScan(anyLong(), any(StoreInstance.Range.class), anyLong())).thenReturn(indexRows.iterator());
+        Context context = Context.builder().distribution(RangeDistribution.builder().id(REGION1).build()).build();
+        Iterator<Object[]> iterator = TxnGetByIndexOperator.INSTANCE.createSourceIterator(
+            context, new Object[]{1}, vertex(param)
+        );
+        List<Integer> rows = new ArrayList<>();
+        iterator.forEachRemaining(row -> {
+            assertThat(row[1]).isEqualTo((Integer) row[0] % 100);
+            rows.add((Integer) row[0]);
+        });
+        // in the order of the index hits across the regions and the batches of 256
+        List<Integer> expected = new ArrayList<>(hits);
+        expected.removeIf(id -> id % 10 == 0);
+        assertThat(rows).isEqualTo(expected);
+        // one get for all keys of a region in a batch
+        verify(region1, times(2)).txnGet(anyLong(), anyList(), anyLong());
+        verify(region2, times(2)).txnGet(anyLong(), anyList(), anyLong());
+    }
+
+    @Test
+    public void testLookUpLocal() {
+        localStore();
+        region(REGION1, Arrays.asList(1, 2, 3, 4));
+        region(REGION2, Arrays.asList(151, 152));
+        // written by the transaction, the local rows override the store rows
+        putLocal(2, Op.PUT, 20);
+        putLocal(151, Op.PUTIFABSENT, 21);
+        putLocal(5, Op.PUT, 22);
+        putLocal(3, Op.DELETE, 0);
+        putLocal(152, Op.DELETE, 0);
+        List<Object[]> rows = lookUp(Arrays.asList(152, 1, 5, 151, 2, 3, 4, 153, 0));
+        assertThat(rows).containsExactly(
+            new Object[]{1, 1},
+            new Object[]{5, 22},
+            new Object[]{151, 21},
+            new Object[]{2, 20},
+            new Object[]{4, 4}
+        );
+    }
+
+    @Test
+    public void testLookUpAllLocal() {
+        StoreInstance local = localStore();
+        StoreInstance store = region(REGION1, Arrays.asList(1, 2));
+        putLocal(1, Op.PUT, 10);
+        putLocal(2, Op.PUT, 11);
+        assertThat(lookUp(Arrays.asList(2, 1))).containsExactly(new Object[]{2, 11}, new Object[]{1, 10});
+        // the local cache is read once for the region, the store is not read
+        verify(local).get(anyList());
+        verify(store, times(0)).txnGet(anyLong(), anyList(), anyLong());
+    }
+
+    @Test
+    public void testGetLocal() {
+        localStore();
+        putLocal(1, Op.PUT, 1);
+        putLocal(2, Op.DELETE, 0);
+        KeyValue[] values = TxnGetByIndexOperator.getLocal(Arrays.asList(key(2), key(3), key(1)), TXN, REGION1, TABLE);
+        assertThat(values).hasSize(3);
+        assertThat(values[0].getKey()[values[0].getKey().length - 2]).isEqualTo((byte) Op.DELETE.getCode());
+        assertThat(values[1]).isNull();
+        assertThat(values[2].getValue()).containsExactly(1);
+    }
+}
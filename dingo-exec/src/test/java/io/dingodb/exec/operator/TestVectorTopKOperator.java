@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import io.dingodb.exec.dag.Edge;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithException;
+import io.dingodb.exec.fin.TaskStatus;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.VectorTopKParam;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.dingodb.exec.utils.OperatorCodeUtils.VECTOR_TOP_K;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestVectorTopKOperator {
+    private final List<Object[]> output = new ArrayList<>();
+    private Edge edge;
+    private Context context;
+
+    @BeforeEach
+    public void setup() {
+        output.clear();
+        edge = mock(Edge.class);
+        when(edge.transformToNext(any(), any())).thenAnswer(invocation -> {
+            output.add(invocation.getArgument(1));
+            return true;
+        });
+        context = Context.builder().keyState(new ArrayList<>()).build();
+    }
+
+    private Vertex vertex(VectorTopKParam param) {
+        Vertex vertex = new Vertex(VECTOR_TOP_K, param);
+        vertex.addEdge(edge);
+        vertex.init();
+        return vertex;
+    }
+
+    private static Object[] tuple(int id, float x, float y, double distance) {
+        return new Object[]{id, Arrays.asList(x, y), distance};
+    }
+
+    private static List<Integer> ids(List<Object[]> tuples) {
+        List<Integer> ids = new ArrayList<>();
+        tuples.forEach(tuple -> ids.add((Integer) tuple[0]));
+        return ids;
+    }
+
+    @Test
+    public void testMergeRegions() {
+        Vertex vertex = vertex(new VectorTopKParam(3, 3, 2, -1, null, null));
+        VectorTopKOperator operator = VectorTopKOperator.INSTANCE;
+        operator.push(context, tuple(1, 0, 0, 0.5), vertex);
+        operator.push(context, tuple(2, 0, 0, 0.9), vertex);
+        operator.push(context, tuple(3, 0, 0, 0.1), vertex);
+        operator.fin(0, mock(Fin.class), vertex);
+        operator.push(context, tuple(4, 0, 0, 0.3), vertex);
+        operator.push(context, tuple(5, 0, 0, 0.7), vertex);
+        operator.fin(1, mock(Fin.class), vertex);
+        operator.push(context, tuple(6, 0, 0, 0.2), vertex);
+        // Nothing is emitted before all the regions finish.
+        assertThat(output).isEmpty();
+        Fin fin = mock(Fin.class);
+        operator.fin(2, fin, vertex);
+        assertThat(ids(output)).containsExactly(3, 6, 4);
+        verify(edge).fin(fin);
+    }
+
+    @Test
+    public void testMergeMoreThanTopN() {
+        Vertex vertex = vertex(new VectorTopKParam(2, 5, 2, -1, null, null));
+        VectorTopKOperator operator = VectorTopKOperator.INSTANCE;
+        operator.push(context, tuple(1, 0, 0, 0.5), vertex);
+        operator.fin(0, mock(Fin.class), vertex);
+        operator.push(context, tuple(2, 0, 0, 0.2), vertex);
+        operator.fin(1, mock(Fin.class), vertex);
+        assertThat(ids(output)).containsExactly(2, 1);
+    }
+
+    @Test
+    public void testRerank() {
+        // Approximate distances of the index are replaced by the exact l2 distances to (0, 0).
+        Vertex vertex = vertex(new VectorTopKParam(2, 2, 2, 1, "METRIC_TYPE_L2", new float[]{0, 0}));
+        VectorTopKOperator operator = VectorTopKOperator.INSTANCE;
+        operator.push(context, tuple(1, 3, 0, 0.1), vertex);
+        operator.push(context, tuple(2, 1, 0, 0.9), vertex);
+        operator.fin(0, mock(Fin.class), vertex);
+        operator.push(context, tuple(3, 2, 0, 0.5), vertex);
+        operator.fin(1, mock(Fin.class), vertex);
+        assertThat(ids(output)).containsExactly(2, 3);
+        assertThat(output.get(0)[2]).isEqualTo(1.0f);
+        assertThat(output.get(1)[2]).isEqualTo(4.0f);
+    }
+
+    @Test
+    public void testFinWithException() {
+        Vertex vertex = vertex(new VectorTopKParam(2, 2, 2, -1, null, null));
+        VectorTopKOperator operator = VectorTopKOperator.INSTANCE;
+        operator.push(context, tuple(1, 0, 0, 0.1), vertex);
+        Fin exception = FinWithException.of(new TaskStatus());
+        operator.fin(0, exception, vertex);
+        assertThat(operator.push(context, tuple(2, 0, 0, 0.2), vertex)).isFalse();
+        operator.fin(1, mock(Fin.class), vertex);
+        assertThat(output).isEmpty();
+        verify(edge, never()).transformToNext(any(), any());
+        verify(edge).fin(exception);
+    }
+}
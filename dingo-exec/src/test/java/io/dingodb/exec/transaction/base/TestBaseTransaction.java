@@ -0,0 +1,237 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.transaction.base;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.Location;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.base.JobManager;
+import io.dingodb.exec.transaction.impl.OptimisticTransaction;
+import io.dingodb.exec.transaction.impl.TransactionManager;
+import io.dingodb.exec.utils.ByteUtils;
+import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.transaction.data.Op;
+import io.dingodb.store.api.transaction.data.commit.TxnCommit;
+import io.dingodb.store.api.transaction.data.prewrite.TxnPreWrite;
+import io.dingodb.store.api.transaction.exception.RegionSplitException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestBaseTransaction {
+    private static final CommonId TABLE = new CommonId(CommonId.CommonType.TABLE, 1, 1);
+    private static final CommonId PART = new CommonId(CommonId.CommonType.PARTITION, 1, 1);
+
+    @AfterEach
+    public void tearDown() {
+        reset(Services.KV_STORE, Services.LOCAL_STORE);
+    }
+
+    private static OptimisticTransaction transaction(long seq, boolean committed, CountDownLatch latch) {
+        CommonId txnId = new CommonId(CommonId.CommonType.TRANSACTION, 1, seq);
+        return new OptimisticTransaction(txnId, 0) {
+            @Override
+            protected boolean commitJobRetry(JobManager jobManager, Location currentLocation) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                if (!committed) {
+                    throw new RuntimeException("Commit secondary keys failed");
+                }
+                return true;
+            }
+        };
+    }
+
+    @Test
+    public void testCommitSecondaryKeys() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        OptimisticTransaction transaction = transaction(1, true, latch);
+        transaction.setStatus(TransactionStatus.COMMIT_PRIMARY_KEY);
+        CompletableFuture<Void> future = transaction.commitSecondaryKeys(null, null);
+        // the commit is recorded when the secondary keys are committed, not when they are submitted
+        assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.COMMIT_PRIMARY_KEY);
+        assertThat(transaction.getCommitProfile().getCommitSecondTime()).isZero();
+        latch.countDown();
+        future.get(10, TimeUnit.SECONDS);
+        assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.COMMIT);
+        assertThat(transaction.getCommitProfile().getCommitSecondTime()).isPositive();
+        TransactionManager.unregister(transaction.getTxnId());
+    }
+
+    @Test
+    public void testCommitSecondaryKeysFailed() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        OptimisticTransaction transaction = transaction(2, false, latch);
+        transaction.setStatus(TransactionStatus.COMMIT_PRIMARY_KEY);
+        CompletableFuture<Void> future = transaction.commitSecondaryKeys(null, null);
+        latch.countDown();
+        // the failure is logged, the transaction is committed with the primary key
+        future.get(10, TimeUnit.SECONDS);
+        assertThat(future).isCompleted().isNotCompletedExceptionally();
+        assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.COMMIT);
+        assertThat(transaction.getCommitProfile().getCommitSecondTime()).isPositive();
+        TransactionManager.unregister(transaction.getTxnId());
+    }
+
+    @Test
+    public void testCommitSecondaryKeysCanceled() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        OptimisticTransaction transaction = transaction(3, true, latch);
+        transaction.setStatus(TransactionStatus.COMMIT_PRIMARY_KEY);
+        CompletableFuture<Void> future = transaction.commitSecondaryKeys(null, null);
+        transaction.setStatus(TransactionStatus.CANCEL);
+        latch.countDown();
+        future.get(10, TimeUnit.SECONDS);
+        assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.CANCEL);
+        TransactionManager.unregister(transaction.getTxnId());
+    }
+
+    /**
+     * A transaction with two puts in one region, the 2PC steps that need a job are counted instead of run.
+     */
+    private static class OnePcTransaction extends OptimisticTransaction {
+        private final AtomicInteger preWritePrimaryKey = new AtomicInteger();
+        private final AtomicInteger commitSecondaryKeys = new AtomicInteger();
+
+        OnePcTransaction(long seq) {
+            super(new CommonId(CommonId.CommonType.TRANSACTION, 1, seq), 0);
+            Properties sessionVariables = new Properties();
+            sessionVariables.setProperty("txn_one_pc", "on");
+            setTransactionConfig(sessionVariables);
+            addSql("insert into t values(1), (2)");
+        }
+
+        @Override
+        public void preWritePrimaryKey() {
+            preWritePrimaryKey.incrementAndGet();
+            throw new RuntimeException("2PC");
+        }
+
+        @Override
+        protected boolean commitJobRetry(JobManager jobManager, Location currentLocation) {
+            commitSecondaryKeys.incrementAndGet();
+            return true;
+        }
+    }
+
+    private static OnePcTransaction onePcTransaction(long seq) {
+        CommonId txnId = new CommonId(CommonId.CommonType.TRANSACTION, 1, seq);
+        List<KeyValue> cache = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            byte[] txnIdByte = txnId.encode();
+            byte[] tableIdByte = TABLE.encode();
+            byte[] partIdByte = PART.encode();
+            byte[] key = ByteUtils.encode(
+                CommonId.CommonType.TXN_CACHE_DATA,
+                new byte[]{'t', (byte) i, 0, 0},
+                Op.PUT.getCode(),
+                txnIdByte.length + tableIdByte.length + partIdByte.length,
+                txnIdByte, tableIdByte, partIdByte
+            );
+            cache.add(new KeyValue(key, new byte[]{(byte) i}));
+        }
+        StoreInstance local = mock(StoreInstance.class);
+        when(Services.LOCAL_STORE.getInstance(any(), any())).thenReturn(local);
+        when(local.scan(any(byte[].class))).thenAnswer(invocation -> cache.iterator());
+        return new OnePcTransaction(seq);
+    }
+
+    private static StoreInstance region() {
+        StoreInstance store = mock(StoreInstance.class);
+        when(Services.KV_STORE.getInstance(TABLE, PART)).thenReturn(store);
+        when(store.isSupportOnePc()).thenReturn(true);
+        when(store.txnHeartBeat(any(TxnPreWrite.class))).thenReturn(new CompletableFuture<>());
+        when(store.txnCommit(any(TxnCommit.class))).thenReturn(true);
+        return store;
+    }
+
+    @Test
+    public void testOnePcCommitted() {
+        OnePcTransaction transaction = onePcTransaction(4);
+        StoreInstance store = region();
+        when(store.txnOnePcPreWrite(any(TxnPreWrite.class), anyLong())).thenReturn(100L);
+        transaction.commit(mock(JobManager.class));
+        // the store committed all mutations with the prewrite, there is nothing left to commit
+        assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.COMMIT);
+        assertThat(transaction.getCommitTs()).isEqualTo(100L);
+        assertThat(transaction.getFuture()).isNull();
+        assertThat(transaction.preWritePrimaryKey).hasValue(0);
+        assertThat(transaction.commitSecondaryKeys).hasValue(0);
+        verify(store, never()).txnHeartBeat(any(TxnPreWrite.class));
+        verify(store, never()).txnCommit(any(TxnCommit.class));
+        TransactionManager.unregister(transaction.getTxnId());
+    }
+
+    @Test
+    public void testOnePcDeclined() {
+        OnePcTransaction transaction = onePcTransaction(5);
+        StoreInstance store = region();
+        when(store.txnOnePcPreWrite(any(TxnPreWrite.class), anyLong())).thenReturn(0L);
+        transaction.commit(mock(JobManager.class));
+        // all mutations are prewritten, the primary lock is kept alive and committed with 2PC
+        assertThat(transaction.getFuture()).isNotNull();
+        verify(store).txnHeartBeat(any(TxnPreWrite.class));
+        verify(store).txnCommit(any(TxnCommit.class));
+        assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.COMMIT);
+        assertThat(transaction.preWritePrimaryKey).hasValue(0);
+        assertThat(transaction.commitSecondaryKeys).hasValue(1);
+        TransactionManager.unregister(transaction.getTxnId());
+    }
+
+    @Test
+    public void testOnePcUnsupported() {
+        OnePcTransaction transaction = onePcTransaction(6);
+        StoreInstance store = region();
+        when(store.txnOnePcPreWrite(any(TxnPreWrite.class), anyLong())).thenReturn(-1L);
+        assertThatThrownBy(() -> transaction.commit(mock(JobManager.class))).hasMessage("2PC");
+        verify(store, never()).txnHeartBeat(any(TxnPreWrite.class));
+        assertThat(transaction.preWritePrimaryKey).hasValue(1);
+        TransactionManager.unregister(transaction.getTxnId());
+    }
+
+    @Test
+    public void testOnePcRegionSplit() {
+        OnePcTransaction transaction = onePcTransaction(7);
+        StoreInstance store = region();
+        when(store.txnOnePcPreWrite(any(TxnPreWrite.class), anyLong())).thenThrow(new RegionSplitException("split"));
+        assertThatThrownBy(() -> transaction.commit(mock(JobManager.class))).hasMessage("2PC");
+        verify(store, never()).txnHeartBeat(any(TxnPreWrite.class));
+        assertThat(transaction.preWritePrimaryKey).hasValue(1);
+        TransactionManager.unregister(transaction.getTxnId());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.utils;
+
+import io.dingodb.common.exception.DingoSqlException;
+import io.dingodb.exec.exception.TaskCancelException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestBatchQueue {
+    @Test
+    public void testPutAndFlush() {
+        BatchQueue<Integer> queue = new BatchQueue<>(16, 4);
+        for (int i = 0; i < 6; ++i) {
+            queue.put(i);
+        }
+        queue.flush();
+        for (int i = 0; i < 6; ++i) {
+            assertThat(queue.take()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testPutBatch() {
+        BatchQueue<Integer> queue = new BatchQueue<>(16, 4);
+        queue.putBatch(new Object[]{1, 2, 3});
+        queue.putBatch(new Object[0]);
+        queue.putBatch(new Object[]{4});
+        assertThat(queue.take()).isEqualTo(1);
+        assertThat(queue.take()).isEqualTo(2);
+        assertThat(queue.take()).isEqualTo(3);
+        assertThat(queue.take()).isEqualTo(4);
+    }
+
+    @Test
+    public void testBuffered() {
+        BatchQueue<Integer> queue = new BatchQueue<>(16, 4);
+        queue.put(1);
+        // The consumer takes the buffered items instead of waiting.
+        assertThat(queue.take(10)).isEqualTo(1);
+        assertThrows(DingoSqlException.class, () -> queue.take(10));
+        queue.put(2);
+        queue.flush();
+        assertThat(queue.take(10)).isEqualTo(2);
+    }
+
+    @Test
+    public void testSlowProducer() throws InterruptedException {
+        BatchQueue<Integer> queue = new BatchQueue<>(16, 4);
+        int count = 20;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; ++i) {
+                queue.put(i);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+        });
+        producer.start();
+        // No flush, every item is seen whether the consumer starts waiting before or after it is put.
+        for (int i = 0; i < count; ++i) {
+            assertThat(queue.take(1000)).isEqualTo(i);
+        }
+        producer.join();
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        BatchQueue<Integer> queue = new BatchQueue<>(8, 4);
+        int count = 10000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; ++i) {
+                queue.put(i);
+            }
+            queue.put(-1);
+            queue.flush();
+        });
+        producer.start();
+        List<Integer> result = new ArrayList<>();
+        Integer item;
+        while ((item = queue.take()) != -1) {
+            result.add(item);
+        }
+        producer.join();
+        assertThat(result).hasSize(count);
+        for (int i = 0; i < count; ++i) {
+            assertThat(result.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testMaxBytes() throws InterruptedException {
+        BatchQueue<Integer> queue = new BatchQueue<>(1024, 4, 10, Integer::longValue);
+        queue.put(6);
+        queue.flush();
+        Thread producer = new Thread(() -> {
+            queue.put(5);
+            queue.flush();
+        });
+        producer.start();
+        producer.join(100);
+        assertThat(producer.isAlive()).isTrue();
+        assertThat(queue.getBytes()).isEqualTo(6);
+        assertThat(queue.take()).isEqualTo(6);
+        assertThat(queue.take()).isEqualTo(5);
+        producer.join();
+        assertThat(queue.getBytes()).isEqualTo(5);
+    }
+
+    private static Thread putLater(
+        BatchQueue<Integer> queue,
+        int item,
+        AtomicReference<Throwable> error,
+        AtomicBoolean interrupted
+    ) {
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(item);
+                queue.flush();
+            } catch (Throwable e) {
+                error.set(e);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        producer.start();
+        return producer;
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        BatchQueue<Integer> queue = new BatchQueue<>(1024, 4, 10, Integer::longValue, cancelled::get);
+        queue.put(6);
+        queue.flush();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread producer = putLater(queue, 5, error, interrupted);
+        producer.join(100);
+        assertThat(producer.isAlive()).isTrue();
+        cancelled.set(true);
+        producer.join();
+        assertThat(error.get()).isInstanceOf(TaskCancelException.class);
+        assertThat(interrupted.get()).isFalse();
+        assertThat(queue.getBytes()).isEqualTo(6);
+    }
+
+    @Test
+    public void testInterrupt() throws InterruptedException {
+        BatchQueue<Integer> queue = new BatchQueue<>(1024, 4, 10, Integer::longValue);
+        queue.put(6);
+        queue.flush();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread producer = putLater(queue, 5, error, interrupted);
+        producer.join(100);
+        assertThat(producer.isAlive()).isTrue();
+        producer.interrupt();
+        producer.join();
+        assertThat(error.get()).isInstanceOf(TaskCancelException.class);
+        // The interrupt is kept for the caller.
+        assertThat(interrupted.get()).isTrue();
+    }
+}
@@ -290,6 +290,9 @@ public final class MysqlInit {
         values.add(new Object[]{"have_statement_timeout", "YES"});
         values.add(new Object[]{"connect_timeout", "3600"});
         values.add(new Object[]{"max_execution_time", "0"});
+        values.add(new Object[]{"query_memory_limit", "0"});
+        values.add(new Object[]{"resource_group", ""});
+        values.add(new Object[]{"query_priority", "0"});
         values.add(new Object[]{"autocommit", "on"});
         values.add(new Object[]{"lock_wait_timeout", "50"});
         values.add(new Object[]{"transaction_isolation", "REPEATABLE-READ"});
@@ -300,6 +303,8 @@ public final class MysqlInit {
         values.add(new Object[]{"txn_inert_check", "off"});
         values.add(new Object[]{"txn_retry", "off"});
         values.add(new Object[]{"txn_retry_cnt", "0"});
+        values.add(new Object[]{"txn_one_pc", "off"});
+        values.add(new Object[]{"txn_async_commit", "off"});
         values.add(new Object[]{"enable_safe_point_update", "1"});
         values.add(new Object[]{"txn_history_duration", String.valueOf(60 * 60 * 24 * 7)});
         values.add(new Object[]{"slow_query_enable", "on"});
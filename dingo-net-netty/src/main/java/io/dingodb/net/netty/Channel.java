@@ -112,7 +112,7 @@ public class Channel implements io.dingodb.net.Channel {
         if (log.isTraceEnabled()) {
             log.trace("Send message to [{}] on [{}].", remoteLocation().url(), channelId);
         }
-        ByteBuf header = Unpooled.buffer(4 + 8 + 1); // size of int + long + byte
+        ByteBuf header = connection.alloc().buffer(Integer.BYTES + Long.BYTES + Byte.BYTES);
         header.writeInt(message.length() + 8 + 1)
             .writeLong(channelId)
             .writeByte(USER_DEFINE_T);
@@ -127,7 +127,13 @@ public class Channel implements io.dingodb.net.Channel {
             } else {
                 connection.sendAsync(bytes);
             }
+        } catch (InterruptedException e) {
+            // interrupted waiting for the write, the buffer is released by netty
+            log.error("Send message to {} on {} error.", remoteLocation().url(), channelId, e);
+            throw new RuntimeException(e);
         } catch (Exception e) {
+            // the write is not started, release the pooled header with the buffer wrapping it
+            bytes.release();
             log.error("Send message to {} on {} error.", remoteLocation().url(), channelId, e);
             throw new RuntimeException(e);
         }
@@ -152,7 +158,13 @@ public class Channel implements io.dingodb.net.Channel {
             } else {
                 connection.sendAsync(bytes);
             }
+        } catch (InterruptedException e) {
+            // interrupted waiting for the write, the buffer is released by netty
+            log.error("Send message to {} on {} error.", remoteLocation().url(), channelId, e);
+            throw new RuntimeException(e);
         } catch (Exception e) {
+            // the write is not started, release the pooled header with the buffer wrapping it
+            bytes.release();
             log.error("Send message to {} on {} error.", remoteLocation().url(), channelId, e);
             throw new RuntimeException(e);
         }
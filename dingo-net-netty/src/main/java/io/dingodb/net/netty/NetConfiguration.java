@@ -49,6 +49,14 @@ public class NetConfiguration {
     private Integer heartbeat;
     private String host;
     private Integer apiTimeout;
+    // Use the native epoll transport when it is available, nio otherwise.
+    private Boolean epoll;
+    private Integer bossThreads;
+    // 0 for the netty default, twice the number of processors.
+    private Integer workerThreads;
+    private Integer clientThreads;
+    // Flush after this many pending flushes at most, 0 to flush every write.
+    private Integer flushConsolidation;
 
     public static Integer heartbeat() {
         return INSTANCE.heartbeat;
@@ -62,6 +70,26 @@ public class NetConfiguration {
         return INSTANCE.apiTimeout == null ? 60 : INSTANCE.apiTimeout;
     }
 
+    public static boolean epoll() {
+        return INSTANCE.epoll == null || INSTANCE.epoll;
+    }
+
+    public static int bossThreads() {
+        return INSTANCE.bossThreads == null ? 1 : INSTANCE.bossThreads;
+    }
+
+    public static int workerThreads() {
+        return INSTANCE.workerThreads == null ? 0 : INSTANCE.workerThreads;
+    }
+
+    public static int clientThreads() {
+        return INSTANCE.clientThreads == null ? 0 : INSTANCE.clientThreads;
+    }
+
+    public static int flushConsolidation() {
+        return INSTANCE.flushConsolidation == null ? 64 : INSTANCE.flushConsolidation;
+    }
+
 
     public static void resetAllTimeout(int timeout) {
         INSTANCE.apiTimeout = timeout;
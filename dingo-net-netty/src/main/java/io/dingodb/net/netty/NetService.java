@@ -27,9 +27,8 @@ import io.dingodb.net.service.FileTransferService;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import lombok.Getter;
 import lombok.experimental.Delegate;
 import lombok.extern.slf4j.Slf4j;
@@ -140,11 +139,13 @@ public class NetService implements io.dingodb.net.NetService {
     private Connection connect(Location location) {
         return connections.computeIfAbsent(location, k -> {
             Optional<Connection> connection = Optional.empty();
-            NioEventLoopGroup executor = new NioEventLoopGroup(0, executor(location.url() + "/connection"));
+            EventLoopGroup executor = Transports.eventLoopGroup(
+                NetConfiguration.clientThreads(), executor(location.url() + "/connection")
+            );
             try {
                 Bootstrap bootstrap = new Bootstrap();
                 bootstrap
-                    .channel(NioSocketChannel.class)
+                    .channel(Transports.channel())
                     .group(executor)
                     .option(ChannelOption.TCP_NODELAY, true)
                     .remoteAddress(location.toSocketAddress())
@@ -23,10 +23,12 @@ import io.dingodb.net.netty.api.HandshakeApi;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
@@ -41,14 +43,14 @@ public final class NettyHandlers {
     }
 
     public static void initChannelPipeline(SocketChannel ch, Connection connection) {
-        ch.pipeline()
+        flushConsolidation(ch)
             .addLast(new Decoder())
             .addLast(new MessageHandler(connection))
             .addLast(new ExceptionHandler());
     }
 
     public static void initChannelPipelineWithHandshake(SocketChannel ch, Connection connection) {
-        ch.pipeline()
+        flushConsolidation(ch)
             .addLast(new Decoder())
             .addLast(new HandshakeHandler(connection))
             .addLast(new AuthHandler(connection))
@@ -56,6 +58,17 @@ public final class NettyHandlers {
             .addLast(new ExceptionHandler());
     }
 
+    /**
+     * Coalesce the flushes of small messages sent close together on a connection into one write syscall, pending
+     * flushes are done by the event loop at the end of the current read or task, or once reaching the limit.
+     */
+    private static ChannelPipeline flushConsolidation(SocketChannel ch) {
+        int flushes = NetConfiguration.flushConsolidation();
+        if (flushes > 0) {
+            ch.pipeline().addLast(new FlushConsolidationHandler(flushes, true));
+        }
+        return ch.pipeline();
+    }
 
     @Slf4j
     public static class Decoder extends ByteToMessageDecoder {
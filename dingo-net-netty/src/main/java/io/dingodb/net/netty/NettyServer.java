@@ -22,15 +22,14 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import static io.dingodb.net.netty.Constant.SERVER;
@@ -45,15 +44,21 @@ public class NettyServer {
     private final Set<Connection> connections = new CopyOnWriteArraySet<>();
     private final Consumer<Connection> onConnect;
 
+    private EventLoopGroup bossGroup;
     private EventLoopGroup eventLoopGroup;
     private ServerBootstrap server;
 
     public void start() throws Exception {
         server = new ServerBootstrap();
-        eventLoopGroup = new NioEventLoopGroup(2, new ThreadPoolBuilder().name("Netty server " + port).build());
+        bossGroup = Transports.eventLoopGroup(
+            NetConfiguration.bossThreads(), executor("Netty server boss " + port, NetConfiguration.bossThreads())
+        );
+        int workerThreads = NetConfiguration.workerThreads() > 0
+            ? NetConfiguration.workerThreads() : ThreadPoolBuilder.AVAILABLE_PROCESSORS * 2;
+        eventLoopGroup = Transports.eventLoopGroup(workerThreads, executor("Netty server " + port, workerThreads));
         server
-            .channel(NioServerSocketChannel.class)
-            .group(eventLoopGroup)
+            .channel(Transports.serverChannel())
+            .group(bossGroup, eventLoopGroup)
             .childOption(ChannelOption.TCP_NODELAY, true)
             .childHandler(channelInitializer());
         if (host != null) {
@@ -69,6 +74,10 @@ public class NettyServer {
         }
     }
 
+    private static Executor executor(String name, int threads) {
+        return new ThreadPoolBuilder().name(name).coreThreads(threads).maximumThreads(threads).build();
+    }
+
     private ChannelInitializer<SocketChannel> channelInitializer() {
         return new ChannelInitializer<SocketChannel>() {
             @Override
@@ -87,6 +96,7 @@ public class NettyServer {
     }
 
     public void close() {
+        bossGroup.shutdownGracefully();
         eventLoopGroup.shutdownGracefully();
     }
 
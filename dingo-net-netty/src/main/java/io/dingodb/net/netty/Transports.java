@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.net.netty;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Event loops and channel types of the transport, the native epoll transport on linux if it is available and
+ * enabled by {@link NetConfiguration#epoll()}, nio otherwise.
+ */
+@Slf4j
+final class Transports {
+
+    private static final boolean EPOLL = useEpoll();
+
+    private Transports() {
+    }
+
+    private static boolean useEpoll() {
+        try {
+            if (!NetConfiguration.epoll()) {
+                return false;
+            }
+            if (!Epoll.isAvailable()) {
+                log.info("Native epoll transport unavailable, use nio: {}", Epoll.unavailabilityCause().getMessage());
+                return false;
+            }
+            return true;
+        } catch (Throwable e) {
+            log.info("Native epoll transport unavailable, use nio: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    static boolean isEpoll() {
+        return EPOLL;
+    }
+
+    static EventLoopGroup eventLoopGroup(int threads, Executor executor) {
+        return EPOLL ? new EpollEventLoopGroup(threads, executor) : new NioEventLoopGroup(threads, executor);
+    }
+
+    static Class<? extends ServerSocketChannel> serverChannel() {
+        return EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    static Class<? extends SocketChannel> channel() {
+        return EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+}
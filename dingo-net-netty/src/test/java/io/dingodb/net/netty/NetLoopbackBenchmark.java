@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.net.netty;
+
+import io.dingodb.common.Location;
+import io.dingodb.net.Channel;
+import io.dingodb.net.Message;
+import io.dingodb.net.MessageListener;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Messages and bytes per second of small messages sent over loopback, run manually to compare the transports and
+ * the flush settings of {@link NetConfiguration}.
+ */
+@Slf4j
+public class NetLoopbackBenchmark {
+
+    private static final int PORT = 19299;
+    private static final String TAG = "BENCHMARK";
+    private static final int WARMUP = 100_000;
+    private static final int MESSAGES = 1_000_000;
+
+    @Test
+    @Disabled
+    public void loopback() throws Exception {
+        NetService netService = NetServiceProvider.NET_SERVICE_INSTANCE;
+        netService.listenPort(PORT);
+        AtomicReference<CountDownLatch> latch = new AtomicReference<>();
+        MessageListener listener = (message, ch) -> latch.get().countDown();
+        netService.registerTagMessageListener(TAG, listener);
+        Channel channel = netService.newChannel(new Location("localhost", PORT));
+        try {
+            for (int size : new int[] {16, 256, 4096}) {
+                byte[] content = new byte[size];
+                send(channel, latch, content, WARMUP);
+                double seconds = send(channel, latch, content, MESSAGES);
+                long bytes = (long) MESSAGES * new Message(TAG, content).length();
+                log.info(
+                    "transport: {}, message size: {}, messages/s: {}, bytes/s: {}",
+                    Transports.isEpoll() ? "epoll" : "nio", size, (long) (MESSAGES / seconds), (long) (bytes / seconds)
+                );
+            }
+        } finally {
+            channel.close();
+            netService.unregisterTagMessageListener(TAG, listener);
+            netService.cancelPort(PORT);
+        }
+    }
+
+    private static double send(
+        Channel channel, AtomicReference<CountDownLatch> latch, byte[] content, int count
+    ) throws InterruptedException {
+        latch.set(new CountDownLatch(count));
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            channel.send(new Message(TAG, content));
+        }
+        if (!latch.get().await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Timeout, received " + (count - latch.get().getCount()));
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
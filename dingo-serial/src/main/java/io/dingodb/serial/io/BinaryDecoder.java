@@ -16,6 +16,8 @@
 
 package io.dingodb.serial.io;
 
+import io.dingodb.serial.util.FloatArrayList;
+
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -270,11 +272,24 @@ public class BinaryDecoder {
             return null;
         } else {
             int size = readLength();
-            List<Float> list = new ArrayList<>(size);
+            float[] array = new float[size];
             for (int i = 0; i < size; i++) {
-                list.add(readFloat());
+                Float value = readFloat();
+                if (value == null) {
+                    // Null elements are not expected in vectors, keep them in a boxed list.
+                    List<Float> list = new ArrayList<>(size);
+                    for (int j = 0; j < i; j++) {
+                        list.add(array[j]);
+                    }
+                    list.add(null);
+                    for (int j = i + 1; j < size; j++) {
+                        list.add(readFloat());
+                    }
+                    return list;
+                }
+                array[i] = value;
             }
-            return list;
+            return new FloatArrayList(array);
         }
     }
 
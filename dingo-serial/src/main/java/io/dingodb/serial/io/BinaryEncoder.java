@@ -16,6 +16,8 @@
 
 package io.dingodb.serial.io;
 
+import io.dingodb.serial.util.FloatArrayList;
+
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
@@ -551,6 +553,18 @@ public class BinaryEncoder {
             ensureRemainder(5 + (5 * list.size()));
             writeNotNull();
             writeLength(list.size());
+            if (list instanceof FloatArrayList) {
+                FloatArrayList floats = (FloatArrayList) list;
+                for (int i = 0; i < floats.size(); i++) {
+                    writeNotNull();
+                    int in = Float.floatToIntBits(floats.getFloat(i));
+                    buf[forwardPosition++] = (byte) (in >>> 24);
+                    buf[forwardPosition++] = (byte) (in >>> 16);
+                    buf[forwardPosition++] = (byte) (in >>> 8);
+                    buf[forwardPosition++] = (byte) in;
+                }
+                return;
+            }
             for (int i = 0; i < list.size(); i++) {
                 writeFloat(list.get(i));
             }
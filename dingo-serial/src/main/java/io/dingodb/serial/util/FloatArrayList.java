@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.serial.util;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * {@code List<Float>} over a primitive array, so that a vector keeps 4 bytes per dimension instead of a boxed Float,
+ * elements are boxed only when read by {@link #get(int)}. Use {@link #toArray(List)} to get the primitive array
+ * back without copying.
+ */
+public final class FloatArrayList extends AbstractList<Float> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 4391238405925640871L;
+
+    private float[] array;
+    private int size;
+
+    public FloatArrayList(float[] array) {
+        this.array = array;
+        this.size = array.length;
+    }
+
+    /**
+     * The backing array if the list is a {@link FloatArrayList} filling it, otherwise a copy. The result must not be
+     * modified.
+     */
+    public static float[] toArray(List<? extends Number> list) {
+        if (list instanceof FloatArrayList) {
+            FloatArrayList floats = (FloatArrayList) list;
+            return floats.size == floats.array.length ? floats.array : Arrays.copyOf(floats.array, floats.size);
+        }
+        float[] array = new float[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i).floatValue();
+        }
+        return array;
+    }
+
+    public float getFloat(int index) {
+        checkIndex(index);
+        return array[index];
+    }
+
+    @Override
+    public Float get(int index) {
+        return getFloat(index);
+    }
+
+    /**
+     * Set the element at the index.
+     *
+     * @throws NullPointerException if the element is null, null is not a float
+     */
+    @Override
+    public Float set(int index, Float element) {
+        checkIndex(index);
+        float old = array[index];
+        array[index] = element;
+        return old;
+    }
+
+    /**
+     * Insert the element at the index, {@link #add(Object)} appends by this method.
+     *
+     * @throws NullPointerException if the element is null, null is not a float
+     */
+    @Override
+    public void add(int index, Float element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == array.length) {
+            array = Arrays.copyOf(array, Math.max(8, size + (size >> 1)));
+        }
+        System.arraycopy(array, index, array, index + 1, size - index);
+        array[index] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Float remove(int index) {
+        checkIndex(index);
+        float old = array[index];
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public int indexOf(Object obj) {
+        if (obj instanceof Float) {
+            float value = (Float) obj;
+            for (int i = 0; i < size; i++) {
+                if (Float.compare(array[i], value) == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        return indexOf(obj) >= 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = array[i];
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        // The same as AbstractList, without boxing, so equal to other lists of the same elements.
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Float.hashCode(array[i]);
+        }
+        return hash;
+    }
+}
@@ -18,6 +18,7 @@ package io.dingodb.serial.test.io;
 
 import io.dingodb.serial.io.BinaryDecoder;
 import io.dingodb.serial.io.BinaryEncoder;
+import io.dingodb.serial.util.FloatArrayList;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -501,4 +502,23 @@ public class BinaryTest {
             System.out.println(System.currentTimeMillis() - start);
         }
     }
+
+    @Test
+    public void testFloatArrayList() {
+        float[] vector = {0.1f, -2.5f, 3f, Float.MAX_VALUE, 0f};
+        BinaryEncoder be = new BinaryEncoder(1);
+        be.writeFloatList(new FloatArrayList(vector));
+        be.writeFloatList(Arrays.asList(1f, null, 3f));
+
+        BinaryDecoder bd = new BinaryDecoder(be.getByteArray());
+        List<Float> floats = bd.readFloatList();
+        assertEquals(FloatArrayList.class, floats.getClass());
+        Assertions.assertArrayEquals(vector, FloatArrayList.toArray(floats));
+        assertEquals(Arrays.asList(0.1f, -2.5f, 3f, Float.MAX_VALUE, 0f), floats);
+        assertEquals(Arrays.asList(1f, null, 3f), bd.readFloatList());
+
+        floats.add(4f);
+        assertEquals(6, floats.size());
+        assertEquals(4f, FloatArrayList.toArray(floats)[5]);
+    }
 }
@@ -157,14 +157,22 @@ public interface StoreInstance {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * The first row in the range, {@code null} if the range is empty. Only one row is fetched from the store.
+     */
+    default KeyValue seek(long requestTs, Range range) {
+        Iterator<KeyValue> iterator = scan(requestTs, range);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
     default List<VectorSearchResponse> vectorSearch(
-        CommonId indexId, Float[] floatArray, int topN, Map<String, Object> parameterMap
+        CommonId indexId, float[] floatArray, int topN, Map<String, Object> parameterMap
     ) {
         return vectorSearch(System.identityHashCode(floatArray), indexId, floatArray, topN, parameterMap, null);
     }
 
     default List<VectorSearchResponse> vectorSearch(
-        long requestTs, CommonId indexId, Float[] floatArray, int topN, Map<String, Object> parameterMap, CoprocessorV2 coprocessorV2
+        long requestTs, CommonId indexId, float[] floatArray, int topN, Map<String, Object> parameterMap, CoprocessorV2 coprocessorV2
     ) {
         throw new UnsupportedOperationException();
     }
@@ -244,6 +252,15 @@ public interface StoreInstance {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * The first row in the range read by the transaction, {@code null} if the range is empty. Only one row is fetched
+     * from the store.
+     */
+    default KeyValue txnSeek(long startTs, Range range, long timeOut) {
+        Iterator<KeyValue> iterator = txnScan(startTs, range, timeOut);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
     default KeyValue txnGet(long startTs, byte[] key, long timeOut) {
         return txnGet(startTs, Collections.singletonList(key), timeOut).get(0);
     }
@@ -261,6 +278,29 @@ public interface StoreInstance {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Whether {@link #txnOnePcPreWrite(TxnPreWrite, long)} and {@link #txnHeartBeat(TxnPreWrite)} are supported.
+     */
+    default boolean isSupportOnePc() {
+        return false;
+    }
+
+    /**
+     * Prewrite all mutations of a single region transaction with 1PC protocol.
+     *
+     * @return the commit ts if the transaction is committed with 1PC, otherwise 0 and the mutations are prewritten
+     */
+    default long txnOnePcPreWrite(TxnPreWrite txnPreWrite, long timeOut) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Keep the primary lock of a prewritten transaction alive until the returned future is canceled.
+     */
+    default Future txnHeartBeat(TxnPreWrite txnPreWrite) {
+        throw new UnsupportedOperationException();
+    }
+
     @Deprecated
     default Future txnPreWritePrimaryKey(TxnPreWrite txnPreWrite, long timeOut) {
         return txnPreWritePrimaryKey(txnPreWrite.getStartTs(), txnPreWrite, timeOut);
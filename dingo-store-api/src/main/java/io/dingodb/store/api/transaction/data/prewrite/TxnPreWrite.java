@@ -47,7 +47,7 @@ public class TxnPreWrite {
     // When the transaction involves only one region, it's possible to commit the
     // transaction directly with 1PC protocol.
     @Builder.Default
-    boolean tryOnePc = false;  // NOT IMPLEMENTED
+    boolean tryOnePc = false;
     // The max commit ts is reserved for limiting the commit ts of 1PC, which can be used to avoid inconsistency with
     // schema change. This field is unused now.
     @Builder.Default
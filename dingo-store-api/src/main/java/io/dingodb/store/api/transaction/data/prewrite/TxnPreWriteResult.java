@@ -44,7 +44,7 @@ public class TxnPreWriteResult {
     // When the transaction is successfully committed with 1PC protocol, this
     // field will be set to the commit ts of the transaction. Otherwise, if dingo-store
     // failed to commit it with 1PC or the transaction is not 1PC, the value will be 0.
-    private long one_pc_commit_ts;  // NOT IMPLEMENTED
+    private long one_pc_commit_ts;
 }
 
 @Getter
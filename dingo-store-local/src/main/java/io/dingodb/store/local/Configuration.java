@@ -44,6 +44,8 @@ public class Configuration {
     private int bufferSize = 67108864;
     private int bufferNumber = 2;
     private int fileSize = 67108864;
+    // On-heap buffer in front of rocksdb, see MemoryBuffer.
+    private long memorySize = 67108864;
     public static String path() {
         return INSTANCE.path;
     }
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.store.local;
+
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.util.ByteArrayUtils;
+import lombok.AllArgsConstructor;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static io.dingodb.common.util.ByteArrayUtils.compareWithoutLen;
+
+/**
+ * On-heap tier in front of the local rocksdb, keys are ordered the same as the rocksdb bytewise comparator.
+ * Entries are kept here until the buffer reaches its limit, further entries are written to rocksdb.
+ * Writes are serialized by the buffer lock, reads go to the skip list directly.
+ * The keys written to rocksdb are tracked, so that rocksdb is only read for them and not touched at all again once
+ * they are deleted.
+ */
+final class MemoryBuffer {
+
+    // Estimated overhead of a skip list entry, besides the key and value bytes.
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final ConcurrentSkipListMap<byte[], Entry> buffer = new ConcurrentSkipListMap<>(ByteArrayUtils::compare);
+    private final long limit;
+    // Guarded by this.
+    private long size;
+    // Guarded by this, every put gets a new sequence, scans skip the entries put after they start.
+    private long sequence;
+    // Keys written to rocksdb, added before the write and removed after the delete, so that rocksdb never holds a key
+    // that is not in the set.
+    private final ConcurrentSkipListSet<byte[]> spilled = new ConcurrentSkipListSet<>(ByteArrayUtils::compare);
+
+    MemoryBuffer(long limit) {
+        this.limit = limit;
+    }
+
+    byte[] get(byte[] key) {
+        Entry entry = buffer.get(key);
+        return entry == null ? null : entry.value;
+    }
+
+    boolean contains(byte[] key) {
+        return buffer.containsKey(key);
+    }
+
+    /**
+     * Put the entry if there is room left, the size is adjusted by the difference to the replaced entry.
+     *
+     * @return false if the buffer is full and the entry should be written to rocksdb, the entry is not buffered then
+     */
+    synchronized boolean put(byte[] key, byte[] value) {
+        Entry old = buffer.get(key);
+        long delta = sizeOf(key, value) - (old == null ? 0 : sizeOf(key, old.value));
+        if (delta > 0 && size + delta > limit) {
+            if (old != null) {
+                buffer.remove(key);
+                size -= sizeOf(key, old.value);
+            }
+            return false;
+        }
+        buffer.put(key.clone(), new Entry(value.clone(), ++sequence));
+        size += delta;
+        return true;
+    }
+
+    synchronized boolean delete(byte[] key) {
+        Entry entry = buffer.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        size -= sizeOf(key, entry.value);
+        return true;
+    }
+
+    synchronized void delete(byte[] start, byte[] end) {
+        if (ByteArrayUtils.compare(start, end) >= 0) {
+            return;
+        }
+        Iterator<Map.Entry<byte[], Entry>> iterator = buffer.subMap(start, end).entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<byte[], Entry> entry = iterator.next();
+            iterator.remove();
+            size -= sizeOf(entry.getKey(), entry.getValue().value);
+        }
+    }
+
+    /**
+     * Iterate the entries in range without copying them. Entries put after the scan starts are skipped, so that
+     * the scan does not see the rows written by the statement reading them, the same as a rocksdb iterator.
+     *
+     * @param start inclusive start, null for the first key
+     * @param end exclusive end compared without length, null for no end
+     */
+    Iterator<KeyValue> scan(byte[] start, byte[] end) {
+        long snapshot;
+        synchronized (this) {
+            snapshot = sequence;
+        }
+        ConcurrentNavigableMap<byte[], Entry> range = start == null ? buffer : buffer.tailMap(start, true);
+        return new ScanIterator(range.entrySet().iterator(), end, snapshot);
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    void markSpilled(byte[] key) {
+        spilled.add(key.clone());
+    }
+
+    void unmarkSpilled(byte[] key) {
+        spilled.remove(key);
+    }
+
+    /**
+     * Unmark the keys in range, as {@link #delete(byte[], byte[])}.
+     */
+    void unmarkSpilled(byte[] start, byte[] end) {
+        if (ByteArrayUtils.compare(start, end) < 0) {
+            spilled.subSet(start, end).clear();
+        }
+    }
+
+    boolean isSpilled(byte[] key) {
+        return spilled.contains(key);
+    }
+
+    /**
+     * Whether there are keys in rocksdb in the range of {@link #scan(byte[], byte[])}.
+     */
+    boolean isSpilled(byte[] start, byte[] end) {
+        byte[] first = spilled.ceiling(start == null ? ByteArrayUtils.EMPTY_BYTES : start);
+        return first != null && (end == null || compareWithoutLen(first, end) < 0);
+    }
+
+    boolean isSpilled() {
+        return !spilled.isEmpty();
+    }
+
+    private static long sizeOf(byte[] key, byte[] value) {
+        return key.length + value.length + ENTRY_OVERHEAD;
+    }
+
+    @AllArgsConstructor
+    private static final class Entry {
+        private final byte[] value;
+        private final long sequence;
+    }
+
+    private static final class ScanIterator implements Iterator<KeyValue> {
+        private final Iterator<Map.Entry<byte[], Entry>> iterator;
+        private final byte[] end;
+        private final long snapshot;
+        private KeyValue next;
+        private boolean finished;
+
+        private ScanIterator(Iterator<Map.Entry<byte[], Entry>> iterator, byte[] end, long snapshot) {
+            this.iterator = iterator;
+            this.end = end;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !finished) {
+                if (!iterator.hasNext()) {
+                    finished = true;
+                    break;
+                }
+                Map.Entry<byte[], Entry> entry = iterator.next();
+                if (end != null && compareWithoutLen(entry.getKey(), end) >= 0) {
+                    finished = true;
+                    break;
+                }
+                if (entry.getValue().sequence <= snapshot) {
+                    next = new KeyValue(entry.getKey().clone(), entry.getValue().value.clone());
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public KeyValue next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KeyValue keyValue = next;
+            next = null;
+            return keyValue;
+        }
+    }
+}
@@ -19,7 +19,6 @@ package io.dingodb.store.local;
 import io.dingodb.common.CommonId;
 import io.dingodb.common.store.KeyValue;
 import io.dingodb.common.util.ByteArrayUtils;
-import lombok.AllArgsConstructor;
 import lombok.SneakyThrows;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.WriteOptions;
@@ -27,6 +26,7 @@ import org.rocksdb.WriteOptions;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -34,11 +34,24 @@ import static io.dingodb.common.util.ByteArrayUtils.compareWithoutLen;
 import static io.dingodb.common.util.Parameters.cleanNull;
 import static io.dingodb.common.util.Parameters.nonNull;
 
-@AllArgsConstructor
 public class StoreInstance implements io.dingodb.store.api.StoreInstance {
 
     public final CommonId regionId;
     private static final WriteOptions writeOptions = new WriteOptions().setDisableWAL(true);
+    private static final MemoryBuffer memoryBuffer = new MemoryBuffer(
+        Configuration.instance() == null ? 67108864L : Configuration.instance().getMemorySize()
+    );
+
+    private final MemoryBuffer buffer;
+
+    public StoreInstance(CommonId regionId) {
+        this(regionId, memoryBuffer);
+    }
+
+    StoreInstance(CommonId regionId, MemoryBuffer buffer) {
+        this.regionId = regionId;
+        this.buffer = buffer;
+    }
 
     @Override
     public CommonId id() {
@@ -49,30 +62,55 @@ public class StoreInstance implements io.dingodb.store.api.StoreInstance {
     @SneakyThrows
     public boolean put(KeyValue row) {
         nonNull(row, "row");
-        if (StoreService.db.get(row.getKey()) != null) {
+        byte[] key = nonNull(row.getKey(), "key");
+        byte[] value = cleanNull(row.getValue(), ByteArrayUtils.EMPTY_BYTES);
+        if (buffer.contains(key) || buffer.isSpilled(key)) {
             return false;
         }
-        StoreService.db.put(writeOptions, nonNull(row.getKey(), "key"), cleanNull(row.getValue(), ByteArrayUtils.EMPTY_BYTES));
+        if (buffer.put(key, value)) {
+            return true;
+        }
+        // mark before writing, a reader that can see the key in rocksdb also sees the mark
+        buffer.markSpilled(key);
+        StoreService.db.put(writeOptions, key, value);
         return true;
     }
 
     @Override
     @SneakyThrows
     public boolean delete(byte[] key) {
+        if (buffer.delete(key) || !buffer.isSpilled(key)) {
+            return true;
+        }
+        // unmark after deleting, the same as the mark before writing
         StoreService.db.delete(writeOptions, key);
+        buffer.unmarkSpilled(key);
         return true;
     }
 
     @Override
     @SneakyThrows
     public void deletePrefix(byte[] prefix) {
-        StoreService.db.deleteRange(writeOptions, prefix, nextKey(prefix));
+        byte[] end = nextKey(prefix);
+        buffer.delete(prefix, end);
+        if (!buffer.isSpilled(prefix, end)) {
+            return;
+        }
+        StoreService.db.deleteRange(writeOptions, prefix, end);
+        buffer.unmarkSpilled(prefix, end);
     }
 
     @Override
     @SneakyThrows
     public KeyValue get(byte[] key) {
-        byte[] valueBytes = StoreService.db.get(key);
+        byte[] valueBytes = buffer.get(key);
+        if (valueBytes != null) {
+            return new KeyValue(key, valueBytes.clone());
+        }
+        if (!buffer.isSpilled(key)) {
+            return null;
+        }
+        valueBytes = StoreService.db.get(key);
         if (valueBytes == null) {
             return null;
         }
@@ -82,21 +120,42 @@ public class StoreInstance implements io.dingodb.store.api.StoreInstance {
     @Override
     @SneakyThrows
     public List<KeyValue> get(List<byte[]> keys) {
+        if (keys.stream().noneMatch(buffer::isSpilled)) {
+            return keys.stream()
+                .map(this::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        }
         List<byte[]> values = StoreService.db.multiGetAsList(keys);
         return IntStream.range(0, keys.size())
-            .mapToObj(i -> new KeyValue(keys.get(i), values.get(i)))
+            .mapToObj(i -> {
+                byte[] value = buffer.get(keys.get(i));
+                return new KeyValue(keys.get(i), value == null ? values.get(i) : value.clone());
+            })
             .filter(kv -> kv.getValue() != null)
             .collect(Collectors.toList());
     }
 
     @Override
     public Iterator<KeyValue> scan(Range range) {
-        return new KeyValueIterator(StoreService.db.newIterator(), range);
+        return scan(0, range);
     }
 
     @Override
     public Iterator<KeyValue> scan(long requestTs, Range range) {
-        return new KeyValueIterator(StoreService.db.newIterator(), range);
+        byte[] start = null;
+        if (range.start != null) {
+            start = range.withStart ? range.start : nextKey(range.start);
+        }
+        byte[] end = null;
+        if (range.end != null) {
+            end = range.withEnd ? nextKey(range.end) : range.end;
+        }
+        Iterator<KeyValue> memory = buffer.scan(start, end);
+        if (!buffer.isSpilled(start, end)) {
+            return memory;
+        }
+        return new MergedIterator(memory, new KeyValueIterator(StoreService.db.newIterator(), range));
     }
 
     private byte[] nextKey(byte[] key) {
@@ -160,4 +219,45 @@ public class StoreInstance implements io.dingodb.store.api.StoreInstance {
             return keyValue;
         }
     }
+
+    private static class MergedIterator implements Iterator<KeyValue> {
+
+        private final Iterator<KeyValue> memory;
+        private final Iterator<KeyValue> disk;
+        private KeyValue memoryNext;
+        private KeyValue diskNext;
+
+        MergedIterator(Iterator<KeyValue> memory, Iterator<KeyValue> disk) {
+            this.memory = memory;
+            this.disk = disk;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (memoryNext == null && memory.hasNext()) {
+                memoryNext = memory.next();
+            }
+            if (diskNext == null && disk.hasNext()) {
+                diskNext = disk.next();
+            }
+            return memoryNext != null || diskNext != null;
+        }
+
+        @Override
+        public KeyValue next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KeyValue keyValue;
+            if (diskNext == null
+                || (memoryNext != null && ByteArrayUtils.compare(memoryNext.getKey(), diskNext.getKey()) < 0)) {
+                keyValue = memoryNext;
+                memoryNext = null;
+            } else {
+                keyValue = diskNext;
+                diskNext = null;
+            }
+            return keyValue;
+        }
+    }
 }
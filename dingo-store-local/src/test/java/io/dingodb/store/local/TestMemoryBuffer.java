@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.store.local;
+
+import io.dingodb.common.store.KeyValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestMemoryBuffer {
+
+    private static byte[] key(int i) {
+        return new byte[]{1, (byte) i};
+    }
+
+    private static List<byte[]> keys(Iterator<KeyValue> iterator) {
+        List<byte[]> keys = new ArrayList<>();
+        iterator.forEachRemaining(kv -> keys.add(kv.getKey()));
+        return keys;
+    }
+
+    @Test
+    public void testPutReplaceAdjustsSize() {
+        MemoryBuffer buffer = new MemoryBuffer(1024);
+        assertThat(buffer.put(key(1), new byte[10])).isTrue();
+        long size = buffer.size();
+        assertThat(buffer.put(key(1), new byte[4])).isTrue();
+        assertThat(buffer.size()).isEqualTo(size - 6);
+        assertThat(buffer.get(key(1))).hasSize(4);
+        assertThat(buffer.put(key(1), new byte[10])).isTrue();
+        assertThat(buffer.size()).isEqualTo(size);
+        assertThat(buffer.delete(key(1))).isTrue();
+        assertThat(buffer.delete(key(1))).isFalse();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    public void testLimit() {
+        MemoryBuffer buffer = new MemoryBuffer(200);
+        assertThat(buffer.put(key(1), new byte[64])).isTrue();
+        assertThat(buffer.put(key(2), new byte[64])).isFalse();
+        assertThat(buffer.contains(key(2))).isFalse();
+        // a replace that does not fit leaves no stale entry
+        assertThat(buffer.put(key(1), new byte[200])).isFalse();
+        assertThat(buffer.contains(key(1))).isFalse();
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.put(key(2), new byte[64])).isTrue();
+    }
+
+    @Test
+    public void testDeleteRange() {
+        MemoryBuffer buffer = new MemoryBuffer(4096);
+        for (int i = 0; i < 10; i++) {
+            buffer.put(key(i), new byte[]{(byte) i});
+        }
+        buffer.delete(key(2), key(5));
+        assertThat(keys(buffer.scan(null, null))).containsExactly(
+            key(0), key(1), key(5), key(6), key(7), key(8), key(9)
+        );
+        buffer.delete(key(0), key(100));
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    public void testScan() {
+        MemoryBuffer buffer = new MemoryBuffer(4096);
+        buffer.put(key(1), new byte[]{1});
+        buffer.put(key(3), new byte[]{3});
+        buffer.put(key(5), new byte[]{5});
+        assertThat(keys(buffer.scan(key(2), key(5)))).containsExactly(key(3));
+        assertThat(keys(buffer.scan(key(3), null))).containsExactly(key(3), key(5));
+        Iterator<KeyValue> iterator = buffer.scan(null, null);
+        assertThat(iterator.next().getKey()).isEqualTo(key(1));
+        // entries put after the scan starts are not visible, entries deleted are not returned
+        buffer.put(key(2), new byte[]{2});
+        buffer.put(key(4), new byte[]{4});
+        buffer.delete(key(5));
+        assertThat(keys(iterator)).containsExactly(key(3));
+        assertThat(keys(buffer.scan(null, null))).containsExactly(key(1), key(2), key(3), key(4));
+    }
+
+    @Test
+    public void testSpilled() {
+        MemoryBuffer buffer = new MemoryBuffer(4096);
+        assertThat(buffer.isSpilled()).isFalse();
+        buffer.markSpilled(key(3));
+        buffer.markSpilled(key(5));
+        assertThat(buffer.isSpilled(key(3))).isTrue();
+        assertThat(buffer.isSpilled(key(4))).isFalse();
+        assertThat(buffer.isSpilled(null, null)).isTrue();
+        assertThat(buffer.isSpilled(key(4), key(5))).isFalse();
+        assertThat(buffer.isSpilled(key(4), null)).isTrue();
+        // the buffer deletes do not touch the marks, the keys are still in rocksdb
+        buffer.delete(key(0), key(100));
+        assertThat(buffer.isSpilled()).isTrue();
+        buffer.unmarkSpilled(key(3));
+        assertThat(buffer.isSpilled(key(3))).isFalse();
+        buffer.unmarkSpilled(key(4), key(100));
+        // recovered, rocksdb is not read anymore
+        assertThat(buffer.isSpilled()).isFalse();
+        assertThat(buffer.isSpilled(null, null)).isFalse();
+    }
+}
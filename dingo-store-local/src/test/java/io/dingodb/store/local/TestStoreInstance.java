@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.store.local;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.store.api.StoreInstance.Range;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestStoreInstance {
+
+    private static final CommonId REGION = new CommonId(CommonId.CommonType.PARTITION, 1, 1);
+
+    private static byte[] key(int prefix, int i) {
+        return new byte[]{(byte) prefix, (byte) i};
+    }
+
+    private static List<Integer> values(Iterator<KeyValue> iterator) {
+        List<Integer> values = new ArrayList<>();
+        iterator.forEachRemaining(kv -> values.add((int) kv.getValue()[0]));
+        return values;
+    }
+
+    @Test
+    public void testMemory() {
+        StoreInstance store = new StoreInstance(REGION, new MemoryBuffer(4096));
+        assertThat(store.put(new KeyValue(key(1, 1), new byte[]{1}))).isTrue();
+        assertThat(store.put(new KeyValue(key(1, 1), new byte[]{2}))).isFalse();
+        assertThat(store.put(new KeyValue(key(1, 2), new byte[]{2}))).isTrue();
+        assertThat(store.get(key(1, 1)).getValue()).containsExactly(1);
+        assertThat(store.get(Arrays.asList(key(1, 1), key(1, 3), key(1, 2)))).hasSize(2);
+        assertThat(values(store.scan(new Range(new byte[]{1}, new byte[]{2}, true, false)))).containsExactly(1, 2);
+        store.delete(key(1, 1));
+        assertThat(store.get(key(1, 1))).isNull();
+        store.deletePrefix(new byte[]{1});
+        assertThat(store.get(key(1, 2))).isNull();
+    }
+
+    @Test
+    public void testSpilled() {
+        // room for two entries only
+        MemoryBuffer buffer = new MemoryBuffer(140);
+        StoreInstance store = new StoreInstance(REGION, buffer);
+        for (int i = 0; i < 6; i++) {
+            assertThat(store.put(new KeyValue(key(2, i), new byte[]{(byte) i}))).isTrue();
+        }
+        assertThat(store.put(new KeyValue(key(2, 4), new byte[]{9}))).isFalse();
+        for (int i = 0; i < 6; i++) {
+            assertThat(store.get(key(2, i)).getValue()).containsExactly(i);
+        }
+        assertThat(store.get(Arrays.asList(key(2, 0), key(2, 5)))).hasSize(2);
+        assertThat(values(store.scan(new Range(new byte[]{2}, new byte[]{3}, true, false))))
+            .containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(buffer.isSpilled()).isTrue();
+        store.delete(key(2, 0));
+        store.delete(key(2, 4));
+        assertThat(values(store.scan(new Range(new byte[]{2}, new byte[]{3}, true, false))))
+            .containsExactly(1, 2, 3, 5);
+        store.deletePrefix(new byte[]{2});
+        assertThat(store.scan(new Range(new byte[]{2}, new byte[]{3}, true, false)).hasNext()).isFalse();
+        assertThat(store.get(key(2, 5))).isNull();
+        // all keys written to rocksdb are deleted, the store is back to the memory only
+        assertThat(buffer.isSpilled()).isFalse();
+        assertThat(store.put(new KeyValue(key(2, 1), new byte[]{1}))).isTrue();
+        assertThat(values(store.scan(new Range(new byte[]{2}, new byte[]{3}, true, false)))).containsExactly(1);
+    }
+}
@@ -32,6 +32,8 @@ import io.dingodb.meta.InfoSchemaService;
 import io.dingodb.meta.entity.Table;
 import io.dingodb.sdk.service.MetaService;
 import io.dingodb.sdk.service.Services;
+import io.dingodb.sdk.service.VersionService;
+import io.dingodb.sdk.service.entity.common.KeyValue;
 import io.dingodb.sdk.service.entity.common.Location;
 import io.dingodb.sdk.service.entity.common.RegionDefinition;
 import io.dingodb.sdk.service.entity.coordinator.ScanRegionInfo;
@@ -46,10 +48,15 @@ import io.dingodb.sdk.service.entity.meta.WatchRequest;
 import io.dingodb.sdk.service.entity.meta.WatchRequest.RequestUnionNest.CreateRequest;
 import io.dingodb.sdk.service.entity.meta.WatchRequest.RequestUnionNest.ProgressRequest;
 import io.dingodb.sdk.service.entity.meta.WatchResponse;
+import io.dingodb.sdk.service.entity.version.DeleteRangeRequest;
+import io.dingodb.sdk.service.entity.version.Kv;
+import io.dingodb.sdk.service.entity.version.PutRequest;
+import io.dingodb.sdk.service.entity.version.RangeRequest;
 import io.dingodb.store.proxy.service.TsoService;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -58,11 +65,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -73,18 +81,37 @@ import static io.dingodb.sdk.service.entity.meta.MetaEventType.META_EVENT_REGION
 import static io.dingodb.sdk.service.entity.meta.MetaEventType.META_EVENT_REGION_UPDATE;
 import static io.dingodb.store.proxy.mapper.Mapper.MAPPER;
 import static java.lang.Math.max;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+/**
+ * Meta cache of an executor. Schemas, tables and indexes are kept in an immutable {@link MetaSnapshot} shared by all
+ * sessions and read without lock, changes publish a new snapshot.
+ *
+ * <p>A ddl appends the changed table to the schema version log on the coordinator version kv, keyed by the tso of the
+ * change. The log is polled from the last scan, and only the tables appended since are dropped from the snapshot, so
+ * that they are reloaded on next access. Entries older than the retention are pruned by the ddl.
+ */
 @Slf4j
 public class MetaCache {
 
+    private static final String SCHEMA_VERSION_PREFIX = "schema_version/";
+    // The next char of '/', end of the schema version log.
+    private static final String SCHEMA_VERSION_END = "schema_version0";
+    private static final long SCHEMA_VERSION_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    // Entries put later than their tso by up to the lag are still seen.
+    private static final long SCHEMA_VERSION_LAG = TimeUnit.SECONDS.toMillis(10);
+    private static final long SCHEMA_VERSION_RETENTION = TimeUnit.MINUTES.toMillis(10);
+
     private final MetaService metaService;
+    private final VersionService versionService;
     private final InfoSchemaService infoSchemaService;
     private final TsoService tsoService;
 
-    private final Map<String, Map<String, Table>> cache;
-    private final Map<CommonId, Table> tableIdCache;
-    private final Map<CommonId, Table> indexIdCache;
-    private Map<String, io.dingodb.store.proxy.meta.MetaService> metaServices;
+    private volatile MetaSnapshot snapshot = MetaSnapshot.EMPTY;
+
+    // State of the schema version watch, only accessed by the watch thread.
+    private final TreeSet<String> seenVersions = new TreeSet<>();
+    private long scannedTso = 0;
 
     private final LoadingCache<CommonId, NavigableMap<ComparableByteArray, RangeDistribution>> distributionCache;
 
@@ -92,11 +119,9 @@ public class MetaCache {
 
     public MetaCache(Set<Location> coordinators) {
         this.metaService = Services.metaService(coordinators);
+        this.versionService = Services.versionService(coordinators);
         this.infoSchemaService = InfoSchemaService.root();
         this.tsoService = TsoService.INSTANCE.isAvailable() ? TsoService.INSTANCE : new TsoService(coordinators);
-        this.tableIdCache = new ConcurrentSkipListMap<>();
-        this.indexIdCache = new ConcurrentSkipListMap<>();
-        this.cache = new ConcurrentHashMap<>();
         this.distributionCache = buildDistributionCache();
         Executors.execute("watch-meta", () -> {
             while (!isClose) {
@@ -107,16 +132,28 @@ public class MetaCache {
                 }
             }
         });
+        Executors.execute("watch-schema-version", () -> {
+            while (!isClose) {
+                try {
+                    watchSchemaVersion();
+                } catch (Exception e) {
+                    LogUtils.error(log, "Watch schema version error.", e);
+                }
+                LockSupport.parkNanos(SCHEMA_VERSION_INTERVAL);
+            }
+        });
     }
 
     private long tso() {
         return tsoService.tso();
     }
 
+    private synchronized void publish(Function<MetaSnapshot, MetaSnapshot> change) {
+        snapshot = change.apply(snapshot);
+    }
+
     public synchronized void clear() {
-        tableIdCache.clear();
-        cache.clear();
-        metaServices = null;
+        snapshot = snapshot.reset();
         distributionCache.invalidateAll();
     }
 
@@ -266,28 +303,22 @@ public class MetaCache {
 
     public void invalidateTable(long schema, long table) {
         LogUtils.info(log, "Invalid table {}.{}", schema, table);
-        CommonId tableId = new CommonId(TABLE, schema, table);
-        Table tableEntity = tableIdCache.get(tableId);
-        tableIdCache.remove(tableId);
-        SchemaInfo schemaInfo = (SchemaInfo) infoSchemaService.getSchema(schema);
-        if (schemaInfo != null && tableEntity != null) {
-            if (cache.containsKey(schemaInfo.getName())) {
-                cache.get(schemaInfo.getName()).remove(tableEntity.name);
-            }
-        }
+        publish(s -> s.withoutTable(new CommonId(TABLE, schema, table), null, null));
+        putVersion(schema, table);
     }
 
     public void invalidateTable(String schemaName, String tableName) {
         LogUtils.info(log, "Invalid tableMap cache {}.{}", schemaName, tableName);
-        schemaName = schemaName.toUpperCase();
-        tableName = tableName.toUpperCase();
-        if (cache.containsKey(schemaName)) {
-            cache.get(schemaName).remove(tableName);
-        }
+        String schema = schemaName.toUpperCase();
+        String table = tableName.toUpperCase();
+        publish(s -> {
+            Table old = Optional.ofNullable(s.tables.get(schema)).map(tableMap -> tableMap.get(table)).orElse(null);
+            return s.withoutTable(old == null ? null : old.tableId, schema, table);
+        });
     }
 
     public void invalidateIndex(long table, long index) {
-        indexIdCache.remove(new CommonId(INDEX, table, index));
+        publish(s -> s.withoutIndex(new CommonId(INDEX, table, index)));
     }
 
     public void invalidateDistribution(MetaEventRegion metaEventRegion) {
@@ -299,15 +330,107 @@ public class MetaCache {
 
     public void invalidateMetaServices() {
         LogUtils.info(log, "Invalid meta services");
-        metaServices = null;
+        publish(MetaSnapshot::withoutMetaServices);
+        putVersion(0, 0);
+    }
+
+    private void putVersion(long schema, long table) {
+        long tso = tso();
+        versionService.kvPut(putRequest(versionKey(tso), schema + "/" + table));
+        // Watchers not scanning within the retention reset their snapshot, so the expired entries are not needed.
+        long expired = tsoService.tso(tsoService.timestamp(tso) - SCHEMA_VERSION_RETENTION);
+        versionService.kvDeleteRange(DeleteRangeRequest.builder()
+            .key(SCHEMA_VERSION_PREFIX.getBytes(UTF_8))
+            .rangeEnd(versionKey(expired).getBytes(UTF_8))
+            .build());
     }
 
-    public synchronized void refreshSchema(String schema) {
+    private void watchSchemaVersion() {
+        long tso = tso();
+        long from = scannedTso;
+        if (from == 0 || tsoService.timestamp(tso) - tsoService.timestamp(from) > SCHEMA_VERSION_RETENTION / 2) {
+            if (from != 0) {
+                LogUtils.warn(log, "Schema version not scanned since {}, reset meta cache.", from);
+                publish(MetaSnapshot::reset);
+            }
+            from = tso;
+        }
+        String fromKey = versionKey(tsoService.tso(max(0, tsoService.timestamp(from) - SCHEMA_VERSION_LAG)));
+        seenVersions.headSet(fromKey).clear();
+        long version = 0;
+        for (KeyValue keyValue : range(fromKey, SCHEMA_VERSION_END)) {
+            String key = new String(keyValue.getKey(), UTF_8);
+            if (!seenVersions.add(key)) {
+                continue;
+            }
+            version = max(version, versionOf(key));
+            String[] ids = new String(keyValue.getValue(), UTF_8).split("/");
+            long schema = Long.parseLong(ids[0]);
+            long table = Long.parseLong(ids[1]);
+            LogUtils.info(log, "Schema version of {}.{} changed to {}", schema, table, versionOf(key));
+            if (table == 0) {
+                // Schema created or dropped, tables are cached by schema name.
+                publish(MetaSnapshot::reset);
+            } else {
+                publish(s -> s.withoutTable(new CommonId(TABLE, schema, table), null, null));
+            }
+        }
+        scannedTso = tso;
+        long lastVersion = version;
+        publish(s -> s.withVersion(max(s.version, lastVersion)));
+    }
+
+    /**
+     * Key of the schema version log entry of a change, zero padded so that the keys are ordered by tso.
+     */
+    static String versionKey(long tso) {
+        return SCHEMA_VERSION_PREFIX + String.format("%019d", tso);
+    }
+
+    static long versionOf(String key) {
+        return Long.parseLong(key.substring(SCHEMA_VERSION_PREFIX.length()));
+    }
+
+    private List<KeyValue> range(String key, @Nullable String end) {
+        RangeRequest request = RangeRequest.builder()
+            .key(key.getBytes(UTF_8))
+            .rangeEnd(end == null ? null : end.getBytes(UTF_8))
+            .build();
+        return Parameters.cleanNull(versionService.kvRange(tso(), request).getKvs(), Collections.<Kv>emptyList())
+            .stream()
+            .map(Kv::getKv)
+            .filter(keyValue -> keyValue != null && keyValue.getValue() != null)
+            .collect(Collectors.toList());
+    }
+
+    private static PutRequest putRequest(String key, String value) {
+        return PutRequest.builder()
+            .lease(0L)
+            .keyValue(KeyValue.builder().key(key.getBytes(UTF_8)).value(value.getBytes(UTF_8)).build())
+            .build();
+    }
+
+    /**
+     * Version of the schema the snapshot is synchronized to, the tso of the last ddl seen by the watch.
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    public void refreshSchema(String schema) {
+        loadSchema(schema);
+    }
+
+    private @Nullable Map<String, Table> loadSchema(String schema) {
         LogUtils.info(log, "Invalid schema {}", schema);
         try {
-            cache.compute(schema, (k, v) -> loadTables(schema));
+            long generation = snapshot.generation;
+            Map<String, Table> tables = loadTables(schema);
+            publish(s -> s.withSchema(generation, schema, tables));
+            return tables;
         } catch (Exception e) {
             LogUtils.error(log, "refresh schema error. " + e.getMessage(), e);
+            return null;
         }
     }
 
@@ -324,28 +447,29 @@ public class MetaCache {
     public Table getTable(String schema, String table) {
         schema = schema.toUpperCase();
         if (getMetaServices().containsKey(schema)) {
-            if (cache.get(schema) == null) {
-                refreshSchema(schema);
+            Map<String, Table> tableMap = snapshot.tables.get(schema);
+            if (tableMap == null) {
+                tableMap = loadSchema(schema);
             }
 
             table = table.toUpperCase();
-            Map<String, Table> tableMap = cache.get(schema);
             if (tableMap == null) {
-                log.error("get schema map error, name:" + schema + ", cache:" + cache);
+                log.error("get schema map error, name:" + schema + ", cache:" + snapshot.tables.keySet());
                 return null;
             }
 
-            Table table1 = tableMap.get(table.toUpperCase());
+            Table table1 = tableMap.get(table);
             if (table1 == null) {
+                long generation = snapshot.generation;
                 TableDefinitionWithId tableWithId = (TableDefinitionWithId) infoSchemaService.getTable(schema, table);
                 if (tableWithId == null) {
                     return null;
                 }
-                table1 = MAPPER.tableFrom(tableWithId,
+                Table loaded = MAPPER.tableFrom(tableWithId,
                     getIndexes(tableWithId, tableWithId.getTableId()));
-                tableIdCache.put(table1.tableId, table1);
-                table1.getIndexes().forEach($ -> indexIdCache.put($.getTableId(), $));
-                cache.get(schema).put(table1.name, table1);
+                String schemaName = schema;
+                publish(s -> s.withTable(generation, schemaName, loaded));
+                table1 = loaded;
             }
             return table1;
         }
@@ -355,25 +479,32 @@ public class MetaCache {
     @SneakyThrows
     public Table getTable(CommonId tableId) {
         if (tableId.type == TABLE) {
-            if (tableIdCache.containsKey(tableId)) {
-                return tableIdCache.get(tableId);
+            Table table = snapshot.tablesById.get(tableId);
+            if (table != null) {
+                return table;
             }
+            long generation = snapshot.generation;
             TableDefinitionWithId tableWithId = (TableDefinitionWithId) infoSchemaService.getTable(tableId);
 
             if (tableWithId == null) {
                 return null;
             }
-            return MAPPER.tableFrom(tableWithId, getIndexes(tableWithId, tableWithId.getTableId()));
+            Table loaded = MAPPER.tableFrom(tableWithId, getIndexes(tableWithId, tableWithId.getTableId()));
+            publish(s -> s.withTable(generation, null, loaded));
+            return loaded;
         } else if (tableId.type == INDEX) {
-            if (indexIdCache.containsKey(tableId)) {
-                return indexIdCache.get(tableId);
+            Table index = snapshot.indexesById.get(tableId);
+            if (index != null) {
+                return index;
             }
-            TableDefinitionWithId index = (TableDefinitionWithId) infoSchemaService.getIndex(tableId.domain, tableId.seq);
-            if (index == null) {
+            long generation = snapshot.generation;
+            TableDefinitionWithId indexWithId = (TableDefinitionWithId) infoSchemaService.getIndex(tableId.domain, tableId.seq);
+            if (indexWithId == null) {
                 return null;
             }
             TableDefinitionWithId tableWithId = (TableDefinitionWithId) infoSchemaService.getTable(0, tableId.domain);
             Table table = MAPPER.tableFrom(tableWithId, getIndexes(tableWithId, tableWithId.getTableId()));
+            publish(s -> s.withTable(generation, null, table));
             return table.getIndexes().stream()
                 .filter(indexTable -> indexTable.tableId.seq == tableId.seq).findFirst().orElse(null);
         }
@@ -389,34 +520,45 @@ public class MetaCache {
         schema = schema.toUpperCase();
 
         if (getMetaServices().containsKey(schema)) {
-            if (cache.get(schema) == null) {
-                refreshSchema(schema);
+            Map<String, Table> tableMap = snapshot.tables.get(schema);
+            if (tableMap == null) {
+                tableMap = loadSchema(schema);
             }
-            return new HashSet<>(cache.get(schema).values());
+            return new HashSet<>(Parameters.cleanNull(tableMap, Collections.<String, Table>emptyMap()).values());
         }
         return Collections.emptySet();
     }
 
-    public synchronized Map<String, io.dingodb.store.proxy.meta.MetaService> getMetaServices() {
+    public Map<String, io.dingodb.store.proxy.meta.MetaService> getMetaServices() {
+        Map<String, io.dingodb.store.proxy.meta.MetaService> metaServices = snapshot.metaServices;
         if (metaServices == null) {
-            List<SchemaInfo> schemaInfoList = infoSchemaService.listSchema();
-            metaServices =  schemaInfoList
-                .stream()
-                .filter(schemaInfo -> schemaInfo.getSchemaId() != 0)
-                .map(schemaInfo -> {
-                    DingoCommonId dingoCommonId = DingoCommonId
-                        .builder()
-                        .entityId(schemaInfo.getSchemaId())
-                        .entityType(EntityType.ENTITY_TYPE_SCHEMA)
-                        .parentEntityId(0)
-                        .build();
-                    return new io.dingodb.store.proxy.meta.MetaService(dingoCommonId,
-                        schemaInfo.getName().toUpperCase(), metaService, this);
-                })
-                .collect(Collectors.toMap(io.dingodb.store.proxy.meta.MetaService::name, Function.identity()));
+            metaServices = loadMetaServices();
         }
         return metaServices;
+    }
 
+    private synchronized Map<String, io.dingodb.store.proxy.meta.MetaService> loadMetaServices() {
+        if (snapshot.metaServices != null) {
+            return snapshot.metaServices;
+        }
+        long generation = snapshot.generation;
+        List<SchemaInfo> schemaInfoList = infoSchemaService.listSchema();
+        Map<String, io.dingodb.store.proxy.meta.MetaService> metaServices = schemaInfoList
+            .stream()
+            .filter(schemaInfo -> schemaInfo.getSchemaId() != 0)
+            .map(schemaInfo -> {
+                DingoCommonId dingoCommonId = DingoCommonId
+                    .builder()
+                    .entityId(schemaInfo.getSchemaId())
+                    .entityType(EntityType.ENTITY_TYPE_SCHEMA)
+                    .parentEntityId(0)
+                    .build();
+                return new io.dingodb.store.proxy.meta.MetaService(dingoCommonId,
+                    schemaInfo.getName().toUpperCase(), metaService, this);
+            })
+            .collect(Collectors.toMap(io.dingodb.store.proxy.meta.MetaService::name, Function.identity()));
+        publish(s -> s.withMetaServices(generation, Collections.unmodifiableMap(metaServices)));
+        return metaServices;
     }
 
     @SneakyThrows
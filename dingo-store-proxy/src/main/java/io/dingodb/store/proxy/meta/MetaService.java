@@ -228,7 +228,7 @@ public class MetaService implements io.dingodb.meta.MetaService {
     }
 
     @Override
-    public synchronized MetaService getSubMetaService(String name) {
+    public MetaService getSubMetaService(String name) {
         if (id != ROOT_SCHEMA_ID) {
             return null;
         }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.store.proxy.meta;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.meta.entity.Table;
+import lombok.AllArgsConstructor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable meta of an executor, see {@link MetaCache}.
+ *
+ * <p>Every invalidation increases the generation. A loader takes the generation before reading the meta and its
+ * result is discarded if the generation changed meanwhile, for it may have read the meta before the change.
+ */
+@AllArgsConstructor
+final class MetaSnapshot {
+    static final MetaSnapshot EMPTY = new MetaSnapshot(
+        0, 0, null, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()
+    );
+
+    final long version;
+    final long generation;
+    final @Nullable Map<String, MetaService> metaServices;
+    // schema name -> table name -> table
+    final Map<String, Map<String, Table>> tables;
+    final Map<CommonId, Table> tablesById;
+    final Map<CommonId, Table> indexesById;
+
+    MetaSnapshot withVersion(long version) {
+        return new MetaSnapshot(version, generation, metaServices, tables, tablesById, indexesById);
+    }
+
+    MetaSnapshot reset() {
+        return new MetaSnapshot(
+            version, generation + 1, null, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()
+        );
+    }
+
+    MetaSnapshot withoutMetaServices() {
+        return new MetaSnapshot(version, generation + 1, null, tables, tablesById, indexesById);
+    }
+
+    MetaSnapshot withMetaServices(long generation, Map<String, MetaService> metaServices) {
+        if (generation != this.generation) {
+            return this;
+        }
+        return new MetaSnapshot(version, generation, metaServices, tables, tablesById, indexesById);
+    }
+
+    MetaSnapshot withSchema(long generation, String schema, Map<String, Table> tableMap) {
+        if (generation != this.generation) {
+            return this;
+        }
+        Map<CommonId, Table> tablesById = new HashMap<>(this.tablesById);
+        Map<CommonId, Table> indexesById = new HashMap<>(this.indexesById);
+        Optional.ofNullable(tables.get(schema)).ifPresent(old -> old.values().forEach(table -> {
+            tablesById.remove(table.tableId);
+            table.getIndexes().forEach(index -> indexesById.remove(index.tableId));
+        }));
+        tableMap.values().forEach(table -> {
+            tablesById.put(table.tableId, table);
+            table.getIndexes().forEach(index -> indexesById.put(index.tableId, index));
+        });
+        return new MetaSnapshot(
+            version,
+            generation,
+            metaServices,
+            with(tables, schema, Collections.unmodifiableMap(new HashMap<>(tableMap))),
+            Collections.unmodifiableMap(tablesById),
+            Collections.unmodifiableMap(indexesById)
+        );
+    }
+
+    MetaSnapshot withTable(long generation, @Nullable String schema, Table table) {
+        if (generation != this.generation) {
+            return this;
+        }
+        Map<CommonId, Table> indexesById = new HashMap<>(this.indexesById);
+        table.getIndexes().forEach(index -> indexesById.put(index.tableId, index));
+        Map<String, Map<String, Table>> tables = this.tables;
+        if (schema != null && tables.containsKey(schema)) {
+            tables = with(tables, schema, with(tables.get(schema), table.name, table));
+        }
+        return new MetaSnapshot(
+            version,
+            generation,
+            metaServices,
+            tables,
+            with(tablesById, table.tableId, table),
+            Collections.unmodifiableMap(indexesById)
+        );
+    }
+
+    MetaSnapshot withoutTable(@Nullable CommonId tableId, @Nullable String schema, @Nullable String tableName) {
+        Map<String, Map<String, Table>> tables = new HashMap<>(this.tables);
+        Map<CommonId, Table> tablesById = new HashMap<>(this.tablesById);
+        Map<CommonId, Table> indexesById = new HashMap<>(this.indexesById);
+        Optional.ofNullable(tableId).map(tablesById::remove)
+            .ifPresent(table -> table.getIndexes().forEach(index -> indexesById.remove(index.tableId)));
+        tables.replaceAll((name, tableMap) -> {
+            Map<String, Table> result = new HashMap<>(tableMap);
+            boolean removed = tableId != null && result.values().removeIf(table -> table.tableId.equals(tableId));
+            if (name.equals(schema)) {
+                removed |= result.remove(tableName) != null;
+            }
+            return removed ? Collections.unmodifiableMap(result) : tableMap;
+        });
+        return new MetaSnapshot(
+            version,
+            generation + 1,
+            metaServices,
+            Collections.unmodifiableMap(tables),
+            Collections.unmodifiableMap(tablesById),
+            Collections.unmodifiableMap(indexesById)
+        );
+    }
+
+    MetaSnapshot withoutIndex(CommonId indexId) {
+        return new MetaSnapshot(
+            version, generation + 1, metaServices, tables, tablesById, with(indexesById, indexId, null)
+        );
+    }
+
+    private static <K, V> Map<K, V> with(Map<K, V> map, K key, @Nullable V value) {
+        Map<K, V> result = new HashMap<>(map);
+        if (value == null) {
+            result.remove(key);
+        } else {
+            result.put(key, value);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
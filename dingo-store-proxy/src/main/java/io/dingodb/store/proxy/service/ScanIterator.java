@@ -61,6 +61,7 @@ public class ScanIterator implements Iterator<KeyValue>, AutoCloseable {
     private RangeWithOptions range;
 
     private final int retryTimes;
+    private final int maxFetchCnt;
 
     private Iterator<KeyValue> delegateIterator = Collections.emptyIterator();
     private boolean release = false;
@@ -72,8 +73,21 @@ public class ScanIterator implements Iterator<KeyValue>, AutoCloseable {
         RangeWithOptions range,
         Coprocessor coprocessor,
         int retryTimes
+    ) {
+        this(requestTs, regionId, channelProvider, range, coprocessor, retryTimes, 1000);
+    }
+
+    public ScanIterator(
+        long requestTs,
+        CommonId regionId,
+        ChannelProvider channelProvider,
+        RangeWithOptions range,
+        Coprocessor coprocessor,
+        int retryTimes,
+        int maxFetchCnt
     ) {
         this.regionId = regionId;
+        this.maxFetchCnt = maxFetchCnt;
         this.range = range;
         this.retryTimes = retryTimes;
         this.coprocessor = coprocessor;
@@ -134,7 +148,7 @@ public class ScanIterator implements Iterator<KeyValue>, AutoCloseable {
         }
         KvScanContinueRequest request = KvScanContinueRequest.builder()
             .scanId(scanId)
-            .maxFetchCnt(1000)
+            .maxFetchCnt(maxFetchCnt)
             .build();
         channelProvider.before(request);
         KvScanContinueResponse res = storeService.kvScanContinue(request);
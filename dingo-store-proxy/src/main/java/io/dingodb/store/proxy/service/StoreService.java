@@ -68,6 +68,8 @@ import io.dingodb.sdk.service.entity.store.KvDeleteRangeRequest;
 import io.dingodb.sdk.service.entity.store.KvGetRequest;
 import io.dingodb.sdk.service.entity.store.KvPutIfAbsentRequest;
 import io.dingodb.sdk.service.entity.store.KvPutRequest;
+import io.dingodb.serial.util.FloatArrayList;
+import io.dingodb.store.api.transaction.data.prewrite.TxnPreWrite;
 import io.dingodb.store.api.transaction.exception.RegionSplitException;
 import io.dingodb.store.proxy.service.CodecService.KeyValueCodec;
 import lombok.experimental.Delegate;
@@ -85,6 +87,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static io.dingodb.sdk.common.utils.ByteArrayUtils.equal;
@@ -248,6 +251,22 @@ public final class StoreService implements io.dingodb.store.api.StoreService {
             return regionId;
         }
 
+        @Override
+        public boolean isSupportOnePc() {
+            // vector index regions prewrite through the index service, which has no 1PC
+            return indexService == null;
+        }
+
+        @Override
+        public long txnOnePcPreWrite(TxnPreWrite txnPreWrite, long timeOut) {
+            return transactionStoreInstance.txnOnePcPreWrite(txnPreWrite, timeOut);
+        }
+
+        @Override
+        public Future txnHeartBeat(TxnPreWrite txnPreWrite) {
+            return transactionStoreInstance.txnHeartBeat(txnPreWrite);
+        }
+
         private byte[] setId(byte[] key) {
             return CodecService.getDefault().setId(key, partitionId);
         }
@@ -502,6 +521,23 @@ public final class StoreService implements io.dingodb.store.api.StoreService {
             ), MAPPER::kvFrom);
         }
 
+        @Override
+        public KeyValue seek(long requestTs, Range range) {
+            ChannelProvider channelProvider = Services.regionChannelProvider(
+                coordinators, CodecService.getDefault().setId(range.start, partitionId.seq));
+            try (ScanIterator iterator = new ScanIterator(
+                requestTs,
+                regionId,
+                channelProvider,
+                MAPPER.rangeTo(partitionId.seq, range),
+                null,
+                RETRY,
+                1
+            )) {
+                return iterator.hasNext() ? MAPPER.kvFrom(iterator.next()) : null;
+            }
+        }
+
         @Override
         public Iterator<KeyValue> scan(long requestTs, Range range, Coprocessor coprocessor) {
             ChannelProvider channelProvider = Services.regionChannelProvider(
@@ -534,7 +570,7 @@ public final class StoreService implements io.dingodb.store.api.StoreService {
         public List<VectorSearchResponse> vectorSearch(
             long requestTs,
             CommonId indexId,
-            Float[] floatArray,
+            float[] floatArray,
             int topN,
             Map<String, Object> parameterMap,
             CoprocessorV2 coprocessor
@@ -546,7 +582,7 @@ public final class StoreService implements io.dingodb.store.api.StoreService {
 
             Vector vector = Vector.builder()
                 .dimension(Integer.parseInt(indexTable.getProperties().getProperty("dimension")))
-                .floatValues(Arrays.asList(floatArray))
+                .floatValues(new FloatArrayList(floatArray))
                 .valueType(ValueType.FLOAT)
                 .build();
 
@@ -594,7 +630,10 @@ public final class StoreService implements io.dingodb.store.api.StoreService {
                     } else {
                         response = new VectorSearchResponse();
                     }
-                    response.setFloatValues(vectorWithDistance.getVectorWithId().getVector().getFloatValues());
+                    Vector resultVector = vectorWithDistance.getVectorWithId().getVector();
+                    if (resultVector != null && resultVector.getFloatValues() != null) {
+                        response.setFloatValues(FloatArrayList.toArray(resultVector.getFloatValues()));
+                    }
                     response.setKey(vectorWithDistance.getVectorWithId().getTableData().getTableKey());
                     response.setDistance(vectorWithDistance.getDistance());
                     response.setVectorId(vectorWithDistance.getVectorWithId().getId());
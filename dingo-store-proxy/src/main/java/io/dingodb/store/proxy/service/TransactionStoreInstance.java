@@ -140,6 +140,16 @@ public class TransactionStoreInstance {
     }
 
     public boolean txnPreWriteRealKey(TxnPreWrite txnPreWrite, long timeOut) {
+        preWrite(txnPreWrite, timeOut);
+        return true;
+    }
+
+    public long txnOnePcPreWrite(TxnPreWrite txnPreWrite, long timeOut) {
+        txnPreWrite.getMutations().stream().peek($ -> $.setKey(setId($.getKey()))).forEach($ -> $.getKey()[0] = 't');
+        return preWrite(txnPreWrite, timeOut).getOnePcCommitTs();
+    }
+
+    private TxnPrewriteResponse preWrite(TxnPreWrite txnPreWrite, long timeOut) {
         int n = 1;
         IsolationLevel isolationLevel = txnPreWrite.getIsolationLevel();
         List<Long> resolvedLocks = new ArrayList<>();
@@ -155,7 +165,7 @@ public class TransactionStoreInstance {
                 getJoinedPrimaryKey(txnPreWrite, response.getKeysAlreadyExist());
             }
             if (response.getTxnResult() == null || response.getTxnResult().isEmpty()) {
-                return true;
+                return response;
             }
             ResolveLockStatus resolveLockStatus = writeResolveConflict(
                 response.getTxnResult(),
@@ -234,12 +244,16 @@ public class TransactionStoreInstance {
 
     public Future txnPreWritePrimaryKey(TxnPreWrite txnPreWrite, long timeOut) {
         if (txnPreWrite(txnPreWrite, timeOut)) {
-            LogUtils.info(log, "txn heartbeat, startTs:{}", txnPreWrite.getStartTs());
-            return Executors.scheduleWithFixedDelayAsync("txn-heartbeat-" + txnPreWrite.getStartTs(), () -> heartbeat(txnPreWrite), 1, 1, SECONDS);
+            return txnHeartBeat(txnPreWrite);
         }
         throw new WriteConflictException();
     }
 
+    public Future txnHeartBeat(TxnPreWrite txnPreWrite) {
+        LogUtils.info(log, "txn heartbeat, startTs:{}", txnPreWrite.getStartTs());
+        return Executors.scheduleWithFixedDelayAsync("txn-heartbeat-" + txnPreWrite.getStartTs(), () -> heartbeat(txnPreWrite), 1, 1, SECONDS);
+    }
+
     public boolean txnCommit(TxnCommit txnCommit) {
         txnCommit.getKeys().stream().peek($ -> setId($)).forEach($ -> $[0] = 't');
         return txnCommitRealKey(txnCommit);
@@ -372,6 +386,13 @@ public class TransactionStoreInstance {
         return getScanIterator(ts, range, timeOut, coprocessor);
     }
 
+    public io.dingodb.common.store.KeyValue txnSeek(long ts, StoreInstance.Range range, long timeOut) {
+        Stream.of(range.start).peek(this::setId).forEach($ -> $[0] = 't');
+        Stream.of(range.end).peek(this::setId).forEach($ -> $[0] = 't');
+        ScanIterator iterator = new ScanIterator(ts, range, timeOut, null, 1);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
     @NonNull
     public ScanIterator getScanIterator(long ts, StoreInstance.Range range, long timeOut, CoprocessorV2 coprocessor) {
         return new ScanIterator(ts, range, timeOut, coprocessor);
@@ -719,14 +740,27 @@ public class TransactionStoreInstance {
         }
 
         public ScanIterator(long startTs, StoreInstance.Range range, long timeOut, CoprocessorV2 coprocessor) {
+            this(startTs, range, timeOut, coprocessor, 0);
+        }
+
+        public ScanIterator(
+            long startTs,
+            StoreInstance.Range range,
+            long timeOut,
+            CoprocessorV2 coprocessor,
+            int limit
+        ) {
             this.startTs = startTs;
             this.range = range;
             this.current = range;
             this.withStart = range.withStart;
             this.timeOut = timeOut;
-            limit = ScopeVariables.getRpcBatchSize();
-            if (coprocessor != null && coprocessor.getLimit() > 0) {
-                limit = coprocessor.getLimit();
+            this.limit = limit;
+            if (limit <= 0) {
+                this.limit = ScopeVariables.getRpcBatchSize();
+                if (coprocessor != null && coprocessor.getLimit() > 0) {
+                    this.limit = coprocessor.getLimit();
+                }
             }
             this.coprocessor = MAPPER.coprocessorTo(coprocessor);
             Optional.ofNullable(this.coprocessor)
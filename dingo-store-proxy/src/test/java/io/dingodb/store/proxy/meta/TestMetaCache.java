@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.store.proxy.meta;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.meta.entity.IndexTable;
+import io.dingodb.meta.entity.Table;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static io.dingodb.common.CommonId.CommonType.INDEX;
+import static io.dingodb.common.CommonId.CommonType.TABLE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestMetaCache {
+    private static final String SCHEMA = "DINGO";
+
+    private static Table table(long id, String name) {
+        IndexTable index = IndexTable.builder()
+            .tableId(new CommonId(INDEX, id, id * 10))
+            .name(name + "_INDEX")
+            .indexes(Collections.emptyList())
+            .build();
+        return Table.builder()
+            .tableId(new CommonId(TABLE, 1, id))
+            .name(name)
+            .indexes(Collections.singletonList(index))
+            .build();
+    }
+
+    @Test
+    public void testLoadTable() {
+        Table table = table(1, "T1");
+        MetaSnapshot snapshot = MetaSnapshot.EMPTY
+            .withSchema(0, SCHEMA, Collections.emptyMap())
+            .withTable(0, SCHEMA, table);
+        assertThat(snapshot.tables.get(SCHEMA)).containsEntry("T1", table);
+        assertThat(snapshot.tablesById).containsEntry(table.tableId, table);
+        assertThat(snapshot.indexesById).containsOnlyKeys(new CommonId(INDEX, 1, 10));
+    }
+
+    @Test
+    public void testLoadTableDiscardedAfterInvalidation() {
+        Table old = table(1, "T1");
+        // The loader takes the generation, then the ddl invalidates the table before the loaded table is published.
+        MetaSnapshot snapshot = MetaSnapshot.EMPTY.withSchema(0, SCHEMA, Collections.emptyMap());
+        long generation = snapshot.generation;
+        snapshot = snapshot.withoutTable(old.tableId, null, null);
+        assertThat(snapshot.generation).isGreaterThan(generation);
+        MetaSnapshot published = snapshot.withTable(generation, SCHEMA, old);
+        assertThat(published).isSameAs(snapshot);
+        assertThat(published.tablesById).isEmpty();
+        assertThat(published.tables.get(SCHEMA)).isEmpty();
+    }
+
+    @Test
+    public void testLoadSchemaDiscardedAfterInvalidation() {
+        Map<String, Table> tables = Collections.singletonMap("T1", table(1, "T1"));
+        MetaSnapshot snapshot = MetaSnapshot.EMPTY;
+        long generation = snapshot.generation;
+        snapshot = snapshot.withoutTable(null, SCHEMA, "T1");
+        assertThat(snapshot.withSchema(generation, SCHEMA, tables).tables).doesNotContainKey(SCHEMA);
+        assertThat(snapshot.withSchema(snapshot.generation, SCHEMA, tables).tables).containsKey(SCHEMA);
+    }
+
+    @Test
+    public void testInvalidateTable() {
+        Table t1 = table(1, "T1");
+        Table t2 = table(2, "T2");
+        MetaSnapshot snapshot = MetaSnapshot.EMPTY
+            .withSchema(0, SCHEMA, Collections.emptyMap())
+            .withTable(0, SCHEMA, t1)
+            .withTable(0, SCHEMA, t2)
+            .withoutTable(t1.tableId, null, null);
+        assertThat(snapshot.tables.get(SCHEMA)).containsOnlyKeys("T2");
+        assertThat(snapshot.tablesById).containsOnlyKeys(t2.tableId);
+        assertThat(snapshot.indexesById).containsOnlyKeys(new CommonId(INDEX, 2, 20));
+        snapshot = snapshot.withoutTable(null, SCHEMA, "T2");
+        assertThat(snapshot.tables.get(SCHEMA)).isEmpty();
+    }
+
+    @Test
+    public void testReset() {
+        MetaSnapshot snapshot = MetaSnapshot.EMPTY
+            .withVersion(5)
+            .withSchema(0, SCHEMA, Collections.singletonMap("T1", table(1, "T1")));
+        long generation = snapshot.generation;
+        snapshot = snapshot.reset();
+        assertThat(snapshot.version).isEqualTo(5);
+        assertThat(snapshot.generation).isGreaterThan(generation);
+        assertThat(snapshot.tables).isEmpty();
+        assertThat(snapshot.withTable(generation, null, table(1, "T1")).tablesById).isEmpty();
+        assertThat(snapshot.withoutMetaServices().generation).isGreaterThan(snapshot.generation);
+    }
+
+    @Test
+    public void testVersionKey() {
+        assertThat(MetaCache.versionKey(9)).isLessThan(MetaCache.versionKey(10));
+        assertThat(MetaCache.versionKey(Long.MAX_VALUE)).isLessThan("schema_version0");
+        assertThat(MetaCache.versionKey(1)).isGreaterThan("schema_version/");
+        assertThat(MetaCache.versionOf(MetaCache.versionKey(123456789L))).isEqualTo(123456789L);
+    }
+}
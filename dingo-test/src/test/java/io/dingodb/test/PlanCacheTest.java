@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.test;
+
+import io.dingodb.test.dsl.run.exec.SqlExecContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PlanCacheTest {
+    private SqlExecContext context;
+    private SqlExecContext otherContext;
+
+    @BeforeAll
+    public static void setupAll() throws Exception {
+        ConnectionFactory.initLocalEnvironment();
+    }
+
+    @AfterAll
+    public static void cleanUpAll() {
+        ConnectionFactory.cleanUp();
+    }
+
+    @BeforeEach
+    public void setup() throws Exception {
+        context = new SqlExecContext(ConnectionFactory.getConnection());
+        // share the table names with the first connection
+        otherContext = new SqlExecContext(ConnectionFactory.getConnection(), context.getTableMapping());
+    }
+
+    @AfterEach
+    public void cleanUp() throws Exception {
+        context.cleanUp();
+        context.getConnection().close();
+        otherContext.getConnection().close();
+    }
+
+    private static int columnCount(SqlExecContext context, String sql) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(context.transSql(sql))) {
+            return resultSet.getMetaData().getColumnCount();
+        }
+    }
+
+    @Test
+    public void testUserVariableNotShared() throws SQLException {
+        context.execSql("set @plan_cache_var = 'first'");
+        assertThat(context.querySingleValue("select @plan_cache_var")).isEqualTo("first");
+        assertThat(otherContext.querySingleValue("select @plan_cache_var")).isNull();
+        otherContext.execSql("set @plan_cache_var = 'second'");
+        assertThat(otherContext.querySingleValue("select @plan_cache_var")).isEqualTo("second");
+        assertThat(context.querySingleValue("select @plan_cache_var")).isEqualTo("first");
+    }
+
+    @Test
+    public void testDdlInvalidation() throws SQLException {
+        context.execSql("create table {table} (id int, name varchar(32), primary key(id))");
+        context.execSql("insert into {table} values(1, 'Alice')");
+        assertThat(columnCount(context, "select * from {table}")).isEqualTo(2);
+        assertThat(columnCount(otherContext, "select * from {table}")).isEqualTo(2);
+        otherContext.execSql("drop table {table}");
+        otherContext.execSql("create table {table} (id int, name varchar(32), age int, primary key(id))");
+        otherContext.execSql("insert into {table} values(1, 'Alice', 18)");
+        assertThat(columnCount(context, "select * from {table}")).isEqualTo(3);
+        assertThat(context.querySingleRow("select * from {table}")).containsExactly(1, "Alice", 18);
+    }
+}
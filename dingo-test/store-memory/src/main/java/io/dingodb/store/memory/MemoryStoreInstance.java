@@ -24,27 +24,40 @@ import io.dingodb.common.util.Optional;
 import io.dingodb.meta.MetaService;
 import io.dingodb.meta.entity.Table;
 import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.transaction.data.commit.TxnCommit;
+import io.dingodb.store.api.transaction.data.pessimisticlock.TxnPessimisticLock;
+import io.dingodb.store.api.transaction.data.prewrite.TxnPreWrite;
+import io.dingodb.store.api.transaction.data.rollback.TxnBatchRollBack;
+import io.dingodb.store.api.transaction.data.rollback.TxnPessimisticRollBack;
+import io.dingodb.tso.TsoService;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.NavigableMap;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Future;
 
 @Slf4j
 public class MemoryStoreInstance implements StoreInstance {
-    private final NavigableMap<byte[], byte[]> db = new ConcurrentSkipListMap<>(ByteArrayUtils::compare);
+    private final ConcurrentNavigableMap<byte[], byte[]> db = new ConcurrentSkipListMap<>(ByteArrayUtils::compare);
+
+    private final MvccStore mvcc;
 
     private CommonId id;
     private DingoKeyValueCodec codec;
 
     public MemoryStoreInstance(CommonId id) {
+        this(id, new MvccStore.TxnStatus());
+    }
+
+    public MemoryStoreInstance(CommonId id, MvccStore.TxnStatus txnStatus) {
         this.id = id;
+        this.mvcc = new MvccStore(txnStatus);
         Table table = MetaService.root().getSubMetaService(MetaService.DINGO_NAME).getTable(id);
         codec = new DingoKeyValueCodec(table.tupleType(), table.keyMapping());
     }
@@ -70,56 +83,20 @@ public class MemoryStoreInstance implements StoreInstance {
 
     @Override
     public Iterator<KeyValue> scan(long requestTs, Range range) {
-        return getTreeMapByRange(db.entrySet().iterator(), range.start, range.end, range.withStart, range.withEnd)
-            .entrySet().stream().map(e -> new KeyValue(e.getKey(), e.getValue()))
-            .iterator();
-    }
-
-    private TreeMap<byte[], byte[]> getTreeMapByRange(Iterator<Map.Entry<byte[], byte[]>> iterator,
-                                                      byte[] startPrimaryKey,
-                                                      byte[] endPrimaryKey,
-                                                      boolean includeStart,
-                                                      boolean includeEnd) {
-        TreeMap<byte[], byte[]> treeMap = new TreeMap<>(ByteArrayUtils::compareWithoutLen);
-
-        while (iterator.hasNext()) {
-            Map.Entry<byte[], byte[]> next = iterator.next();
-            boolean start = true;
-            boolean end = false;
-            if (includeStart) {
-                start = ByteArrayUtils.greatThanOrEqual(next.getKey(), startPrimaryKey);
-            } else {
-                start = ByteArrayUtils.greatThan(next.getKey(), startPrimaryKey);
-            }
-
-            if (includeEnd) {
-                end = ByteArrayUtils.lessThanOrEqual(next.getKey(), endPrimaryKey);
-            } else {
-                end = ByteArrayUtils.lessThan(next.getKey(), endPrimaryKey);
-            }
-
-            if (start && end) {
-                treeMap.put(next.getKey(), next.getValue());
-            }
-        }
-        return treeMap;
+        return new KeyValueIterator(new ArrayList<>(MvccStore.subMap(db, range).entrySet()).iterator());
     }
 
     @Override
     public long count(long requestTs, Range range) {
-        Set<byte[]> keys = getTreeMapByRange(
-            db.entrySet().iterator(), range.start, range.end, range.withStart, range.withEnd
-        ).keySet();
-        return keys.size();
+        return MvccStore.subMap(db, range).size();
     }
 
     @Override
     public long delete(long requestTs, Range range) {
-        Set<byte[]> keys = getTreeMapByRange(
-            db.entrySet().iterator(), range.start, range.end, range.withStart, range.withEnd
-        ).keySet();
-        keys.forEach(db::remove);
-        return keys.size();
+        Set<byte[]> keys = MvccStore.subMap(db, range).keySet();
+        long count = keys.size();
+        keys.clear();
+        return count;
     }
 
     @Override
@@ -191,6 +168,96 @@ public class MemoryStoreInstance implements StoreInstance {
         return true;
     }
 
+    @Override
+    public Iterator<KeyValue> txnScan(long startTs, Range range, long timeOut) {
+        return mvcc.scan(startTs, range, timeOut).iterator();
+    }
+
+    @Override
+    public List<KeyValue> txnGet(long startTs, List<byte[]> keys, long timeOut) {
+        return mvcc.get(startTs, keys, timeOut);
+    }
+
+    @Override
+    public boolean txnPreWrite(long requestTs, TxnPreWrite txnPreWrite, long timeOut) {
+        mvcc.preWrite(
+            txnPreWrite.getMutations(),
+            txnPreWrite.getPrimaryLock(),
+            txnPreWrite.getStartTs(),
+            !txnPreWrite.getPessimisticChecks().isEmpty(),
+            timeOut
+        );
+        return true;
+    }
+
+    @Override
+    public boolean isSupportOnePc() {
+        return true;
+    }
+
+    @Override
+    public long txnOnePcPreWrite(TxnPreWrite txnPreWrite, long timeOut) {
+        txnPreWrite(txnPreWrite, timeOut);
+        long commitTs = TsoService.getDefault().tso();
+        List<byte[]> keys = new ArrayList<>(txnPreWrite.getMutations().size());
+        txnPreWrite.getMutations().forEach(mutation -> keys.add(mutation.getKey()));
+        mvcc.commit(txnPreWrite.getStartTs(), commitTs, keys);
+        return commitTs;
+    }
+
+    @Override
+    public Future txnHeartBeat(TxnPreWrite txnPreWrite) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public Future txnPreWritePrimaryKey(long requestTs, TxnPreWrite txnPreWrite, long timeOut) {
+        txnPreWrite(requestTs, txnPreWrite, timeOut);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean txnCommit(long requestTs, TxnCommit txnCommit) {
+        return mvcc.commit(txnCommit.getStartTs(), txnCommit.getCommitTs(), txnCommit.getKeys());
+    }
+
+    @Override
+    public Future txnPessimisticLockPrimaryKey(
+        long requestTs, TxnPessimisticLock txnPessimisticLock, long timeOut, boolean ignoreLockWait
+    ) {
+        txnPessimisticLock(requestTs, txnPessimisticLock, timeOut, ignoreLockWait);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean txnPessimisticLock(
+        long requestTs, TxnPessimisticLock txnPessimisticLock, long timeOut, boolean ignoreLockWait
+    ) {
+        mvcc.pessimisticLock(
+            txnPessimisticLock.getMutations(),
+            txnPessimisticLock.getPrimaryLock(),
+            txnPessimisticLock.getStartTs(),
+            txnPessimisticLock.getForUpdateTs(),
+            timeOut,
+            ignoreLockWait
+        );
+        return true;
+    }
+
+    @Override
+    public boolean txnPessimisticLockRollback(long requestTs, TxnPessimisticRollBack txnPessimisticRollBack) {
+        mvcc.pessimisticRollback(
+            txnPessimisticRollBack.getStartTs(), txnPessimisticRollBack.getForUpdateTs(),
+            txnPessimisticRollBack.getKeys()
+        );
+        return true;
+    }
+
+    @Override
+    public boolean txnBatchRollback(long requestTs, TxnBatchRollBack txnBatchRollBack) {
+        return mvcc.rollback(txnBatchRollBack.getStartTs(), txnBatchRollBack.getKeys());
+    }
+
     private KeyValue convertRow(Object[] row) {
         KeyValue keyValue = null;
         keyValue = codec.encode(row);
@@ -32,13 +32,14 @@ import java.util.concurrent.ConcurrentHashMap;
 public class MemoryStoreService implements StoreService {
 
     private final Map<CommonId, MemoryStoreInstance> store = new ConcurrentHashMap<>();
+    private final MvccStore.TxnStatus txnStatus = new MvccStore.TxnStatus();
 
     @Override
     public StoreInstance getInstance(CommonId tableId, CommonId regionId) {
         if (tableId == null) {
             return null;
         }
-        return store.computeIfAbsent(tableId, __ -> new MemoryStoreInstance(tableId));
+        return store.computeIfAbsent(tableId, __ -> new MemoryStoreInstance(tableId, txnStatus));
     }
 
     @Override
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.store.memory;
+
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.transaction.data.Mutation;
+import io.dingodb.store.api.transaction.data.Op;
+import io.dingodb.store.api.transaction.data.TxnVariables;
+import io.dingodb.store.api.transaction.exception.DuplicateEntryException;
+import io.dingodb.store.api.transaction.exception.LockWaitException;
+import io.dingodb.store.api.transaction.exception.WriteConflictException;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Percolator style MVCC engine of a memory store instance. Every key keeps its committed versions by commit ts,
+ * the rolled back start ts and at most one lock. Locks of other transactions are resolved by the shared
+ * {@link TxnStatus} table, or waited until the time out.
+ */
+public class MvccStore {
+
+    private final ConcurrentSkipListMap<byte[], Record> records = new ConcurrentSkipListMap<>(ByteArrayUtils::compare);
+    private final TxnStatus txnStatus;
+
+    public MvccStore(TxnStatus txnStatus) {
+        this.txnStatus = txnStatus;
+    }
+
+    /**
+     * Commit status of transactions shared by all instances of a store service, the primary key of a transaction
+     * may belong to another instance.
+     */
+    public static class TxnStatus {
+        private static final long ROLLED_BACK = -1L;
+
+        private final Map<Long, Long> status = new ConcurrentHashMap<>();
+
+        void commit(long startTs, long commitTs) {
+            status.putIfAbsent(startTs, commitTs);
+        }
+
+        void rollback(long startTs) {
+            status.putIfAbsent(startTs, ROLLED_BACK);
+        }
+
+        boolean isRolledBack(long startTs) {
+            Long commitTs = status.get(startTs);
+            return commitTs != null && commitTs == ROLLED_BACK;
+        }
+
+        Long get(long startTs) {
+            return status.get(startTs);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Write {
+        private final long startTs;
+        // null for delete
+        private final byte[] value;
+    }
+
+    @AllArgsConstructor
+    private static class Lock {
+        private final byte[] primary;
+        private final long startTs;
+        private final long forUpdateTs;
+        private final Op op;
+        private final byte[] value;
+
+        private boolean isWrite() {
+            return op == Op.PUT || op == Op.DELETE || op == Op.PUTIFABSENT;
+        }
+    }
+
+    private static class Record {
+        // commit ts -> write, newest first
+        private final NavigableMap<Long, Write> writes = new TreeMap<>(Comparator.reverseOrder());
+        private final Set<Long> rollbacks = new HashSet<>();
+        private Lock lock;
+
+        private byte[] read(long ts) {
+            for (Map.Entry<Long, Write> entry : writes.entrySet()) {
+                if (entry.getKey() <= ts) {
+                    return entry.getValue().value;
+                }
+            }
+            return null;
+        }
+
+        private long latestCommitTs() {
+            return writes.isEmpty() ? 0 : writes.firstKey();
+        }
+
+        private boolean isCommitted(long startTs) {
+            return writes.values().stream().anyMatch(w -> w.startTs == startTs);
+        }
+    }
+
+    public List<KeyValue> get(long startTs, List<byte[]> keys, long timeOut) {
+        List<KeyValue> result = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            Record record = records.get(key);
+            if (record == null) {
+                continue;
+            }
+            byte[] value = read(record, startTs, timeOut);
+            if (value != null) {
+                result.add(new KeyValue(key, value));
+            }
+        }
+        return result;
+    }
+
+    public List<KeyValue> scan(long startTs, StoreInstance.Range range, long timeOut) {
+        List<KeyValue> result = new ArrayList<>();
+        for (Map.Entry<byte[], Record> entry : subMap(records, range).entrySet()) {
+            byte[] value = read(entry.getValue(), startTs, timeOut);
+            if (value != null) {
+                result.add(new KeyValue(entry.getKey(), value));
+            }
+        }
+        return result;
+    }
+
+    public void preWrite(
+        List<Mutation> mutations, byte[] primary, long startTs, boolean pessimistic, long timeOut
+    ) {
+        List<Record> locked = new ArrayList<>(mutations.size());
+        List<Lock> previous = new ArrayList<>(mutations.size());
+        try {
+            for (Mutation mutation : mutations) {
+                Record record = records.computeIfAbsent(mutation.getKey().clone(), k -> new Record());
+                withLock(record, startTs, timeOut, false, l -> true, waited -> {
+                    checkPreWrite(record, mutation, startTs, pessimistic);
+                    if (mutation.getOp() != Op.CheckNotExists) {
+                        long forUpdateTs = record.lock == null ? 0 : record.lock.forUpdateTs;
+                        locked.add(record);
+                        previous.add(record.lock);
+                        record.lock = new Lock(primary, startTs, forUpdateTs, mutation.getOp(), mutation.getValue());
+                    }
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < locked.size(); i++) {
+                Record record = locked.get(i);
+                synchronized (record) {
+                    record.lock = previous.get(i);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static void checkPreWrite(Record record, Mutation mutation, long startTs, boolean pessimistic) {
+        if (record.rollbacks.contains(startTs)) {
+            throw new WriteConflictException("The transaction " + startTs + " has been rolled back");
+        }
+        if (pessimistic && mutation.getOp() != Op.CheckNotExists) {
+            if (record.lock == null || record.lock.startTs != startTs) {
+                throw new WriteConflictException("Pessimistic lock not found, startTs:" + startTs);
+            }
+        } else if (!pessimistic && record.latestCommitTs() >= startTs) {
+            throw new WriteConflictException("Write conflict, startTs:" + startTs
+                + ", commitTs:" + record.latestCommitTs());
+        }
+        if ((mutation.getOp() == Op.PUTIFABSENT || mutation.getOp() == Op.CheckNotExists)
+            && record.read(Long.MAX_VALUE) != null) {
+            throw new DuplicateEntryException("Duplicate entry " + Arrays.toString(mutation.getKey()));
+        }
+    }
+
+    public boolean commit(long startTs, long commitTs, List<byte[]> keys) {
+        if (txnStatus.isRolledBack(startTs)) {
+            return false;
+        }
+        for (byte[] key : keys) {
+            Record record = records.get(key);
+            if (record == null) {
+                continue;
+            }
+            synchronized (record) {
+                if (record.lock != null && record.lock.startTs == startTs) {
+                    apply(record, commitTs);
+                } else if (record.rollbacks.contains(startTs)) {
+                    return false;
+                }
+            }
+        }
+        // the first commit is the primary key, locks left on secondary keys are rolled forward by readers
+        txnStatus.commit(startTs, commitTs);
+        return true;
+    }
+
+    public boolean rollback(long startTs, List<byte[]> keys) {
+        for (byte[] key : keys) {
+            Record record = records.computeIfAbsent(key.clone(), k -> new Record());
+            synchronized (record) {
+                if (record.isCommitted(startTs)) {
+                    return false;
+                }
+                if (record.lock != null && record.lock.startTs == startTs) {
+                    if (Arrays.equals(record.lock.primary, key)) {
+                        txnStatus.rollback(startTs);
+                    }
+                    record.lock = null;
+                }
+                record.rollbacks.add(startTs);
+            }
+        }
+        return true;
+    }
+
+    public void pessimisticLock(
+        List<Mutation> mutations, byte[] primary, long startTs, long forUpdateTs, long timeOut, boolean ignoreLockWait
+    ) {
+        for (Mutation mutation : mutations) {
+            Record record = records.computeIfAbsent(mutation.getKey().clone(), k -> new Record());
+            withLock(record, startTs, timeOut, true, l -> true, waited -> {
+                if (waited && ignoreLockWait) {
+                    throw new LockWaitException("Lock wait");
+                }
+                if (record.rollbacks.contains(startTs)) {
+                    throw new WriteConflictException("The transaction " + startTs + " has been rolled back");
+                }
+                if (record.latestCommitTs() > forUpdateTs) {
+                    throw new WriteConflictException("Write conflict, forUpdateTs:" + forUpdateTs
+                        + ", commitTs:" + record.latestCommitTs());
+                }
+                if (record.lock == null || !record.lock.isWrite()) {
+                    record.lock = new Lock(primary, startTs, forUpdateTs, Op.LOCK, null);
+                }
+                return null;
+            });
+        }
+    }
+
+    public void pessimisticRollback(long startTs, long forUpdateTs, List<byte[]> keys) {
+        for (byte[] key : keys) {
+            Record record = records.get(key);
+            if (record == null) {
+                continue;
+            }
+            synchronized (record) {
+                Lock lock = record.lock;
+                if (lock != null && lock.startTs == startTs && lock.op == Op.LOCK && lock.forUpdateTs <= forUpdateTs) {
+                    record.lock = null;
+                }
+            }
+        }
+    }
+
+    private byte[] read(Record record, long startTs, long timeOut) {
+        return withLock(record, startTs, timeOut, false, l -> l.isWrite() && l.startTs <= startTs,
+            waited -> record.read(startTs));
+    }
+
+    /**
+     * Wait until the lock of another transaction is resolved, then run the action holding the record monitor.
+     */
+    private <T> T withLock(
+        Record record,
+        long startTs,
+        long timeOut,
+        boolean pessimistic,
+        Predicate<Lock> blocking,
+        Function<Boolean, T> action
+    ) {
+        boolean waited = false;
+        long waitTime = TxnVariables.WaitTime;
+        while (true) {
+            synchronized (record) {
+                Lock lock = record.lock;
+                if (lock == null || lock.startTs == startTs || !blocking.test(lock) || resolve(record)) {
+                    return action.apply(waited);
+                }
+            }
+            if (timeOut < 0) {
+                if (pessimistic) {
+                    throw new RuntimeException("Lock wait timeout exceeded; try restarting transaction");
+                }
+                throw new RuntimeException("startTs:" + startTs + " resolve lock timeout");
+            }
+            try {
+                Thread.sleep(waitTime);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            timeOut -= waitTime;
+            waited = true;
+        }
+    }
+
+    // Resolve the lock by the status of its transaction, must hold the record monitor.
+    private boolean resolve(Record record) {
+        Long commitTs = txnStatus.get(record.lock.startTs);
+        if (commitTs == null) {
+            return false;
+        }
+        if (txnStatus.isRolledBack(record.lock.startTs)) {
+            record.rollbacks.add(record.lock.startTs);
+            record.lock = null;
+        } else {
+            apply(record, commitTs);
+        }
+        return true;
+    }
+
+    private static void apply(Record record, long commitTs) {
+        Lock lock = record.lock;
+        if (lock.isWrite()) {
+            record.writes.put(commitTs, new Write(lock.startTs, lock.op == Op.DELETE ? null : lock.value));
+        }
+        record.lock = null;
+    }
+
+    /**
+     * The entries in range, an inclusive end takes all keys prefixed by it, the same as the bounds compared without
+     * the length of the store.
+     */
+    static <V> ConcurrentNavigableMap<byte[], V> subMap(
+        ConcurrentNavigableMap<byte[], V> map, StoreInstance.Range range
+    ) {
+        if (range == null) {
+            return map;
+        }
+        byte[] end = range.end;
+        if (end != null && range.withEnd) {
+            end = nextKey(end);
+        }
+        if (range.start == null) {
+            return end == null ? map : map.headMap(end, false);
+        }
+        if (end == null) {
+            return map.tailMap(range.start, range.withStart);
+        }
+        if (ByteArrayUtils.compare(range.start, end) > 0) {
+            return new ConcurrentSkipListMap<>(map.comparator());
+        }
+        return map.subMap(range.start, range.withStart, end, false);
+    }
+
+    // The first key after all keys prefixed by the key, null if there is none.
+    private static byte[] nextKey(byte[] key) {
+        int n = key.length;
+        while (--n >= 0) {
+            if (key[n] != (byte) 0xFF) {
+                byte[] next = Arrays.copyOf(key, n + 1);
+                next[n]++;
+                return next;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dingodb.store.memory;
+
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.store.api.StoreInstance.Range;
+import io.dingodb.store.api.transaction.data.Mutation;
+import io.dingodb.store.api.transaction.data.Op;
+import io.dingodb.store.api.transaction.exception.DuplicateEntryException;
+import io.dingodb.store.api.transaction.exception.LockWaitException;
+import io.dingodb.store.api.transaction.exception.WriteConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestMvccStore {
+
+    private static final byte[] K1 = {1, 1};
+    private static final byte[] K2 = {1, 2};
+
+    private static Mutation put(byte[] key, int value) {
+        return new Mutation(Op.PUT, key, new byte[]{(byte) value}, 0, null);
+    }
+
+    private static Mutation mutation(Op op, byte[] key) {
+        return new Mutation(op, key, new byte[]{0}, 0, null);
+    }
+
+    private static List<Integer> get(MvccStore store, long ts, byte[]... keys) {
+        List<Integer> values = new ArrayList<>();
+        store.get(ts, Arrays.asList(keys), 0).forEach(kv -> values.add((int) kv.getValue()[0]));
+        return values;
+    }
+
+    private static MvccStore committed(byte[] key, int value, long startTs, long commitTs) {
+        MvccStore store = new MvccStore(new MvccStore.TxnStatus());
+        store.preWrite(Collections.singletonList(put(key, value)), key, startTs, false, 0);
+        store.commit(startTs, commitTs, Collections.singletonList(key));
+        return store;
+    }
+
+    private static List<byte[]> keys(ConcurrentSkipListMap<byte[], Integer> map, Range range) {
+        return new ArrayList<>(MvccStore.subMap(map, range).keySet());
+    }
+
+    @Test
+    public void testSubMap() {
+        ConcurrentSkipListMap<byte[], Integer> map = new ConcurrentSkipListMap<>(ByteArrayUtils::compare);
+        byte[][] keys = {{1}, {1, 2}, {1, 2, 3}, {1, 3}, {2}, {(byte) 0xFF, 1}};
+        for (byte[] key : keys) {
+            map.put(key, 0);
+        }
+        // an inclusive end takes the keys prefixed by it
+        assertThat(keys(map, new Range(new byte[]{1, 2}, new byte[]{1, 2}, true, true)))
+            .containsExactly(keys[1], keys[2]);
+        assertThat(keys(map, new Range(new byte[]{1, 2}, new byte[]{1, 2}, true, false))).isEmpty();
+        assertThat(keys(map, new Range(new byte[]{1, 2}, new byte[]{1, 2}, false, true))).containsExactly(keys[2]);
+        assertThat(keys(map, new Range(new byte[]{1}, new byte[]{1, 3}, false, false)))
+            .containsExactly(keys[1], keys[2]);
+        assertThat(keys(map, new Range(null, new byte[]{1}, true, true)))
+            .containsExactly(keys[0], keys[1], keys[2], keys[3]);
+        assertThat(keys(map, new Range(new byte[]{2}, new byte[]{(byte) 0xFF}, true, true)))
+            .containsExactly(keys[4], keys[5]);
+        assertThat(keys(map, new Range(new byte[]{2}, new byte[]{1}, true, true))).isEmpty();
+    }
+
+    @Test
+    public void testPreWriteWriteConflict() {
+        MvccStore store = committed(K1, 1, 5, 10);
+        assertThatThrownBy(() -> store.preWrite(Collections.singletonList(put(K1, 2)), K1, 8, false, 0))
+            .isInstanceOf(WriteConflictException.class);
+        // no lock is left, a later transaction writes the key
+        store.preWrite(Collections.singletonList(put(K1, 3)), K1, 12, false, 0);
+        store.commit(12, 13, Collections.singletonList(K1));
+        assertThat(get(store, 14, K1)).containsExactly(3);
+        assertThat(get(store, 11, K1)).containsExactly(1);
+    }
+
+    @Test
+    public void testPreWriteDuplicateKey() {
+        MvccStore store = committed(K1, 1, 5, 10);
+        assertThatThrownBy(() -> store.preWrite(
+            Arrays.asList(put(K2, 2), mutation(Op.PUTIFABSENT, K1)), K2, 20, false, 0
+        )).isInstanceOf(DuplicateEntryException.class);
+        assertThatThrownBy(() -> store.preWrite(
+            Arrays.asList(put(K2, 2), mutation(Op.CheckNotExists, K1)), K2, 21, false, 0
+        )).isInstanceOf(DuplicateEntryException.class);
+        // the lock taken before the failure is released, the key is readable without waiting
+        assertThat(get(store, 30, K1, K2)).containsExactly(1);
+        store.preWrite(Arrays.asList(put(K2, 2), mutation(Op.CheckNotExists, new byte[]{1, 3})), K2, 22, false, 0);
+        assertThat(store.commit(22, 23, Collections.singletonList(K2))).isTrue();
+        assertThat(get(store, 30, K1, K2)).containsExactly(1, 2);
+    }
+
+    @Test
+    public void testCommit() {
+        MvccStore store = new MvccStore(new MvccStore.TxnStatus());
+        store.preWrite(Arrays.asList(put(K1, 1), put(K2, 2)), K1, 5, false, 0);
+        // older snapshots do not see the locks
+        assertThat(get(store, 4, K1, K2)).isEmpty();
+        assertThat(store.commit(5, 10, Collections.singletonList(K1))).isTrue();
+        // the lock of the secondary key is rolled forward by the committed primary key
+        assertThat(get(store, 10, K1, K2)).containsExactly(1, 2);
+        assertThat(get(store, 9, K1, K2)).isEmpty();
+        assertThat(store.scan(10, new Range(K1, K2, true, true), 0)).extracting(KeyValue::getKey)
+            .containsExactly(K1, K2);
+        // committing again is idempotent
+        assertThat(store.commit(5, 10, Collections.singletonList(K2))).isTrue();
+        assertThat(store.rollback(5, Collections.singletonList(K1))).isFalse();
+    }
+
+    @Test
+    public void testRollback() {
+        MvccStore store = new MvccStore(new MvccStore.TxnStatus());
+        store.preWrite(Arrays.asList(put(K1, 1), put(K2, 2)), K1, 5, false, 0);
+        assertThat(store.rollback(5, Collections.singletonList(K1))).isTrue();
+        // the lock of the secondary key is cleared by the rolled back primary key
+        assertThat(get(store, 10, K1, K2)).isEmpty();
+        assertThat(store.commit(5, 10, Collections.singletonList(K1))).isFalse();
+        assertThatThrownBy(() -> store.preWrite(Collections.singletonList(put(K1, 1)), K1, 5, false, 0))
+            .isInstanceOf(WriteConflictException.class);
+        store.preWrite(Collections.singletonList(put(K2, 3)), K2, 11, false, 0);
+        assertThat(store.commit(11, 12, Collections.singletonList(K2))).isTrue();
+        assertThat(get(store, 12, K1, K2)).containsExactly(3);
+    }
+
+    @Test
+    public void testPessimisticLock() {
+        MvccStore store = committed(K1, 1, 5, 10);
+        assertThatThrownBy(() -> store.pessimisticLock(Collections.singletonList(put(K1, 2)), K1, 8, 8, 0, false))
+            .isInstanceOf(WriteConflictException.class);
+        assertThatThrownBy(() -> store.preWrite(Collections.singletonList(put(K1, 2)), K1, 12, true, 0))
+            .isInstanceOf(WriteConflictException.class);
+        store.pessimisticLock(Collections.singletonList(put(K1, 2)), K1, 12, 12, 0, false);
+        // the lock does not block the readers
+        assertThat(get(store, 20, K1)).containsExactly(1);
+        store.preWrite(Collections.singletonList(put(K1, 2)), K1, 12, true, 0);
+        assertThat(store.commit(12, 13, Collections.singletonList(K1))).isTrue();
+        assertThat(get(store, 13, K1)).containsExactly(2);
+    }
+
+    @Test
+    public void testPessimisticRollback() {
+        MvccStore store = new MvccStore(new MvccStore.TxnStatus());
+        store.pessimisticLock(Collections.singletonList(put(K1, 1)), K1, 5, 6, 0, false);
+        // a rollback of an earlier statement does not release the lock
+        store.pessimisticRollback(5, 5, Collections.singletonList(K1));
+        assertThatThrownBy(() -> store.pessimisticLock(Collections.singletonList(put(K1, 2)), K1, 8, 8, 0, false))
+            .hasMessageContaining("Lock wait timeout");
+        store.pessimisticRollback(5, 6, Collections.singletonList(K1));
+        store.pessimisticLock(Collections.singletonList(put(K1, 2)), K1, 8, 8, 0, false);
+        store.preWrite(Collections.singletonList(put(K1, 2)), K1, 8, true, 0);
+        assertThat(store.commit(8, 9, Collections.singletonList(K1))).isTrue();
+        assertThat(get(store, 9, K1)).containsExactly(2);
+    }
+
+    @Test
+    public void testLockWaitTimeout() {
+        MvccStore store = new MvccStore(new MvccStore.TxnStatus());
+        store.preWrite(Collections.singletonList(put(K1, 1)), K1, 5, false, 0);
+        assertThatThrownBy(() -> store.get(10, Collections.singletonList(K1), 0))
+            .hasMessageContaining("resolve lock timeout");
+        assertThatThrownBy(() -> store.pessimisticLock(Collections.singletonList(put(K1, 2)), K1, 10, 10, 0, false))
+            .hasMessageContaining("Lock wait timeout");
+    }
+
+    @Test
+    public void testLockWaitResolved() throws Exception {
+        MvccStore store = new MvccStore(new MvccStore.TxnStatus());
+        store.pessimisticLock(Collections.singletonList(put(K1, 1)), K1, 5, 5, 0, false);
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() ->
+            store.pessimisticLock(Collections.singletonList(put(K1, 2)), K1, 10, 10, 10000, true)
+        );
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(waiting).isNotDone();
+        store.pessimisticRollback(5, 5, Collections.singletonList(K1));
+        // the lock is free once waited, the statement is told to retry with a new for update ts
+        assertThatThrownBy(() -> waiting.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(LockWaitException.class);
+    }
+}
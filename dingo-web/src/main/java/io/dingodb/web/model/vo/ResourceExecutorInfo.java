@@ -26,14 +26,18 @@ import java.util.List;
 public class ResourceExecutorInfo extends ResourceInfo{
     private double heapUsage;
     private String nonHeapSize;
+    // Memory held by the running queries, as tracked by the executor.
+    private String execMemory;
 
     public ResourceExecutorInfo(double cpuUsage,
                                 double memUsage,
                                 List<DiskUsageInfo> diskUsage,
                                 double heapUsage,
-                                String nonHeapSize) {
+                                String nonHeapSize,
+                                String execMemory) {
         super(cpuUsage, memUsage, diskUsage);
         this.heapUsage = heapUsage;
         this.nonHeapSize = nonHeapSize;
+        this.execMemory = execMemory;
     }
 }
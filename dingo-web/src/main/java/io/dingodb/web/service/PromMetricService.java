@@ -51,6 +51,7 @@ public class PromMetricService {
     public static final String JVM_HEAP_METRIC = "jvm_memory_bytes_used{area=\"heap\"}";
     public static final String JVM_NON_HEAP_METRIC = "jvm_memory_bytes_used{area=\"nonheap\"}";
     public static final String JVM_MAX_METRIC = "jvm_memory_bytes_max{area=\"heap\"}";
+    public static final String EXEC_MEMORY_METRIC = "metrics_exec_memory_usage_Value";
 
     public static final String PROCESS_CPU_USAGE = "process_cpu_usage";
     public static final String PROCESS_MEMORY_DATA_AND_STACK = "process_memory_data_and_stack";
@@ -79,6 +80,7 @@ public class PromMetricService {
     public Map<String, BigDecimal> jvmHeapMap;
     Map<String, BigDecimal> jvmNonHeapMap;
     Map<String, BigDecimal> jvmMaxMap;
+    Map<String, BigDecimal> execMemoryMap;
 
     Map<String, BigDecimal> processCpuUsageMap;
     Map<String, BigDecimal> processDataStackMemMap;
@@ -98,6 +100,7 @@ public class PromMetricService {
             jvmHeapMap = getDistanceMetric(JVM_HEAP_METRIC, currentTimeSeconds);
             jvmNonHeapMap = getDistanceMetric(JVM_NON_HEAP_METRIC, currentTimeSeconds);
             jvmMaxMap = getDistanceMetric(JVM_MAX_METRIC, currentTimeSeconds);
+            execMemoryMap = getDistanceMetric(EXEC_MEMORY_METRIC, currentTimeSeconds);
 
             diskAvailMap = getDistanceDiskVal(SYSTEM_DISK_AVAIL_METRIC, currentTimeSeconds);
             diskTotalMap = getDistanceDiskVal(SYSTEM_DISK_TOTAL_METRIC, currentTimeSeconds);
@@ -221,12 +224,15 @@ public class PromMetricService {
         double jvmUsage = getJvmUsage(instance);
         BigDecimal nonHeap = getNonHeap(instance);
         double nonHeapVal = nonHeap.divide(FORMAT_DISPLAY_UNITS, 2, RoundingMode.HALF_UP).doubleValue();
+        double execMemoryVal = execMemoryMap.getOrDefault(instance, ZERO)
+            .divide(FORMAT_DISPLAY_UNITS, 2, RoundingMode.HALF_UP).doubleValue();
         return new ResourceExecutorInfo(
             resourceInfo.getCpuUsage(),
             resourceInfo.getMemUsage(),
             resourceInfo.getDiskUsage(),
             jvmUsage,
-            nonHeapVal + "MB");
+            nonHeapVal + "MB",
+            execMemoryVal + "MB");
     }
 
     public List<DiskUsageInfo> getDiskSpaceUsage(String instance) {